@@ -0,0 +1,212 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Realistic inputs for the benchmarks (same values for each run) : <br>
+ *  - identifiers : entity and attribute names in the different naming styles <br>
+ *  - templates : bundle target paths and file headers with '${VAR}' variables <br>
+ *  - texts : descriptions and default values as found in models <br>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public final class BenchmarkCorpus {
+
+	private static final String[] WORDS = {
+		"customer", "order", "item", "product", "category", "invoice", "payment", "address", "country", "city",
+		"employee", "department", "project", "task", "status", "type", "code", "name", "first", "last",
+		"date", "time", "created", "updated", "amount", "price", "quantity", "total", "tax", "discount",
+		"id", "number", "label", "description", "comment", "email", "phone", "zip", "street", "account",
+		"user", "role", "group", "permission", "book", "author", "publisher", "review", "rating", "shop" } ;
+
+	private static final long SEED = 4300L ;
+
+	private BenchmarkCorpus() {
+	}
+
+	/**
+	 * Returns 'n' identifiers (2 to 4 words) : 1/4 camelCase, 1/4 PascalCase, 1/4 snake_case, 1/4 ANACONDA_CASE 
+	 * @param n
+	 * @return
+	 */
+	public static List<String> identifiers(int n) {
+		Random random = new Random(SEED);
+		List<String> list = new ArrayList<>(n);
+		for ( int i = 0 ; i < n ; i++ ) {
+			int numberOfWords = 2 + random.nextInt(3);
+			StringBuilder sb = new StringBuilder();
+			for ( int w = 0 ; w < numberOfWords ; w++ ) {
+				String word = WORDS[random.nextInt(WORDS.length)];
+				switch ( i % 4 ) {
+				case 0 : // camelCase
+					sb.append( w == 0 ? word : capitalize(word) );
+					break;
+				case 1 : // PascalCase
+					sb.append( capitalize(word) );
+					break;
+				case 2 : // snake_case
+					sb.append( w == 0 ? "" : "_" ).append(word);
+					break;
+				default : // ANACONDA_CASE
+					sb.append( w == 0 ? "" : "_" ).append(word.toUpperCase());
+					break;
+				}
+			}
+			list.add(sb.toString());
+		}
+		return list ;
+	}
+
+	/**
+	 * Returns the variables usually defined for a code generation 
+	 * @return
+	 */
+	public static Map<String, String> variables() {
+		Map<String, String> map = new HashMap<>();
+		map.put("ROOT_PKG", "org.demo.bookstore");
+		map.put("ROOT_PKG_FOLDER", "org/demo/bookstore");
+		map.put("ENTITY_PKG", "org.demo.bookstore.entities");
+		map.put("SRC", "src/main/java");
+		map.put("RES", "src/main/resources");
+		map.put("TEST_SRC", "src/test/java");
+		map.put("TEST_RES", "src/test/resources");
+		map.put("WEB", "src/main/webapp");
+		map.put("DOC", "doc");
+		map.put("TMP", "tmp");
+		map.put("MAVEN_ARTIFACT_ID", "bookstore");
+		map.put("MAVEN_GROUP_ID", "org.demo");
+		map.put("PROJECT_NAME", "bookstore");
+		map.put("PROJECT_VERSION", "1.0.0");
+		map.put("BEAN_CLASS", "PurchaseOrder");
+		map.put("AUTHOR", "Telosys");
+		return map ;
+	}
+
+	/**
+	 * Returns 'n' templates (target paths and file headers) 
+	 * @param n
+	 * @return
+	 */
+	public static List<String> templates(int n) {
+		String[] models = {
+			"${SRC}/${ROOT_PKG_FOLDER}/persistence/services/${BEAN_CLASS}Persistence.java",
+			"${SRC}/${ROOT_PKG_FOLDER}/rest/controllers/${BEAN_CLASS}RestController.java",
+			"${TEST_SRC}/${ROOT_PKG_FOLDER}/persistence/${BEAN_CLASS}PersistenceTest.java",
+			"${RES}/META-INF/persistence.xml",
+			"${WEB}/WEB-INF/views/${BEAN_CLASS}/form.jsp",
+			"README.md",
+			"/*\n * Created on ${DATE} ( ${TIME} ) by ${AUTHOR}\n * Project ${PROJECT_NAME} version ${PROJECT_VERSION}\n */\n"
+				+ "package ${ENTITY_PKG};\n\nimport java.io.Serializable;\n\n/**\n * Entity ${BEAN_CLASS} ( ${UNKNOWN} )\n */\n"
+				+ "public class ${BEAN_CLASS} implements Serializable {\n    private static final long serialVersionUID = 1L;\n}\n",
+			"<project><groupId>${MAVEN_GROUP_ID}</groupId><artifactId>${MAVEN_ARTIFACT_ID}</artifactId>"
+				+ "<version>${PROJECT_VERSION}</version><name>${PROJECT_NAME}</name></project>" };
+		List<String> list = new ArrayList<>(n);
+		for ( int i = 0 ; i < n ; i++ ) {
+			list.add(models[i % models.length]);
+		}
+		return list ;
+	}
+
+	/**
+	 * Returns 'n' texts (descriptions, labels and default values, some with XML special characters and blanks) 
+	 * @param n
+	 * @return
+	 */
+	public static List<String> texts(int n) {
+		String[] models = {
+			"Customer first name",
+			"Total amount of the order (tax included)",
+			"Price must be > 0 & < 10000",
+			"Default value is \"N/A\"",
+			"<b>Important</b> : see the 'user guide'",
+			"  Code   of   the   country  ",
+			"ISBN-13 number",
+			"Comment, remarks, etc" };
+		List<String> list = new ArrayList<>(n);
+		for ( int i = 0 ; i < n ; i++ ) {
+			list.add(models[i % models.length]);
+		}
+		return list ;
+	}
+
+	/**
+	 * Returns 'n' texts of the given length for the escaping benchmarks <br>
+	 *  - "CLEAN" : no character to escape <br>
+	 *  - "MOSTLY_CLEAN" : only one character to escape (near the end) <br>
+	 *  - "DIRTY" : one character to escape every 8 characters <br>
+	 * @param n
+	 * @param length
+	 * @param kind
+	 * @return
+	 */
+	public static List<String> escapeTexts(int n, int length, String kind) {
+		String letters = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. " ;
+		String specials = "&<>\"'" ;
+		List<String> list = new ArrayList<>(n);
+		for ( int i = 0 ; i < n ; i++ ) {
+			StringBuilder sb = new StringBuilder(length);
+			for ( int c = 0 ; c < length ; c++ ) {
+				sb.append(letters.charAt((i + c) % letters.length()));
+			}
+			if ( "MOSTLY_CLEAN".equals(kind) ) {
+				sb.setCharAt(length - 1 - ( i % 8 ), specials.charAt(i % specials.length()));
+			}
+			else if ( "DIRTY".equals(kind) ) {
+				for ( int c = i % 8 ; c < length ; c += 8 ) {
+					sb.setCharAt(c, specials.charAt((i + c) % specials.length()));
+				}
+			}
+			list.add(sb.toString());
+		}
+		return list ;
+	}
+
+	/**
+	 * Returns a GitHub 'repositories' page with 'n' repositories (JSON as returned by the GitHub API)
+	 * @param n
+	 * @return
+	 */
+	public static String gitHubRepositoriesPage(int n) {
+		StringBuilder sb = new StringBuilder("[\n");
+		for ( int id = 1 ; id <= n ; id++ ) {
+			if ( id > 1 ) {
+				sb.append(",\n");
+			}
+			sb.append("{ \"id\": ").append(100000 + id).append(", \"node_id\": \"MDEwOlJlcG9zaXRvcnk").append(id)
+				.append("\", \"name\": \"java-bundle-").append(id).append("\", \"full_name\": \"telosys-templates/java-bundle-")
+				.append(id).append("\", \"private\": false, \"owner\": { \"login\": \"telosys-templates\", \"id\": 20856286, ")
+				.append("\"type\": \"Organization\", \"site_admin\": false }, \"html_url\": \"https://github.com/telosys-templates/java-bundle-")
+				.append(id).append("\", \"description\": \"Telosys bundle for Java (JPA, REST, tests) \\u00e9t\\u00e9\", ")
+				.append("\"fork\": false, \"created_at\": \"2019-03-14T10:12:03Z\", \"size\": ").append(id * 37)
+				.append(", \"stargazers_count\": ").append(id % 17).append(", \"language\": \"Velocity\", \"forks_count\": 2, ")
+				.append("\"license\": { \"key\": \"lgpl-3.0\", \"name\": \"GNU Lesser General Public License v3.0\" }, ")
+				.append("\"topics\": [ \"telosys\", \"java\", \"code-generation\" ], \"visibility\": \"public\", ")
+				.append("\"default_branch\": \"master\", \"score\": 1.0 }");
+		}
+		return sb.append("\n]").toString();
+	}
+
+	private static String capitalize(String s) {
+		return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.commons.DateUtil;
+
+/**
+ * DateUtil benchmarks : parsing and formatting (1 thread and 4 threads) 
+ * compared with a new SimpleDateFormat for each call (previous implementation)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateUtilBenchmark {
+
+	private static final int CORPUS_SIZE = 500 ;
+	
+	private String[] dates ;
+	private String[] times ;
+	private String[] dateTimes ;
+	private Date[] values ;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(4300L);
+		dates = new String[CORPUS_SIZE];
+		times = new String[CORPUS_SIZE];
+		dateTimes = new String[CORPUS_SIZE];
+		values = new Date[CORPUS_SIZE];
+		for ( int i = 0 ; i < CORPUS_SIZE ; i++ ) {
+			dates[i] = String.format("%04d-%02d-%02d", 1950 + random.nextInt(100), 1 + random.nextInt(12), 1 + random.nextInt(28));
+			times[i] = String.format("%02d:%02d:%02d", random.nextInt(24), random.nextInt(60), random.nextInt(60));
+			dateTimes[i] = dates[i] + " " + times[i];
+			values[i] = DateUtil.parseDateTime(dateTimes[i]);
+		}
+	}
+
+	//------------------------------------------------------------------------------------
+	// Parsing
+	//------------------------------------------------------------------------------------
+	private void parse(Blackhole blackhole) {
+		for ( int i = 0 ; i < CORPUS_SIZE ; i++ ) {
+			blackhole.consume(DateUtil.parseDate(dates[i]));
+			blackhole.consume(DateUtil.parseTime(times[i]));
+			blackhole.consume(DateUtil.parseDateTime(dateTimes[i]));
+		}
+	}
+
+	private void parseLegacy(Blackhole blackhole) throws ParseException {
+		for ( int i = 0 ; i < CORPUS_SIZE ; i++ ) {
+			blackhole.consume(legacyParse(dates[i], "yyyy-MM-dd"));
+			blackhole.consume(legacyParse(times[i], "HH:mm:ss"));
+			blackhole.consume(legacyParse(dateTimes[i], "yyyy-MM-dd HH:mm:ss"));
+		}
+	}
+
+	@Benchmark
+	public void parseDate(Blackhole blackhole) {
+		parse(blackhole);
+	}
+
+	@Benchmark
+	public void parseDateLegacy(Blackhole blackhole) throws ParseException {
+		parseLegacy(blackhole);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void parseDateConcurrent(Blackhole blackhole) {
+		parse(blackhole);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void parseDateLegacyConcurrent(Blackhole blackhole) throws ParseException {
+		parseLegacy(blackhole);
+	}
+
+	//------------------------------------------------------------------------------------
+	// Formatting
+	//------------------------------------------------------------------------------------
+	private void format(Blackhole blackhole) {
+		for ( Date date : values ) {
+			blackhole.consume(DateUtil.dateTimeISO(date));
+			blackhole.consume(DateUtil.format(date, "dd/MM/yyyy"));
+		}
+	}
+
+	private void formatLegacy(Blackhole blackhole) {
+		for ( Date date : values ) {
+			blackhole.consume(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(date));
+			blackhole.consume(new SimpleDateFormat("dd/MM/yyyy").format(date));
+		}
+	}
+
+	@Benchmark
+	public void formatDate(Blackhole blackhole) {
+		format(blackhole);
+	}
+
+	@Benchmark
+	public void formatDateLegacy(Blackhole blackhole) {
+		formatLegacy(blackhole);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void formatDateConcurrent(Blackhole blackhole) {
+		format(blackhole);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void formatDateLegacyConcurrent(Blackhole blackhole) {
+		formatLegacy(blackhole);
+	}
+
+	private static Date legacyParse(String s, String pattern) throws ParseException {
+		SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+		dateFormat.setLenient(false);
+		return dateFormat.parse(s);
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.commons.CompiledFilter;
+import org.telosys.tools.commons.Filter;
+
+/**
+ * Filter benchmarks : 'keepElement' for each element vs compiled filter (sequential and parallel)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+
+	private static final int CORPUS_SIZE = 100000 ;
+
+	@Param({"2", "4", "8", "50"})
+	private int numberOfCriteria ;
+
+	private List<String> elements ;
+	private List<String> criteria ;
+	private CompiledFilter compiledFilter ;
+
+	@Setup
+	public void setup() {
+		elements = BenchmarkCorpus.identifiers(CORPUS_SIZE);
+		criteria = new ArrayList<>();
+		for ( String identifier : BenchmarkCorpus.identifiers(numberOfCriteria * 4) ) {
+			// a part of a word (not too frequent)
+			if ( identifier.length() > 8 && criteria.size() < numberOfCriteria ) {
+				criteria.add(identifier.substring(2, 7));
+			}
+		}
+		compiledFilter = CompiledFilter.compile(criteria);
+	}
+
+	@Benchmark
+	public void keepElementLoop(Blackhole blackhole) {
+		List<String> result = new ArrayList<>();
+		for ( String element : elements ) {
+			if ( Filter.keepElement(element, criteria) ) {
+				result.add(element);
+			}
+		}
+		blackhole.consume(result);
+	}
+
+	@Benchmark
+	public void compiledFilter(Blackhole blackhole) {
+		blackhole.consume(compiledFilter.filter(elements));
+	}
+
+	@Benchmark
+	public void compiledFilterParallel(Blackhole blackhole) {
+		blackhole.consume(compiledFilter.filter(elements, true));
+	}
+
+	@Benchmark
+	public void compileAndFilter(Blackhole blackhole) {
+		blackhole.consume(CompiledFilter.compile(criteria).filter(elements));
+	}
+}
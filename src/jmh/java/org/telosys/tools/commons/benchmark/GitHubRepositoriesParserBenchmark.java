@@ -0,0 +1,82 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.depot.DepotElement;
+import org.telosys.tools.commons.github.GitHubRepositoriesParser;
+
+/**
+ * GitHub repositories page parsing : streaming parser compared with json-simple (previous implementation)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GitHubRepositoriesParserBenchmark {
+
+	private byte[] page ;
+
+	@Setup
+	public void setup() {
+		page = BenchmarkCorpus.gitHubRepositoriesPage(100).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public List<DepotElement> streamingParser() throws TelosysToolsException {
+		List<DepotElement> elements = new ArrayList<>();
+		new GitHubRepositoriesParser().parse(new ByteArrayInputStream(page), elements);
+		return elements ;
+	}
+
+	@Benchmark
+	public List<DepotElement> jsonSimple() throws ParseException {
+		List<DepotElement> elements = new ArrayList<>();
+		JSONArray array = (JSONArray) new JSONParser().parse(new String(page, StandardCharsets.UTF_8));
+		for ( Object o : array ) {
+			JSONObject jsonObject = (JSONObject) o ;
+			long id = (Long) jsonObject.get("id");
+			elements.add(new DepotElement(id, (String) jsonObject.get("name"), (String) jsonObject.get("description"),
+					(Long) jsonObject.get("size"), (String) jsonObject.get("default_branch"), (String) jsonObject.get("visibility")));
+		}
+		return elements ;
+	}
+}
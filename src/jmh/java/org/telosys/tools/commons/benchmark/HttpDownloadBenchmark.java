@@ -0,0 +1,100 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.http.HttpClient;
+import org.telosys.tools.commons.http.LocalHttpServer;
+
+/**
+ * File download from a local http server : channel transfer ('downloadFileV3') 
+ * compared with the previous stream copy through a byte array ('downloadFileV2') <br>
+ * (the channel mode is not a zero-copy : the socket stream is also read through temporary buffers) <br>
+ * Throughput in MB/s is size / time per operation. <br>
+ * GC pressure : run with the GC profiler ( -prof gc ) and compare 'gc.alloc.rate.norm' (bytes per download)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HttpDownloadBenchmark {
+
+	@Param({"1", "32"})
+	public int sizeInMB ;
+
+	private LocalHttpServer server ;
+	private String url ;
+	private File destination ;
+	private HttpClient httpClient ;
+
+	@Setup
+	public void setup() throws IOException {
+		byte[] content = new byte[sizeInMB * 1024 * 1024];
+		new Random(42).nextBytes(content);
+		server = new LocalHttpServer();
+		server.addHandler("/file.bin", exchange -> {
+			exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+			exchange.sendResponseHeaders(200, content.length);
+			try ( OutputStream os = exchange.getResponseBody() ) {
+				os.write(content);
+			}
+		});
+		server.start();
+		url = server.getURL("/file.bin");
+		destination = File.createTempFile("download-benchmark", ".bin");
+		httpClient = new HttpClient();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		server.stop();
+		Files.deleteIfExists(destination.toPath());
+	}
+
+	@Benchmark
+	public long channelTransfer() throws TelosysToolsException {
+		return httpClient.downloadFile(url, destination.getAbsolutePath(), null);
+	}
+
+	@Benchmark
+	public long streamCopy() throws TelosysToolsException {
+		return httpClient.downloadFile(url, destination.getAbsolutePath());
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.commons.DateUtil;
+import org.telosys.tools.commons.JavaValue;
+
+/**
+ * JavaValue benchmarks : validation of valid and invalid default values 
+ * compared with the validation by parsing (previous implementation)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JavaValueBenchmark {
+
+	private static final String[][] NUMBERS = {
+		{ "int", "12345" }, { "int", "-2147483648" }, { "int", "12a" }, { "int", "" + Long.MAX_VALUE },
+		{ "long", "9876543210" }, { "long", "x" }, { "short", "40000" }, { "byte", "-12" },
+		{ "double", "1234.5678" }, { "double", "1.5e-3" }, { "double", "12,5" }, { "float", "NaN" },
+		{ "java.math.BigDecimal", "1234567890.123456789" }, { "java.math.BigDecimal", "12.5.3" } } ;
+
+	private static final String[][] DATES = {
+		{ "java.util.Date", "2024-02-29" }, { "java.util.Date", "2023-02-29" }, { "java.util.Date", "31/12/2023" },
+		{ "java.sql.Time", "23:59:59" }, { "java.sql.Time", "25:00:00" }, { "java.sql.Time", "noon" },
+		{ "java.sql.Timestamp", "2024-01-15 10:30:00" }, { "java.sql.Timestamp", "2024-01-15T10:30:00" } } ;
+
+	@Benchmark
+	public void numbers(Blackhole blackhole) {
+		for ( String[] value : NUMBERS ) {
+			blackhole.consume(JavaValue.isValidForNumberType(value[1], value[0]));
+		}
+	}
+
+	@Benchmark
+	public void numbersByParsing(Blackhole blackhole) {
+		for ( String[] value : NUMBERS ) {
+			blackhole.consume(isValidNumberByParsing(value[1], value[0]));
+		}
+	}
+
+	@Benchmark
+	public void dates(Blackhole blackhole) {
+		for ( String[] value : DATES ) {
+			blackhole.consume(JavaValue.isValidForDateType(value[1], value[0]));
+		}
+	}
+
+	@Benchmark
+	public void datesByParsing(Blackhole blackhole) {
+		for ( String[] value : DATES ) {
+			blackhole.consume(isValidDateByParsing(value[1], value[0]));
+		}
+	}
+
+	//------------------------------------------------------------------------------------
+	// Previous implementation (reference) 
+	//------------------------------------------------------------------------------------
+	private static boolean isValidNumberByParsing(String value, String type) {
+		try {
+			if ( "byte".equals(type) ) Byte.parseByte(value);
+			else if ( "short".equals(type) ) Short.parseShort(value);
+			else if ( "int".equals(type) ) Integer.parseInt(value);
+			else if ( "long".equals(type) ) Long.parseLong(value);
+			else if ( "float".equals(type) ) Float.parseFloat(value);
+			else if ( "double".equals(type) ) Double.parseDouble(value);
+			else new BigDecimal(value);
+			return true ;
+		} catch (Throwable e) {
+			return false ;
+		}
+	}
+
+	private static boolean isValidDateByParsing(String value, String type) {
+		try {
+			if ( "java.sql.Time".equals(type) ) DateUtil.parseTime(value);
+			else if ( "java.sql.Timestamp".equals(type) ) DateUtil.parseDateTime(value);
+			else DateUtil.parseDate(value);
+			return true ;
+		} catch (Throwable e) {
+			return false ;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.commons.NamingStyle;
+import org.telosys.tools.commons.NamingStyleConverter;
+
+/**
+ * NamingStyleConverter benchmarks : cached conversions, conversions without cache (StringBuilder), 
+ * batch conversion and the previous implementation (reference)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NamingStyleConverterBenchmark {
+
+	private static final int CORPUS_SIZE = 2000 ;
+	
+	private final NamingStyleConverter converter = new NamingStyleConverter();
+	private List<String> identifiers ;
+
+	@Setup
+	public void setup() {
+		identifiers = BenchmarkCorpus.identifiers(CORPUS_SIZE);
+	}
+
+	@Benchmark
+	public void snakeCaseCached(Blackhole blackhole) {
+		for ( String s : identifiers ) {
+			blackhole.consume(converter.toSnakeCase(s));
+		}
+	}
+
+	@Benchmark
+	public void snakeCaseInBuilder(Blackhole blackhole) {
+		StringBuilder sb = new StringBuilder();
+		for ( String s : identifiers ) {
+			sb.setLength(0);
+			converter.appendSnakeCase(s, sb);
+			blackhole.consume(sb);
+		}
+	}
+
+	@Benchmark
+	public void snakeCaseLegacy(Blackhole blackhole) {
+		for ( String s : identifiers ) {
+			blackhole.consume(legacyToSnakeCase(s));
+		}
+	}
+
+	@Benchmark
+	public void camelCaseCached(Blackhole blackhole) {
+		for ( String s : identifiers ) {
+			blackhole.consume(converter.toCamelCase(s));
+		}
+	}
+
+	@Benchmark
+	public void camelCaseInBuilder(Blackhole blackhole) {
+		StringBuilder sb = new StringBuilder();
+		for ( String s : identifiers ) {
+			sb.setLength(0);
+			converter.appendCamelCase(s, sb);
+			blackhole.consume(sb);
+		}
+	}
+
+	@Benchmark
+	public void camelCaseLegacy(Blackhole blackhole) {
+		for ( String s : identifiers ) {
+			blackhole.consume(legacyUncapitalize(legacyToPascalCase(s)));
+		}
+	}
+
+	@Benchmark
+	public void anacondaCaseCached(Blackhole blackhole) {
+		for ( String s : identifiers ) {
+			blackhole.consume(converter.toAnacondaCase(s));
+		}
+	}
+
+	@Benchmark
+	public void anacondaCaseLegacy(Blackhole blackhole) {
+		for ( String s : identifiers ) {
+			blackhole.consume(legacyToSnakeCase(s).toUpperCase());
+		}
+	}
+
+	@Benchmark
+	public List<String> pascalCaseBatch() {
+		return converter.convert(identifiers, NamingStyle.PASCAL_CASE);
+	}
+
+	//------------------------------------------------------------------------------------
+	// Previous implementation (reference) 
+	//------------------------------------------------------------------------------------
+	private static String legacyToSnakeCase(String s) {
+		if ( s.indexOf('_') >= 0 ) {
+			return s.toLowerCase();
+		}
+		boolean upperCase = ! s.isEmpty() ;
+		for (char c : s.toCharArray()) {
+			if ( ! ( Character.isUpperCase(c) || Character.isDigit(c) ) ) {
+				upperCase = false ;
+			}
+		}
+		if ( upperCase ) {
+			return s.toLowerCase();
+		}
+		StringBuilder sb = new StringBuilder();
+		boolean started = false ;
+		char lastCharAdded = 0;
+		for (char c : s.toCharArray()) {
+		    if (Character.isUpperCase(c) && started && lastCharAdded != '_' ) {
+	    		lastCharAdded = '_' ;
+		        sb.append(lastCharAdded);
+		    }
+		    if ( c != ' ' ) {
+		    	lastCharAdded = Character.toLowerCase(c);
+		        sb.append(lastCharAdded);
+		        started = true ;
+		    }
+		}
+		return sb.toString();
+	}
+
+	private static String legacyToPascalCase(String s) {
+		StringBuilder sb = new StringBuilder();
+		boolean started = false ;
+		boolean previousIsSeparator = false;
+		for (char c : s.toCharArray()) {
+		    if (c == '_') {
+		    	previousIsSeparator = true ;
+		    }
+		    else if ( c != ' ' ) {
+		    	if ( previousIsSeparator || ! started ) {
+		    		sb.append(Character.toUpperCase(c));
+		    	}
+		    	else {
+		    		sb.append(Character.toLowerCase(c));
+		    	}
+		    	previousIsSeparator = false ;
+		    	started = true ;
+		    }
+		}
+		return sb.toString();
+	}
+
+	private static String legacyUncapitalize(String s) {
+		if ( ! s.isEmpty() ) {
+			char[] charArray = s.toCharArray();
+			charArray[0] = Character.toLowerCase(charArray[0]);
+			return new String(charArray);
+		}
+		return s ;
+	}
+}
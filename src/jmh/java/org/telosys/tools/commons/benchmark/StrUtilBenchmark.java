@@ -0,0 +1,107 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.commons.StrTokenizer;
+import org.telosys.tools.commons.StrUtil;
+
+/**
+ * StrUtil and StrTokenizer benchmarks (each operation applied to the whole corpus)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StrUtilBenchmark {
+
+	private static final int CORPUS_SIZE = 1000 ;
+	
+	private List<String> identifiers ;
+	private List<String> templates ;
+	private List<String> texts ;
+
+	@Setup
+	public void setup() {
+		identifiers = BenchmarkCorpus.identifiers(CORPUS_SIZE);
+		templates = BenchmarkCorpus.templates(CORPUS_SIZE);
+		texts = BenchmarkCorpus.texts(CORPUS_SIZE);
+	}
+
+	@Benchmark
+	public void split(Blackhole blackhole) {
+		for ( String s : templates ) {
+			blackhole.consume(StrUtil.split(s, '/'));
+		}
+	}
+
+	@Benchmark
+	public void tokenizer(Blackhole blackhole) {
+		StrTokenizer tokenizer = new StrTokenizer('/', true);
+		for ( String s : templates ) {
+			tokenizer.reset(s);
+			while ( tokenizer.next() ) {
+				blackhole.consume(tokenizer.length());
+			}
+		}
+	}
+
+	@Benchmark
+	public void replaceVar(Blackhole blackhole) {
+		for ( String s : templates ) {
+			blackhole.consume(StrUtil.replaceVar(s, "${BEAN_CLASS}", "PurchaseOrder"));
+		}
+	}
+
+	@Benchmark
+	public void removeAllBlanks(Blackhole blackhole) {
+		for ( String s : texts ) {
+			blackhole.consume(StrUtil.removeAllBlanks(s));
+		}
+	}
+
+	@Benchmark
+	public void toCamelCase(Blackhole blackhole) {
+		for ( String s : identifiers ) {
+			blackhole.consume(StrUtil.toCamelCase(s));
+		}
+	}
+
+	@Benchmark
+	public void getProtectedString(Blackhole blackhole) {
+		for ( String s : texts ) {
+			blackhole.consume(StrUtil.getProtectedString(s));
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.commons.variables.VariablesManager;
+import org.telosys.tools.commons.variables.VariablesTemplate;
+
+/**
+ * VariablesManager benchmarks : replacement with the compiled templates (cached or not), 
+ * streaming replacement and the previous recursive implementation (reference)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VariablesManagerBenchmark {
+
+	private static final int CORPUS_SIZE = 1000 ;
+	
+	private Map<String, String> variables ;
+	private VariablesManager variablesManager ;
+	private List<String> templates ;
+	private List<VariablesTemplate> compiledTemplates ;
+	private String largeText ;
+
+	@Setup
+	public void setup() {
+		variables = BenchmarkCorpus.variables();
+		variablesManager = new VariablesManager(variables);
+		templates = BenchmarkCorpus.templates(CORPUS_SIZE);
+		compiledTemplates = new ArrayList<>(CORPUS_SIZE);
+		StringBuilder sb = new StringBuilder();
+		for ( String s : templates ) {
+			compiledTemplates.add(new VariablesTemplate(s));
+			sb.append(s).append('\n');
+		}
+		largeText = sb.toString();
+	}
+
+	@Benchmark
+	public void replaceVariables(Blackhole blackhole) {
+		for ( String s : templates ) {
+			blackhole.consume(variablesManager.replaceVariables(s));
+		}
+	}
+
+	@Benchmark
+	public void replaceVariablesInTemplate(Blackhole blackhole) {
+		for ( VariablesTemplate template : compiledTemplates ) {
+			blackhole.consume(variablesManager.replaceVariablesInTemplate(template));
+		}
+	}
+
+	@Benchmark
+	public void replaceVariablesLegacy(Blackhole blackhole) {
+		for ( String s : templates ) {
+			blackhole.consume(legacyReplaceVariables(s));
+		}
+	}
+
+	@Benchmark
+	public String replaceVariablesInStream() throws IOException {
+		StringWriter writer = new StringWriter(largeText.length() + 1024);
+		variablesManager.replaceVariables(new StringReader(largeText), writer);
+		return writer.toString();
+	}
+
+	//------------------------------------------------------------------------------------
+	// Previous implementation (reference) 
+	//------------------------------------------------------------------------------------
+	private String legacyReplaceVariables(String s) {
+		if ( s.length() < 3 ) {
+			return s ;
+		}
+		StringBuilder sb = new StringBuilder();
+		legacyReplaceVariables(s, sb);
+		return sb.toString();
+	}
+
+	private void legacyReplaceVariables(String s, StringBuilder sb) {
+		int i = s.indexOf("${");
+		if ( i >= 0 ) {
+			int j = s.indexOf('}');
+			if ( j > i ) {
+				String symbolicVariableName = s.substring(i, j + 1); // "${MYVAR}"
+				String name = symbolicVariableName.substring(2);
+				String varValue = variables.get(name.substring(0, name.length() - 1));
+				sb.append(s.substring(0, i));
+				sb.append( varValue != null ? varValue : symbolicVariableName );
+				// recursive call 
+				legacyReplaceVariables(s.substring(j + 1), sb);
+			}
+		}
+		else {
+			sb.append(s);
+		}
+	}
+}
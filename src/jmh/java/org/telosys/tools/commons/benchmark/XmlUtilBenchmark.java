@@ -0,0 +1,161 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.telosys.tools.commons.StrUtil;
+import org.telosys.tools.commons.XmlUtil;
+
+/**
+ * Escaping benchmarks : XmlUtil.escapeXml and StrUtil.getProtectedString <br>
+ * with clean texts (nothing to escape), mostly clean texts (one char to escape) and dirty texts <br>
+ * (compared with the previous implementations) 
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlUtilBenchmark {
+
+	private static final int CORPUS_SIZE = 1000 ;
+	
+	@Param({"CLEAN", "MOSTLY_CLEAN", "DIRTY"})
+	private String kind ;
+	
+	@Param({"16", "256"})
+	private int length ;
+	
+	private List<String> texts ;
+
+	@Setup
+	public void setup() {
+		texts = BenchmarkCorpus.escapeTexts(CORPUS_SIZE, length, kind);
+	}
+
+	@Benchmark
+	public void escapeXml(Blackhole blackhole) {
+		for ( String s : texts ) {
+			blackhole.consume(XmlUtil.escapeXml(s));
+		}
+	}
+
+	@Benchmark
+	public void escapeXmlLegacy(Blackhole blackhole) {
+		for ( String s : texts ) {
+			blackhole.consume(legacyEscapeXml(s));
+		}
+	}
+
+	@Benchmark
+	public void escapeXmlToWriter(Blackhole blackhole) throws IOException {
+		StringWriter writer = new StringWriter(CORPUS_SIZE * length * 2);
+		for ( String s : texts ) {
+			XmlUtil.escapeXml(s, writer);
+		}
+		blackhole.consume(writer);
+	}
+
+	@Benchmark
+	public void getProtectedString(Blackhole blackhole) {
+		for ( String s : texts ) {
+			blackhole.consume(StrUtil.getProtectedString(s));
+		}
+	}
+
+	@Benchmark
+	public void getProtectedStringLegacy(Blackhole blackhole) {
+		for ( String s : texts ) {
+			blackhole.consume(legacyGetProtectedString(s));
+		}
+	}
+
+	//-----------------------------------------------------------------------------------
+	// Previous implementations (copies)
+	//-----------------------------------------------------------------------------------
+	private static final char[][] xmlRepresentation = new char['>' + 1][];
+	static {
+		xmlRepresentation['&'] = "&amp;".toCharArray();
+		xmlRepresentation['<'] = "&lt;".toCharArray();
+		xmlRepresentation['>'] = "&gt;".toCharArray();
+		xmlRepresentation['"'] = "&#034;".toCharArray();
+		xmlRepresentation['\''] = "&#039;".toCharArray();
+	}
+	
+	private static String legacyEscapeXml(String originalString) {
+		int start = 0;
+		int length = originalString.length();
+		char[] arrayBuffer = originalString.toCharArray();
+		StringBuilder escapedStringBuffer = null;
+		for (int i = 0; i < length; i++) {
+			char c = arrayBuffer[i];
+			if (c <= '>') {
+				char[] escaped = xmlRepresentation[c];
+				if (escaped != null) {
+					if (start == 0) {
+						escapedStringBuffer = new StringBuilder(length + 5);
+					}
+					if (start < i) {
+						escapedStringBuffer.append(arrayBuffer,start,i-start);
+					}
+					start = i + 1;
+					escapedStringBuffer.append(escaped);
+				}
+			}
+		}
+		if (start == 0) {
+			return originalString;
+		}
+		if (start < length) {
+			escapedStringBuffer.append(arrayBuffer,start,length-start);
+		}
+		return escapedStringBuffer.toString();
+	}
+
+	private static String legacyGetProtectedString(String s) {
+		StringBuilder sb = new StringBuilder(100);
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"') {
+				sb.append("&quot;");
+			}
+			else {
+				sb.append(c);
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,246 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie of literal strings used by CompiledFilter <br>
+ * Can be used to check if a string starts with (or ends with) one of the literals <br>
+ * or, once converted to an Aho-Corasick automaton, if a string contains one of the literals 
+ * (single pass on the string whatever the number of literals) <br>
+ * 
+ * The transitions of ASCII characters are stored in arrays (no boxing), 
+ * other characters use a map per state <br>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+final class CharTrie {
+
+	private static final int ASCII_SIZE = 128 ;
+	private static final int ROOT = 0 ;
+	private static final int NONE = -1 ;
+
+	private final List<int[]> asciiNext = new ArrayList<>();
+	private final List<Map<Character, Integer>> otherNext = new ArrayList<>();
+	private final List<Boolean> terminalList = new ArrayList<>();
+
+	// built by 'compile'
+	private boolean[] terminal ;
+	private int[] delta ; // Aho-Corasick transitions for ASCII chars (complete, flat table : state * 128 + char)
+	private int[] fail ; // Aho-Corasick failure links
+	private boolean automaton = false ;
+
+	/**
+	 * Constructor (empty trie with only the root state)
+	 */
+	CharTrie() {
+		newState();
+	}
+
+	private int newState() {
+		int[] next = new int[ASCII_SIZE];
+		Arrays.fill(next, NONE);
+		asciiNext.add(next);
+		otherNext.add(null);
+		terminalList.add(Boolean.FALSE);
+		return asciiNext.size() - 1 ;
+	}
+
+	private int gotoState(int state, char c) {
+		if ( c < ASCII_SIZE ) {
+			return asciiNext.get(state)[c];
+		}
+		else {
+			Map<Character, Integer> map = otherNext.get(state);
+			if ( map != null ) {
+				Integer next = map.get(c);
+				if ( next != null ) {
+					return next ;
+				}
+			}
+			return NONE ;
+		}
+	}
+
+	/**
+	 * Adds the given literal in the trie
+	 * @param literal
+	 * @param reverse true to add the characters in the reverse order (for 'ends with')
+	 */
+	void add(String literal, boolean reverse) {
+		if ( terminal != null ) {
+			throw new IllegalStateException("Trie already compiled");
+		}
+		int state = ROOT ;
+		int length = literal.length();
+		for ( int i = 0 ; i < length ; i++ ) {
+			char c = literal.charAt( reverse ? length - 1 - i : i );
+			int next = gotoState(state, c);
+			if ( next == NONE ) {
+				next = newState();
+				if ( c < ASCII_SIZE ) {
+					asciiNext.get(state)[c] = next ;
+				}
+				else {
+					Map<Character, Integer> map = otherNext.get(state);
+					if ( map == null ) {
+						map = new HashMap<>();
+						otherNext.set(state, map);
+					}
+					map.put(c, next);
+				}
+			}
+			state = next ;
+		}
+		terminalList.set(state, Boolean.TRUE);
+	}
+
+	/**
+	 * Returns true if the trie contains at least one literal
+	 * @return
+	 */
+	boolean isEmpty() {
+		return asciiNext.size() == 1 && ! terminalList.get(ROOT) ;
+	}
+
+	/**
+	 * Terminates the construction of the trie (no more literal can be added)
+	 * @param buildAutomaton true to build the Aho-Corasick automaton (for 'containsAny')
+	 */
+	void compile(boolean buildAutomaton) {
+		int size = asciiNext.size();
+		terminal = new boolean[size];
+		for ( int s = 0 ; s < size ; s++ ) {
+			terminal[s] = terminalList.get(s);
+		}
+		if ( buildAutomaton ) {
+			buildAutomaton(size);
+		}
+	}
+
+	private void buildAutomaton(int size) {
+		fail = new int[size];
+		delta = new int[size * ASCII_SIZE];
+		//--- Breadth-first traversal : the failure state is always processed before the state
+		int[] queue = new int[size];
+		int head = 0 ;
+		int tail = 0 ;
+		queue[tail++] = ROOT ;
+		while ( head < tail ) {
+			int state = queue[head++];
+			int[] next = asciiNext.get(state);
+			int row = state * ASCII_SIZE ;
+			int failRow = fail[state] * ASCII_SIZE ;
+			for ( int c = 0 ; c < ASCII_SIZE ; c++ ) {
+				int child = next[c];
+				if ( child != NONE ) {
+					fail[child] = ( state == ROOT ? ROOT : delta[failRow + c] );
+					delta[row + c] = child ;
+					queue[tail++] = child ;
+				}
+				else {
+					delta[row + c] = ( state == ROOT ? ROOT : delta[failRow + c] );
+				}
+			}
+			Map<Character, Integer> map = otherNext.get(state);
+			if ( map != null ) {
+				for ( Map.Entry<Character, Integer> entry : map.entrySet() ) {
+					int child = entry.getValue();
+					fail[child] = ( state == ROOT ? ROOT : nextOther(fail[state], entry.getKey()) );
+					queue[tail++] = child ;
+				}
+			}
+			// a state is terminal if one of its suffixes is terminal
+			terminal[state] = terminal[state] || ( state != ROOT && terminal[fail[state]] ) ;
+		}
+		automaton = true ;
+	}
+
+	private int nextOther(int state, char c) {
+		int s = state ;
+		while ( true ) {
+			int next = gotoState(s, c);
+			if ( next != NONE ) {
+				return next ;
+			}
+			if ( s == ROOT ) {
+				return ROOT ;
+			}
+			s = fail[s];
+		}
+	}
+
+	/**
+	 * Returns true if the given string contains at least one of the literals 
+	 * @param s
+	 * @return
+	 */
+	boolean containsAny(String s) {
+		if ( ! automaton ) {
+			throw new IllegalStateException("Automaton not built");
+		}
+		if ( terminal[ROOT] ) {
+			return true ; // void literal
+		}
+		int state = ROOT ;
+		int length = s.length();
+		for ( int i = 0 ; i < length ; i++ ) {
+			char c = s.charAt(i);
+			state = ( c < ASCII_SIZE ? delta[state * ASCII_SIZE + c] : nextOther(state, c) ) ;
+			if ( terminal[state] ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	/**
+	 * Returns true if the given string starts with at least one of the literals 
+	 * @param s
+	 * @return
+	 */
+	boolean startsWithAny(String s) {
+		int state = ROOT ;
+		int length = s.length();
+		for ( int i = 0 ; ! terminal[state] ; i++ ) {
+			if ( i == length || ( state = gotoState(state, s.charAt(i)) ) == NONE ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	/**
+	 * Returns true if the given string ends with at least one of the literals (added in reverse order)
+	 * @param s
+	 * @return
+	 */
+	boolean endsWithAny(String s) {
+		int state = ROOT ;
+		for ( int i = s.length() - 1 ; ! terminal[state] ; i-- ) {
+			if ( i < 0 || ( state = gotoState(state, s.charAt(i)) ) == NONE ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+}
@@ -0,0 +1,311 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Filter compiled once for a set of criteria and usable for any number of elements <br>
+ * 
+ * Two kinds of criteria : <br>
+ *  - plain criteria (same semantics as 'Filter') : an element is kept if it contains at least one criterion <br>
+ *  - glob patterns with '*' (any sequence of chars) and '?' (any char) : an element is kept if it matches 
+ *    at least one pattern (the whole element) <br>
+ *  
+ * The criteria are merged in automatons (Aho-Corasick for 'contains', tries for 'starts with' and 'ends with') <br>
+ * so each element is checked in a single pass whatever the number of criteria. <br>
+ * 
+ * A compiled filter is immutable and thread-safe <br>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public final class CompiledFilter {
+
+	private static final char ANY_CHARS = '*' ;
+	private static final char ANY_CHAR  = '?' ;
+
+	private static final CompiledFilter ALL = new CompiledFilter(true) ;
+
+	// below this number of criteria 'String.contains' (JDK intrinsic) is faster than the automaton
+	private static final int MIN_CRITERIA_FOR_AUTOMATON = 6 ;
+
+	private final boolean all ;
+	private String[] literals = null ; // 'contains' with a few criteria 
+	private CharTrie containsTrie = null ;
+	private CharTrie prefixTrie = null ;
+	private CharTrie suffixTrie = null ;
+	private Set<String> exactValues = null ;
+	private List<String> globPatterns = null ;
+
+	private CompiledFilter(boolean all) {
+		super();
+		this.all = all ;
+	}
+
+	/**
+	 * Compiles the given plain criterion (same semantics as 'Filter.filter(List, String)')
+	 * @param criterion
+	 * @return
+	 */
+	public static CompiledFilter compile(String criterion) {
+		if ( Filter.noCriterion(criterion) ) {
+			return ALL ;
+		}
+		CompiledFilter compiledFilter = new CompiledFilter(false);
+		compiledFilter.literals = new String[] { criterion } ;
+		return compiledFilter ;
+	}
+
+	/**
+	 * Compiles the given plain criteria (same semantics as 'Filter.filter(List, List)') <br>
+	 * an element is kept if it contains at least one criterion
+	 * @param criteria
+	 * @return
+	 */
+	public static CompiledFilter compile(List<String> criteria) {
+		if ( Filter.noCriteria(criteria) ) {
+			return ALL ;
+		}
+		checkCriteria(criteria);
+		CompiledFilter compiledFilter = new CompiledFilter(false);
+		if ( criteria.size() < MIN_CRITERIA_FOR_AUTOMATON ) {
+			compiledFilter.literals = criteria.toArray(new String[criteria.size()]);
+			return compiledFilter ;
+		}
+		compiledFilter.containsTrie = new CharTrie();
+		for ( String criterion : criteria ) {
+			compiledFilter.containsTrie.add(criterion, false);
+		}
+		compiledFilter.containsTrie.compile(true);
+		return compiledFilter ;
+	}
+
+	/**
+	 * Compiles the given glob patterns <br>
+	 * an element is kept if it matches at least one pattern <br>
+	 * '*' : any sequence of characters (including void) <br>
+	 * '?' : any single character <br>
+	 * Examples : "foo*", "*bar", "*foo*", "f?o*bar", "foo" (equals) 
+	 * @param patterns
+	 * @return
+	 */
+	public static CompiledFilter compileGlob(List<String> patterns) {
+		if ( Filter.noCriteria(patterns) ) {
+			return ALL ;
+		}
+		checkCriteria(patterns);
+		CompiledFilter compiledFilter = new CompiledFilter(false);
+		for ( String pattern : patterns ) {
+			if ( ! compiledFilter.addGlob(pattern) ) {
+				return ALL ; // pattern matching any element
+			}
+		}
+		compiledFilter.compileTries();
+		return compiledFilter ;
+	}
+
+	private static void checkCriteria(List<String> criteria) {
+		for ( String criterion : criteria ) {
+			if ( criterion == null ) {
+				throw new IllegalArgumentException("Null criterion");
+			}
+		}
+	}
+
+	/**
+	 * Adds the given glob pattern in the most efficient structure
+	 * @param pattern
+	 * @return false if the pattern matches any element 
+	 */
+	private boolean addGlob(String pattern) {
+		int length = pattern.length();
+		int start = 0 ;
+		while ( start < length && pattern.charAt(start) == ANY_CHARS ) {
+			start++;
+		}
+		if ( start == length && length > 0 ) {
+			return false ; // "*", "**", etc
+		}
+		int end = length ;
+		while ( end > start && pattern.charAt(end - 1) == ANY_CHARS ) {
+			end--;
+		}
+		String literal = pattern.substring(start, end);
+		if ( literal.indexOf(ANY_CHARS) >= 0 || literal.indexOf(ANY_CHAR) >= 0 ) {
+			// general pattern 
+			if ( globPatterns == null ) {
+				globPatterns = new ArrayList<>();
+			}
+			globPatterns.add(pattern);
+		}
+		else if ( start > 0 && end < length ) {
+			// "*xxx*"
+			containsTrie = add(containsTrie, literal, false);
+		}
+		else if ( end < length ) {
+			// "xxx*"
+			prefixTrie = add(prefixTrie, literal, false);
+		}
+		else if ( start > 0 ) {
+			// "*xxx"
+			suffixTrie = add(suffixTrie, literal, true);
+		}
+		else {
+			// "xxx"
+			if ( exactValues == null ) {
+				exactValues = new HashSet<>();
+			}
+			exactValues.add(literal);
+		}
+		return true ;
+	}
+
+	private CharTrie add(CharTrie trie, String literal, boolean reverse) {
+		CharTrie t = ( trie != null ? trie : new CharTrie() );
+		t.add(literal, reverse);
+		return t ;
+	}
+
+	private void compileTries() {
+		if ( containsTrie != null ) {
+			containsTrie.compile(true);
+		}
+		if ( prefixTrie != null ) {
+			prefixTrie.compile(false);
+		}
+		if ( suffixTrie != null ) {
+			suffixTrie.compile(false);
+		}
+	}
+
+	/**
+	 * Returns true if this filter keeps all the elements (no criteria)
+	 * @return
+	 */
+	public boolean isMatchAll() {
+		return all ;
+	}
+
+	/**
+	 * Returns true if the given element must be kept 
+	 * @param element
+	 * @return
+	 */
+	public boolean matches(String element) {
+		if ( all ) {
+			return true ;
+		}
+		if ( literals != null ) {
+			for ( String literal : literals ) {
+				if ( element.contains(literal) ) {
+					return true ;
+				}
+			}
+			return false ;
+		}
+		return ( exactValues != null && exactValues.contains(element) ) 
+			|| ( prefixTrie != null && prefixTrie.startsWithAny(element) ) 
+			|| ( suffixTrie != null && suffixTrie.endsWithAny(element) ) 
+			|| ( containsTrie != null && containsTrie.containsAny(element) ) 
+			|| ( globPatterns != null && matchesAnyGlob(element) ) ;
+	}
+
+	private boolean matchesAnyGlob(String element) {
+		for ( String pattern : globPatterns ) {
+			if ( globMatches(pattern, element) ) {
+				return true ;
+			}
+		}
+		return false ;
+	}
+
+	/**
+	 * Filters the given list 
+	 * @param elements
+	 * @return the same list if no criteria, else a new list with the elements to keep (in the same order)
+	 */
+	public List<String> filter(List<String> elements) {
+		return filter(elements, false);
+	}
+
+	/**
+	 * Filters the given list 
+	 * @param elements
+	 * @param parallel true to check the elements in parallel (for very large lists) 
+	 * @return the same list if no criteria, else a new list with the elements to keep (in the same order)
+	 */
+	public List<String> filter(List<String> elements, boolean parallel) {
+		if ( all ) {
+			return elements ;
+		}
+		if ( parallel ) {
+			return elements.parallelStream().filter(this::matches).collect(Collectors.toList());
+		}
+		else {
+			List<String> result = new ArrayList<>();
+			for ( String element : elements ) {
+				if ( matches(element) ) {
+					result.add(element);
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Returns true if the given string matches the given glob pattern ('*' and '?') <br>
+	 * (linear scan with backtracking on the last '*' only)
+	 * @param pattern
+	 * @param s
+	 * @return
+	 */
+	static boolean globMatches(String pattern, String s) {
+		int patternLength = pattern.length();
+		int length = s.length();
+		int p = 0 ;
+		int i = 0 ;
+		int starPosition = -1 ;
+		int starMatchEnd = 0 ;
+		while ( i < length ) {
+			char pc = ( p < patternLength ? pattern.charAt(p) : 0 );
+			if ( p < patternLength && pc == ANY_CHARS ) {
+				starPosition = p++ ;
+				starMatchEnd = i ;
+			}
+			else if ( p < patternLength && ( pc == ANY_CHAR || pc == s.charAt(i) ) ) {
+				p++ ;
+				i++ ;
+			}
+			else if ( starPosition >= 0 ) {
+				// the last '*' takes one more char
+				p = starPosition + 1 ;
+				i = ++starMatchEnd ;
+			}
+			else {
+				return false ;
+			}
+		}
+		while ( p < patternLength && pattern.charAt(p) == ANY_CHARS ) {
+			p++ ;
+		}
+		return p == patternLength ;
+	}
+}
@@ -0,0 +1,376 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Date formatting and parsing engine used by DateUtil <br>
+ *  - ISO formats : direct conversion (no formatter, no parsing object) <br>
+ *  - other patterns : immutable DateTimeFormatter cached by pattern <br>
+ *  - fallback : SimpleDateFormat cached by thread and by pattern <br>
+ * The results are the same as with a new SimpleDateFormat in the default time zone : <br>
+ * the fast paths are only used when the result is known to be identical 
+ * (years from 1900 to 2099, no time zone gap or overlap, pattern letters with the same meaning) 
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+final class DateFormatEngine {
+
+	static final int MIN_YEAR = 1900 ;
+	static final int MAX_YEAR = 2099 ;
+	
+	// pattern letters with the same meaning for SimpleDateFormat and DateTimeFormatter
+	// (not more than 4 letters : 5 letters have another meaning)
+	private static final String SAME_MEANING_LETTERS = "GyYMdHhmsaEKkL" ;
+	private static final int    MAX_LETTERS = 4 ;
+	
+	// max number of formatters kept for a locale (an entry is evicted when reached)
+	private static final int FORMATTERS_CACHE_MAX_SIZE = 500 ;
+	// max length of a pattern kept in the cache 
+	private static final int FORMATTERS_CACHE_MAX_PATTERN_LENGTH = 64 ;
+	
+	// DateTimeFormatter by locale and by pattern (or NO_FORMATTER if the pattern is not usable)
+	private static final Map<Locale, Map<String, DateTimeFormatter>> formatters = new ConcurrentHashMap<>();
+	private static final DateTimeFormatter NO_FORMATTER = DateTimeFormatter.ISO_INSTANT ;
+	
+	// locales where SimpleDateFormat uses the gregorian calendar and ASCII digits 
+	private static final Map<Locale, Boolean> fastPathLocales = new ConcurrentHashMap<>();
+
+	// SimpleDateFormat by pattern for each thread (fallback)
+	private static final ThreadLocal<Map<Locale, Map<String, SimpleDateFormat>>> simpleDateFormats = 
+			ThreadLocal.withInitial(HashMap::new);
+	
+	/**
+	 * Private constructor
+	 */
+	private DateFormatEngine() {
+	}
+	
+	//----------------------------------------------------------------------------------------------
+	// FORMAT
+	//----------------------------------------------------------------------------------------------
+	/**
+	 * Formats the given date with the given pattern (SimpleDateFormat syntax)
+	 * @param date
+	 * @param pattern
+	 * @return
+	 */
+	protected static String format(java.util.Date date, String pattern) {
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		DateTimeFormatter formatter = getFormatter(pattern, locale);
+		if ( formatter != NO_FORMATTER ) {
+			LocalDateTime ldt = toLocalDateTime(date.getTime());
+			if ( ldt != null ) {
+				return formatter.format(ldt);
+			}
+		}
+		return getSimpleDateFormat(pattern, false).format(date);
+	}
+	
+	/**
+	 * Formats the given date in ISO format 'yyyy-MM-dd'
+	 * @param date
+	 * @return
+	 */
+	protected static String formatDateISO(java.util.Date date) {
+		LocalDateTime ldt = toLocalDateTime(date.getTime());
+		if ( ldt == null ) {
+			return getSimpleDateFormat(DateUtil.DATE_ISO_FORMAT, false).format(date);
+		}
+		char[] chars = new char[10];
+		writeDate(ldt, chars, 0);
+		return new String(chars);
+	}
+	
+	/**
+	 * Formats the given date in ISO format 'HH:mm:ss'
+	 * @param date
+	 * @return
+	 */
+	protected static String formatTimeISO(java.util.Date date) {
+		LocalDateTime ldt = toLocalDateTime(date.getTime());
+		if ( ldt == null ) {
+			return getSimpleDateFormat(DateUtil.TIME_ISO_FORMAT, false).format(date);
+		}
+		char[] chars = new char[8];
+		writeTime(ldt, chars, 0);
+		return new String(chars);
+	}
+	
+	/**
+	 * Formats the given date in ISO format 'yyyy-MM-dd HH:mm:ss'
+	 * @param date
+	 * @return
+	 */
+	protected static String formatDateTimeISO(java.util.Date date) {
+		LocalDateTime ldt = toLocalDateTime(date.getTime());
+		if ( ldt == null ) {
+			return getSimpleDateFormat(DateUtil.DATE_TIME_ISO_FORMAT, false).format(date);
+		}
+		char[] chars = new char[19];
+		writeDate(ldt, chars, 0);
+		chars[10] = ' ' ;
+		writeTime(ldt, chars, 11);
+		return new String(chars);
+	}
+	
+	private static void writeDate(LocalDateTime ldt, char[] chars, int offset) {
+		write4(ldt.getYear(), chars, offset);
+		chars[offset + 4] = '-' ;
+		write2(ldt.getMonthValue(), chars, offset + 5);
+		chars[offset + 7] = '-' ;
+		write2(ldt.getDayOfMonth(), chars, offset + 8);
+	}
+	
+	private static void writeTime(LocalDateTime ldt, char[] chars, int offset) {
+		write2(ldt.getHour(), chars, offset);
+		chars[offset + 2] = ':' ;
+		write2(ldt.getMinute(), chars, offset + 3);
+		chars[offset + 5] = ':' ;
+		write2(ldt.getSecond(), chars, offset + 6);
+	}
+	
+	private static void write2(int value, char[] chars, int offset) {
+		chars[offset]     = (char) ('0' + value / 10);
+		chars[offset + 1] = (char) ('0' + value % 10);
+	}
+	
+	private static void write4(int value, char[] chars, int offset) {
+		write2(value / 100, chars, offset);
+		write2(value % 100, chars, offset + 2);
+	}
+	
+	/**
+	 * Returns the local date-time for the given epoch millis in the default time zone <br>
+	 * or null if out of the 'fast path' range 
+	 * @param millis
+	 * @return
+	 */
+	private static LocalDateTime toLocalDateTime(long millis) {
+		if ( ! isFastPathLocale() ) {
+			return null ;
+		}
+		TimeZone timeZone = TimeZone.getDefault();
+		ZoneOffset offset = timeZone.toZoneId().getRules().getOffset(Instant.ofEpochMilli(millis));
+		if ( offset.getTotalSeconds() * 1000 != timeZone.getOffset(millis) ) {
+			return null ; // different offset for java.time and TimeZone (eg 'LMT')
+		}
+		long seconds = Math.floorDiv(millis, 1000L);
+		int nanos = (int) Math.floorMod(millis, 1000L) * 1000000 ;
+		LocalDateTime ldt = LocalDateTime.ofEpochSecond(seconds, nanos, offset);
+		return ( ldt.getYear() >= MIN_YEAR && ldt.getYear() <= MAX_YEAR ) ? ldt : null ;
+	}
+	
+	/**
+	 * Returns true if the default locale is usable with the fast paths 
+	 * (same calendar and same digits as SimpleDateFormat)
+	 * @return
+	 */
+	protected static boolean isFastPathLocale() {
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		Boolean b = fastPathLocales.get(locale);
+		if ( b == null ) {
+			b = DecimalFormatSymbols.getInstance(locale).getZeroDigit() == '0' 
+					&& "gregory".equals(Calendar.getInstance(locale).getCalendarType()) ;
+			fastPathLocales.put(locale, b);
+		}
+		return b ;
+	}
+	
+	private static DateTimeFormatter getFormatter(String pattern, Locale locale) {
+		Map<String, DateTimeFormatter> map = formatters.computeIfAbsent(locale, k -> new ConcurrentHashMap<>());
+		DateTimeFormatter formatter = map.get(pattern);
+		if ( formatter == null ) {
+			formatter = buildFormatter(pattern, locale);
+			if ( pattern.length() <= FORMATTERS_CACHE_MAX_PATTERN_LENGTH ) {
+				evictOne(map);
+				map.put(pattern, formatter);
+			}
+		}
+		return formatter ;
+	}
+	
+	/**
+	 * Removes an entry from the given cache if it is full (the other entries are kept)
+	 * @param map
+	 */
+	private static void evictOne(Map<String, ?> map) {
+		Iterator<String> it = map.keySet().iterator();
+		while ( map.size() >= FORMATTERS_CACHE_MAX_SIZE && it.hasNext() ) {
+			it.next();
+			it.remove();
+		}
+	}
+	
+	private static DateTimeFormatter buildFormatter(String pattern, Locale locale) {
+		boolean inQuotes = false ;
+		int count = 0 ; // number of same letters 
+		for ( int i = 0 ; i < pattern.length() ; i++ ) {
+			char c = pattern.charAt(i);
+			count = ( i > 0 && c == pattern.charAt(i-1) ) ? count + 1 : 1 ;
+			if ( c == '\'' ) {
+				inQuotes = ! inQuotes ;
+			}
+			else if ( ! inQuotes && ( isSpecialChar(c) || ( isLetter(c) && count > MAX_LETTERS ) ) ) {
+				return NO_FORMATTER ;
+			}
+		}
+		try {
+			return DateTimeFormatter.ofPattern(pattern, locale);
+		} catch (IllegalArgumentException e) {
+			return NO_FORMATTER ; // invalid for DateTimeFormatter : SimpleDateFormat will be used 
+		}
+	}
+	
+	private static boolean isLetter(char c) {
+		return ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' ) ;
+	}
+	
+	private static boolean isSpecialChar(char c) {
+		if ( isLetter(c) ) {
+			return SAME_MEANING_LETTERS.indexOf(c) < 0 ;
+		}
+		// reserved by DateTimeFormatter
+		return c == '[' || c == ']' || c == '{' || c == '}' || c == '#' ;
+	}
+	
+	//----------------------------------------------------------------------------------------------
+	// PARSE
+	//----------------------------------------------------------------------------------------------
+	/**
+	 * Parses the given date in strict 'yyyy-MM-dd' format 
+	 * @param s
+	 * @return the date or null if not parsable with the fast path 
+	 */
+	protected static java.util.Date parseDateISO(String s) {
+		if ( s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-' ) {
+			return null ;
+		}
+		int year  = parseDigits(s, 0, 4);
+		int month = parseDigits(s, 5, 2);
+		int day   = parseDigits(s, 8, 2);
+		return toDate(year, month, day, 0, 0, 0);
+	}
+	
+	/**
+	 * Parses the given time in strict 'HH:mm:ss' format (on 1970-01-01) 
+	 * @param s
+	 * @return the date or null if not parsable with the fast path 
+	 */
+	protected static java.util.Date parseTimeISO(String s) {
+		if ( s.length() != 8 || s.charAt(2) != ':' || s.charAt(5) != ':' ) {
+			return null ;
+		}
+		return toDate(1970, 1, 1, parseDigits(s, 0, 2), parseDigits(s, 3, 2), parseDigits(s, 6, 2));
+	}
+	
+	/**
+	 * Parses the given date and time in strict 'yyyy-MM-dd HH:mm:ss' format 
+	 * @param s
+	 * @return the date or null if not parsable with the fast path 
+	 */
+	protected static java.util.Date parseDateTimeISO(String s) {
+		if ( s.length() != 19 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != ' ' 
+				|| s.charAt(13) != ':' || s.charAt(16) != ':' ) {
+			return null ;
+		}
+		return toDate(parseDigits(s, 0, 4), parseDigits(s, 5, 2), parseDigits(s, 8, 2), 
+				parseDigits(s, 11, 2), parseDigits(s, 14, 2), parseDigits(s, 17, 2));
+	}
+	
+	/**
+	 * Returns the value of the given digits or -1 if not only digits 
+	 */
+	private static int parseDigits(String s, int start, int length) {
+		int value = 0 ;
+		for ( int i = start ; i < start + length ; i++ ) {
+			char c = s.charAt(i);
+			if ( c < '0' || c > '9' ) {
+				return -1 ;
+			}
+			value = value * 10 + ( c - '0' );
+		}
+		return value ;
+	}
+	
+	private static java.util.Date toDate(int year, int month, int day, int hour, int minute, int second) {
+		if ( ! isFastPathLocale() ) {
+			return null ;
+		}
+		if ( year < MIN_YEAR || year > MAX_YEAR || month < 1 || month > 12 || day < 1 
+				|| hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 ) {
+			return null ;
+		}
+		if ( day > YearMonth.of(year, month).lengthOfMonth() ) {
+			return null ;
+		}
+		LocalDateTime ldt = LocalDateTime.of(year, month, day, hour, minute, second);
+		TimeZone timeZone = TimeZone.getDefault();
+		List<ZoneOffset> offsets = timeZone.toZoneId().getRules().getValidOffsets(ldt);
+		if ( offsets.size() != 1 ) {
+			return null ; // gap or overlap : let SimpleDateFormat decide 
+		}
+		long millis = ldt.toEpochSecond(offsets.get(0)) * 1000L ;
+		if ( offsets.get(0).getTotalSeconds() * 1000 != timeZone.getOffset(millis) ) {
+			return null ; // different offset for java.time and TimeZone (eg 'LMT')
+		}
+		return new java.util.Date(millis);
+	}
+	
+	//----------------------------------------------------------------------------------------------
+	// FALLBACK
+	//----------------------------------------------------------------------------------------------
+	/**
+	 * Returns a SimpleDateFormat for the current thread (initialized with the default time zone)
+	 * @param pattern
+	 * @param strict true for a non lenient parsing 
+	 * @return
+	 */
+	protected static SimpleDateFormat getSimpleDateFormat(String pattern, boolean strict) {
+		Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		Map<String, SimpleDateFormat> map = simpleDateFormats.get().computeIfAbsent(locale, k -> new HashMap<>());
+		SimpleDateFormat dateFormat = map.get(pattern);
+		if ( dateFormat == null ) {
+			dateFormat = new SimpleDateFormat(pattern, locale);
+			if ( pattern.length() <= FORMATTERS_CACHE_MAX_PATTERN_LENGTH ) {
+				evictOne(map);
+				map.put(pattern, dateFormat);
+			}
+		}
+		else {
+			// the default time zone can change 
+			dateFormat.setTimeZone(TimeZone.getDefault());
+		}
+		dateFormat.setLenient( ! strict );
+		return dateFormat ;
+	}
+}
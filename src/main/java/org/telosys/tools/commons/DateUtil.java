@@ -31,9 +31,10 @@ import org.telosys.tools.commons.exception.TelosysRuntimeException;
 public final class DateUtil
 {
 
-    private static final String DATE_ISO_FORMAT      = "yyyy-MM-dd" ;
-    private static final String DATE_TIME_ISO_FORMAT = "yyyy-MM-dd HH:mm:ss" ;
-    private static final String TIME_ISO_FORMAT      = "HH:mm:ss" ;
+    // v 4.3.0 : package visibility (used by DateFormatEngine)
+    static final String DATE_ISO_FORMAT      = "yyyy-MM-dd" ;
+    static final String DATE_TIME_ISO_FORMAT = "yyyy-MM-dd HH:mm:ss" ;
+    static final String TIME_ISO_FORMAT      = "HH:mm:ss" ;
     
     /**
      * Private constructor to avoid instance creation
@@ -73,8 +74,7 @@ public final class DateUtil
     {
         //--- Date du jour
         java.util.Date date = new java.util.Date(Calendar.getInstance().getTimeInMillis());
-        SimpleDateFormat dateFormat = new SimpleDateFormat(sFormat);
-        return dateFormat.format(date);
+        return DateFormatEngine.format(date, sFormat);
     }
 
     //----------------------------------------------------------------------------------------------
@@ -89,8 +89,7 @@ public final class DateUtil
     public static String format(final int iDay, final int iMonth, final int iYear, final String sFormat)
     {
         java.util.Date date = getUtilDate(iDay, iMonth, iYear);
-        SimpleDateFormat dateFormat = new SimpleDateFormat(sFormat);
-        return dateFormat.format(date);
+        return DateFormatEngine.format(date, sFormat);
     }
 
     //----------------------------------------------------------------------------------------------
@@ -103,8 +102,7 @@ public final class DateUtil
      */
     public static String format(final int iDay, final int iMonth, final int iYear)
     {
-        SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_ISO_FORMAT);
-        return dateFormat.format( getUtilDate(iDay, iMonth, iYear) );
+        return DateFormatEngine.formatDateISO( getUtilDate(iDay, iMonth, iYear) );
     }
 
     //----------------------------------------------------------------------------------------------
@@ -117,8 +115,7 @@ public final class DateUtil
      */
     public static String format(final java.util.Date date, final String sFormat)
     {
-        SimpleDateFormat dateFormat = new SimpleDateFormat(sFormat);
-        return dateFormat.format(date);
+        return DateFormatEngine.format(date, sFormat);
     }
 
     //----------------------------------------------------------------------------------------------
@@ -199,8 +196,7 @@ public final class DateUtil
     public static String dateISO(final java.util.Date date)
     {
         if (date != null) {
-            SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_ISO_FORMAT);
-            return dateFormat.format( date );    
+            return DateFormatEngine.formatDateISO( date );
         }
         else {
             return "";
@@ -216,8 +212,7 @@ public final class DateUtil
     public static String timeISO(final java.util.Date date)
     {
         if (date != null) {
-            SimpleDateFormat dateFormat = new SimpleDateFormat(TIME_ISO_FORMAT);
-            return dateFormat.format( date );    
+            return DateFormatEngine.formatTimeISO( date );
         }
         else {
             return "";
@@ -233,8 +228,7 @@ public final class DateUtil
     public static String dateTimeISO(final java.util.Date date)
     {
         if (date != null) {
-            SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_TIME_ISO_FORMAT);
-            return dateFormat.format( date );    
+            return DateFormatEngine.formatDateTimeISO( date );
 
         }
         else {
@@ -268,11 +262,12 @@ public final class DateUtil
         if ( sDate == null ) return null ;
         if ( sDate.length() == 0 ) return null ;
         
-        java.util.Date ret = null ;
+        //--- Fast path for a valid date in strict ISO format 
+        java.util.Date ret = DateFormatEngine.parseDateISO(sDate);
+        if ( ret != null ) return ret ;
         try {
             //--- Try to parse the input date ( with non lenient parsing => check validity )
-            SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_ISO_FORMAT);
-            dateFormat.setLenient(false); // non lenient parsing ( exception if invalid date )
+            SimpleDateFormat dateFormat = DateFormatEngine.getSimpleDateFormat(DATE_ISO_FORMAT, true);
             ret = dateFormat.parse(sDate);
         } 
         catch (ParseException e) {
@@ -308,11 +303,12 @@ public final class DateUtil
             }
         }
 
-        java.util.Date ret = null ;
+        //--- Fast path for a valid time in strict ISO format 
+        java.util.Date ret = DateFormatEngine.parseTimeISO(sTime);
+        if ( ret != null ) return ret ;
         try {
             //--- Try to parse the input date ( with non lenient parsing => check validity )
-            SimpleDateFormat dateFormat = new SimpleDateFormat(TIME_ISO_FORMAT);
-            dateFormat.setLenient(false); // non lenient parsing ( exception if invalid date )
+            SimpleDateFormat dateFormat = DateFormatEngine.getSimpleDateFormat(TIME_ISO_FORMAT, true);
             ret = dateFormat.parse(sTime);
             
         } 
@@ -335,11 +331,12 @@ public final class DateUtil
         if ( sDateTime == null ) return null ;
         if ( sDateTime.length() == 0 ) return null ;
 
-        java.util.Date ret = null ;
+        //--- Fast path for a valid date and time in strict ISO format 
+        java.util.Date ret = DateFormatEngine.parseDateTimeISO(sDateTime);
+        if ( ret != null ) return ret ;
         try {
             //--- Try to parse the input datetime ( with non lenient parsing => check validity )
-            SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_TIME_ISO_FORMAT);
-            dateFormat.setLenient(false); // non lenient parsing ( exception if invalid date )
+            SimpleDateFormat dateFormat = DateFormatEngine.getSimpleDateFormat(DATE_TIME_ISO_FORMAT, true);
             ret = dateFormat.parse(sDateTime);
         } 
         catch (ParseException e) {
@@ -0,0 +1,83 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Report of a directory deletion : number of files and directories deleted and all the failures 
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class DeleteReport {
+
+	private final int deletedFiles ;
+	private final int deletedDirectories ;
+	private final List<String> failures ;
+
+	/**
+	 * Constructor
+	 * @param deletedFiles
+	 * @param deletedDirectories
+	 * @param failures the failure messages (one for each file or directory not deleted)
+	 */
+	public DeleteReport(int deletedFiles, int deletedDirectories, List<String> failures) {
+		super();
+		this.deletedFiles = deletedFiles;
+		this.deletedDirectories = deletedDirectories;
+		this.failures = Collections.unmodifiableList(failures);
+	}
+
+	/**
+	 * Returns the number of files deleted
+	 * @return
+	 */
+	public int getDeletedFiles() {
+		return deletedFiles;
+	}
+
+	/**
+	 * Returns the number of directories deleted
+	 * @return
+	 */
+	public int getDeletedDirectories() {
+		return deletedDirectories;
+	}
+
+	/**
+	 * Returns the failure messages (one for each file or directory not deleted)
+	 * @return
+	 */
+	public List<String> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Returns true if all the files and directories have been deleted
+	 * @return
+	 */
+	public boolean isSuccess() {
+		return failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "DeleteReport [deletedFiles=" + deletedFiles + ", deletedDirectories=" + deletedDirectories 
+				+ ", failures=" + failures.size() + "]";
+	}
+}
@@ -16,10 +16,10 @@
 package org.telosys.tools.commons ;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.util.LinkedList;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import org.telosys.tools.commons.exception.TelosysRuntimeException;
 
@@ -66,9 +66,10 @@ public class DirUtil {
 	}
 	
 	/**
-	 * Deletes the given directory and all its content (recursive deletion) 
+	 * Deletes the given directory and all its content (recursive deletion) <br>
+	 * The files are deleted in parallel, then the directories bottom-up 
 	 * @param directory
-	 * @throws TelosysToolsException
+	 * @throws TelosysToolsException with all the failures if some files or directories cannot be deleted
 	 */
 	public static void deleteDirectory(File directory) throws TelosysToolsException {
 	    if ( directory == null ) {
@@ -78,44 +79,32 @@ public class DirUtil {
 		    if ( ! directory.isDirectory() ) {
 		    	throw new TelosysToolsException("argument is not a directory");
 		    }
-		    deleteDirectoryRecursively(directory);
+		    DeleteReport report = new DirectoryDeleter().delete(directory);
+		    if ( ! report.isSuccess() ) {
+		    	throw new TelosysToolsException("Cannot delete " + directory.getAbsolutePath() 
+		    		+ " (" + report.getFailures().size() + " error(s)) : " + String.join(", ", report.getFailures()) );
+		    }
 	    }
 	}
 	
-	private static void deleteDirectoryRecursively(File directory) throws TelosysToolsException {
-	    
-	    if ( directory.isDirectory() ) { // exists and is a directory
-	    	// Get all entries in the directory (NB: can be null)
-	    	File[] files = directory.listFiles();
-	    	if ( files != null ) {
-		    	//--- Delete the directory content
-		        for ( File entry : directory.listFiles() ) {
-		            if ( entry.isDirectory() ) {
-		            	//--- Delete the directory content
-		            	deleteDirectoryRecursively(entry);
-		            }
-		            else {
-		            	//--- Delete the file
-		            	deleteOrThrowException(entry);
-		            }
-		        }
-	    	}
-        	//--- Delete the directory itself (now is void)
-	        deleteOrThrowException(directory);
+	/**
+	 * Renames the given directory and deletes it in background (the caller doesn't wait for the deletion) 
+	 * @param directory
+	 * @return the future deletion report (or null if the directory doesn't exist)
+	 * @throws TelosysToolsException if the directory cannot be renamed
+	 * @since 4.3.0
+	 */
+	public static Future<DeleteReport> deleteDirectoryInBackground(File directory) throws TelosysToolsException {
+	    if ( directory == null ) {
+	    	throw new TelosysToolsException(DIRECTORY_ARGUMENT_IS_NULL);
 	    }
-	}
-	
-	private static final String CANNOT_DELETE = "Cannot delete " ;
-	private static void deleteOrThrowException(File file) throws TelosysToolsException {
-		try {
-			// Make sure the file is writable (to allow delete)
-			file.setWritable(true, false); // 2nd arg = false = not for 'owner only' = applies to everybody (can be usefull for Linux/macOS)
-			if ( ! Files.deleteIfExists(file.toPath()) ) {
-				throw new TelosysToolsException(CANNOT_DELETE + file.getAbsolutePath());
-			}
-		} catch (IOException e) {
-			throw new TelosysToolsException(CANNOT_DELETE + file.getAbsolutePath(), e);
-		}
+	    if ( directory.exists() ) {
+		    if ( ! directory.isDirectory() ) {
+		    	throw new TelosysToolsException("argument is not a directory");
+		    }
+		    return new DirectoryDeleter().deleteInBackground(directory);
+	    }
+	    return null ;
 	}
 
 	/**
@@ -125,7 +114,18 @@ public class DirUtil {
 	 * @return
 	 */
 	public static List<String> getDirectoryFiles(final File directory, final boolean recursively) {
-		List<String> list = new LinkedList<>();
+		return getDirectoryFiles(directory, recursively, false);
+	}
+	
+	/**
+	 * Returns a list of absolute paths for all the files contained in the given directory
+	 * @param directory
+	 * @param recursively
+	 * @param parallel true to scan the sub-directories in parallel (for very large trees)
+	 * @return
+	 * @since 4.3.0
+	 */
+	public static List<String> getDirectoryFiles(final File directory, final boolean recursively, final boolean parallel) {
 	    if ( directory == null ) {
 	    	throw new IllegalArgumentException(DIRECTORY_ARGUMENT_IS_NULL);
 	    }
@@ -133,28 +133,21 @@ public class DirUtil {
 		    if ( ! directory.isDirectory() ) {
 		    	throw new IllegalArgumentException("argument is not a directory");
 		    }
-		    getDirectoryFiles(directory, list, recursively);
-	    }
-	    return list;
-	}
-	
-	private static void getDirectoryFiles(final File directory, final List<String> list, final boolean recursive) {
-	    
-	    if ( directory.exists() ) {
-	    	//--- Get the directory content
-	        for ( File entry : directory.listFiles() ) {
-	            if ( entry.isDirectory() ) {
-	            	//--- Process the directory content
-	            	if ( recursive ) {
-		            	getDirectoryFiles(entry, list, recursive);
-	            	}
-	            }
-	            else {
-	            	//--- Add the file in the list
-	                list.add(entry.getAbsolutePath());
-	            }
-	        }
+		    DirectoryScanner scanner = new DirectoryScanner(recursively);
+		    Path root = directory.getAbsoluteFile().toPath();
+		    List<Path> files ;
+		    try {
+		    	files = parallel ? scanner.scanParallel(root) : scanner.scan(root);
+			} catch (TelosysToolsException e) {
+				throw new TelosysRuntimeException(e.getMessage(), e);
+			}
+		    List<String> list = new ArrayList<>(files.size());
+		    for ( Path file : files ) {
+		    	list.add(file.toString());
+		    }
+		    return list;
 	    }
+	    return new ArrayList<>();
 	}
 	
 	/**
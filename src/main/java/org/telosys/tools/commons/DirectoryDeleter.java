@@ -0,0 +1,261 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletion engine for a directory and all its content <br>
+ * 
+ * The tree is walked once (links are not followed : a link is deleted, not its target), 
+ * then the files are deleted in parallel and the directories are deleted bottom-up. <br>
+ * The deletion doesn't stop at the first error : all the failures are collected in the report. <br>
+ * 
+ * The directory can also be renamed (atomic move in the same parent directory) 
+ * and then purged in background : the caller doesn't wait for the deletion 
+ * and the original directory name is immediately free. <br>
+ * A renamed directory not purged (e.g. JVM stopped before the end of the purge) 
+ * is purged by the next background deletion in the same parent directory. <br>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class DirectoryDeleter {
+
+	/**
+	 * Default number of threads used to delete the files
+	 */
+	public static final int DEFAULT_NUMBER_OF_THREADS = Math.min(8, Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * Prefix of the temporary name of a directory to be purged in background
+	 */
+	public static final String TRASH_PREFIX = ".trash-" ;
+
+	private static final ExecutorService PURGE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "telosys-purge");
+		thread.setDaemon(true);
+		return thread ;
+	});
+
+	// renamed directories currently submitted for a purge in this JVM
+	private static final Set<Path> PURGING = ConcurrentHashMap.newKeySet();
+
+	private final int numberOfThreads ;
+
+	/**
+	 * Constructor with default number of threads
+	 */
+	public DirectoryDeleter() {
+		this(DEFAULT_NUMBER_OF_THREADS);
+	}
+
+	/**
+	 * Constructor
+	 * @param numberOfThreads max number of threads used to delete the files (1 for a deletion in the current thread)
+	 */
+	public DirectoryDeleter(int numberOfThreads) {
+		super();
+		if ( numberOfThreads <= 0 ) {
+			throw new IllegalArgumentException("Invalid number of threads (" + numberOfThreads + ")");
+		}
+		this.numberOfThreads = numberOfThreads ;
+	}
+
+	/**
+	 * Tree content (directories in pre-order)
+	 */
+	private static class TreeContent {
+		private final List<Path> directories = new ArrayList<>();
+		private final List<Path> files = new ArrayList<>();
+		private final List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+	}
+
+	//----------------------------------------------------------------------------------------------------
+	/**
+	 * Deletes the given directory and all its content 
+	 * @param directory
+	 * @return the deletion report (all the failures if any)
+	 * @throws TelosysToolsException if the argument is not a directory
+	 */
+	public DeleteReport delete(File directory) throws TelosysToolsException {
+		checkDirectory(directory);
+		return deleteTree(directory.toPath());
+	}
+
+	/**
+	 * Renames the given directory (atomic move in its parent directory) and deletes it in background <br>
+	 * The original directory doesn't exist anymore when this method returns 
+	 * @param directory
+	 * @return the future deletion report 
+	 * @throws TelosysToolsException if the argument is not a directory or if it cannot be renamed
+	 */
+	public Future<DeleteReport> deleteInBackground(File directory) throws TelosysToolsException {
+		checkDirectory(directory);
+		Path source = directory.getAbsoluteFile().toPath();
+		Path trash = source.resolveSibling(TRASH_PREFIX + source.getFileName() + "-" + System.nanoTime());
+		try {
+			Files.move(source, trash, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			throw new TelosysToolsException("Cannot rename '" + source + "' (atomic move not supported)", e);
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot rename '" + source + "'", e);
+		}
+		Future<DeleteReport> future = purgeInBackground(trash);
+		purgeStaleTrash(source.getParent());
+		return future ;
+	}
+
+	private Future<DeleteReport> purgeInBackground(Path trash) {
+		PURGING.add(trash);
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return deleteTree(trash);
+			}
+			finally {
+				PURGING.remove(trash);
+			}
+		}, PURGE_EXECUTOR);
+	}
+
+	/**
+	 * Purges in background the renamed directories left in the given parent directory by a previous deletion <br>
+	 * (purge not completed before the end of the JVM) 
+	 * @param parent
+	 */
+	private void purgeStaleTrash(Path parent) {
+		try ( DirectoryStream<Path> stream = Files.newDirectoryStream(parent, TRASH_PREFIX + "*") ) {
+			for ( Path path : stream ) {
+				if ( Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS) && ! PURGING.contains(path) ) {
+					purgeInBackground(path);
+				}
+			}
+		} catch (IOException e) {
+			// stale directories kept (purged by the next call)
+		}
+	}
+
+	private void checkDirectory(File directory) throws TelosysToolsException {
+		if ( directory == null ) {
+			throw new TelosysToolsException("directory argument is null");
+		}
+		if ( ! directory.isDirectory() ) {
+			throw new TelosysToolsException("'" + directory + "' is not a directory");
+		}
+	}
+
+	//----------------------------------------------------------------------------------------------------
+	private DeleteReport deleteTree(Path root) {
+		TreeContent content = walk(root);
+		//--- 1) Delete the files (in parallel) 
+		AtomicInteger deletedFiles = new AtomicInteger();
+		if ( numberOfThreads == 1 || content.files.size() <= 1 ) {
+			for ( Path file : content.files ) {
+				deleteFile(file, deletedFiles, content.failures);
+			}
+		}
+		else {
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, content.files.size()));
+			try {
+				for ( Path file : content.files ) {
+					executor.execute(() -> deleteFile(file, deletedFiles, content.failures));
+				}
+				executor.shutdown();
+				while ( ! executor.awaitTermination(1, TimeUnit.SECONDS) ) {
+					// wait for all the files
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				content.failures.add("Deletion interrupted");
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+		//--- 2) Delete the directories (bottom-up)
+		AtomicInteger deletedDirectories = new AtomicInteger();
+		for ( int i = content.directories.size() - 1 ; i >= 0 ; i-- ) {
+			deleteFile(content.directories.get(i), deletedDirectories, content.failures);
+		}
+		return new DeleteReport(deletedFiles.get(), deletedDirectories.get(), new ArrayList<>(content.failures));
+	}
+
+	private TreeContent walk(Path root) {
+		TreeContent content = new TreeContent();
+		try {
+			Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					content.directories.add(dir);
+					return FileVisitResult.CONTINUE;
+				}
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					content.files.add(file);
+					return FileVisitResult.CONTINUE;
+				}
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException e) {
+					content.failures.add("Cannot read '" + file + "' : " + e.getMessage());
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			content.failures.add("Cannot walk '" + root + "' : " + e.getMessage());
+		}
+		return content ;
+	}
+
+	private void deleteFile(Path path, AtomicInteger counter, List<String> failures) {
+		try {
+			try {
+				Files.deleteIfExists(path);
+			} catch (AccessDeniedException e) {
+				// Make sure the file is writable (to allow delete) for everybody (can be useful for Linux/macOS)
+				// and retry (never for a link : its target would be changed) 
+				if ( Files.isSymbolicLink(path) || ! path.toFile().setWritable(true, false) ) {
+					throw e ;
+				}
+				Files.deleteIfExists(path);
+			}
+			counter.incrementAndGet();
+		} catch (IOException e) {
+			failures.add("Cannot delete '" + path + "' : " + e.getMessage());
+		}
+	}
+}
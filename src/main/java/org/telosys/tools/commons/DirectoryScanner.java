@@ -0,0 +1,381 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Directory scanner returning the files located in a directory (and its sub-directories if recursive) <br>
+ * 
+ * The attributes read during the walk are reused (only one 'stat' per entry) 
+ * and the links are followed (as with 'File.isDirectory()' and 'File.listFiles()'). <br>
+ * 
+ * Optional include and exclude glob patterns (see CompiledFilter) applied to the path relative 
+ * to the scanned directory with '/' as separator, for example : "*.java", "src/main/*", "target" <br>
+ * An excluded directory is not scanned <br>
+ * 
+ * Three ways to scan a directory : <br>
+ *  - 'scan' : sequential walk <br>
+ *  - 'scanParallel' : each sub-directory is scanned by a ForkJoin task (for wide trees), same result <br>
+ *  - 'stream' : lazy stream (the stream must be closed) <br>
+ *  
+ * A scanner is immutable and thread-safe <br>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class DirectoryScanner {
+
+	private static final char SEPARATOR = '/' ;
+
+	private final boolean recursive ;
+	private final CompiledFilter includes ;
+	private final CompiledFilter excludes ;
+
+	/**
+	 * Constructor for a scanner without filter
+	 * @param recursive true to scan the sub-directories
+	 */
+	public DirectoryScanner(boolean recursive) {
+		this(recursive, null, null);
+	}
+
+	/**
+	 * Constructor 
+	 * @param recursive true to scan the sub-directories
+	 * @param includes glob patterns of the files to be included (all files if null or void)
+	 * @param excludes glob patterns of the files or directories to be excluded (nothing excluded if null or void)
+	 */
+	public DirectoryScanner(boolean recursive, List<String> includes, List<String> excludes) {
+		super();
+		this.recursive = recursive ;
+		this.includes = CompiledFilter.compileGlob(includes) ;
+		this.excludes = ( excludes == null || excludes.isEmpty() ) ? null : CompiledFilter.compileGlob(excludes) ;
+	}
+
+	//----------------------------------------------------------------------------------------------------
+	// Filtering
+	//----------------------------------------------------------------------------------------------------
+	private String relativePath(Path root, Path path) {
+		String s = root.relativize(path).toString();
+		return File.separatorChar == SEPARATOR ? s : s.replace(File.separatorChar, SEPARATOR);
+	}
+
+	private boolean isExcluded(Path root, Path path) {
+		return excludes != null && excludes.matches(relativePath(root, path)) ;
+	}
+
+	private boolean isIncludedFile(Path root, Path file) {
+		if ( includes.isMatchAll() && excludes == null ) {
+			return true ;
+		}
+		String relativePath = relativePath(root, file);
+		return includes.matches(relativePath) && ( excludes == null || ! excludes.matches(relativePath) ) ;
+	}
+
+	/**
+	 * Returns the attributes of the given entry (link target attributes, or link attributes if broken link)
+	 * @param entry
+	 * @return
+	 * @throws IOException
+	 */
+	private static BasicFileAttributes readAttributes(Path entry) throws IOException {
+		try {
+			return Files.readAttributes(entry, BasicFileAttributes.class);
+		} catch (IOException e) {
+			return Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+		}
+	}
+
+	private void checkDirectory(Path directory) throws TelosysToolsException {
+		if ( ! Files.isDirectory(directory) ) {
+			throw new TelosysToolsException("'" + directory + "' is not a directory");
+		}
+	}
+
+	//----------------------------------------------------------------------------------------------------
+	// Sequential scan
+	//----------------------------------------------------------------------------------------------------
+	/**
+	 * Scans the given directory (sequential walk)
+	 * @param directory
+	 * @return the files (in the walk order)
+	 * @throws TelosysToolsException
+	 */
+	public List<Path> scan(Path directory) throws TelosysToolsException {
+		checkDirectory(directory);
+		List<Path> files = new ArrayList<>();
+		try {
+			Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), recursive ? Integer.MAX_VALUE : 1, 
+					new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					if ( ! dir.equals(directory) && isExcluded(directory, dir) ) {
+						return FileVisitResult.SKIP_SUBTREE ;
+					}
+					return FileVisitResult.CONTINUE;
+				}
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					// with max depth = 1 the sub-directories are visited as files 
+					if ( ! attrs.isDirectory() && isIncludedFile(directory, file) ) {
+						files.add(file);
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot scan directory '" + directory + "'", e);
+		}
+		return files ;
+	}
+
+	//----------------------------------------------------------------------------------------------------
+	// Parallel scan
+	//----------------------------------------------------------------------------------------------------
+	/**
+	 * Scans the given directory with a ForkJoin task for each sub-directory (common pool)
+	 * @param directory
+	 * @return the files (in the same order as the sequential scan)
+	 * @throws TelosysToolsException
+	 */
+	public List<Path> scanParallel(Path directory) throws TelosysToolsException {
+		return scanParallel(directory, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Scans the given directory with a ForkJoin task for each sub-directory 
+	 * @param directory
+	 * @param pool the pool used to run the tasks 
+	 * @return the files (in the same order as the sequential scan)
+	 * @throws TelosysToolsException
+	 */
+	public List<Path> scanParallel(Path directory, ForkJoinPool pool) throws TelosysToolsException {
+		checkDirectory(directory);
+		try {
+			return pool.invoke(new ScanTask(directory, directory, Collections.<Object>emptySet()));
+		} catch (UncheckedIOException e) {
+			throw new TelosysToolsException("Cannot scan directory '" + directory + "'", e.getCause());
+		}
+	}
+
+	/**
+	 * Task scanning a single directory and forking a task for each sub-directory
+	 */
+	private class ScanTask extends RecursiveTask<List<Path>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Path root ;
+		private final transient Path directory ;
+		private final transient Set<Object> ancestors ; // keys of the parent directories (loop detection)
+
+		private ScanTask(Path root, Path directory, Set<Object> ancestors) {
+			this.root = root ;
+			this.directory = directory ;
+			this.ancestors = ancestors ;
+		}
+
+		@Override
+		protected List<Path> compute() {
+			try {
+				return scanDirectory();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private List<Path> scanDirectory() throws IOException {
+			BasicFileAttributes directoryAttributes = Files.readAttributes(directory, BasicFileAttributes.class);
+			Set<Object> keys = ancestors ;
+			Object key = directoryAttributes.fileKey();
+			if ( key != null ) {
+				if ( ancestors.contains(key) ) {
+					throw new FileSystemLoopException(directory.toString());
+				}
+				keys = new HashSet<>(ancestors);
+				keys.add(key);
+			}
+			//--- Entries : a file (Path) or a sub-directory (ScanTask) 
+			List<Object> entries = new ArrayList<>();
+			try ( DirectoryStream<Path> stream = Files.newDirectoryStream(directory) ) {
+				for ( Path entry : stream ) {
+					BasicFileAttributes attrs = readAttributes(entry);
+					if ( attrs.isDirectory() ) {
+						if ( recursive && ! isExcluded(root, entry) ) {
+							ScanTask task = new ScanTask(root, entry, keys);
+							task.fork();
+							entries.add(task);
+						}
+					}
+					else if ( isIncludedFile(root, entry) ) {
+						entries.add(entry);
+					}
+				}
+			}
+			//--- Results in the walk order 
+			List<Path> files = new ArrayList<>();
+			for ( Object entry : entries ) {
+				if ( entry instanceof ScanTask ) {
+					files.addAll(((ScanTask) entry).join());
+				}
+				else {
+					files.add((Path) entry);
+				}
+			}
+			return files ;
+		}
+	}
+
+	//----------------------------------------------------------------------------------------------------
+	// Lazy scan
+	//----------------------------------------------------------------------------------------------------
+	/**
+	 * Returns a lazy stream of the files located in the given directory <br>
+	 * The directories are read when the stream is consumed, so the stream must be closed 
+	 * (try-with-resources) <br>
+	 * An IO error during the walk is thrown as an UncheckedIOException
+	 * @param directory
+	 * @return
+	 * @throws TelosysToolsException
+	 */
+	public Stream<Path> stream(Path directory) throws TelosysToolsException {
+		checkDirectory(directory);
+		LazyWalker walker ;
+		try {
+			walker = new LazyWalker(directory);
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot scan directory '" + directory + "'", e);
+		}
+		Spliterator<Path> spliterator = Spliterators.spliteratorUnknownSize(walker, Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(walker::close);
+	}
+
+	/**
+	 * Iterator walking the tree (depth first) only when the next file is requested <br>
+	 * (a stack of open directory streams) 
+	 */
+	private class LazyWalker implements Iterator<Path> {
+
+		private final Path root ;
+		private final Deque<DirectoryStream<Path>> streams = new ArrayDeque<>();
+		private final Deque<Iterator<Path>> iterators = new ArrayDeque<>();
+		private final Deque<Object> keys = new ArrayDeque<>(); // keys of the open directories (loop detection)
+		private Path next = null ;
+
+		private LazyWalker(Path root) throws IOException {
+			this.root = root ;
+			open(root, Files.readAttributes(root, BasicFileAttributes.class));
+		}
+
+		private void open(Path directory, BasicFileAttributes attrs) throws IOException {
+			Object key = attrs.fileKey();
+			if ( key != null && keys.contains(key) ) {
+				throw new FileSystemLoopException(directory.toString());
+			}
+			DirectoryStream<Path> stream = Files.newDirectoryStream(directory);
+			streams.push(stream);
+			iterators.push(stream.iterator());
+			keys.push( key != null ? key : new Object() );
+		}
+
+		private void closeCurrent() throws IOException {
+			iterators.pop();
+			keys.pop();
+			streams.pop().close();
+		}
+
+		private Path advance() throws IOException {
+			while ( ! iterators.isEmpty() ) {
+				Iterator<Path> iterator = iterators.peek();
+				if ( ! iterator.hasNext() ) {
+					closeCurrent();
+					continue ;
+				}
+				Path entry = iterator.next();
+				BasicFileAttributes attrs = readAttributes(entry);
+				if ( attrs.isDirectory() ) {
+					if ( recursive && ! isExcluded(root, entry) ) {
+						open(entry, attrs);
+					}
+				}
+				else if ( isIncludedFile(root, entry) ) {
+					return entry ;
+				}
+			}
+			return null ;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if ( next == null ) {
+				try {
+					next = advance();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return next != null ;
+		}
+
+		@Override
+		public Path next() {
+			if ( ! hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			Path path = next ;
+			next = null ;
+			return path ;
+		}
+
+		private void close() {
+			try {
+				while ( ! streams.isEmpty() ) {
+					closeCurrent();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
@@ -22,17 +22,28 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
+import org.telosys.tools.commons.exception.CancelException;
 import org.telosys.tools.commons.exception.TelosysRuntimeException;
+import org.telosys.tools.commons.io.CopyResult;
+import org.telosys.tools.commons.io.DefaultOverwriteChooser;
+import org.telosys.tools.commons.io.OverwriteChooser;
+import org.telosys.tools.commons.io.TreeCopier;
 
 /**
  * Utility class for FILE operations (static methods)
@@ -44,6 +55,12 @@ public class FileUtil {
 	
     private static final int     BUFFER_SIZE = 4*1024 ; // 4 kb  
     
+    /**
+     * Size above which a file is mapped in memory to be read with a reader (16 Mb)
+     * @since 4.3.0
+     */
+    public static final long     MAPPED_READ_THRESHOLD = 16L*1024*1024 ;
+    
     /**
      * Private constructor
      */
@@ -315,6 +332,7 @@ public class FileUtil {
     //----------------------------------------------------------------------------------------------------
 	/**
 	 * Copy the source folder to the destination folder with all its content (recursively)
+	 * (directories created first, then files copied in parallel)
 	 * @param source
 	 * @param destination
 	 * @param overwrite
@@ -330,37 +348,141 @@ public class FileUtil {
        	if ( ! destinationFolder.isDirectory() ) {
    			throw new IllegalArgumentException("Copy dir: " + destinationFolder + " is not a directory");
     	}
-       	return recursiveCopy(sourceFolder, destinationFolder, overwriteFiles);
+       	OverwriteChooser overwriteChooser = new DefaultOverwriteChooser(overwriteFiles ? OverwriteChooser.YES : OverwriteChooser.NO);
+       	try {
+			return new TreeCopier(overwriteChooser, null, TreeCopier.DEFAULT_NUMBER_OF_THREADS).copyTree(sourceFolder, destinationFolder);
+		} catch (TelosysToolsException | CancelException e) {
+			throw new TelosysRuntimeException("Cannot copy '" + sourceFolder + "' to '" + destinationFolder + "'", e);
+		}
 	}
-	private static int recursiveCopy( File source, File destination, boolean overwrite ) {
-	 	if ( source.isDirectory() ) { // Source is a directory
-    		//--- If the destination directory doesn't exist create it
-    		if ( ! destination.exists() ) {
-        		DirUtil.createDirectory(destination);
-    		}
-    		if ( ! destination.isDirectory() ) {
-    			throw new TelosysRuntimeException("'" + destination.getName() + "' is not a directory");
-    		}
-    		//--- Get all the directory content
-    		int count = 0 ;
-    		for (String file : source.list() ) {
-    		   File srcFile = new File(source, file);
-    		   File destFile = new File(destination, file);
-    		   //--- recursive copy => add count for each sub level
-    		   count = count + recursiveCopy(srcFile, destFile, overwrite);
-    		}
-    		return count;
-    	} else { 
-    		// Source is just a file => just copy it 
-    		if ( !destination.exists() || ( destination.exists() && overwrite ) ) {
-    			//--- Copy file to file with folder creation if necessary
-    			copyFileToFile(source, destination, true); 
-        		return 1; // 1 file copied
-    		}
-    		else {
-    			return 0; // no file copied
-    		}
+
+	/**
+	 * Copy the source folder to the destination folder with all its content (recursively) <br>
+	 * With 'skipUnchanged' the existing files identical to the original files are not rewritten 
+	 * (same size and time, or same content) 
+	 * @param sourceFolder
+	 * @param destinationFolder
+	 * @param overwriteFiles
+	 * @param skipUnchanged
+	 * @return the copy result (number of files copied, skipped, not overwritten)
+	 * @since 4.3.0
+	 */
+	public static CopyResult copyFolderToFolder(File sourceFolder, File destinationFolder, boolean overwriteFiles, boolean skipUnchanged ) {
+    	if ( ! sourceFolder.isDirectory() ) {
+   			throw new IllegalArgumentException(sourceFolder + " is not a directory");
     	}
+       	OverwriteChooser overwriteChooser = new DefaultOverwriteChooser(overwriteFiles ? OverwriteChooser.YES : OverwriteChooser.NO);
+       	TreeCopier treeCopier = new TreeCopier(overwriteChooser, null, TreeCopier.DEFAULT_NUMBER_OF_THREADS, skipUnchanged);
+       	try {
+			return treeCopier.copyTreeAndReport(sourceFolder, destinationFolder);
+		} catch (TelosysToolsException e) {
+			throw new TelosysRuntimeException("Cannot copy '" + sourceFolder + "' to '" + destinationFolder + "'", e);
+		}
+	}
+
+    //----------------------------------------------------------------------------------------------------
+	/**
+	 * Returns true if the 2 files have the same content (compared in streaming mode, stops at the first difference)
+	 * @param file1
+	 * @param file2
+	 * @return
+	 * @since 4.3.0
+	 */
+	public static boolean hasSameContent(File file1, File file2) {
+		if ( file1.length() != file2.length() ) {
+			return false ;
+		}
+		byte[] buffer1 = new byte[BUFFER_SIZE];
+		byte[] buffer2 = new byte[BUFFER_SIZE];
+		try ( InputStream is1 = new FileInputStream(file1) ;
+			  InputStream is2 = new FileInputStream(file2) ) {
+			while ( true ) {
+				int n1 = readFully(is1, buffer1);
+				int n2 = readFully(is2, buffer2);
+				if ( n1 != n2 ) {
+					return false ;
+				}
+				if ( n1 == 0 ) {
+					return true ;
+				}
+				for ( int i = 0 ; i < n1 ; i++ ) {
+					if ( buffer1[i] != buffer2[i] ) {
+						return false ;
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new TelosysRuntimeException("Cannot compare '" + file1.getName() + "' and '" + file2.getName() + "'", e);
+		}
+	}
+
+	private static int readFully(InputStream is, byte[] buffer) throws IOException {
+		int total = 0 ;
+		while ( total < buffer.length ) {
+			int n = is.read(buffer, total, buffer.length - total);
+			if ( n < 0 ) {
+				break ;
+			}
+			total += n ;
+		}
+		return total ;
+	}
+
+	/**
+	 * Maps the given file in memory (read-only) <br>
+	 * The content is not loaded on the heap, it is read by the OS when accessed <br>
+	 * (the mapping remains valid until the buffer is garbage-collected) <br>
+	 * NB : on Windows a mapped file cannot be deleted or overwritten until the mapping is released by the GC 
+	 * @param file
+	 * @return
+	 * @since 4.3.0
+	 */
+	public static ByteBuffer map(File file) {
+		try ( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ) ) {
+			long size = channel.size();
+			if ( size > Integer.MAX_VALUE ) {
+				throw new TelosysRuntimeException("Cannot map file '" + file.getName() + "' (too large)");
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		} catch (IOException e) {
+			throw new TelosysRuntimeException("Cannot map file '" + file.getName() + "'", e);
+		}
+	}
+
+	/**
+	 * Returns a reader for the given file with the given charset <br>
+	 * If the file size is above MAPPED_READ_THRESHOLD the file is mapped in memory 
+	 * and decoded on demand (bounded heap, no read system call), 
+	 * else it's read with an input stream. <br>
+	 * Malformed input is replaced in both cases <br>
+	 * NB : the mapping is released by the GC (not by 'close'), on Windows the file cannot be deleted 
+	 * or overwritten meanwhile : use 'newReader(file, charset, false)' if the file is changed after reading 
+	 * @param file
+	 * @param charset
+	 * @return
+	 * @since 4.3.0
+	 */
+	public static Reader newReader(File file, Charset charset) {
+		return newReader(file, charset, true);
+	}
+
+	/**
+	 * Returns a reader for the given file with the given charset 
+	 * @param file
+	 * @param charset
+	 * @param mapLargeFile true to map the file in memory if its size is above MAPPED_READ_THRESHOLD, 
+	 *        false to always read it with an input stream (nothing retained after 'close')
+	 * @return
+	 * @since 4.3.0
+	 */
+	public static Reader newReader(File file, Charset charset, boolean mapLargeFile) {
+		long size = file.length();
+		if ( mapLargeFile && size >= MAPPED_READ_THRESHOLD && size <= Integer.MAX_VALUE ) {
+			return new MappedFileReader(map(file), charset);
+		}
+		else {
+			return new InputStreamReader(createInputStream(file), charset);
+		}
 	}
 
 	public static void write(File file, byte[] content) {
@@ -383,7 +505,18 @@ public class FileUtil {
 		}
 	}
 	public static String readString(File file) {
-		return new String(read(file), StandardCharsets.UTF_8) ;
+		return readString(file, StandardCharsets.UTF_8) ;
+	}
+	/**
+	 * Reads the given file with the given charset <br>
+	 * NB : the whole content is loaded on the heap, use 'newReader' for large files 
+	 * @param file
+	 * @param charset
+	 * @return
+	 * @since 4.3.0
+	 */
+	public static String readString(File file, Charset charset) {
+		return new String(read(file), charset) ;
 	}
 
 	public static boolean delete(File file) {
@@ -51,27 +51,16 @@ public class Filter {
 	}
 	
 	/**
-	 * Filter the given list with the given criteria
+	 * Filter the given list with the given criteria <br>
+	 * (see CompiledFilter to filter several lists with the same criteria)
 	 * @param elements
 	 * @param criteria
 	 * @return
 	 */
 	public static List<String> filter(List<String> elements, List<String> criteria) {
-
-		if ( noCriteria(criteria) )  {
-			// No criteria => no filter => return the same list
-			return elements ;
-		}
-		else {
-			// Filter : check bundle name contains at least 1 of the given criteria
-			List<String> result = new LinkedList<>();
-			for ( String element : elements ) {
-				if ( keepElement(element, criteria) ) {
-					result.add(element);
-				}
-			}
-			return result;
-		}
+		// No criteria => no filter => return the same list
+		// else check element contains at least 1 of the given criteria (all the criteria in a single pass)
+		return CompiledFilter.compile(criteria).filter(elements);
 	}
 	
 	/**
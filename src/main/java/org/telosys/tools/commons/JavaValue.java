@@ -15,8 +15,6 @@
  */
 package org.telosys.tools.commons;
 
-import java.math.BigDecimal;
-
 /**
  * @author Laurent GUERIN
  * 
@@ -39,6 +37,13 @@ public final class JavaValue
     }
 
     //-----------------------------------------------------------------------------------
+    /**
+     * Returns true if the given value is valid for the given number type <br>
+     * (same answer as the standard parsing, but without parsing object and without exception)
+     * @param sValue
+     * @param sJavaFullType
+     * @return
+     */
     public static boolean isValidForNumberType(String sValue, String sJavaFullType)
     {
 		if ( StrUtil.nullOrVoid(sValue) ) return true ;  // No value => OK
@@ -46,61 +51,28 @@ public final class JavaValue
 		String type = sJavaFullType ;
 
 		if ( "byte".equals(type) || "java.lang.Byte".equals(type) ) {
-			try {
-				Byte.parseByte(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidInt(sValue, Byte.MIN_VALUE, Byte.MAX_VALUE);
 		}
 		else if ( "short".equals(type) || "java.lang.Short".equals(type) ) {
-			try {
-				Short.parseShort(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidInt(sValue, Short.MIN_VALUE, Short.MAX_VALUE);
 		}
 		else if ( "int".equals(type) || "java.lang.Integer".equals(type) ) {
-			try {
-				Integer.parseInt(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidInt(sValue, Integer.MIN_VALUE, Integer.MAX_VALUE);
 		}
 		else if ( "long".equals(type) || "java.lang.Long".equals(type) ) {
-			try {
-				Long.parseLong(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidLong(sValue);
 		}
 		else if ( "float".equals(type) || "java.lang.Float".equals(type) ) {
-			try {
-				Float.parseFloat(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidFloatingPoint(sValue);
 		}
 		else if ( "double".equals(type) || "java.lang.Double".equals(type) ) {
-			try {
-				Double.parseDouble(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidFloatingPoint(sValue);
 		}
-		else if ( "java.math.BigDecimal".equals(type) )
-		{
-			try {
-				new BigDecimal(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+		else if ( "java.math.BigDecimal".equals(type) ) {
+			return JavaValueScanner.isValidBigDecimal(sValue);
+		}
+		else if ( "java.math.BigInteger".equals(type) ) {
+			return JavaValueScanner.isValidBigInteger(sValue);
 		}
 		else {
 			// Unknown type 
@@ -108,6 +80,13 @@ public final class JavaValue
 		}
 	}
     
+    /**
+     * Returns true if the given value is valid for the given date type <br>
+     * (same answer as the DateUtil parsing, without exception for an invalid value)
+     * @param sValue
+     * @param sJavaFullType
+     * @return
+     */
     public static boolean isValidForDateType(String sValue, String sJavaFullType) 
 	{
 		if ( StrUtil.nullOrVoid(sValue) ) return true ;  // No value => OK
@@ -117,28 +96,13 @@ public final class JavaValue
 		if ( "java.util.Date".equals(type) ) {
 			int length = sValue.length();
 			if ( length == 10 ) { // the length is 10 "YYYY-MM-DD"
-				try {
-					DateUtil.parseDate(sValue);
-					return true;
-				} catch (Throwable e) {
-					return false ;
-				}
+				return JavaValueScanner.isValidDate(sValue);
 			}
 			else if ( length == 8 ) {  // the length is 8 "HH:MM:SS"
-				try {
-					DateUtil.parseTime(sValue);
-					return true;
-				} catch (Throwable e) {
-					return false ;
-				}
+				return JavaValueScanner.isValidTime(sValue);
 			}
 			else if ( length == 19 ) { // the length is 19 "YYYY-MM-DD HH:MM:SS"
-				try {
-					DateUtil.parseDateTime(sValue);
-					return true;
-				} catch (Throwable e) {
-					return false ;
-				}				
+				return JavaValueScanner.isValidDateTime(sValue);
 			}
 			else {
 				return false ;
@@ -146,30 +110,15 @@ public final class JavaValue
 		}
 		else if ( "java.sql.Date".equals(type) )
 		{
-			try {
-				DateUtil.parseDate(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidDate(sValue);
 		}
 		else if ( "java.sql.Time".equals(type) )
 		{
-			try {
-				DateUtil.parseTime(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidTime(sValue);
 		}
 		else if ( "java.sql.Timestamp".equals(type) )
 		{
-			try {
-				DateUtil.parseDateTime(sValue);
-				return true;
-			} catch (Throwable e) {
-				return false ;
-			}
+			return JavaValueScanner.isValidDateTime(sValue);
 		}
 		else {
 			// Unknown type 
@@ -0,0 +1,509 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Value validators used by JavaValue <br>
+ * Each validator scans the characters of the value (no parsing object, no exception)
+ * and gives the same answer as the standard parsing method : <br>
+ *  - Integer.parseInt / Long.parseLong (and the ranges of Byte and Short) <br>
+ *  - Float.parseFloat / Double.parseDouble <br>
+ *  - new BigDecimal(s) / new BigInteger(s) <br>
+ *  - DateUtil.parseDate / parseTime / parseDateTime <br>
+ * The standard parsing is still used for the rare forms not handled by the scanners
+ * (hexadecimal floating point, huge numbers, non canonical dates, valid dates in time zone gaps)
+ *
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+final class JavaValueScanner {
+
+	// longer values are checked with the standard parsing (no risk with the BigInteger size limit)
+	private static final int MAX_SCANNED_LENGTH = 10000 ;
+
+	// max number of exponent digits for BigDecimal (after the leading zeros)
+	private static final int MAX_EXPONENT_DIGITS = 10 ;
+
+	private JavaValueScanner() {
+	}
+
+	/**
+	 * Returns the decimal value of the given char (ASCII or Unicode digit) or -1 if not a digit
+	 * @param c
+	 * @return
+	 */
+	private static int digit(char c) {
+		if ( c >= '0' && c <= '9' ) {
+			return c - '0' ;
+		}
+		return Character.digit(c, 10);
+	}
+
+	//----------------------------------------------------------------------------------------------
+	// INTEGER NUMBERS
+	//----------------------------------------------------------------------------------------------
+	/**
+	 * Returns true if the value is accepted by Integer.parseInt and is in the given range
+	 * @param s
+	 * @param min
+	 * @param max
+	 * @return
+	 */
+	protected static boolean isValidInt(String s, int min, int max) {
+		int len = s.length();
+		if ( len == 0 ) {
+			return false ;
+		}
+		int i = 0 ;
+		boolean negative = false ;
+		int limit = -Integer.MAX_VALUE ;
+		char firstChar = s.charAt(0);
+		if ( firstChar < '0' ) {
+			if ( firstChar == '-' ) {
+				negative = true ;
+				limit = Integer.MIN_VALUE ;
+			} else if ( firstChar != '+' ) {
+				return false ;
+			}
+			if ( len == 1 ) {
+				return false ; // sign alone
+			}
+			i++;
+		}
+		// accumulated negatively (as Integer.parseInt) to reach MIN_VALUE
+		int multmin = limit / 10 ;
+		int result = 0 ;
+		while ( i < len ) {
+			int digit = digit(s.charAt(i++));
+			if ( digit < 0 || result < multmin ) {
+				return false ;
+			}
+			result *= 10 ;
+			if ( result < limit + digit ) {
+				return false ;
+			}
+			result -= digit ;
+		}
+		int value = negative ? result : -result ;
+		return value >= min && value <= max ;
+	}
+
+	/**
+	 * Returns true if the value is accepted by Long.parseLong
+	 * @param s
+	 * @return
+	 */
+	protected static boolean isValidLong(String s) {
+		int len = s.length();
+		if ( len == 0 ) {
+			return false ;
+		}
+		int i = 0 ;
+		long limit = -Long.MAX_VALUE ;
+		char firstChar = s.charAt(0);
+		if ( firstChar < '0' ) {
+			if ( firstChar == '-' ) {
+				limit = Long.MIN_VALUE ;
+			} else if ( firstChar != '+' ) {
+				return false ;
+			}
+			if ( len == 1 ) {
+				return false ; // sign alone
+			}
+			i++;
+		}
+		long multmin = limit / 10 ;
+		long result = 0 ;
+		while ( i < len ) {
+			int digit = digit(s.charAt(i++));
+			if ( digit < 0 || result < multmin ) {
+				return false ;
+			}
+			result *= 10 ;
+			if ( result < limit + digit ) {
+				return false ;
+			}
+			result -= digit ;
+		}
+		return true ;
+	}
+
+	/**
+	 * Returns true if the value is accepted by new BigInteger(s)
+	 * @param s
+	 * @return
+	 */
+	protected static boolean isValidBigInteger(String s) {
+		int len = s.length();
+		if ( len == 0 ) {
+			return false ;
+		}
+		if ( len > MAX_SCANNED_LENGTH ) {
+			try {
+				new BigInteger(s);
+				return true ;
+			} catch (NumberFormatException e) {
+				return false ;
+			}
+		}
+		int i = 0 ;
+		char firstChar = s.charAt(0);
+		if ( firstChar == '-' || firstChar == '+' ) {
+			i++;
+		}
+		if ( i == len ) {
+			return false ; // sign alone
+		}
+		// any other sign is an invalid digit
+		for ( ; i < len ; i++ ) {
+			if ( digit(s.charAt(i)) < 0 ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	//----------------------------------------------------------------------------------------------
+	// DECIMAL NUMBERS
+	//----------------------------------------------------------------------------------------------
+	/**
+	 * Returns true if the value is accepted by new BigDecimal(s)
+	 * @param s
+	 * @return
+	 */
+	protected static boolean isValidBigDecimal(String s) {
+		int len = s.length();
+		if ( len == 0 ) {
+			return false ;
+		}
+		if ( len > MAX_SCANNED_LENGTH ) {
+			try {
+				new BigDecimal(s);
+				return true ;
+			} catch (NumberFormatException e) {
+				return false ;
+			}
+		}
+		int i = 0 ;
+		char c = s.charAt(0);
+		if ( c == '-' || c == '+' ) {
+			i++;
+		}
+		boolean digits = false ;
+		boolean dot = false ;
+		int scale = 0 ;
+		for ( ; i < len ; i++ ) {
+			c = s.charAt(i);
+			if ( digit(c) >= 0 ) {
+				digits = true ;
+				if ( dot ) {
+					scale++;
+				}
+			} else if ( c == '.' ) {
+				if ( dot ) {
+					return false ; // more than one decimal point
+				}
+				dot = true ;
+			} else if ( c == 'e' || c == 'E' ) {
+				return digits && isValidBigDecimalExponent(s, i, scale) ;
+			} else {
+				return false ;
+			}
+		}
+		return digits ;
+	}
+
+	/**
+	 * Returns true if the exponent (starting with 'e' at the given position) is valid for BigDecimal
+	 * @param s
+	 * @param ePosition
+	 * @param scale
+	 * @return
+	 */
+	private static boolean isValidBigDecimalExponent(String s, int ePosition, int scale) {
+		int i = ePosition + 1 ;
+		int len = s.length();
+		if ( i == len ) {
+			return false ; // nothing after 'e'
+		}
+		boolean negative = false ;
+		char c = s.charAt(i);
+		if ( c == '-' || c == '+' ) {
+			negative = ( c == '-' );
+			i++;
+		}
+		if ( i == len ) {
+			return false ; // no exponent digits
+		}
+		// leading zeros are ignored only if there are too many digits
+		while ( len - i > MAX_EXPONENT_DIGITS && digit(s.charAt(i)) == 0 ) {
+			i++;
+		}
+		if ( len - i > MAX_EXPONENT_DIGITS ) {
+			return false ; // too many nonzero exponent digits
+		}
+		long exp = 0 ;
+		for ( ; i < len ; i++ ) {
+			int v = digit(s.charAt(i));
+			if ( v < 0 ) {
+				return false ;
+			}
+			exp = exp * 10 + v ;
+		}
+		if ( negative ) {
+			exp = -exp ;
+		}
+		if ( (int) exp != exp ) {
+			return false ; // exponent overflow
+		}
+		long adjustedScale = scale - exp ;
+		return adjustedScale >= Integer.MIN_VALUE && adjustedScale <= Integer.MAX_VALUE ;
+	}
+
+	/**
+	 * Returns true if the value is accepted by Double.parseDouble (and Float.parseFloat)
+	 * @param s
+	 * @return
+	 */
+	protected static boolean isValidFloatingPoint(String s) {
+		// same trimming as String.trim()
+		int start = 0 ;
+		int end = s.length();
+		while ( start < end && s.charAt(start) <= ' ' ) {
+			start++;
+		}
+		while ( start < end && s.charAt(end - 1) <= ' ' ) {
+			end--;
+		}
+		if ( start == end ) {
+			return false ;
+		}
+		int i = start ;
+		char c = s.charAt(i);
+		if ( c == '-' || c == '+' ) {
+			i++;
+			if ( i == end ) {
+				return false ; // sign alone
+			}
+			c = s.charAt(i);
+		}
+		if ( c == 'N' ) {
+			return end - i == 3 && s.startsWith("NaN", i) ;
+		}
+		if ( c == 'I' ) {
+			return end - i == 8 && s.startsWith("Infinity", i) ;
+		}
+		if ( c == '0' && i + 1 < end && ( s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X' ) ) {
+			// hexadecimal floating point (rare) : standard parsing
+			try {
+				Double.parseDouble(s);
+				return true ;
+			} catch (NumberFormatException e) {
+				return false ;
+			}
+		}
+		boolean digits = false ;
+		boolean dot = false ;
+		for ( ; i < end ; i++ ) {
+			c = s.charAt(i);
+			if ( c >= '0' && c <= '9' ) {
+				digits = true ;
+			} else if ( c == '.' ) {
+				if ( dot ) {
+					return false ; // more than one decimal point
+				}
+				dot = true ;
+			} else {
+				break ;
+			}
+		}
+		if ( ! digits ) {
+			return false ;
+		}
+		if ( i < end && ( c == 'e' || c == 'E' ) ) {
+			i++;
+			if ( i == end ) {
+				return false ; // nothing after 'e'
+			}
+			c = s.charAt(i);
+			if ( c == '-' || c == '+' ) {
+				i++;
+			}
+			int expStart = i ;
+			while ( i < end && s.charAt(i) >= '0' && s.charAt(i) <= '9' ) {
+				i++;
+			}
+			if ( i == expStart ) {
+				return false ; // no exponent digits
+			}
+		}
+		if ( i == end ) {
+			return true ;
+		}
+		// only one type suffix is accepted after the number
+		c = s.charAt(i);
+		return i == end - 1 && ( c == 'f' || c == 'F' || c == 'd' || c == 'D' ) ;
+	}
+
+	//----------------------------------------------------------------------------------------------
+	// DATE AND TIME
+	//----------------------------------------------------------------------------------------------
+	/**
+	 * Returns true if the value is accepted by DateUtil.parseDate ( "YYYY-MM-DD" )
+	 * @param s
+	 * @return
+	 */
+	protected static boolean isValidDate(String s) {
+		if ( s.length() == 10 && isDate(s, 0) && DateFormatEngine.isFastPathLocale() ) {
+			int year = digits(s, 0, 4);
+			if ( year >= DateFormatEngine.MIN_YEAR && year <= DateFormatEngine.MAX_YEAR
+					&& ! isValidDay(year, digits(s, 5, 2), digits(s, 8, 2)) ) {
+				return false ;
+			}
+		}
+		else if ( count(s, '-') < 2 ) {
+			return false ; // the 2 separators are always required
+		}
+		// valid fields (only a time zone gap can reject the date) or not canonical value
+		try {
+			DateUtil.parseDate(s);
+			return true ;
+		} catch (RuntimeException e) {
+			return false ;
+		}
+	}
+
+	/**
+	 * Returns true if the value is accepted by DateUtil.parseTime ( "HH:MM:SS" )
+	 * @param s
+	 * @return
+	 */
+	protected static boolean isValidTime(String s) {
+		// same characters check as DateUtil.parseTime
+		if ( s.length() < 8 ) {
+			return false ;
+		}
+		for ( int i = 0 ; i < 8 ; i++ ) {
+			char c = s.charAt(i);
+			if ( ( c < '0' || c > '9' ) && c != ':' ) {
+				return false ;
+			}
+			if ( c == ':' && i != 2 && i != 5 ) {
+				return false ;
+			}
+		}
+		if ( s.length() == 8 && s.charAt(2) == ':' && s.charAt(5) == ':' && DateFormatEngine.isFastPathLocale()
+				&& ! isValidTime(s, 0) ) {
+			return false ;
+		}
+		try {
+			DateUtil.parseTime(s);
+			return true ;
+		} catch (RuntimeException e) {
+			return false ;
+		}
+	}
+
+	/**
+	 * Returns true if the value is accepted by DateUtil.parseDateTime ( "YYYY-MM-DD HH:MM:SS" )
+	 * @param s
+	 * @return
+	 */
+	protected static boolean isValidDateTime(String s) {
+		if ( s.length() == 19 && isDate(s, 0) && s.charAt(10) == ' '
+				&& s.charAt(13) == ':' && s.charAt(16) == ':' && isDigits(s, 11, 2) && isDigits(s, 14, 2) && isDigits(s, 17, 2)
+				&& DateFormatEngine.isFastPathLocale() ) {
+			int year = digits(s, 0, 4);
+			if ( year >= DateFormatEngine.MIN_YEAR && year <= DateFormatEngine.MAX_YEAR
+					&& ! ( isValidDay(year, digits(s, 5, 2), digits(s, 8, 2)) && isValidTime(s, 11) ) ) {
+				return false ;
+			}
+		}
+		else if ( count(s, '-') < 2 || count(s, ':') < 2 || count(s, ' ') < 1 ) {
+			return false ; // the 5 separators are always required
+		}
+		try {
+			DateUtil.parseDateTime(s);
+			return true ;
+		} catch (RuntimeException e) {
+			return false ;
+		}
+	}
+
+	/**
+	 * Returns true if "DDDD-DD-DD" (ASCII digits) at the given position
+	 */
+	private static boolean isDate(String s, int offset) {
+		return s.charAt(offset + 4) == '-' && s.charAt(offset + 7) == '-'
+				&& isDigits(s, offset, 4) && isDigits(s, offset + 5, 2) && isDigits(s, offset + 8, 2) ;
+	}
+
+	/**
+	 * Returns true if the "HH:MM:SS" time at the given position is in the valid ranges
+	 */
+	private static boolean isValidTime(String s, int offset) {
+		return digits(s, offset, 2) <= 23 && digits(s, offset + 3, 2) <= 59 && digits(s, offset + 6, 2) <= 59 ;
+	}
+
+	private static boolean isValidDay(int year, int month, int day) {
+		if ( month < 1 || month > 12 || day < 1 ) {
+			return false ;
+		}
+		switch ( month ) {
+		case 2 :
+			boolean leapYear = ( year % 4 == 0 ) && ( year % 100 != 0 || year % 400 == 0 ) ;
+			return day <= ( leapYear ? 29 : 28 ) ;
+		case 4 :
+		case 6 :
+		case 9 :
+		case 11 :
+			return day <= 30 ;
+		default :
+			return day <= 31 ;
+		}
+	}
+
+	private static boolean isDigits(String s, int start, int length) {
+		for ( int i = start ; i < start + length ; i++ ) {
+			char c = s.charAt(i);
+			if ( c < '0' || c > '9' ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	private static int digits(String s, int start, int length) {
+		int value = 0 ;
+		for ( int i = start ; i < start + length ; i++ ) {
+			value = value * 10 + ( s.charAt(i) - '0' );
+		}
+		return value ;
+	}
+
+	private static int count(String s, char c) {
+		int n = 0 ;
+		for ( int i = 0 ; i < s.length() ; i++ ) {
+			if ( s.charAt(i) == c ) {
+				n++;
+			}
+		}
+		return n ;
+	}
+}
@@ -0,0 +1,90 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Reader decoding the characters directly from a byte buffer (typically a memory-mapped file) <br>
+ * The characters are decoded on demand in the caller's buffer (no intermediate byte array on the heap) <br>
+ * Malformed or unmappable input is replaced (as with InputStreamReader) <br>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+final class MappedFileReader extends Reader {
+
+	private final ByteBuffer bytes ;
+	private final CharsetDecoder decoder ;
+	private CharBuffer pending = null ; // for a surrogate pair when only 1 char is requested
+	private boolean done = false ;
+
+	/**
+	 * Constructor
+	 * @param bytes the bytes to decode (from the current position to the limit)
+	 * @param charset
+	 */
+	MappedFileReader(ByteBuffer bytes, Charset charset) {
+		super();
+		this.bytes = bytes ;
+		this.decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if ( len == 0 ) {
+			return 0 ;
+		}
+		if ( pending != null && pending.hasRemaining() ) {
+			cbuf[off] = pending.get();
+			return 1 ;
+		}
+		CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+		while ( ! done && out.position() == off ) {
+			CoderResult result = decoder.decode(bytes, out, true);
+			if ( result.isOverflow() ) {
+				if ( out.position() == off ) {
+					// not enough room for the next character (surrogate pair)
+					pending = CharBuffer.allocate(2);
+					decoder.decode(bytes, pending, true);
+					pending.flip();
+					cbuf[off] = pending.get();
+					return 1 ;
+				}
+			}
+			else if ( ! decoder.flush(out).isOverflow() ) {
+				// all the bytes have been decoded
+				done = true ;
+			}
+		}
+		int n = out.position() - off ;
+		return ( n == 0 && done ) ? -1 : n ;
+	}
+
+	@Override
+	public void close() {
+		// nothing to close (the mapped buffer is released by the GC)
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded and thread-safe cache for the conversions of a naming style <br>
+ * When the max size is reached an entry is evicted for each new entry <br>
+ * Long strings are not kept in the cache (see MAX_KEY_LENGTH)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+final class NamingStyleCache {
+
+	/**
+	 * Max length of a string kept in the cache (names are expected to be short)
+	 */
+	protected static final int MAX_KEY_LENGTH = 128 ;
+
+	private final Map<String, String> conversions = new ConcurrentHashMap<>();
+	
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+	
+	private volatile int maxSize ;
+	
+	protected NamingStyleCache(int maxSize) {
+		super();
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the cached conversion for the given string (or null if not in the cache)
+	 * @param s
+	 * @return
+	 */
+	protected String get(String s) {
+		String result = conversions.get(s);
+		if ( result != null ) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return result ;
+	}
+
+	/**
+	 * Stores the conversion of the given string 
+	 * @param s
+	 * @param result
+	 */
+	protected void put(String s, String result) {
+		if ( s.length() > MAX_KEY_LENGTH ) {
+			return ;
+		}
+		evict(maxSize - 1);
+		conversions.put(s, result);
+	}
+
+	protected void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		evict(maxSize);
+	}
+
+	/**
+	 * Removes entries until the cache size is not greater than the given size
+	 * @param size
+	 */
+	private void evict(int size) {
+		Iterator<String> it = conversions.keySet().iterator();
+		while ( conversions.size() > size && it.hasNext() ) {
+			it.next();
+			it.remove();
+			evictions.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Removes all the entries and resets the counters 
+	 */
+	protected void clear() {
+		conversions.clear();
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+	}
+
+	protected NamingStyleCacheStats getStats() {
+		return new NamingStyleCacheStats(hits.get(), misses.get(), evictions.get(), conversions.size(), maxSize);
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+/**
+ * Statistics of a NamingStyleConverter cache (for a given naming style) 
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class NamingStyleCacheStats {
+
+	private final long hits ;
+	private final long misses ;
+	private final long evictions ;
+	private final int  size ;
+	private final int  maxSize ;
+	
+	protected NamingStyleCacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+		super();
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.size = size;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the number of conversions found in the cache
+	 * @return
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of conversions not found in the cache
+	 * @return
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of entries removed from the cache to keep it under its max size
+	 * @return
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the current number of entries in the cache
+	 * @return
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the max number of entries in the cache
+	 * @return
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public String toString() {
+		return "NamingStyleCacheStats [hits=" + hits + ", misses=" + misses + ", evictions=" + evictions 
+				+ ", size=" + size + ", maxSize=" + maxSize + "]";
+	}
+}
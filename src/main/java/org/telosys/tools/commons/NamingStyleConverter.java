@@ -15,9 +15,18 @@
  */
 package org.telosys.tools.commons;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 /**
 * Utility class to convert a string to different naming styles <br>
 * Works with styles : camelCase, PascalCase, snake_case, ANACONDA_CASE <br>
+* <br>
+* The conversions are done in a single pass on the characters <br>
+* and the results are kept in a bounded cache (one cache per style shared by all the instances) <br>
 * 
 * @author Laurent Guerin
 *
@@ -26,6 +35,18 @@ public class NamingStyleConverter {
 
 	private static final char UNDERSCORE = '_' ; 
 	
+	/**
+	 * Default max number of conversions kept in the cache for each style 
+	 */
+	public static final int DEFAULT_CACHE_MAX_SIZE = 10000 ;
+	
+	private static final Map<NamingStyle, NamingStyleCache> caches = new EnumMap<>(NamingStyle.class);
+	static {
+		for ( NamingStyle style : NamingStyle.values() ) {
+			caches.put(style, new NamingStyleCache(DEFAULT_CACHE_MAX_SIZE));
+		}
+	}
+	
 	/**
 	 * Converts a string to "snake_case" <br>
 	 * The input string can be in any known style (snake_case, ANACONDA_CASE, camelCase, PascalCase) <br>
@@ -34,34 +55,7 @@ public class NamingStyleConverter {
 	 * @return
 	 */
 	public String toSnakeCase(String s) {
-		if ( s == null) {
-			return "";
-		}
-		if ( s.indexOf(UNDERSCORE) >= 0 ) {
-			// contains UNDERSCORE => snake_case or ANACONDA_CASE or Cobra_Case
-			return s.toLowerCase();
-		}
-		if ( StrUtil.isUpperCase(s) ) {
-			// contains only uppercase letters or digits
-			return s.toLowerCase();
-		}
-		StringBuilder sb = new StringBuilder();
-		boolean started = false ;
-		char lastCharAdded = 0;
-		for (char c : s.toCharArray()) {
-		    if (Character.isUpperCase(c) && started ) {
-		    	if ( lastCharAdded != UNDERSCORE ) { // avoid double '_'
-		    		lastCharAdded = UNDERSCORE ;
-			        sb.append(lastCharAdded);
-		    	}
-		    }
-		    if ( c != ' ' ) {
-		    	lastCharAdded = Character.toLowerCase(c);
-		        sb.append(lastCharAdded);
-		        started = true ;
-		    }
-		}
-		return sb.toString();
+		return convert(s, NamingStyle.SNAKE_CASE);
 	}
 
 	/**
@@ -72,8 +66,7 @@ public class NamingStyleConverter {
 	 * @return
 	 */
 	public String toAnacondaCase(String s) {
-		String s2 = toSnakeCase(s);
-		return s2.toUpperCase();
+		return convert(s, NamingStyle.ANACONDA_CASE);
 	}
 
 	/**
@@ -84,7 +77,7 @@ public class NamingStyleConverter {
 	 * @return
 	 */
 	public String toCamelCase(String s) {
-		return uncapitalize(toPascalCase(s));
+		return convert(s, NamingStyle.CAMEL_CASE);
 	}
 
 	/**
@@ -95,7 +88,12 @@ public class NamingStyleConverter {
 	 * @return
 	 */
 	public String toCamelCase(String s, String separator) {
-		return uncapitalize(toPascalCase(s, separator));
+		if ( s == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(s.length());
+		writeCamelCase(s, separatorChar(separator), sb);
+		return sb.toString();
 	}
 	
 	/**
@@ -106,7 +104,7 @@ public class NamingStyleConverter {
 	 * @return
 	 */
 	public String toPascalCase(String s) {
-		return toPascalCase(s, UNDERSCORE);
+		return convert(s, NamingStyle.PASCAL_CASE);
 	}
 	
 	/**
@@ -117,26 +115,239 @@ public class NamingStyleConverter {
 	 * @return
 	 */
 	public String toPascalCase(String s, String separator) {
+		if ( s == null) {
+			return "";
+		}
+		StringBuilder sb = new StringBuilder(s.length());
+		writePascalCase(s, separatorChar(separator), sb);
+		return sb.toString();
+	}
+	
+	//------------------------------------------------------------------------------------
+	// Conversions in a given StringBuilder (no cache, no intermediate string)
+	//------------------------------------------------------------------------------------
+	/**
+	 * Appends the "snake_case" conversion of the given string to the given StringBuilder
+	 * @param s the string to convert (nothing appended if null)
+	 * @param sb
+	 */
+	public void appendSnakeCase(String s, StringBuilder sb) {
+		if ( s != null ) {
+			writeSnakeCase(s, sb);
+		}
+	}
+
+	/**
+	 * Appends the "ANACONDA_CASE" conversion of the given string to the given StringBuilder
+	 * @param s the string to convert (nothing appended if null)
+	 * @param sb
+	 */
+	public void appendAnacondaCase(String s, StringBuilder sb) {
+		if ( s != null ) {
+			writeAnacondaCase(s, sb);
+		}
+	}
+
+	/**
+	 * Appends the "camelCase" conversion of the given string to the given StringBuilder
+	 * @param s the string to convert (nothing appended if null)
+	 * @param sb
+	 */
+	public void appendCamelCase(String s, StringBuilder sb) {
+		if ( s != null ) {
+			writeCamelCase(s, UNDERSCORE, sb);
+		}
+	}
+
+	/**
+	 * Appends the "PascalCase" conversion of the given string to the given StringBuilder
+	 * @param s the string to convert (nothing appended if null)
+	 * @param sb
+	 */
+	public void appendPascalCase(String s, StringBuilder sb) {
+		if ( s != null ) {
+			writePascalCase(s, UNDERSCORE, sb);
+		}
+	}
+
+	//------------------------------------------------------------------------------------
+	// Conversions with cache 
+	//------------------------------------------------------------------------------------
+	/**
+	 * Converts the given string to the given naming style 
+	 * @param s
+	 * @param style
+	 * @return the converted string (or a void string if the given string is null)
+	 */
+	public String convert(String s, NamingStyle style) {
+		if ( s == null) {
+			return "";
+		}
+		return convert(s, style, caches.get(style), null);
+	}
+	
+	/**
+	 * Converts all the given strings to the given naming style 
+	 * @param list
+	 * @param style
+	 * @return a new list with the converted strings (in the same order)
+	 */
+	public List<String> convert(List<String> list, NamingStyle style) {
+		List<String> results = new ArrayList<>(list.size());
+		NamingStyleCache cache = caches.get(style);
+		StringBuilder sb = new StringBuilder();
+		for ( String s : list ) {
+			results.add( s != null ? convert(s, style, cache, sb) : "" );
+		}
+		return results;
+	}
+	
+	private String convert(String s, NamingStyle style, NamingStyleCache cache, StringBuilder buffer) {
+		// the result depends on the default locale if the conversion uses 'toLowerCase()' or 'toUpperCase()' 
+		boolean cacheable = s.length() <= NamingStyleCache.MAX_KEY_LENGTH 
+				&& ( ( style == NamingStyle.CAMEL_CASE || style == NamingStyle.PASCAL_CASE ) 
+						|| ( isAscii(s) && ! isSpecialCaseLocale() ) ) ;
+		if ( cacheable ) {
+			String result = cache.get(s);
+			if ( result != null ) {
+				return result ;
+			}
+		}
+		StringBuilder sb = buffer != null ? buffer : new StringBuilder(s.length() + 4) ;
+		sb.setLength(0);
+		switch ( style ) {
+		case SNAKE_CASE :
+			writeSnakeCase(s, sb);
+			break;
+		case ANACONDA_CASE :
+			writeAnacondaCase(s, sb);
+			break;
+		case CAMEL_CASE :
+			writeCamelCase(s, UNDERSCORE, sb);
+			break;
+		default :
+			writePascalCase(s, UNDERSCORE, sb);
+			break;
+		}
+		String result = sb.toString();
+		if ( cacheable ) {
+			cache.put(s, result);
+		}
+		return result ;
+	}
+	
+	/**
+	 * Returns the statistics of the cache used for the given naming style 
+	 * @param style
+	 * @return
+	 */
+	public static NamingStyleCacheStats getCacheStats(NamingStyle style) {
+		return caches.get(style).getStats();
+	}
+
+	/**
+	 * Sets the max number of conversions kept in the cache of each naming style 
+	 * @param maxSize
+	 */
+	public static void setCacheMaxSize(int maxSize) {
+		if ( maxSize <= 0 ) {
+			throw new IllegalArgumentException("Invalid cache max size (" + maxSize + ")");
+		}
+		for ( NamingStyleCache cache : caches.values() ) {
+			cache.setMaxSize(maxSize);
+		}
+	}
+
+	/**
+	 * Clears the caches of all the naming styles (entries and statistics)
+	 */
+	public static void clearCache() {
+		for ( NamingStyleCache cache : caches.values() ) {
+			cache.clear();
+		}
+	}
+	
+	//------------------------------------------------------------------------------------
+	
+	private char separatorChar(String separator) {
 		if ( separator != null && ! separator.isEmpty() ) {
-			return toPascalCase(s, separator.charAt(0));
+			return separator.charAt(0);
 		}
 		else {
 			// throw exception ?
-			return toPascalCase(s, '_');
+			return UNDERSCORE;
 		}
 	}
 	
-	//------------------------------------------------------------------------------------
-	
-	private String toPascalCase(String s, char separator) {
-		if ( s == null) {
-			return "";
+	private void writeSnakeCase(String s, StringBuilder sb) {
+		int length = s.length();
+		boolean underscore = false ;
+		boolean upperCase = length > 0 ;
+		for ( int i = 0 ; i < length ; i++ ) {
+			char c = s.charAt(i);
+			if ( c == UNDERSCORE ) {
+				underscore = true ;
+			}
+			if ( ! ( Character.isUpperCase(c) || Character.isDigit(c) ) ) {
+				upperCase = false ;
+			}
 		}
+		if ( underscore || upperCase ) {
+			// snake_case, ANACONDA_CASE or Cobra_Case, or only uppercase letters or digits
+			appendLowerCase(s, sb);
+			return ;
+		}
+		boolean started = false ;
+		char lastCharAdded = 0;
+		for ( int i = 0 ; i < length ; i++ ) {
+			char c = s.charAt(i);
+		    if (Character.isUpperCase(c) && started ) {
+		    	if ( lastCharAdded != UNDERSCORE ) { // avoid double '_'
+		    		lastCharAdded = UNDERSCORE ;
+			        sb.append(lastCharAdded);
+		    	}
+		    }
+		    if ( c != ' ' ) {
+		    	lastCharAdded = Character.toLowerCase(c);
+		        sb.append(lastCharAdded);
+		        started = true ;
+		    }
+		}
+	}
 
-		StringBuilder sb = new StringBuilder();
+	private void writeAnacondaCase(String s, StringBuilder sb) {
+		int start = sb.length();
+		writeSnakeCase(s, sb);
+		if ( isAscii(sb, start) && ! isSpecialCaseLocale() ) {
+			for ( int i = start ; i < sb.length() ; i++ ) {
+				char c = sb.charAt(i);
+				if ( c >= 'a' && c <= 'z' ) {
+					sb.setCharAt(i, (char)( c - 'a' + 'A' ));
+				}
+			}
+		}
+		else {
+			// same as String.toUpperCase() (locale and special characters)
+			String snakeCase = sb.substring(start);
+			sb.setLength(start);
+			sb.append(snakeCase.toUpperCase());
+		}
+	}
+
+	private void writeCamelCase(String s, char separator, StringBuilder sb) {
+		int start = sb.length();
+		writePascalCase(s, separator, sb);
+		if ( sb.length() > start ) {
+			// 1rst char to lower case
+			sb.setCharAt(start, Character.toLowerCase(sb.charAt(start)));
+		}
+	}
+	
+	private void writePascalCase(String s, char separator, StringBuilder sb) {
 		boolean started = false ;
 		boolean previousIsSeparator = false;
-		for (char c : s.toCharArray()) {
+		for ( int i = 0 ; i < s.length() ; i++ ) {
+			char c = s.charAt(i);
 		    if (c == separator) {
 		    	// ignore separator and track it
 		    	previousIsSeparator = true ;
@@ -163,32 +374,40 @@ public class NamingStyleConverter {
 		    	}
 		    }
 		}
-		return sb.toString();
 	}
 
-	private String capitalize(String s) {
-		if ( s != null && ! s.isEmpty() ) {
-			// 1rst char to upper case
-			char[] charArray = s.toCharArray();
-			charArray[0] = Character.toUpperCase(charArray[0]);
-			return new String(charArray);
+	private void appendLowerCase(String s, StringBuilder sb) {
+		if ( isAscii(s) && ! isSpecialCaseLocale() ) {
+			for ( int i = 0 ; i < s.length() ; i++ ) {
+				char c = s.charAt(i);
+				sb.append( c >= 'A' && c <= 'Z' ? (char)( c - 'A' + 'a' ) : c );
+			}
 		}
 		else {
-			return s ;
+			// same as String.toLowerCase() (locale and special characters)
+			sb.append(s.toLowerCase());
 		}
 	}
 	
-	private String uncapitalize(String s) {
-		if ( s != null && ! s.isEmpty() ) {
-			// 1rst char to lower case
-			char[] charArray = s.toCharArray();
-			charArray[0] = Character.toLowerCase(charArray[0]);
-			return new String(charArray);
-		}
-		else {
-			return s ;
+	private static boolean isAscii(CharSequence s) {
+		return isAscii(s, 0);
+	}
+
+	private static boolean isAscii(CharSequence s, int start) {
+		for ( int i = start ; i < s.length() ; i++ ) {
+			if ( s.charAt(i) >= 128 ) {
+				return false ;
+			}
 		}
+		return true ;
 	}
-	
-}
 
+	/**
+	 * Returns true if the default locale has specific case rules for ASCII letters (eg 'I' in Turkish)
+	 * @return
+	 */
+	private static boolean isSpecialCaseLocale() {
+		String language = Locale.getDefault().getLanguage();
+		return "tr".equals(language) || "az".equals(language) || "lt".equals(language) ;
+	}
+}
@@ -23,7 +23,6 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 import org.telosys.tools.commons.exception.TelosysRuntimeException;
@@ -97,9 +96,8 @@ public class PropUtil {
     
 	public static String currentDateTime() 
     {
-		Date now = new Date();
-		SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-		return isoFormat.format(now);
+		// v 4.3.0 : no SimpleDateFormat creation
+		return DateUtil.dateTimeISO(new Date());
     }
 	
 	private static void writeFileContent(String sFileName, byte[] content )
@@ -0,0 +1,319 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+/**
+ * Reusable cursor-style tokenizer working on the original characters (no copy) <br>
+ * Each token is available as start/end offsets or as a CharSequence view on the original string. <br>
+ * A String is created only if requested (see tokenString()) <br>
+ * The tokens are the same as with StrUtil.split (N separators give N+1 tokens) with 2 options : <br>
+ *  - trim : the blank characters are removed at the beginning and the end of each token (as String.trim()) <br>
+ *  - quotes : the separators are ignored between an opening and a closing quote character 
+ *    (and the quotes around the token can be removed) <br>
+ * Example : 
+ * <pre>
+ *   StrTokenizer tokenizer = new StrTokenizer(';', true);
+ *   tokenizer.reset(line);
+ *   while ( tokenizer.next() ) {
+ *      ... tokenizer.start() / tokenizer.end() / tokenizer.token() 
+ *   }
+ * </pre>
+ * Not thread-safe (one instance per thread) 
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public final class StrTokenizer {
+
+	private static final char NO_QUOTE = 0 ;
+	
+	private final char    separator ;
+	private final boolean trim ;
+	
+	private char    openingQuote = NO_QUOTE ;
+	private char    closingQuote = NO_QUOTE ;
+	private boolean removeQuotes = false ;
+
+	private CharSequence input = "" ;
+	private int position ; // start of the next token
+	private int limit ;    // end of the input (exclusive)
+	private boolean hasMoreTokens ;
+	
+	private int tokenStart ;
+	private int tokenEnd ;
+	
+	private final TokenView tokenView = new TokenView();
+
+	/**
+	 * Constructor 
+	 * @param separator the tokens separator 
+	 */
+	public StrTokenizer(char separator) {
+		this(separator, false);
+	}
+
+	/**
+	 * Constructor 
+	 * @param separator the tokens separator 
+	 * @param trim true to remove the blank characters around each token
+	 */
+	public StrTokenizer(char separator, boolean trim) {
+		super();
+		this.separator = separator;
+		this.trim = trim;
+	}
+
+	/**
+	 * Defines the quote characters : the separators between the opening and the closing quotes are ignored 
+	 * @param openingQuote (eg '"' or '&lt;')
+	 * @param closingQuote (eg '"' or '&gt;')
+	 * @param removeQuotes true to remove the quotes around the token (after trimming)
+	 */
+	public void setQuotes(char openingQuote, char closingQuote, boolean removeQuotes) {
+		if ( openingQuote == NO_QUOTE || closingQuote == NO_QUOTE ) {
+			throw new IllegalArgumentException("Invalid quote character");
+		}
+		this.openingQuote = openingQuote ;
+		this.closingQuote = closingQuote ;
+		this.removeQuotes = removeQuotes ;
+	}
+	
+	/**
+	 * Resets the tokenizer with a new input 
+	 * @param s the string to be tokenized (a null string has no token)
+	 * @return this tokenizer
+	 */
+	public StrTokenizer reset(CharSequence s) {
+		if ( s != null ) {
+			return reset(s, 0, s.length());
+		}
+		else {
+			input = "" ;
+			position = 0 ;
+			limit = 0 ;
+			hasMoreTokens = false ;
+			tokenStart = 0 ;
+			tokenEnd = 0 ;
+			return this ;
+		}
+	}
+	
+	/**
+	 * Resets the tokenizer with a part of the given input (from 'start' to 'end')
+	 * @param s the string to be tokenized 
+	 * @param start the start offset (inclusive)
+	 * @param end the end offset (exclusive)
+	 * @return this tokenizer
+	 */
+	public StrTokenizer reset(CharSequence s, int start, int end) {
+		if ( start < 0 || end > s.length() || start > end ) {
+			throw new IndexOutOfBoundsException("Invalid range [" + start + "," + end + "[ (length " + s.length() + ")");
+		}
+		input = s ;
+		position = start ;
+		limit = end ;
+		hasMoreTokens = true ;
+		tokenStart = start ;
+		tokenEnd = start ;
+		return this ;
+	}
+	
+	/**
+	 * Moves to the next token 
+	 * @return true if there's a token, false if the end of the input has been reached 
+	 */
+	public boolean next() {
+		if ( ! hasMoreTokens ) {
+			return false ;
+		}
+		int i = position ;
+		while ( i < limit ) {
+			char c = input.charAt(i);
+			if ( c == separator ) {
+				break ;
+			}
+			if ( c == openingQuote && openingQuote != NO_QUOTE ) {
+				// skip the quoted part (until the end if not closed)
+				i++;
+				while ( i < limit && input.charAt(i) != closingQuote ) {
+					i++;
+				}
+			}
+			if ( i < limit ) {
+				i++;
+			}
+		}
+		int start = position ;
+		int end = i ;
+		if ( i < limit ) {
+			position = i + 1 ; // after the separator
+		}
+		else {
+			position = limit ;
+			hasMoreTokens = false ; // last token
+		}
+		if ( trim ) {
+			while ( start < end && input.charAt(start) <= ' ' ) {
+				start++;
+			}
+			while ( start < end && input.charAt(end - 1) <= ' ' ) {
+				end--;
+			}
+		}
+		if ( removeQuotes && end - start >= 2 && input.charAt(start) == openingQuote && input.charAt(end - 1) == closingQuote ) {
+			start++;
+			end--;
+		}
+		tokenStart = start ;
+		tokenEnd = end ;
+		return true ;
+	}
+	
+	/**
+	 * Returns the start offset of the current token in the input (inclusive)
+	 * @return
+	 */
+	public int start() {
+		return tokenStart ;
+	}
+	
+	/**
+	 * Returns the end offset of the current token in the input (exclusive)
+	 * @return
+	 */
+	public int end() {
+		return tokenEnd ;
+	}
+	
+	/**
+	 * Returns the length of the current token 
+	 * @return
+	 */
+	public int length() {
+		return tokenEnd - tokenStart ;
+	}
+	
+	/**
+	 * Returns a view of the current token (no copy) <br>
+	 * The view is reused and changes when the tokenizer moves to the next token 
+	 * @return
+	 */
+	public CharSequence token() {
+		return tokenView ;
+	}
+	
+	/**
+	 * Returns the current token as a new String
+	 * @return
+	 */
+	public String tokenString() {
+		if ( input instanceof String ) {
+			return ((String) input).substring(tokenStart, tokenEnd);
+		}
+		return input.subSequence(tokenStart, tokenEnd).toString();
+	}
+	
+	/**
+	 * Returns true if the current token is equal to the given string 
+	 * @param s
+	 * @return
+	 */
+	public boolean tokenEquals(String s) {
+		return s.length() == length() && regionMatches(tokenStart, s) ;
+	}
+	
+	/**
+	 * Returns true if the current token starts with the given string 
+	 * @param s
+	 * @return
+	 */
+	public boolean tokenStartsWith(String s) {
+		return s.length() <= length() && regionMatches(tokenStart, s) ;
+	}
+	
+	/**
+	 * Returns true if the current token ends with the given string 
+	 * @param s
+	 * @return
+	 */
+	public boolean tokenEndsWith(String s) {
+		return s.length() <= length() && regionMatches(tokenEnd - s.length(), s) ;
+	}
+	
+	/**
+	 * Returns the offset in the input of the first occurrence of the given char in the current token 
+	 * @param c
+	 * @param fromIndex offset in the input where to start the search 
+	 * @return the offset in the input or -1 if not found
+	 */
+	public int indexOf(char c, int fromIndex) {
+		for ( int i = Math.max(fromIndex, tokenStart) ; i < tokenEnd ; i++ ) {
+			if ( input.charAt(i) == c ) {
+				return i ;
+			}
+		}
+		return -1 ;
+	}
+	
+	/**
+	 * Returns the input (the string being tokenized)
+	 * @return
+	 */
+	public CharSequence getInput() {
+		return input ;
+	}
+	
+	private boolean regionMatches(int offset, String s) {
+		for ( int i = 0 ; i < s.length() ; i++ ) {
+			if ( input.charAt(offset + i) != s.charAt(i) ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	/**
+	 * View of the current token 
+	 */
+	private final class TokenView implements CharSequence {
+
+		@Override
+		public int length() {
+			return tokenEnd - tokenStart ;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if ( index < 0 || index >= length() ) {
+				throw new IndexOutOfBoundsException("index " + index + ", length " + length());
+			}
+			return input.charAt(tokenStart + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			if ( start < 0 || end > length() || start > end ) {
+				throw new IndexOutOfBoundsException("Invalid range [" + start + "," + end + "[");
+			}
+			return input.subSequence(tokenStart + start, tokenStart + end);
+		}
+
+		@Override
+		public String toString() {
+			return tokenString();
+		}
+	}
+}
@@ -15,6 +15,8 @@
  */
 package org.telosys.tools.commons;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.math.BigDecimal;
 
 /**
@@ -306,29 +308,68 @@ public final class StrUtil
         }
     }
 
+    private static final String QUOT = "&quot;" ;
+    
     /**
-     * Replaces all the quote characters by '&quot;'
+     * Replaces all the quote characters by '&quot;' <br>
+     * The original string is returned if it doesn't contain any quote 
      * @param s
      * @return string with protected characters
      */
     public static final String getProtectedString(final String s) {
         if (s != null) {
-        	StringBuilder sb = new StringBuilder(100);
-        	for ( int i=0 ; i < s.length() ; i++ ) {
-        		char c = s.charAt(i) ;
-        		if ( c == '"') {
-        			sb.append("&quot;");
-        		}
-        		else {
-        			sb.append(c);
-        		}
-        	}
+            //--- 1rst phase : search the first quote (intrinsic search in the JVM)
+            int first = s.indexOf('"');
+            if ( first < 0 ) {
+                return s ;
+            }
+            //--- 2nd phase : replacement in a buffer with the final size
+            int count = 0 ;
+            for ( int i = first ; i >= 0 ; i = s.indexOf('"', i + 1) ) {
+                count++ ;
+            }
+            StringBuilder sb = new StringBuilder(s.length() + count * ( QUOT.length() - 1 ) );
+            int start = 0 ;
+            for ( int i = first ; i >= 0 ; i = s.indexOf('"', start) ) {
+                sb.append(s, start, i).append(QUOT);
+                start = i + 1 ;
+            }
+            sb.append(s, start, s.length());
             return sb.toString();
         }
         else {
             return "";
         }
     }
+
+    /**
+     * Writes the given string in the given output with all the quote characters replaced by '&quot;' (for streaming)
+     * @param s the string to write (nothing is written if null)
+     * @param out
+     * @throws IOException
+     */
+    public static final void getProtectedString(final String s, final Appendable out) throws IOException {
+        if (s != null) {
+            int start = 0 ;
+            for ( int i = s.indexOf('"') ; i >= 0 ; i = s.indexOf('"', start) ) {
+                append(s, start, i, out);
+                out.append(QUOT);
+                start = i + 1 ;
+            }
+            append(s, start, s.length(), out);
+        }
+    }
+    
+    private static void append(String s, int start, int end, Appendable out) throws IOException {
+        if ( start < end ) {
+            if ( out instanceof Writer ) {
+                ((Writer) out).write(s, start, end - start); // no substring
+            }
+            else {
+                out.append(s, start, end);
+            }
+        }
+    }
     
 	/**
 	 * Returns true if s1 equals s2 or if s1 and s2 are both null
@@ -659,24 +700,32 @@ public final class StrUtil
     }
 
     /**
-     * Split a string using the given char as separator ( simple split without "reg exp" )
+     * Split a string using the given char as separator ( simple split without "reg exp" ) <br>
+     * (see StrTokenizer to get the tokens without array and without string creation)
      * @param s : the string to split
      * @param c : the separator
      * @return : array of 'tokens' ( never null, size = 0 if the string is null, else 1 to N )
      */
     public static final String[] split(String s, char c) {
         if (s != null) {
-            char[] chars = s.toCharArray();
-            
             // Count separators
             int count = 0 ;
-            for ( int n = 0 ; n < chars.length ; n++ ) {
-                if ( chars[n] == c ) count++ ;
+            for ( int i = s.indexOf(c) ; i >= 0 ; i = s.indexOf(c, i + 1) ) {
+                count++ ;
             }
             
             if ( count > 0 ) {
             	// At least one separator
-            	return split(chars, c, count+1);
+                String[] tokens = new String[count + 1] ;
+                int iToken = 0 ;
+                int offset = 0 ;
+                for ( int i = s.indexOf(c) ; i >= 0 ; i = s.indexOf(c, offset) ) {
+                    tokens[iToken++] = s.substring(offset, i);
+                    offset = i + 1 ;
+                }
+                //--- Last Token 
+                tokens[iToken] = s.substring(offset);
+                return tokens ;
             }
             else {
                 // No separator
@@ -687,28 +736,7 @@ public final class StrUtil
         }
         return new String[0]; 
     }
-    private static final String[] split(char[] chars, char separator, int numberOfTokens) {
-        String[] tokens = new String[numberOfTokens] ;
-        int iToken = 0;
-        int offset = 0 ;
-        int length = 0 ;
-        for ( int i = 0 ; i < chars.length ; i++ ) {
-            if ( chars[i] == separator ) {
-                //--- Create new token 
-                tokens[iToken] = new String(chars, offset, length );
-                iToken++;
-                //--- Reset 
-                offset = i + 1 ;
-                length = 0 ;
-            }
-            else {
-            	length++;
-            }
-        }
-        //--- Last Token ( current token ) 
-        tokens[iToken] = new String(chars, offset, length );
-        return tokens ;
-    }
+
 	//-------------------------------------------------------------------------------
 	public static final String toCamelCase(String start) {
 		if (nullOrVoid(start)) {
@@ -17,15 +17,24 @@ package org.telosys.tools.commons;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Generic text file reader <br>
  * 
+ * The lines selected by 'parseLine' can be loaded in a list ('loadLines()') or processed in streaming mode 
+ * ('loadLines(Consumer)' or 'lines()') with a bounded heap for large files <br>
+ * (by default the files above FileUtil.MAPPED_READ_THRESHOLD are mapped in memory, 
+ * see FileUtil.newReader for the consequences) 
+ * 
  * @author L. Guerin
  *
  */
@@ -35,16 +44,46 @@ public abstract class TextFileReader {
 	
     private final String filePath ;
     
+    private final Charset charset ;
+    
+    private final boolean mapLargeFile ;
+    
     /**
-     * Constructor 
+     * Constructor (file read with the default charset)
 	 * @param filePath 
 	 */
 	protected TextFileReader(String filePath) {
+		this(filePath, Charset.defaultCharset());
+	}
+
+    /**
+     * Constructor 
+	 * @param filePath 
+	 * @param charset the file charset
+	 * @since 4.3.0
+	 */
+	protected TextFileReader(String filePath, Charset charset) {
+		this(filePath, charset, true);
+	}
+
+    /**
+     * Constructor 
+	 * @param filePath 
+	 * @param charset the file charset
+	 * @param mapLargeFile true to map the large files in memory (see FileUtil.newReader), false to never map the file
+	 * @since 4.3.0
+	 */
+	protected TextFileReader(String filePath, Charset charset, boolean mapLargeFile) {
 		super();
 		if ( filePath == null ) {
 			throw new IllegalArgumentException("File path is null");
 		}
+		if ( charset == null ) {
+			throw new IllegalArgumentException("Charset is null");
+		}
 		this.filePath = filePath;
+		this.charset = charset;
+		this.mapLargeFile = mapLargeFile;
 	}
 
 	/**
@@ -69,66 +108,83 @@ public abstract class TextFileReader {
 		return filePath ;
 	}
 	
+	/**
+	 * Returns the charset used to read the file
+	 * @return
+	 * @since 4.3.0
+	 */
+	public Charset getCharset() {
+		return charset ;
+	}
+	
 	/**
 	 * Loads the lines selected by the abstract implementation
 	 * @return
 	 * @throws GeneratorException
 	 */
 	public List<String> loadLines() {
-    	List<String> list = null ;
-        FileReader fr = getFileReader();
-        BufferedReader br = new BufferedReader(fr, BUFFER_SIZE);
-		try {
-			list = parse(br);
-		} catch (IOException e) {
-			close(br);
-			throw new RuntimeException("IO exception (file '" + filePath + "') ", e );
-		}
-		close(br);
-        close(fr);
+    	List<String> list = new LinkedList<>();
+    	loadLines(list::add);
         return list ;
     }
     
-    private List<String> parse(BufferedReader br) throws IOException {
-    	List<String> lines = new LinkedList<String>();
-        String line;
-        while ((line = br.readLine()) != null) {
-        	parseLine(line, lines);
-        }
-        return lines ;
+	/**
+	 * Loads the lines selected by the abstract implementation in streaming mode <br>
+	 * (each selected line is given to the consumer, the lines are not kept in memory)
+	 * @param consumer
+	 * @return the number of selected lines
+	 * @since 4.3.0
+	 */
+	public int loadLines(Consumer<String> consumer) {
+		int count = 0 ;
+		try ( BufferedReader br = getBufferedReader() ) {
+	    	List<String> selectedLines = new ArrayList<>();
+	        String line;
+	        while ((line = br.readLine()) != null) {
+	        	parseLine(line, selectedLines);
+	        	for ( String selectedLine : selectedLines ) {
+	        		consumer.accept(selectedLine);
+	        	}
+	        	count = count + selectedLines.size() ;
+	        	selectedLines.clear();
+	        }
+		} catch (IOException e) {
+			throw new RuntimeException("IO exception (file '" + filePath + "') ", e );
+		}
+		return count ;
     }
     
+	/**
+	 * Returns a lazy stream of the lines selected by the abstract implementation (same lines as 'loadLines') <br>
+	 * The file is read when the stream is consumed, so the stream must be closed (try-with-resources) 
+	 * @return
+	 * @since 4.3.0
+	 */
+	public Stream<String> lines() {
+		BufferedReader br = getBufferedReader();
+		return br.lines().flatMap(line -> {
+			List<String> selectedLines = new ArrayList<>(1);
+			parseLine(line, selectedLines);
+			return selectedLines.stream();
+		}).onClose(() -> {
+			try {
+				br.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
     /**
-     * Return a FileReader for the current file name or null if the file doesn't exist
+     * Return a reader for the current file name 
      * @return
      */
-    private FileReader getFileReader() {
-    	FileReader fr = null ;
-        try {
-			fr = new FileReader(filePath);
-		} catch (FileNotFoundException e) {
+    private BufferedReader getBufferedReader() {
+    	File file = new File(filePath);
+    	if ( ! file.isFile() ) {
 			throw new RuntimeException("File not found : " + filePath );
-		}
-    	return fr; 
-    }
-    
-    private void close(FileReader fr) {
-    	if ( fr != null ) {
-        	try {
-    			fr.close();
-    		} catch (IOException e) {
-    			// Nothing todo
-    		}
-    	}
-    }
-    
-    private void close(BufferedReader br) {
-    	if ( br != null ) {
-        	try {
-    			br.close();
-    		} catch (IOException e) {
-    			// Nothing todo
-    		}
     	}
+    	Reader reader = FileUtil.newReader(file, charset, mapLargeFile);
+    	return new BufferedReader(reader, BUFFER_SIZE); 
     }
 }
@@ -15,6 +15,9 @@
  */
 package org.telosys.tools.commons;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -38,6 +41,10 @@ public class XmlUtil {
         xmlRepresentation['\''] = "&#039;".toCharArray();
     }
     
+    // bit mask of the characters to escape (all lower than 64)
+    private static final long SPECIAL_CHARS_MASK = 
+            ( 1L << '&' ) | ( 1L << '<' ) | ( 1L << '>' ) | ( 1L << '"' ) | ( 1L << '\'' ) ;
+    
     //-----------------------------------------------------------------------------------
     /** 
      * Private constructor (no instantiation) 
@@ -49,7 +56,8 @@ public class XmlUtil {
     //-----------------------------------------------------------------------------------	
     /**
      * Converts the given original string to an XML string.<br>
-     * Replaces "&", "<", ">", "double quote" and "single quote" 
+     * Replaces "&", "<", ">", "double quote" and "single quote" <br>
+     * The original string is returned if there's nothing to escape 
      * @param originalString
      * @return 
      */
@@ -59,39 +67,104 @@ public class XmlUtil {
     		return "" ;
     	}
     	
-        int start = 0;
+        //--- 1rst phase : search the first special character 
+        int first = indexOfSpecialChar(originalString);
+        if ( first < 0 ) {
+            // escaping not required
+            return originalString;
+        }
+        
+        //--- 2nd phase : escaping in a buffer with the final size
         int length = originalString.length();
-        char[] arrayBuffer = originalString.toCharArray();
-        StringBuilder escapedStringBuffer = null;
-
-        for (int i = 0; i < length; i++) {
-            char c = arrayBuffer[i];
-            if (c <= HIGHEST_SPECIAL) {
-                char[] escaped = xmlRepresentation[c];
-                if (escaped != null) {
-                    // new StringBuffer to build the xml string
-                    if (start == 0) {
-                        escapedStringBuffer = new StringBuilder(length + 5);
-                    }
-                    // add unescaped portion
-                    if (start < i) {
-                        escapedStringBuffer.append(arrayBuffer,start,i-start);
-                    }
-                    start = i + 1;
-                    // add escaped xml
-                    escapedStringBuffer.append(escaped);
-                }
+        int finalLength = length ;
+        for (int i = first; i < length; i++) {
+            char c = originalString.charAt(i);
+            if (c <= HIGHEST_SPECIAL && xmlRepresentation[c] != null) {
+                finalLength += xmlRepresentation[c].length - 1 ;
             }
         }
-        // escaping not required
-        if (start == 0) {
-            return originalString;
+        char[] buffer = new char[finalLength];
+        originalString.getChars(0, first, buffer, 0);
+        int n = first ;
+        for (int i = first; i < length; i++) {
+            char c = originalString.charAt(i);
+            char[] escaped = ( c <= HIGHEST_SPECIAL ? xmlRepresentation[c] : null ) ;
+            if (escaped != null) {
+                System.arraycopy(escaped, 0, buffer, n, escaped.length);
+                n += escaped.length ;
+            }
+            else {
+                buffer[n++] = c ;
+            }
+        }
+        return new String(buffer);
+    }
+    
+    /**
+     * Writes the XML string of the given original string in the given output (for streaming) <br>
+     * Replaces "&", "<", ">", "double quote" and "single quote" 
+     * @param originalString the string to escape (nothing is written if null)
+     * @param out 
+     * @throws IOException
+     */
+    public static void escapeXml(String originalString, Appendable out) throws IOException {
+    	
+    	if ( null == originalString ) {
+    		return ;
+    	}
+        int length = originalString.length();
+        int start = 0 ;
+        for (int i = indexOfSpecialChar(originalString); i >= 0 && i < length; i++) {
+            char c = originalString.charAt(i);
+            if (c <= HIGHEST_SPECIAL && xmlRepresentation[c] != null) {
+                // add unescaped portion and escaped xml
+                append(originalString, start, i, out);
+                start = i + 1 ;
+                append(xmlRepresentation[c], out);
+            }
+        }
+        // add rest of unescaped portion (or the whole string if escaping not required)
+        append(originalString, start, length, out);
+    }
+    
+    private static void append(String s, int start, int end, Appendable out) throws IOException {
+        if ( start < end ) {
+            if ( out instanceof Writer ) {
+                ((Writer) out).write(s, start, end - start); // no substring
+            }
+            else {
+                out.append(s, start, end);
+            }
+        }
+    }
+
+    private static void append(char[] chars, Appendable out) throws IOException {
+        if ( out instanceof Writer ) {
+            ((Writer) out).write(chars);
+        }
+        else {
+            for ( char c : chars ) {
+                out.append(c);
+            }
         }
-        // add rest of unescaped portion
-        if (start < length) {
-            escapedStringBuffer.append(arrayBuffer,start,length-start);
+    }
+
+    /**
+     * Returns the index of the first character to escape (or -1 if none) <br>
+     * Tight loop with only one comparison for most characters and a bit mask 
+     * instead of a table lookup (no array bounds check) 
+     * @param s
+     * @return
+     */
+    private static int indexOfSpecialChar(String s) {
+        int length = s.length();
+        for ( int i = 0 ; i < length ; i++ ) {
+            char c = s.charAt(i);
+            if ( c <= HIGHEST_SPECIAL && ( ( SPECIAL_CHARS_MASK >>> c ) & 1L ) != 0 ) {
+                return i ;
+            }
         }
-        return escapedStringBuffer.toString();
+        return -1 ;
     }
     
     /**
@@ -0,0 +1,66 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons;
+
+/**
+ * Result of an incremental unzip (number of files extracted, unchanged and deleted)
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class ZipUpdateResult {
+
+	private final int extractedFiles ;
+	private final int unchangedFiles ;
+	private final int deletedFiles ;
+	
+	protected ZipUpdateResult(int extractedFiles, int unchangedFiles, int deletedFiles) {
+		super();
+		this.extractedFiles = extractedFiles;
+		this.unchangedFiles = unchangedFiles;
+		this.deletedFiles = deletedFiles;
+	}
+
+	/**
+	 * Returns the number of files extracted (new or changed files)
+	 * @return
+	 */
+	public int getExtractedFiles() {
+		return extractedFiles;
+	}
+
+	/**
+	 * Returns the number of files not extracted (same CRC-32 and size)
+	 * @return
+	 */
+	public int getUnchangedFiles() {
+		return unchangedFiles;
+	}
+
+	/**
+	 * Returns the number of files deleted (no longer in the zip file)
+	 * @return
+	 */
+	public int getDeletedFiles() {
+		return deletedFiles;
+	}
+
+	@Override
+	public String toString() {
+		return "ZipUpdateResult [extractedFiles=" + extractedFiles + ", unchangedFiles=" + unchangedFiles
+				+ ", deletedFiles=" + deletedFiles + "]";
+	}
+}
@@ -16,12 +16,28 @@
 package org.telosys.tools.commons;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 /**
  * Zip utility class to unzip bundles and models after download from GitHub.   
@@ -36,6 +52,12 @@ public class ZipUtil {
 	private static final int MAX_ENTRIES   =      10000; // 10 KB - Secutity threshold to avoid "Zip Bomb" risk
 	private static final int MAX_FILE_SIZE = 1000000000; //  1 GB - Secutity threshold to avoid "Zip Bomb" risk
 	private static final int ZIP_FILE_TOOBIG = -1; 
+	private static final int ZIP_FILE_CANCELLED = -2; 
+	
+	/**
+	 * Max number of threads used for a parallel unzip
+	 */
+	public static final int MAX_THREADS = 16 ;
 	
 	/**
 	 * Private constructor for static class
@@ -89,12 +111,391 @@ public class ZipUtil {
 		}
 	}
 
+	/**
+	 * Unzip the given ZIP file in the given output dir using several threads <br>
+	 * The root part of each file path is removed ( eg 'my-bundle-master/aaa/bbb' -> 'aaa/bbb' ) <br>
+	 * All the directories are created first, then the file entries are inflated concurrently 
+	 * from the same ZipFile by a bounded pool of threads. <br>
+	 * The 'zip bomb' guards are the same as for the sequential unzip (entries are counted 
+	 * before any extraction and the size limit is checked by each worker). <br>
+	 * The first error stops the extraction and is thrown to the caller.
+	 * @param zipFilePath
+	 * @param outputDirPath
+	 * @param createOutputDir
+	 * @param numberOfThreads number of threads (1 for a sequential unzip, max = MAX_THREADS)
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public static void unzip(String zipFilePath, String outputDirPath, boolean createOutputDir, int numberOfThreads) throws TelosysToolsException {
+		if ( numberOfThreads <= 0 || numberOfThreads > MAX_THREADS ) {
+			throw new IllegalArgumentException("Invalid number of threads (" + numberOfThreads + ")");
+		}
+		if ( numberOfThreads == 1 ) {
+			unzip(zipFilePath, outputDirPath, createOutputDir);
+			return;
+		}
+		File file = preprocessing(zipFilePath, outputDirPath, createOutputDir);
+		
+		try ( ZipFile zipFile = new ZipFile(file) ) {
+			// 1) check entries and build the directories skeleton 
+			List<ZipEntry> fileEntries = new ArrayList<>();
+			List<File> destinationFiles = new ArrayList<>();
+			Set<File> directories = new LinkedHashSet<>();
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			int numberOfEntries = 0 ;
+			while (zipEntries.hasMoreElements()) {
+				numberOfEntries++;
+				if ( numberOfEntries > MAX_ENTRIES ) {
+					throw new TelosysToolsException("Too much entries in zip file ('zip bomb' risk, max="+ MAX_ENTRIES+")"); 
+				}
+				ZipEntry zipEntry = zipEntries.nextElement();
+				String entryDestination = cutEntryRootDir(zipEntry.getName());
+				if (entryDestination.length() > 0) {
+					File destinationFile = new File(outputDirPath + File.separator + entryDestination);
+					if (zipEntry.isDirectory()) {
+						directories.add(destinationFile);
+					} else {
+						// parent directory is not always defined as an entry 
+						directories.add(destinationFile.getParentFile());
+						fileEntries.add(zipEntry);
+						destinationFiles.add(destinationFile);
+					}
+				}
+			}
+			for ( File dir : directories ) {
+				DirUtil.createDirectory(dir);
+			}
+			// 2) unzip files concurrently 
+			unzipEntriesInParallel(zipFile, fileEntries, destinationFiles, numberOfThreads);
+		}
+		catch ( IOException ex) {
+			throw new TelosysToolsException("UnZip Error (IOException)", ex); 
+		}
+	}
+
+	private static void unzipEntriesInParallel(final ZipFile zipFile, List<ZipEntry> fileEntries, 
+			List<File> destinationFiles, int numberOfThreads) throws TelosysToolsException {
+		if ( fileEntries.isEmpty() ) {
+			return;
+		}
+		final AtomicBoolean cancelled = new AtomicBoolean(false);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, fileEntries.size()));
+		try {
+			List<Future<Integer>> futures = new ArrayList<>(fileEntries.size());
+			for ( int i = 0 ; i < fileEntries.size() ; i++ ) {
+				final ZipEntry zipEntry = fileEntries.get(i);
+				final File destinationFile = destinationFiles.get(i);
+				futures.add( executor.submit( () -> {
+					if ( cancelled.get() ) {
+						return ZIP_FILE_CANCELLED; // an other entry is in error => skip
+					}
+					int r = unzipEntry(zipFile, zipEntry, destinationFile);
+					if ( r == ZIP_FILE_TOOBIG ) {
+						cancelled.set(true);
+					}
+					return r;
+				} ) );
+			}
+			for ( Future<Integer> future : futures ) {
+				waitForEntry(future, cancelled);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static void waitForEntry(Future<Integer> future, AtomicBoolean cancelled) throws TelosysToolsException {
+		try {
+			if ( future.get() == ZIP_FILE_TOOBIG ) {
+				throw new TelosysToolsException("Output file size too large ('zip bomb' risk, max="+ MAX_FILE_SIZE+" bytes)"); 
+			}
+		} catch (InterruptedException e) {
+			cancelled.set(true);
+			Thread.currentThread().interrupt();
+			throw new TelosysToolsException("UnZip interrupted", e); 
+		} catch (ExecutionException e) {
+			cancelled.set(true);
+			Throwable cause = e.getCause();
+			if ( cause instanceof TelosysToolsException ) {
+				throw (TelosysToolsException) cause ;
+			}
+			throw new TelosysToolsException("UnZip Error (" + cause.getClass().getSimpleName() + ")", cause); 
+		}
+	}
+
+	/**
+	 * Unzip the given ZIP stream in the given output dir (each entry is extracted as soon as it arrives) <br>
+	 * The root part of each file path is removed ( eg 'my-bundle-master/aaa/bbb' -> 'aaa/bbb' ) <br>
+	 * The 'zip bomb' guards are the same as for a ZIP file. <br>
+	 * The given input stream is not closed by this method.
+	 * @param inputStream the ZIP stream (for example an http response body)
+	 * @param outputDirPath
+	 * @param createOutputDir
+	 * @param zipCopyFilePath the file where to keep a copy of the ZIP stream (or null if no copy)
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public static void unzip(InputStream inputStream, String outputDirPath, boolean createOutputDir, String zipCopyFilePath) throws TelosysToolsException {
+		
+		checkOutputDir(outputDirPath, createOutputDir);
+		if ( zipCopyFilePath != null ) {
+			File parentDir = new File(zipCopyFilePath).getAbsoluteFile().getParentFile();
+			if ( parentDir != null ) {
+				DirUtil.createDirectory(parentDir);
+			}
+		}
+		try {
+			unzipStream(inputStream, outputDirPath, zipCopyFilePath);
+		} catch ( TelosysToolsException | RuntimeException ex ) {
+			if ( zipCopyFilePath != null ) {
+				deleteCopy(zipCopyFilePath); // never keep a truncated copy
+			}
+			throw ex ;
+		}
+	}
+	
+	private static void unzipStream(InputStream inputStream, String outputDirPath, String zipCopyFilePath) throws TelosysToolsException {
+		try ( OutputStream copy = ( zipCopyFilePath != null ? new FileOutputStream(zipCopyFilePath) : null ) ;
+			  CopyInputStream in = new CopyInputStream(inputStream, copy) ; 
+			  ZipInputStream zipInputStream = new ZipInputStream(in) ) {
+			ZipEntry zipEntry ;
+			int numberOfEntries = 0 ;
+			while ( ( zipEntry = zipInputStream.getNextEntry() ) != null ) {
+				numberOfEntries++;
+				if ( numberOfEntries > MAX_ENTRIES ) {
+					throw new TelosysToolsException("Too much entries in zip file ('zip bomb' risk, max="+ MAX_ENTRIES+")"); 
+				}
+				String entryDestination = cutEntryRootDir(zipEntry.getName());
+				if (entryDestination.length() > 0) {
+					File destinationFile = new File(outputDirPath + File.separator + entryDestination);
+					if (zipEntry.isDirectory()) {
+						DirUtil.createDirectory(destinationFile);
+					} else {
+						// parent directory is not always defined as an entry 
+						DirUtil.createDirectory(destinationFile.getParentFile());
+						int r = unzipInputStream(zipInputStream, destinationFile);
+		            	if ( r == ZIP_FILE_TOOBIG ) {
+		            		throw new TelosysToolsException("Output file size too large ('zip bomb' risk, max="+ MAX_FILE_SIZE+" bytes)"); 
+		            	}
+					}
+				}
+				zipInputStream.closeEntry();
+			}
+			if ( copy != null ) {
+				// read the end of the stream (central directory) to keep a complete ZIP file 
+				byte[] buffer = new byte[4096];
+				while ( in.read(buffer) >= 0 ) {
+					// nothing to do (just copy)
+				}
+			}
+		}
+		catch ( IOException ex) {
+			throw new TelosysToolsException("UnZip Error (IOException)", ex); 
+		}
+	}
+
+	private static void deleteCopy(String zipCopyFilePath) {
+		try {
+			Files.deleteIfExists(new File(zipCopyFilePath).toPath());
+		} catch (IOException e) {
+			// best effort : the original error is more important
+		}
+	}
+
+	/**
+	 * InputStream writing all the bytes read in an OutputStream (if any) <br>
+	 * The wrapped stream is not closed (it's closed by its owner)
+	 */
+	private static class CopyInputStream extends FilterInputStream {
+		private final OutputStream copy ;
+		protected CopyInputStream(InputStream in, OutputStream copy) {
+			super(in);
+			this.copy = copy;
+		}
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if ( b >= 0 && copy != null ) {
+				copy.write(b);
+			}
+			return b;
+		}
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if ( n > 0 && copy != null ) {
+				copy.write(b, off, n);
+			}
+			return n;
+		}
+		@Override
+		public long skip(long n) throws IOException {
+			if ( copy == null ) {
+				return super.skip(n);
+			}
+			// skipped bytes must be copied too
+			byte[] buffer = new byte[(int) Math.min(n, 4096)];
+			int r = read(buffer, 0, buffer.length);
+			return r < 0 ? 0 : r ;
+		}
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+		@Override
+		public void close() {
+			// nothing to do : the wrapped stream is closed by its owner
+		}
+	}
+
+	/**
+	 * Unzip the given ZIP file in the given output dir in 'incremental' mode <br>
+	 * Only new or changed files are extracted and the files no longer in the ZIP file are deleted. <br>
+	 * A file is considered as unchanged if its CRC-32 and size (stored in the ZIP central directory) 
+	 * are the same as in the manifest written by the previous call, or if the existing file has 
+	 * the same size and the same CRC-32. <br>
+	 * The root part of each file path is removed ( eg 'my-bundle-master/aaa/bbb' -> 'aaa/bbb' ) 
+	 * @param zipFilePath
+	 * @param outputDirPath
+	 * @param manifestFilePath the manifest file (read if it exists and rewritten with the current entries)
+	 * @return the number of files extracted, unchanged and deleted
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public static ZipUpdateResult unzipIncremental(String zipFilePath, String outputDirPath, String manifestFilePath) throws TelosysToolsException {
+
+		File file = preprocessing(zipFilePath, outputDirPath, true);
+		PropertiesManager manifestManager = new PropertiesManager(manifestFilePath);
+		Properties previousManifest = loadManifest(manifestManager);
+		Properties manifest = new Properties();
+		int extracted = 0 ;
+		int unchanged = 0 ;
+		try ( ZipFile zipFile = new ZipFile(file) ) {
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			int numberOfEntries = 0 ;
+			while (zipEntries.hasMoreElements()) {
+				numberOfEntries++;
+				if ( numberOfEntries > MAX_ENTRIES ) {
+					throw new TelosysToolsException("Too much entries in zip file ('zip bomb' risk, max="+ MAX_ENTRIES+")"); 
+				}
+				ZipEntry zipEntry = zipEntries.nextElement();
+				String entryDestination = cutEntryRootDir(zipEntry.getName());
+				if (entryDestination.length() > 0) {
+					File destinationFile = new File(outputDirPath + File.separator + entryDestination);
+					if (zipEntry.isDirectory()) {
+						DirUtil.createDirectory(destinationFile);
+					} else {
+						String key = entryDestination.replace('\\', '/');
+						String signature = zipEntry.getCrc() + "," + zipEntry.getSize() ;
+						manifest.setProperty(key, signature);
+						if ( isUnchanged(zipEntry, destinationFile, signature.equals(previousManifest.getProperty(key))) ) {
+							unchanged++;
+						}
+						else {
+							DirUtil.createDirectory(destinationFile.getParentFile());
+							int r = unzipEntry(zipFile, zipEntry, destinationFile);
+			            	if ( r == ZIP_FILE_TOOBIG ) {
+			            		throw new TelosysToolsException("Output file size too large ('zip bomb' risk, max="+ MAX_FILE_SIZE+" bytes)"); 
+			            	}
+			            	extracted++;
+						}
+					}
+				}
+			}
+		}
+		catch ( IOException ex) {
+			throw new TelosysToolsException("UnZip Error (IOException)", ex); 
+		}
+		int deleted = deleteRemovedFiles(previousManifest, manifest, new File(outputDirPath));
+		try {
+			manifestManager.save(manifest, "Zip manifest (entry=crc32,size)");
+		} catch (RuntimeException ex) {
+			throw new TelosysToolsException("Cannot save zip manifest '" + manifestFilePath + "'", ex); 
+		}
+		return new ZipUpdateResult(extracted, unchanged, deleted);
+	}
+	
+	private static Properties loadManifest(PropertiesManager manifestManager) {
+		try {
+			Properties properties = manifestManager.load();
+			return properties != null ? properties : new Properties();
+		} catch (RuntimeException ex) {
+			// invalid manifest => all the files are checked 
+			return new Properties();
+		}
+	}
+	
+	private static boolean isUnchanged(ZipEntry zipEntry, File destinationFile, boolean sameAsManifest) throws TelosysToolsException {
+		if ( zipEntry.getCrc() < 0 || zipEntry.getSize() < 0 ) {
+			return false ; // unknown CRC or size 
+		}
+		if ( ! destinationFile.isFile() || destinationFile.length() != zipEntry.getSize() ) {
+			return false ;
+		}
+		if ( sameAsManifest ) {
+			return true ;
+		}
+		// not in the manifest (or different) => compare with the existing file 
+		return computeCrc(destinationFile) == zipEntry.getCrc() ;
+	}
+	
+	private static long computeCrc(File file) throws TelosysToolsException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[8192];
+		try ( InputStream is = new FileInputStream(file) ) {
+			int n ;
+			while ( ( n = is.read(buffer) ) > 0 ) {
+				crc.update(buffer, 0, n);
+			}
+		}
+		catch ( IOException ex) {
+			throw new TelosysToolsException("Cannot read file '" + file + "'", ex); 
+		}
+		return crc.getValue();
+	}
+	
+	private static int deleteRemovedFiles(Properties previousManifest, Properties manifest, File outputDir) throws TelosysToolsException {
+		int deleted = 0 ;
+		for ( String key : previousManifest.stringPropertyNames() ) {
+			if ( ! manifest.containsKey(key) ) {
+				File removedFile = new File(outputDir, key);
+				try {
+					if ( Files.deleteIfExists(removedFile.toPath()) ) {
+						deleted++;
+						deleteEmptyParents(removedFile.getParentFile(), outputDir);
+					}
+				} catch (IOException ex) {
+					throw new TelosysToolsException("Cannot delete file '" + removedFile + "'", ex); 
+				}
+			}
+		}
+		return deleted ;
+	}
+
+	private static void deleteEmptyParents(File dir, File outputDir) throws IOException {
+		File current = dir ;
+		while ( current != null && ! current.equals(outputDir) ) {
+			String[] content = current.list();
+			if ( content == null || content.length > 0 ) {
+				return ;
+			}
+			Files.delete(current.toPath());
+			current = current.getParentFile();
+		}
+	}
+
 	private static File preprocessing(String zipFilePath, String outputDirPath, boolean createOutputDir) throws TelosysToolsException {
 		// check ZIP file existence
 		File file = new File(zipFilePath);
 		if ( ! file.isFile() ) {
 			throw new TelosysToolsException("Cannot UnZip : '" + zipFilePath + "' is not a file");
 		}
+		checkOutputDir(outputDirPath, createOutputDir);
+		return file;
+	}
+
+	private static void checkOutputDir(String outputDirPath, boolean createOutputDir) throws TelosysToolsException {
 		// check output directory existence
 		File folder = new File(outputDirPath);
 		if (!folder.exists()) {
@@ -105,7 +506,6 @@ public class ZipUtil {
 				throw new TelosysToolsException("Cannot UnZip : destination dir '" + outputDirPath + "' doesn't exist");
 			}
 		}
-		return file;
 	}
 	
 	private static int unzipEntry(ZipFile zipFile, ZipEntry zipEntry, File destinationFile) throws TelosysToolsException {
@@ -16,13 +16,17 @@
 package org.telosys.tools.commons.bundles;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.LinkedList;
 import java.util.List;
 
 import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.commons.DirectoryDeleter;
 import org.telosys.tools.commons.FileUtil;
 import org.telosys.tools.commons.StrUtil;
 import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.ZipUpdateResult;
 import org.telosys.tools.commons.ZipUtil;
 import org.telosys.tools.commons.cfg.TelosysToolsCfg;
 import org.telosys.tools.commons.depot.Depot;
@@ -134,7 +138,7 @@ public class BundlesManager {
 	 * @throws TelosysToolsException
 	 */
 	public String downloadBundleBranch(Depot depot, String bundleName, String branch) throws TelosysToolsException {
-		String downloadedFile = FileUtil.buildFilePath(telosysToolsCfg.getDownloadsFolderAbsolutePath(), bundleName + ".zip");		
+		String downloadedFile = getDownloadedFilePath(bundleName);
 		DepotClient depotClient = DepotClientProvider.getDepotClient(depot, telosysToolsCfg);
 		depotClient.downloadRepositoryBranch(depot, bundleName, branch, downloadedFile);
 		return downloadedFile;
@@ -152,6 +156,71 @@ public class BundlesManager {
 		String downloadedFile = downloadBundleBranch(depot, bundleName, branch) ;
 		return installBundle(downloadedFile, bundleName);
 	}
+	
+	/**
+	 * Dowloads the given bundle from the given depot and install it while downloading <br>
+	 * (each zip entry is extracted as soon as it arrives, the zip file is not written and read again)
+	 * @param depot
+	 * @param bundleName
+	 * @param branch
+	 * @param keepZipFile true to keep a copy of the zip file in the downloads folder 
+	 * @return true if installed, false if the bundle is already installed
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public boolean downloadAndInstallBundleBranch(Depot depot, String bundleName, String branch, boolean keepZipFile) throws TelosysToolsException {
+		if ( isBundleAlreadyInstalled( bundleName ) ) {
+			return false ;
+		}
+		String bundleFolder = telosysToolsCfg.getTemplatesFolderAbsolutePath(bundleName) ;
+		String zipCopyFile = keepZipFile ? getDownloadedFilePath(bundleName) : null ;
+		DepotClient depotClient = DepotClientProvider.getDepotClient(depot, telosysToolsCfg);
+		try {
+			depotClient.downloadAndUnzipRepositoryBranch(depot, bundleName, branch, bundleFolder, zipCopyFile);
+			return true;
+		} catch (TelosysToolsException e) {
+			// never keep a partially installed bundle
+			deleteBundle(bundleName);
+			throw e ;
+		}
+	}
+	
+	private String getDownloadedFilePath(String bundleName) {
+		return FileUtil.buildFilePath(telosysToolsCfg.getDownloadsFolderAbsolutePath(), bundleName + ".zip");
+	}
+
+	/**
+	 * Dowloads the given bundle from the given depot and updates the bundle (incremental install) 
+	 * @param depot
+	 * @param bundleName
+	 * @param branch
+	 * @return the number of files extracted, unchanged and deleted
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public ZipUpdateResult downloadAndUpdateBundleBranch(Depot depot, String bundleName, String branch) throws TelosysToolsException {
+		String downloadedFile = downloadBundleBranch(depot, bundleName, branch) ;
+		return updateBundle(downloadedFile, bundleName);
+	}
+	
+	/**
+	 * Updates (or installs) the bundle with the given zip file <br>
+	 * Only the new or changed files are extracted and the files no longer in the zip file are deleted <br>
+	 * (comparison based on the CRC-32 and size of each zip entry and a manifest written at each update)
+	 * @param zipFileName
+	 * @param bundleName
+	 * @return the number of files extracted, unchanged and deleted
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public ZipUpdateResult updateBundle( String zipFileName, String bundleName ) throws TelosysToolsException {
+		String bundleFolder = telosysToolsCfg.getTemplatesFolderAbsolutePath(bundleName) ;
+		return ZipUtil.unzipIncremental(zipFileName, bundleFolder, getManifestFilePath(bundleName)) ;
+	}
+	
+	private String getManifestFilePath(String bundleName) {
+		return FileUtil.buildFilePath(telosysToolsCfg.getDownloadsFolderAbsolutePath(), bundleName + ".bundle.manifest");
+	}
 	//--------------------------------------------------------------------------------------------------
 	/**
 	 * Return a list of bundles available in a depot (GitHub,..)
@@ -199,11 +268,20 @@ public class BundlesManager {
 		if ( file.exists() && file.isDirectory() ) {
 			// Bundle directory found => deleted it 
 			DirUtil.deleteDirectory(file);
+			deleteManifest(getManifestFilePath(bundleName));
 			return true ;
 		}
 		return false ;
 	}
 	
+	private void deleteManifest(String manifestFilePath) throws TelosysToolsException {
+		try {
+			Files.deleteIfExists(new File(manifestFilePath).toPath());
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot delete manifest '" + manifestFilePath + "'", e);
+		}
+	}
+	
 	/**
 	 * Returns all the bundles in the project (each bundle as a directory) 
 	 * @return
@@ -223,12 +301,14 @@ public class BundlesManager {
 	}	
 	
 	/**
-	 * Returns true if the given file is a 'bundle' ( a directory containing a bundle configuration file )
+	 * Returns true if the given file is a 'bundle' ( a directory containing a bundle configuration file ) <br>
+	 * (a directory being deleted in background is not a bundle)
 	 * @param file
 	 * @return
 	 */
 	public boolean isBundle(File file) {
-		return file != null && file.isDirectory() && isBundleConfigFileExists(file.getName() ) ;
+		return file != null && file.isDirectory() && ! file.getName().startsWith(DirectoryDeleter.TRASH_PREFIX) 
+				&& isBundleConfigFileExists(file.getName() ) ;
 	}
 	
 	/**
@@ -23,7 +23,7 @@ import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.telosys.tools.commons.StrUtil;
+import org.telosys.tools.commons.StrTokenizer;
 import org.telosys.tools.commons.TelosysToolsException;
 
 /**
@@ -36,6 +36,8 @@ import org.telosys.tools.commons.TelosysToolsException;
 public class TargetsFile {
 	
     private static final int  BUFFER_SIZE  = 2048;
+    
+    private static final int  FIELDS  = 5; // name ; file ; folder ; template ; type
 	
     private final String templatesCfgAbsolutePath ;
     
@@ -91,45 +93,48 @@ public class TargetsFile {
     private List<TargetDefinition> parse(BufferedReader br) throws IOException
     {
     	LinkedList<TargetDefinition> list = new LinkedList<>();
+    	// one tokenizer for all the lines (the fields are trimmed without intermediate string)
+    	StrTokenizer tokenizer = new StrTokenizer(';', true);
+    	int[] starts = new int[FIELDS];
+    	int[] ends   = new int[FIELDS];
         String sLine;
-        String[] fields = null;
         while ((sLine = br.readLine()) != null)
         {
-        	sLine = sLine.trim() ;
-            if (sLine.length() > 0)
+        	int first = firstNonBlank(sLine);
+            if ( first >= 0 && sLine.charAt(first) != '#' ) // not void and not a comment
             {
-                if ( ! isComment(sLine))
-                {
-                	fields = StrUtil.split(sLine, ';');
-                	if ( fields.length >= 4 )
-                	{
-                    	if ( fields.length >= 5 ) {
-                    		//--- Has a "once" indicator
-                    		list.add( new TargetDefinition( fields[0].trim(), 
-                    				fields[1].trim(), fields[2].trim(), fields[3].trim(), fields[4].trim() ) ) ;
-                    	}
-                    	else {
-                    		//--- No "once" indicator (for backward compatibility)
-                    		list.add( new TargetDefinition( fields[0].trim(), 
-                    				fields[1].trim(), fields[2].trim(), fields[3].trim(), "" ) ) ;
-                    	}
-                	}
-                }
+            	tokenizer.reset(sLine);
+            	int n = 0 ;
+            	while ( n < FIELDS && tokenizer.next() ) {
+            		starts[n] = tokenizer.start();
+            		ends[n] = tokenizer.end();
+            		n++;
+            	}
+            	if ( n >= 4 )
+            	{
+            		// no "once" indicator if only 4 fields (for backward compatibility)
+            		list.add( new TargetDefinition( sLine.substring(starts[0], ends[0]), 
+            				sLine.substring(starts[1], ends[1]), sLine.substring(starts[2], ends[2]), 
+            				sLine.substring(starts[3], ends[3]), n >= 5 ? sLine.substring(starts[4], ends[4]) : "" ) ) ;
+            	}
             }
         }
         return list ;
     }
     
-    private boolean isComment(String sLine)
+    /**
+     * Returns the index of the first non blank character (or -1 if the line is void)
+     * @param sLine
+     * @return
+     */
+    private int firstNonBlank(String sLine)
     {
-    	if ( sLine != null )
-    	{
-            if (sLine.trim().startsWith("#"))
-            {
-                return true;
-            }
+    	for ( int i = 0 ; i < sLine.length() ; i++ ) {
+    		if ( sLine.charAt(i) > ' ' ) {
+    			return i ;
+    		}
     	}
-        return false;
+    	return -1 ;
     }
 
     /**
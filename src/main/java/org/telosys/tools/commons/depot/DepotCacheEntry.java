@@ -0,0 +1,84 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.depot;
+
+import java.util.List;
+
+/**
+ * A depot response page kept in the depot cache : <br>
+ * the validators ('ETag' and 'Last-Modified') used for conditional requests <br>
+ * and the content of the page (the 'Link' header and the elements found in the body) 
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class DepotCacheEntry {
+
+	private final String url ;
+	
+	private final String etag ;
+	
+	private final String lastModified ;
+	
+	private final String link ;
+	
+	private final List<DepotElement> elements ;
+
+	/**
+	 * Constructor
+	 * @param url the request URL 
+	 * @param etag the 'ETag' header value (or null)
+	 * @param lastModified the 'Last-Modified' header value (or null)
+	 * @param link the 'Link' header value (or null)
+	 * @param elements the elements found in the response body 
+	 */
+	public DepotCacheEntry(String url, String etag, String lastModified, String link, List<DepotElement> elements) {
+		super();
+		this.url = url;
+		this.etag = etag;
+		this.lastModified = lastModified;
+		this.link = link;
+		this.elements = elements;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	public String getLastModified() {
+		return lastModified;
+	}
+
+	public String getLink() {
+		return link;
+	}
+
+	public List<DepotElement> getElements() {
+		return elements;
+	}
+
+	/**
+	 * Returns true if the entry can be used for a conditional request 
+	 * @return
+	 */
+	public boolean hasValidator() {
+		return etag != null || lastModified != null ;
+	}
+}
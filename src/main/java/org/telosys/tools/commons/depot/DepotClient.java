@@ -15,7 +15,11 @@
  */
 package org.telosys.tools.commons.depot;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.ZipUtil;
 
 public interface DepotClient {
 
@@ -38,4 +42,39 @@ public interface DepotClient {
 	 */
 	long downloadRepositoryBranch(Depot depot, String repoName, String branch, String downloadedFile) throws TelosysToolsException;
 
+	/**
+	 * Download a repository from the given depot and unzip it <br>
+	 * By default the zip file is downloaded (in 'zipCopyFile' or in a temporary file) and then unzipped, <br>
+	 * an implementation can unzip it while downloading (no intermediate file)
+	 * @param depot
+	 * @param repoName repository to download 
+	 * @param branch   repository branch to download
+	 * @param outputDir the directory where to unzip the repository
+	 * @param zipCopyFile the file where to keep a copy of the zip (or null if no copy)
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	default void downloadAndUnzipRepositoryBranch(Depot depot, String repoName, String branch, String outputDir, String zipCopyFile) throws TelosysToolsException {
+		File zipFile ;
+		if ( zipCopyFile != null ) {
+			zipFile = new File(zipCopyFile);
+		}
+		else {
+			try {
+				zipFile = File.createTempFile("telosys-" + repoName + "-", ".zip");
+			} catch (IOException e) {
+				throw new TelosysToolsException("Cannot create temporary file for '" + repoName + "'", e);
+			}
+		}
+		try {
+			downloadRepositoryBranch(depot, repoName, branch, zipFile.getAbsolutePath());
+			ZipUtil.unzip(zipFile.getAbsolutePath(), outputDir, true);
+		}
+		finally {
+			if ( zipCopyFile == null && ! zipFile.delete() ) {
+				zipFile.deleteOnExit();
+			}
+		}
+	}
+
 }
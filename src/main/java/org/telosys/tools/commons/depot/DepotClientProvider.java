@@ -40,7 +40,9 @@ public class DepotClientProvider {
 			throw new TelosysToolsException("getDepotClient: depot arg is null");
 		}
 		if (depot.isGitHubDepot()) {
-			return new GitHubClient(telosysToolsCfg.getCfgFileAbsolutePath());
+			// v 4.3.0 : with response cache in the 'downloads' folder 
+			return new GitHubClient(telosysToolsCfg.getCfgFileAbsolutePath(), GitHubClient.DEFAULT_MAX_PARALLEL_REQUESTS, 
+					new DepotResponseCache(telosysToolsCfg.getDownloadsFolderAbsolutePath()) );
 		}
 		else if (depot.isGitLabDepot()) {
 			throw new TelosysToolsException("GitLab depot is not yet supported");
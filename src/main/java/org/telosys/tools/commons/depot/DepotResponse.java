@@ -19,7 +19,7 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
-import org.telosys.tools.commons.Filter;
+import org.telosys.tools.commons.CompiledFilter;
 
 /**
  * This class holds a list of bubdles provided by a "depot" (GitHub, GitLab, etc) <br>
@@ -145,13 +145,14 @@ public class DepotResponse {
 	 * @return
 	 */
 	public List<DepotElement> filterElementsByName(List<String> criteria) {
-		if ( Filter.noCriteria(criteria)) {
+		CompiledFilter filter = CompiledFilter.compile(criteria);
+		if ( filter.isMatchAll() ) {
 			return elements; // no filtering
 		}
 		else {
 			List<DepotElement> result = new LinkedList<>();
 			for ( DepotElement element : elements ) {
-				if ( Filter.keepElement(element.getName(), criteria) ) {
+				if ( filter.matches(element.getName()) ) {
 					result.add(element);
 				}
 			}
@@ -0,0 +1,176 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.depot;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.telosys.tools.commons.PropertiesManager;
+
+/**
+ * Persistent cache for depot responses (one properties file per request URL) <br>
+ * Used to send conditional requests ('If-None-Match' / 'If-Modified-Since') <br>
+ * and to rebuild the depot elements when the depot replies '304 Not Modified'. <br>
+ * 
+ * The cache is a 'best effort' cache : an entry that cannot be read or written is just ignored.
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class DepotResponseCache {
+
+	public static final String CACHE_FOLDER_NAME = "depot-cache" ;
+	
+	private static final String URL           = "url" ;
+	private static final String ETAG          = "etag" ;
+	private static final String LAST_MODIFIED = "lastModified" ;
+	private static final String LINK          = "link" ;
+	private static final String COUNT         = "count" ;
+	
+	private static final String ID             = ".id" ;
+	private static final String NAME           = ".name" ;
+	private static final String DESCRIPTION    = ".description" ;
+	private static final String SIZE           = ".size" ;
+	private static final String DEFAULT_BRANCH = ".defaultBranch" ;
+	private static final String VISIBILITY     = ".visibility" ;
+	
+	private final File cacheFolder ;
+	
+	/**
+	 * Constructor 
+	 * @param parentFolder the folder where to create the cache folder (typically the 'downloads' folder)
+	 */
+	public DepotResponseCache(String parentFolder) {
+		super();
+		if ( parentFolder == null ) {
+			throw new IllegalArgumentException("Parent folder is null");
+		}
+		this.cacheFolder = new File(parentFolder, CACHE_FOLDER_NAME);
+	}
+	
+	/**
+	 * Returns the cache folder (there's no guarantee the folder exists)
+	 * @return
+	 */
+	public File getCacheFolder() {
+		return cacheFolder;
+	}
+
+	/**
+	 * Returns the file used to store the entry for the given URL
+	 * @param url
+	 * @return
+	 */
+	protected File getCacheFile(String url) {
+		return new File(cacheFolder, hash(url) + ".properties");
+	}
+	
+	private String hash(String url) {
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-1");
+			byte[] digest = md.digest(url.getBytes(StandardCharsets.UTF_8));
+			StringBuilder sb = new StringBuilder(digest.length * 2);
+			for ( byte b : digest ) {
+				sb.append(String.format("%02x", b));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-1 is supported by all JVM 
+			return Integer.toHexString(url.hashCode());
+		}
+	}
+	
+	/**
+	 * Returns the cache entry for the given URL 
+	 * @param url
+	 * @return the entry or null if none (or if it cannot be loaded)
+	 */
+	public DepotCacheEntry get(String url) {
+		File file = getCacheFile(url);
+		try {
+			Properties properties = new PropertiesManager(file).load();
+			if ( properties == null || ! url.equals(properties.getProperty(URL)) ) {
+				return null ;
+			}
+			int count = Integer.parseInt(properties.getProperty(COUNT));
+			List<DepotElement> elements = new ArrayList<>(count);
+			for ( int i = 0 ; i < count ; i++ ) {
+				String prefix = String.valueOf(i);
+				elements.add(new DepotElement(
+						Long.parseLong(properties.getProperty(prefix + ID)),
+						properties.getProperty(prefix + NAME),
+						properties.getProperty(prefix + DESCRIPTION),
+						Long.parseLong(properties.getProperty(prefix + SIZE)),
+						properties.getProperty(prefix + DEFAULT_BRANCH),
+						properties.getProperty(prefix + VISIBILITY) ) );
+			}
+			return new DepotCacheEntry(url, properties.getProperty(ETAG), properties.getProperty(LAST_MODIFIED), 
+					properties.getProperty(LINK), elements);
+		} catch (RuntimeException e) {
+			// invalid or unreadable entry => no entry 
+			return null ;
+		}
+	}
+	
+	/**
+	 * Stores the given entry in the cache (if the entry has a validator)
+	 * @param entry
+	 * @return true if stored
+	 */
+	public boolean put(DepotCacheEntry entry) {
+		if ( ! entry.hasValidator() ) {
+			return false ;
+		}
+		Properties properties = new Properties();
+		properties.setProperty(URL, entry.getUrl());
+		setIfNotNull(properties, ETAG, entry.getEtag());
+		setIfNotNull(properties, LAST_MODIFIED, entry.getLastModified());
+		setIfNotNull(properties, LINK, entry.getLink());
+		List<DepotElement> elements = entry.getElements();
+		properties.setProperty(COUNT, String.valueOf(elements.size()));
+		int i = 0 ;
+		for ( DepotElement e : elements ) {
+			String prefix = String.valueOf(i++);
+			properties.setProperty(prefix + ID, String.valueOf(e.getId()));
+			setIfNotNull(properties, prefix + NAME, e.getName());
+			setIfNotNull(properties, prefix + DESCRIPTION, e.getDescription());
+			properties.setProperty(prefix + SIZE, String.valueOf(e.getSize()));
+			setIfNotNull(properties, prefix + DEFAULT_BRANCH, e.getDefaultBranch());
+			setIfNotNull(properties, prefix + VISIBILITY, e.getVisibility());
+		}
+		try {
+			if ( ! cacheFolder.exists() && ! cacheFolder.mkdirs() ) {
+				return false ;
+			}
+			new PropertiesManager(getCacheFile(entry.getUrl())).save(properties, "Depot response cache");
+			return true ;
+		} catch (RuntimeException e) {
+			// cannot save => no entry 
+			return false ;
+		}
+	}
+	
+	private void setIfNotNull(Properties properties, String key, String value) {
+		if ( value != null ) {
+			properties.setProperty(key, value);
+		}
+	}
+}
@@ -16,24 +16,30 @@
 package org.telosys.tools.commons.github;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
-import org.telosys.tools.commons.StrUtil;
+import org.telosys.tools.commons.StrTokenizer;
 import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.ZipUtil;
 import org.telosys.tools.commons.depot.Depot;
+import org.telosys.tools.commons.depot.DepotCacheEntry;
 import org.telosys.tools.commons.depot.DepotClient;
 import org.telosys.tools.commons.depot.DepotElement;
 import org.telosys.tools.commons.depot.DepotRateLimit;
 import org.telosys.tools.commons.depot.DepotResponse;
+import org.telosys.tools.commons.depot.DepotResponseCache;
 import org.telosys.tools.commons.http.HttpClient;
 import org.telosys.tools.commons.http.HttpResponse;
+import org.telosys.tools.commons.http.HttpStreamResponse;
 import org.telosys.tools.commons.variables.VariablesManager;
 
 /**
@@ -49,18 +55,54 @@ public class GitHubClient implements DepotClient {
 	// v 4.2.0 (with branch parameter)
 	private static final String DOWNLOAD_BRANCH_URL_PATTERN = "https://github.com/${DEPOT}/${REPO}/archive/refs/heads/${BRANCH}.zip" ;
 
+	// v 4.3.0 : pages requested in parallel when the last page is known
+	public static final int DEFAULT_MAX_PARALLEL_REQUESTS = 4 ;
+	// minimum number of requests that must remain available (rate limit) after the parallel requests 
+	private static final int RATE_LIMIT_SAFETY_MARGIN = 10 ;
+
 	private final String propertiesFileAbsolutePath ;
 	
+	private final int maxParallelRequests ;
+	
+	// v 4.3.0 : cache for conditional requests (or null if none)
+	private final DepotResponseCache responseCache ;
+	
 	/**
 	 * Constructor
 	 * @param propertiesFileAbsolutePath
 	 */
 	public GitHubClient(String propertiesFileAbsolutePath) {
+		this(propertiesFileAbsolutePath, DEFAULT_MAX_PARALLEL_REQUESTS);
+	}
+	
+	/**
+	 * Constructor
+	 * @param propertiesFileAbsolutePath
+	 * @param maxParallelRequests max number of pages requested in parallel (1 for sequential requests)
+	 * @since 4.3.0
+	 */
+	public GitHubClient(String propertiesFileAbsolutePath, int maxParallelRequests) {
+		this(propertiesFileAbsolutePath, maxParallelRequests, null);
+	}
+	
+	/**
+	 * Constructor
+	 * @param propertiesFileAbsolutePath
+	 * @param maxParallelRequests max number of pages requested in parallel (1 for sequential requests)
+	 * @param responseCache cache used for conditional requests (or null if none)
+	 * @since 4.3.0
+	 */
+	public GitHubClient(String propertiesFileAbsolutePath, int maxParallelRequests, DepotResponseCache responseCache) {
 		super();
 		if ( propertiesFileAbsolutePath == null ) {
 			throw new IllegalArgumentException("File path argument is mandatory");
 		}
+		if ( maxParallelRequests < 1 ) {
+			throw new IllegalArgumentException("Invalid max parallel requests (" + maxParallelRequests + ")");
+		}
 		this.propertiesFileAbsolutePath = propertiesFileAbsolutePath;
+		this.maxParallelRequests = maxParallelRequests;
+		this.responseCache = responseCache;
 	}
 	
 	private HttpClient buildHttpClient() {
@@ -93,43 +135,52 @@ public class GitHubClient implements DepotClient {
 	 * @throws TelosysToolsException
 	 */
 	private HttpResponse httpGet( String url ) throws TelosysToolsException {
+		return httpGet(url, buildRequestHeaders());
+	}
+	
+	/**
+	 * @param url
+	 * @param headers
+	 * @return
+	 * @throws TelosysToolsException
+	 */
+	private HttpResponse httpGet( String url, Map<String, String> headers ) throws TelosysToolsException {
 		HttpClient httpClient = buildHttpClient();
 		try {
 			// Sometimes GitHub return a 403 status code 
-			return httpClient.get(url, buildRequestHeaders() );
+			return httpClient.get(url, headers );
 		} catch (Exception e) {
 			throw new TelosysToolsException("HTTP 'GET' error " + e.getMessage(), e);
 		}
 	}
 	
-	private DepotElement buildDepotElementFromJSON(JSONObject jsonObject) throws TelosysToolsException {		
-		long   id   = getLongAttribute(jsonObject, "id");
-		String name = getStringAttribute(jsonObject, "name", "(#"+id+"-no-name)");
-		String description = getStringAttribute(jsonObject, "description", "");
-		long   size = getLongAttribute(jsonObject, "size");
-		String defaultBranch = getStringAttribute(jsonObject, "default_branch", ""); // v 4.2.0
-		String visibility = getStringAttribute(jsonObject, "visibility", ""); // v 4.2.0
-		return new DepotElement(id, name, description, size, defaultBranch, visibility );
+	/**
+	 * @param url
+	 * @param headers
+	 * @return the response (to be closed)
+	 * @throws TelosysToolsException
+	 */
+	private HttpStreamResponse httpGetStream( String url, Map<String, String> headers ) throws TelosysToolsException {
+		HttpClient httpClient = buildHttpClient();
+		try {
+			return httpClient.getStream(url, headers );
+		} catch (Exception e) {
+			throw new TelosysToolsException("HTTP 'GET' error " + e.getMessage(), e);
+		}
 	}
 	
-	private void getDepotElementsFromJSON(String responseBody, List<DepotElement> repositories) throws TelosysToolsException {
-
-		// JSON parsing
-		JSONParser parser = new JSONParser();
-		try {
-			Object object = parser.parse(responseBody);
-			if ( object instanceof JSONArray ) {
-				JSONArray jsonArray = (JSONArray) object ;
-				for ( Object repositoryObject: jsonArray ) {
-					JSONObject jsonObject = (JSONObject) repositoryObject ; 
-					repositories.add( buildDepotElementFromJSON(jsonObject) );
-				}
-			}
-			else {
-				throw new TelosysToolsException("JSON error : array expected as root");
-			}
-		} catch (ParseException e) {
-			throw new TelosysToolsException("JSON error : cannot parse the JSON response.");
+	/**
+	 * A page of repositories : rate limit and status/link to be used <br>
+	 * (the status is 200 and the link comes from the cache if the page is not modified)
+	 */
+	private static class Page {
+		private final DepotRateLimit rateLimit ;
+		private final int statusCode ;
+		private final String link ;
+		private Page(DepotRateLimit rateLimit, int statusCode, String link) {
+			this.rateLimit = rateLimit;
+			this.statusCode = statusCode;
+			this.link = link;
 		}
 	}
 	
@@ -146,110 +197,272 @@ public class GitHubClient implements DepotClient {
 		int numberOfRequests = 1; 
 		// Call GitHub API via HTTP
 		// Get first page 
-		HttpResponse httpResponse = getRepositoriesPage(initialURL, depotElements);
+		Page page = getRepositoriesPage(initialURL, depotElements);
 		// Get next pages if any
-		String nextPageURL = getNextPageURL(httpResponse);
-		while ( httpResponse.getStatusCode() == 200 && nextPageURL != null ) {
-			httpResponse = getRepositoriesPage(nextPageURL, depotElements);
-			nextPageURL = getNextPageURL(httpResponse);
+		String nextPageURL = getPageURL(page, "next");
+		if ( page.statusCode == 200 && nextPageURL != null ) {
+			List<String> pagesURL = getNextPagesURL(page);
+			if ( pagesURL != null ) {
+				// last page is known => pages requested in parallel
+				List<Page> pages = getRepositoriesPagesInParallel(pagesURL, depotElements);
+				numberOfRequests = numberOfRequests + pagesURL.size();
+				page = selectPageForResult(pages);
+				nextPageURL = null;
+			}
+		}
+		while ( page.statusCode == 200 && nextPageURL != null ) {
+			page = getRepositoriesPage(nextPageURL, depotElements);
+			nextPageURL = getPageURL(page, "next");
 			numberOfRequests++;
 		}
 
 		// Rate Limit from http headers 
-		GitHubRateLimit rl = new GitHubRateLimit(httpResponse);
-		DepotRateLimit rateLimit = new DepotRateLimit(rl.getLimit(), rl.getRemaining(), rl.getReset());
+		DepotRateLimit rateLimit = page.rateLimit;
 		// Return the result
-		return new DepotResponse(depot.getDefinition(), initialURL, httpResponse.getStatusCode(), depotElements, rateLimit, numberOfRequests);
+		return new DepotResponse(depot.getDefinition(), initialURL, page.statusCode, depotElements, rateLimit, numberOfRequests);
 	}
 	
-	private HttpResponse getRepositoriesPage(String url, List<DepotElement> depotElements ) throws TelosysToolsException {
-		HttpResponse httpResponse = httpGet(url);
-		
-		if ( httpResponse.getStatusCode() == 200 ) { 
-			// Parse the response body (repositories list in JSON format) 
-			getDepotElementsFromJSON(new String(httpResponse.getBodyContent()), depotElements);
-		}
-		// If status is 403 : noting to do (the ratelimit is provided in the result)
-		return httpResponse;
+	private DepotRateLimit buildDepotRateLimit(HttpStreamResponse httpResponse) {
+		GitHubRateLimit rl = new GitHubRateLimit(httpResponse);
+		return new DepotRateLimit(rl.getLimit(), rl.getRemaining(), rl.getReset());
 	}
 	
-	private String getNextPageURL(HttpResponse httpResponse) {
-		String linkHeader = getLinkFromHeaders(httpResponse);
-		if ( linkHeader != null ) {
-			String[] links = StrUtil.split(linkHeader, ',' );
-			for ( String sRaw : links ) {
-				String s = sRaw.trim();
-				if (s.endsWith("rel=\"next\"")) {
-					// link for "next page" 
-					// example : <https://api.github.com/organizations/20856286/repos?per_page=2&page=4>; rel="next"
-					return StrUtil.extractStringBetween(s, "<", ">");
+	private Page getRepositoriesPage(String url, List<DepotElement> depotElements ) throws TelosysToolsException {
+		// v 4.3.0 : conditional request if the page is in the cache
+		DepotCacheEntry cacheEntry = responseCache != null ? responseCache.get(url) : null ;
+		// v 4.3.0 : the body is parsed as it arrives (not buffered in memory)
+		try ( HttpStreamResponse httpResponse = httpGetStream(url, buildConditionalRequestHeaders(cacheEntry)) ) {
+			DepotRateLimit rateLimit = buildDepotRateLimit(httpResponse);
+			if ( httpResponse.getStatusCode() == 200 ) { 
+				// Parse the response body (repositories list in JSON format) 
+				// v 4.3.0 : streaming parser (only the attributes used are decoded) 
+				List<DepotElement> pageElements = new LinkedList<>();
+				new GitHubRepositoriesParser().parse(httpResponse.getInputStream(), pageElements);
+				depotElements.addAll(pageElements);
+				String link = getLinkFromHeaders(httpResponse);
+				if ( responseCache != null ) {
+					responseCache.put(new DepotCacheEntry(url, httpResponse.getHeader("ETag"), httpResponse.getHeader("Last-Modified"), 
+							link, pageElements) );
 				}
+				return new Page(rateLimit, 200, link);
 			}
+			else if ( httpResponse.getStatusCode() == 304 && cacheEntry != null ) {
+				// Not modified : same elements as in the cache (no JSON parsing)
+				depotElements.addAll(cacheEntry.getElements());
+				return new Page(rateLimit, 200, cacheEntry.getLink());
+			}
+			// If status is 403 : noting to do (the ratelimit is provided in the result)
+			return new Page(rateLimit, httpResponse.getStatusCode(), getLinkFromHeaders(httpResponse));
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot close HTTP response (URL=" + url + ")", e);
 		}
-		return null;
 	}
 	
-	private String getLinkFromHeaders(HttpResponse httpResponse) {
-		String s = httpResponse.getHeader("Link"); // the effective header name for GitHub API 
-		if ( s == null ) {
-			s = httpResponse.getHeader("link");
+	private Map<String, String> buildConditionalRequestHeaders(DepotCacheEntry cacheEntry) throws TelosysToolsException {
+		Map<String, String> headers = buildRequestHeaders();
+		if ( cacheEntry != null && cacheEntry.hasValidator() ) {
+			if ( headers == null ) {
+				headers = new HashMap<>();
+			}
+			if ( cacheEntry.getEtag() != null ) {
+				headers.put("If-None-Match", cacheEntry.getEtag());
+			}
+			if ( cacheEntry.getLastModified() != null ) {
+				headers.put("If-Modified-Since", cacheEntry.getLastModified());
+			}
 		}
-		return s;
+		return headers;
 	}
 	
-	private static final String JSON_ERR_ATTRIBUTE = "JSON error : attribute ";
-
 	/**
-	 * Returns the String value for the given attribute name
-	 * @param jsonObject
-	 * @param attributeName
-	 * @param defaultValue
-	 * @return
+	 * Returns the URL of all the pages after the first one if they can be requested in parallel <br>
+	 * (the last page must be known and the rate limit must be sufficient)
+	 * @param firstPageResponse
+	 * @return the list of URL or null if the pages must be requested sequentially 
+	 */
+	private List<String> getNextPagesURL(Page firstPage) {
+		if ( maxParallelRequests < 2 ) {
+			return null;
+		}
+		String lastPageURL = getPageURL(firstPage, "last");
+		int lastPage = getPageNumber(lastPageURL);
+		if ( lastPage < 2 ) {
+			return null;
+		}
+		// parallel requests only if the rate limit is not too low (else sequential : stops at the first error)
+		DepotRateLimit rateLimit = firstPage.rateLimit;
+		if ( rateLimit.getRemaining() != null && rateLimit.getRemainingAsInt() < lastPage + RATE_LIMIT_SAFETY_MARGIN ) {
+			return null;
+		}
+		List<String> pagesURL = new ArrayList<>(lastPage - 1);
+		for ( int page = 2 ; page <= lastPage ; page++ ) {
+			pagesURL.add(buildPageURL(lastPageURL, page));
+		}
+		return pagesURL;
+	}
+	
+	/**
+	 * Requests the given pages in parallel and adds the elements in the list in the pages order
+	 * (stops adding elements at the first page in error)
+	 * @param pagesURL
+	 * @param depotElements
+	 * @return the pages in the pages order 
 	 * @throws TelosysToolsException
 	 */
-	private String getStringAttribute( JSONObject jsonObject, String attributeName, String defaultValue ) throws TelosysToolsException {
-		Object oAttributeValue = jsonObject.get( attributeName );
-		if ( oAttributeValue != null ) {
-			if ( oAttributeValue instanceof String) {
-				return (String)oAttributeValue ;
+	private List<Page> getRepositoriesPagesInParallel(List<String> pagesURL, List<DepotElement> depotElements) throws TelosysToolsException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxParallelRequests, pagesURL.size()));
+		try {
+			List<Future<Page>> futures = new ArrayList<>(pagesURL.size());
+			List<List<DepotElement>> pagesElements = new ArrayList<>(pagesURL.size());
+			for ( String url : pagesURL ) {
+				List<DepotElement> pageElements = new LinkedList<>();
+				pagesElements.add(pageElements);
+				futures.add(executor.submit(() -> getRepositoriesPage(url, pageElements)));
 			}
-			else {
-				throw new TelosysToolsException( JSON_ERR_ATTRIBUTE + "'" + attributeName + "' is not a String");
+			List<Page> pages = new ArrayList<>(pagesURL.size());
+			boolean error = false ;
+			for ( int i = 0 ; i < futures.size() ; i++ ) {
+				Page page = waitForPage(futures.get(i));
+				pages.add(page);
+				if ( page.statusCode != 200 ) {
+					error = true ;
+				}
+				if ( ! error ) {
+					depotElements.addAll(pagesElements.get(i));
+				}
 			}
+			return pages;
 		}
-		else {
-			if ( defaultValue != null ) {
-				return defaultValue ;
-			}
-			else {
-				throw new TelosysToolsException( JSON_ERR_ATTRIBUTE + "'" + attributeName + "' not found");
+		finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private Page waitForPage(Future<Page> future) throws TelosysToolsException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TelosysToolsException("Interrupted while waiting for page", e);
+		} catch (ExecutionException e) {
+			if ( e.getCause() instanceof TelosysToolsException ) {
+				throw (TelosysToolsException) e.getCause();
 			}
+			throw new TelosysToolsException("Cannot get page " + e.getCause().getMessage(), e.getCause());
 		}
 	}
-
+	
 	/**
-	 * Returns the integer value for the given attribute name
-	 * @param jsonObject
-	 * @param attributeName
+	 * Returns the page to be used for the result status and rate limit : <br>
+	 * the first page in error if any, else the page with the lowest rate limit remaining 
+	 * @param pages
 	 * @return
-	 * @throws TelosysToolsException
 	 */
-	private long getLongAttribute( JSONObject jsonObject, String attributeName ) throws TelosysToolsException {
-		Object oAttributeValue = jsonObject.get( attributeName );
-		if ( oAttributeValue != null ) {
-			if ( oAttributeValue instanceof Long) {
-				return ((Long)oAttributeValue).longValue();
+	private Page selectPageForResult(List<Page> pages) {
+		Page selected = null ;
+		int selectedRemaining = Integer.MAX_VALUE ;
+		for ( Page page : pages ) {
+			if ( page.statusCode != 200 ) {
+				return page;
 			}
-			else {
-				throw new TelosysToolsException( "JSON error : attribute '" + attributeName 
-						+ "' is not a Integer ("+oAttributeValue.getClass().getCanonicalName()+")");
+			DepotRateLimit rateLimit = page.rateLimit;
+			int remaining = rateLimit.getRemaining() != null ? rateLimit.getRemainingAsInt() : Integer.MAX_VALUE ;
+			if ( selected == null || remaining < selectedRemaining ) {
+				selected = page ;
+				selectedRemaining = remaining ;
 			}
 		}
-		else {
-			throw new TelosysToolsException( "JSON error : attribute '" + attributeName + "' not found");
+		return selected;
+	}
+	
+	/**
+	 * Returns the URL of the page having the given relation in the 'Link' header 
+	 * @param page
+	 * @param rel the relation ('next', 'last', etc)
+	 * @return the URL or null if none
+	 */
+	private String getPageURL(Page page, String rel) {
+		String linkHeader = page.link;
+		if ( linkHeader != null ) {
+			// links separated by ',' (no split : the URL is the only string created)
+			StrTokenizer links = new StrTokenizer(',', true);
+			links.setQuotes('<', '>', false); // ',' is not a separator in the URL
+			links.reset(linkHeader);
+			String relParam = "rel=\"" + rel + "\"" ;
+			while ( links.next() ) {
+				if ( links.tokenEndsWith(relParam) ) {
+					// link for the expected page ("next", "last", etc) 
+					// example : <https://api.github.com/organizations/20856286/repos?per_page=2&page=4>; rel="next"
+					int start = links.indexOf('<', links.start());
+					int end = start >= 0 ? links.indexOf('>', start + 1) : -1 ;
+					return end >= 0 ? linkHeader.substring(start + 1, end) : null ;
+				}
+			}
 		}
+		return null;
 	}
-
+	
+	private static final String PAGE_PARAM = "page=" ;
+	
+	/**
+	 * Returns the index of the 'page' parameter value in the given URL or -1 if not found 
+	 * @param url
+	 * @return
+	 */
+	private int getPageParamValueIndex(String url) {
+		int i = url.indexOf('?');
+		while ( i >= 0 ) {
+			// i = position of '?' or '&' before the parameter
+			if ( url.startsWith(PAGE_PARAM, i + 1) ) {
+				return i + 1 + PAGE_PARAM.length();
+			}
+			i = url.indexOf('&', i + 1);
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns the page number in the given page URL ( '...&page=4' ) 
+	 * @param url
+	 * @return the page number or -1 if none
+	 */
+	protected int getPageNumber(String url) {
+		if ( url == null ) {
+			return -1;
+		}
+		int start = getPageParamValueIndex(url);
+		if ( start < 0 ) {
+			return -1;
+		}
+		int end = url.indexOf('&', start);
+		String value = end < 0 ? url.substring(start) : url.substring(start, end);
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * Builds the URL for the given page number from the URL of another page 
+	 * @param url
+	 * @param page
+	 * @return
+	 */
+	protected String buildPageURL(String url, int page) {
+		int start = getPageParamValueIndex(url);
+		int end = url.indexOf('&', start);
+		return url.substring(0, start) + page + ( end < 0 ? "" : url.substring(end) );
+	}
+	
+	private String getLinkFromHeaders(HttpStreamResponse httpResponse) {
+		String s = httpResponse.getHeader("Link"); // the effective header name for GitHub API 
+		if ( s == null ) {
+			s = httpResponse.getHeader("link");
+		}
+		return s;
+	}
+	
 	protected String buildDownloadBranchURL(String userName, String repoName, String branch) {
 		HashMap<String,String> variables = new HashMap<>();
 		variables.put("DEPOT", userName);
@@ -268,7 +481,27 @@ public class GitHubClient implements DepotClient {
 		String url = buildDownloadBranchURL(depot.getName(), repoName, branch);
 		HttpClient httpClient = buildHttpClient();
 		try {
-			return httpClient.downloadFile(url, destinationFile);
+			// v 4.3.0 : resumable download (never a truncated file) 
+			return httpClient.downloadFileResumable(url, destinationFile, null).getFileSize();
+		} catch (Exception e) {
+			throw new TelosysToolsException("Download error (URL="+url+") "+e.getMessage() , e);
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.telosys.tools.commons.depot.DepotClient#downloadAndUnzipRepositoryBranch(org.telosys.tools.commons.depot.Depot, java.lang.String, java.lang.String, java.lang.String, java.lang.String)
+	 */
+	@Override
+	public final void downloadAndUnzipRepositoryBranch(Depot depot, String repoName, String branch, String outputDir, String zipCopyFile) throws TelosysToolsException {
+		checkDepotIsGitHub(depot);
+		String url = buildDownloadBranchURL(depot.getName(), repoName, branch);
+		HttpClient httpClient = buildHttpClient();
+		// v 4.3.0 : the zip entries are extracted as they arrive 
+		try ( HttpStreamResponse response = httpClient.getStream(url, null) ) {
+			if ( response.getStatusCode() != 200 ) {
+				throw new TelosysToolsException("Unexpected HTTP Response Code " + response.getStatusCode());
+			}
+			ZipUtil.unzip(response.getInputStream(), outputDir, true, zipCopyFile);
 		} catch (Exception e) {
 			throw new TelosysToolsException("Download error (URL="+url+") "+e.getMessage() , e);
 		}
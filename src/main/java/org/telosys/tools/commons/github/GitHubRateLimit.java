@@ -16,8 +16,10 @@
 package org.telosys.tools.commons.github;
 
 import java.util.Date;
+import java.util.function.UnaryOperator;
 
 import org.telosys.tools.commons.http.HttpResponse;
+import org.telosys.tools.commons.http.HttpStreamResponse;
 
 /**
  * This class holds GitHub "rate limit" information <br>
@@ -49,32 +51,45 @@ public class GitHubRateLimit {
 	 * @param response
 	 */
 	public GitHubRateLimit(HttpResponse response) {
+		this(response::getHeader);
+	}
+
+	/**
+	 * Constructor from HTTP stream response (only the headers are used)
+	 * @param response
+	 * @since 4.3.0
+	 */
+	public GitHubRateLimit(HttpStreamResponse response) {
+		this(response::getHeader);
+	}
+
+	private GitHubRateLimit(UnaryOperator<String> response) {
 		super();
 		this.limit     = getLimitFromHeader(response);
 		this.remaining = getRemainingFromHeader(response); 
 		this.reset     = getResetFromHeader(response);
 	}
-	private String getLimitFromHeader(HttpResponse response) {
+	private String getLimitFromHeader(UnaryOperator<String> response) {
 		// Header can be "X-RateLimit-Limit" or "X-Ratelimit-Limit"
-		String s = response.getHeader("X-RateLimit-Limit"); // OLD
+		String s = response.apply("X-RateLimit-Limit"); // OLD
 		if ( s == null ) {
-			s = response.getHeader("X-Ratelimit-Limit"); // NEW
+			s = response.apply("X-Ratelimit-Limit"); // NEW
 		}
 		return s;
 	}
-	private String getRemainingFromHeader(HttpResponse response) {
+	private String getRemainingFromHeader(UnaryOperator<String> response) {
 		// Header can be "X-RateLimit-Remaining" or "X-Ratelimit-Remaining"
-		String s = response.getHeader("X-RateLimit-Remaining"); // OLD
+		String s = response.apply("X-RateLimit-Remaining"); // OLD
 		if ( s == null ) {
-			s = response.getHeader("X-Ratelimit-Remaining"); // NEW
+			s = response.apply("X-Ratelimit-Remaining"); // NEW
 		}
 		return s;
 	}
-	private String getResetFromHeader(HttpResponse response) {
+	private String getResetFromHeader(UnaryOperator<String> response) {
 		// Header can be "X-RateLimit-Reset" or "X-Ratelimit-Reset"
-		String s = response.getHeader("X-RateLimit-Reset"); // OLD
+		String s = response.apply("X-RateLimit-Reset"); // OLD
 		if ( s == null ) {
-			s = response.getHeader("X-Ratelimit-Reset"); // NEW
+			s = response.apply("X-Ratelimit-Reset"); // NEW
 		}
 		return s;
 	}
@@ -0,0 +1,481 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.github;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.depot.DepotElement;
+
+/**
+ * Streaming parser for a GitHub repositories page (JSON array of repositories) <br>
+ *
+ * The JSON is read directly from the UTF-8 byte stream : <br>
+ * only the attributes used to build a DepotElement are decoded ( 'id', 'name', 'description',
+ * 'size', 'default_branch' and 'visibility' ), all the other values are skipped without being built. <br>
+ *
+ * A parser instance is not thread-safe (it reuses its internal buffers).
+ *
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class GitHubRepositoriesParser {
+
+	private static final String JSON_ERR_ATTRIBUTE = "JSON error : attribute ";
+	private static final String JSON_ERR_PARSING   = "JSON error : cannot parse the JSON response." ;
+
+	private static final int BUFFER_SIZE = 8 * 1024 ;
+
+	private static final byte[] ID             = bytes("id");
+	private static final byte[] NAME           = bytes("name");
+	private static final byte[] DESCRIPTION    = bytes("description");
+	private static final byte[] SIZE           = bytes("size");
+	private static final byte[] DEFAULT_BRANCH = bytes("default_branch");
+	private static final byte[] VISIBILITY     = bytes("visibility");
+
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private InputStream input ;
+	private int position ;
+	private int limit ;
+
+	// buffer for the current key or string value (UTF-8 bytes)
+	private byte[] token = new byte[256];
+	private int tokenLength ;
+
+	/**
+	 * Parses the given JSON stream and adds the repositories found in the given list
+	 * @param inputStream the JSON stream (UTF-8)
+	 * @param depotElements
+	 * @throws TelosysToolsException
+	 */
+	public void parse(InputStream inputStream, List<DepotElement> depotElements) throws TelosysToolsException {
+		this.input = inputStream ;
+		this.position = 0 ;
+		this.limit = 0 ;
+		try {
+			if ( nextNonBlank() != '[' ) {
+				throw new TelosysToolsException("JSON error : array expected as root");
+			}
+			int c = nextNonBlank();
+			if ( c != ']' ) {
+				while ( true ) {
+					if ( c != '{' ) {
+						throw new TelosysToolsException(JSON_ERR_PARSING);
+					}
+					depotElements.add(parseRepository());
+					c = nextNonBlank();
+					if ( c == ']' ) {
+						break;
+					}
+					if ( c != ',' ) {
+						throw new TelosysToolsException(JSON_ERR_PARSING);
+					}
+					c = nextNonBlank();
+				}
+			}
+			if ( nextNonBlank() != -1 ) {
+				throw new TelosysToolsException(JSON_ERR_PARSING);
+			}
+		} catch (IOException e) {
+			throw new TelosysToolsException("JSON error : cannot read the JSON response.", e);
+		}
+		finally {
+			this.input = null ;
+		}
+	}
+
+	//--------------------------------------------------------------------------------------------
+	// Repository object
+	//--------------------------------------------------------------------------------------------
+	/**
+	 * Parses a repository object (the '{' has already been read)
+	 * @return
+	 */
+	private DepotElement parseRepository() throws IOException, TelosysToolsException {
+		Long   id = null ;
+		String name = null ;
+		String description = null ;
+		Long   size = null ;
+		String defaultBranch = null ;
+		String visibility = null ;
+
+		int c = nextNonBlank();
+		if ( c != '}' ) {
+			while ( true ) {
+				if ( c != '"' ) {
+					throw new TelosysToolsException(JSON_ERR_PARSING);
+				}
+				readString(); // key in 'token'
+				if ( nextNonBlank() != ':' ) {
+					throw new TelosysToolsException(JSON_ERR_PARSING);
+				}
+				c = nextNonBlank();
+				if ( tokenEquals(ID) ) {
+					id = readLong(c, "id");
+				}
+				else if ( tokenEquals(NAME) ) {
+					name = readStringValue(c, "name");
+				}
+				else if ( tokenEquals(DESCRIPTION) ) {
+					description = readStringValue(c, "description");
+				}
+				else if ( tokenEquals(SIZE) ) {
+					size = readLong(c, "size");
+				}
+				else if ( tokenEquals(DEFAULT_BRANCH) ) {
+					defaultBranch = readStringValue(c, "default_branch");
+				}
+				else if ( tokenEquals(VISIBILITY) ) {
+					visibility = readStringValue(c, "visibility");
+				}
+				else {
+					skipValue(c);
+				}
+				c = nextNonBlank();
+				if ( c == '}' ) {
+					break;
+				}
+				if ( c != ',' ) {
+					throw new TelosysToolsException(JSON_ERR_PARSING);
+				}
+				c = nextNonBlank();
+			}
+		}
+		// same rules as the previous DOM parsing
+		long idValue = required(id, "id");
+		return new DepotElement(idValue,
+				name != null ? name : "(#"+idValue+"-no-name)",
+				description != null ? description : "",
+				required(size, "size"),
+				defaultBranch != null ? defaultBranch : "",
+				visibility != null ? visibility : "" );
+	}
+
+	private long required(Long value, String attributeName) throws TelosysToolsException {
+		if ( value == null ) {
+			throw new TelosysToolsException( JSON_ERR_ATTRIBUTE + "'" + attributeName + "' not found");
+		}
+		return value.longValue();
+	}
+
+	private boolean tokenEquals(byte[] key) {
+		if ( tokenLength != key.length ) {
+			return false ;
+		}
+		for ( int i = 0 ; i < tokenLength ; i++ ) {
+			if ( token[i] != key[i] ) {
+				return false ;
+			}
+		}
+		return true ;
+	}
+
+	//--------------------------------------------------------------------------------------------
+	// Values
+	//--------------------------------------------------------------------------------------------
+	/**
+	 * Reads a string value (or null) starting with the given char
+	 * @return the string or null for a JSON 'null'
+	 */
+	private String readStringValue(int c, String attributeName) throws IOException, TelosysToolsException {
+		if ( c == '"' ) {
+			readString();
+			return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+		}
+		else if ( c == 'n' ) {
+			expectLiteral("ull");
+			return null ;
+		}
+		else {
+			skipValue(c);
+			throw new TelosysToolsException( JSON_ERR_ATTRIBUTE + "'" + attributeName + "' is not a String");
+		}
+	}
+
+	/**
+	 * Reads an integer value (or null) starting with the given char
+	 * @return the value or null for a JSON 'null'
+	 */
+	private Long readLong(int first, String attributeName) throws IOException, TelosysToolsException {
+		if ( first == 'n' ) {
+			expectLiteral("ull");
+			return null ;
+		}
+		if ( first != '-' && ( first < '0' || first > '9' ) ) {
+			skipValue(first);
+			throw new TelosysToolsException( JSON_ERR_ATTRIBUTE + "'" + attributeName + "' is not a Integer");
+		}
+		boolean negative = ( first == '-' );
+		// accumulated as a negative value (the range of negative values is larger) 
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE ;
+		long multMin = limit / 10 ;
+		long value = negative ? 0 : -( first - '0' ) ;
+		int digits = negative ? 0 : 1 ;
+		boolean integer = true ;
+		while ( true ) {
+			int c = peek();
+			if ( c >= '0' && c <= '9' ) {
+				int digit = c - '0' ;
+				if ( value < multMin || value * 10 < limit + digit ) {
+					integer = false ; // overflow : not a 'long' (as with the previous parser)
+				}
+				else {
+					value = value * 10 - digit ;
+				}
+				digits++;
+			}
+			else if ( c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-' ) {
+				integer = false ;
+			}
+			else {
+				break;
+			}
+			position++;
+		}
+		if ( digits == 0 ) {
+			throw new TelosysToolsException(JSON_ERR_PARSING);
+		}
+		if ( ! integer ) {
+			throw new TelosysToolsException( JSON_ERR_ATTRIBUTE + "'" + attributeName + "' is not a Integer");
+		}
+		return negative ? value : -value ;
+	}
+
+	/**
+	 * Reads a JSON string in the token buffer (the opening quote has already been read)
+	 */
+	private void readString() throws IOException, TelosysToolsException {
+		tokenLength = 0 ;
+		while ( true ) {
+			int c = next();
+			if ( c == '"' ) {
+				return;
+			}
+			else if ( c == '\\' ) {
+				readEscape();
+			}
+			else if ( c < 0 ) {
+				throw new TelosysToolsException(JSON_ERR_PARSING);
+			}
+			else {
+				appendToken(c);
+			}
+		}
+	}
+
+	private void readEscape() throws IOException, TelosysToolsException {
+		int c = next();
+		switch ( c ) {
+		case '"' :
+		case '\\' :
+		case '/' :
+			appendToken(c); break;
+		case 'b' : appendToken('\b'); break;
+		case 'f' : appendToken('\f'); break;
+		case 'n' : appendToken('\n'); break;
+		case 'r' : appendToken('\r'); break;
+		case 't' : appendToken('\t'); break;
+		case 'u' :
+			int codePoint = readHex4();
+			if ( Character.isHighSurrogate((char)codePoint) && peek() == '\\' ) {
+				position++;
+				if ( next() != 'u' ) {
+					throw new TelosysToolsException(JSON_ERR_PARSING);
+				}
+				int low = readHex4();
+				codePoint = Character.toCodePoint((char)codePoint, (char)low);
+			}
+			appendCodePoint(codePoint);
+			break;
+		default :
+			throw new TelosysToolsException(JSON_ERR_PARSING);
+		}
+	}
+
+	private int readHex4() throws IOException, TelosysToolsException {
+		int value = 0 ;
+		for ( int i = 0 ; i < 4 ; i++ ) {
+			int d = Character.digit(next(), 16);
+			if ( d < 0 ) {
+				throw new TelosysToolsException(JSON_ERR_PARSING);
+			}
+			value = ( value << 4 ) + d ;
+		}
+		return value ;
+	}
+
+	private void appendCodePoint(int codePoint) {
+		// UTF-8 encoding in the token buffer
+		if ( codePoint < 0x80 ) {
+			appendToken(codePoint);
+		}
+		else if ( codePoint < 0x800 ) {
+			appendToken(0xC0 | ( codePoint >> 6 ));
+			appendToken(0x80 | ( codePoint & 0x3F ));
+		}
+		else if ( codePoint < 0x10000 ) {
+			appendToken(0xE0 | ( codePoint >> 12 ));
+			appendToken(0x80 | ( ( codePoint >> 6 ) & 0x3F ));
+			appendToken(0x80 | ( codePoint & 0x3F ));
+		}
+		else {
+			appendToken(0xF0 | ( codePoint >> 18 ));
+			appendToken(0x80 | ( ( codePoint >> 12 ) & 0x3F ));
+			appendToken(0x80 | ( ( codePoint >> 6 ) & 0x3F ));
+			appendToken(0x80 | ( codePoint & 0x3F ));
+		}
+	}
+
+	private void appendToken(int b) {
+		if ( tokenLength == token.length ) {
+			token = Arrays.copyOf(token, token.length * 2);
+		}
+		token[tokenLength++] = (byte) b ;
+	}
+
+	//--------------------------------------------------------------------------------------------
+	// Skip values (nothing is built)
+	//--------------------------------------------------------------------------------------------
+	/**
+	 * Skips the value starting with the given char
+	 */
+	private void skipValue(int c) throws IOException, TelosysToolsException {
+		switch ( c ) {
+		case '"' :
+			skipString(); break;
+		case '{' :
+		case '[' :
+			skipContainer(); break;
+		case 't' :
+			expectLiteral("rue"); break;
+		case 'f' :
+			expectLiteral("alse"); break;
+		case 'n' :
+			expectLiteral("ull"); break;
+		default :
+			skipNumber(c);
+		}
+	}
+
+	private void skipString() throws IOException, TelosysToolsException {
+		while ( true ) {
+			int c = next();
+			if ( c == '"' ) {
+				return;
+			}
+			else if ( c == '\\' ) {
+				next(); // escaped char ( for '\\uXXXX' the 4 hex digits are just skipped )
+			}
+			else if ( c < 0 ) {
+				throw new TelosysToolsException(JSON_ERR_PARSING);
+			}
+		}
+	}
+
+	/**
+	 * Skips an object or an array (the opening char has already been read)
+	 */
+	private void skipContainer() throws IOException, TelosysToolsException {
+		int depth = 1 ;
+		while ( depth > 0 ) {
+			int c = next();
+			if ( c == '"' ) {
+				skipString();
+			}
+			else if ( c == '{' || c == '[' ) {
+				depth++;
+			}
+			else if ( c == '}' || c == ']' ) {
+				depth--;
+			}
+			else if ( c < 0 ) {
+				throw new TelosysToolsException(JSON_ERR_PARSING);
+			}
+		}
+	}
+
+	private void skipNumber(int first) throws IOException, TelosysToolsException {
+		if ( first != '-' && ( first < '0' || first > '9' ) ) {
+			throw new TelosysToolsException(JSON_ERR_PARSING);
+		}
+		while ( true ) {
+			int c = peek();
+			if ( ( c >= '0' && c <= '9' ) || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-' ) {
+				position++;
+			}
+			else {
+				return;
+			}
+		}
+	}
+
+	private void expectLiteral(String rest) throws IOException, TelosysToolsException {
+		for ( int i = 0 ; i < rest.length() ; i++ ) {
+			if ( next() != rest.charAt(i) ) {
+				throw new TelosysToolsException(JSON_ERR_PARSING);
+			}
+		}
+	}
+
+	//--------------------------------------------------------------------------------------------
+	// Buffered byte reading
+	//--------------------------------------------------------------------------------------------
+	private boolean fill() throws IOException {
+		limit = input.read(buffer, 0, buffer.length);
+		position = 0 ;
+		return limit > 0 ;
+	}
+
+	/**
+	 * Returns the next byte (without consuming it) or -1 if end of stream
+	 */
+	private int peek() throws IOException {
+		if ( position >= limit && ! fill() ) {
+			return -1 ;
+		}
+		return buffer[position] & 0xFF ;
+	}
+
+	/**
+	 * Returns the next byte or -1 if end of stream
+	 */
+	private int next() throws IOException {
+		if ( position >= limit && ! fill() ) {
+			return -1 ;
+		}
+		return buffer[position++] & 0xFF ;
+	}
+
+	/**
+	 * Returns the next non blank byte or -1 if end of stream
+	 */
+	private int nextNonBlank() throws IOException {
+		while ( true ) {
+			int c = next();
+			if ( c != ' ' && c != '\n' && c != '\r' && c != '\t' ) {
+				return c ;
+			}
+		}
+	}
+}
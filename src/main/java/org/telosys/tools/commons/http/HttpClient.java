@@ -22,9 +22,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Map;
 
 import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.observer.TaskObserver2;
 
 public class HttpClient {
 
@@ -34,12 +38,16 @@ public class HttpClient {
 	private static final String USER_AGENT       = "User-Agent" ;
 	private static final String USER_AGENT_VALUE = "Telosys-HttpClient" ;
 	
+	// Connection pool if connections are reused ('keep-alive'), null if a new connection is used for each request
+	private final HttpConnectionPool connectionPool ;
+	
 	/**
 	 * Constructor without http configuration properties <br>
 	 * Default properties will be used (java.net.useSystemProxies=true)
 	 */
 	public HttpClient() {
 		super();
+		this.connectionPool = null ;
 		HttpSystemConfig.init();
 	}
 	
@@ -48,13 +56,41 @@ public class HttpClient {
 	 * @param properties proxy properties or null if none
 	 */
 	public HttpClient(File propertiesFile) {
+		this(propertiesFile, null);
+	}
+	
+	/**
+	 * Constructor with http configuration defined by properties and a connection pool <br>
+	 * If a connection pool is defined the connections are kept alive and reused for the next requests <br>
+	 * (else a new connection is opened and closed for each request) <br>
+	 * The pool values are process-wide system properties : a pool conflicting with the values already defined 
+	 * (JVM options, properties file or another pool) is rejected (see HttpConnectionPool)
+	 * @param propertiesFile proxy properties or null if none
+	 * @param connectionPool the connection pool to be used or null if none
+	 * @throws org.telosys.tools.commons.exception.TelosysRuntimeException if the pool conflicts with the current system properties
+	 * @since 4.3.0
+	 */
+	public HttpClient(File propertiesFile, HttpConnectionPool connectionPool) {
 		super();
+		this.connectionPool = connectionPool ;
 		if ( propertiesFile != null ) {
 			HttpSystemConfig.init(propertiesFile);
 		}
 		else {
 			HttpSystemConfig.init();
 		}
+		if ( connectionPool != null ) {
+			// pool after the properties file (checked against the values defined in the file if any)
+			HttpSystemConfig.init(connectionPool);
+		}
+	}
+	
+	/**
+	 * Returns true if the connections are reused ('keep-alive' with a connection pool)
+	 * @return
+	 */
+	public boolean isReusingConnections() {
+		return connectionPool != null ;
 	}
 	
 	//---------------------------------------------------------------------
@@ -132,6 +168,69 @@ public class HttpClient {
 		return process(url, "DELETE", headers, null);
 	}
 
+	//---------------------------------------------------------------------
+	// Streaming responses (body not buffered in memory)
+	//---------------------------------------------------------------------
+	/**
+	 * Http GET returning a streaming response (to be closed by the caller)
+	 * @param request
+	 * @return
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public HttpStreamResponse getStream(HttpRequest request) throws TelosysToolsException {
+		return getStream(request.getURL(), request.getHeadersMap());
+	}
+	
+	public HttpStreamResponse getStream(String url, Map<String, String> headers) throws TelosysToolsException {
+		return processStream(getURL(url), "GET", headers, null);
+	}
+
+	/**
+	 * Http POST returning a streaming response (to be closed by the caller)
+	 * @param request
+	 * @return
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public HttpStreamResponse postStream(HttpRequest request) throws TelosysToolsException {
+		return postStream(request.getURL(), request.getHeadersMap(), request.getContent());
+	}
+	
+	public HttpStreamResponse postStream(String url, Map<String, String> headers, byte[] data) throws TelosysToolsException {
+		return processStream(getURL(url), "POST", headers, data);
+	}
+
+	/**
+	 * Http PUT returning a streaming response (to be closed by the caller)
+	 * @param request
+	 * @return
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public HttpStreamResponse putStream(HttpRequest request) throws TelosysToolsException {
+		return putStream(request.getURL(), request.getHeadersMap(), request.getContent());
+	}
+	
+	public HttpStreamResponse putStream(String url, Map<String, String> headers, byte[] data) throws TelosysToolsException {
+		return processStream(getURL(url), "PUT", headers, data);
+	}
+
+	/**
+	 * Http DELETE returning a streaming response (to be closed by the caller)
+	 * @param request
+	 * @return
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public HttpStreamResponse deleteStream(HttpRequest request) throws TelosysToolsException {
+		return deleteStream(request.getURL(), request.getHeadersMap());
+	}
+	
+	public HttpStreamResponse deleteStream(String url, Map<String, String> headers) throws TelosysToolsException {
+		return processStream(getURL(url), "DELETE", headers, null);
+	}
+
 	//---------------------------------------------------------------------
 	// Private methods
 	//---------------------------------------------------------------------
@@ -146,19 +245,48 @@ public class HttpClient {
 	 */
 	private HttpResponse process(URL url, String method, Map<String, String> headers, byte[] data) throws TelosysToolsException {
 		HttpURLConnection connection = connect(url, method, headers);
-		if ( data != null ) {
-			postData(connection, data);
-		}
-		HttpResponse response;
+		boolean reusable = false ;
 		try {
-			response = new HttpResponse(connection);
+			if ( data != null ) {
+				postData(connection, data);
+			}
+			HttpResponse response = new HttpResponse(connection);
+			// body fully read and closed => the connection can go back to the 'keep-alive' pool 
+			reusable = isReusingConnections() ;
+			return response ;
 		} catch (IOException e) {
 			throw new TelosysToolsException("Cannot create HttpResponse (IOException)", e);
 		}
 		finally {
+			if ( ! reusable ) {
+				connection.disconnect();
+			}
+		}
+	}
+	
+	/**
+	 * Processes the given http method and returns a streaming response (the connection stays open)
+	 * @param url the URL to be used
+	 * @param method the http method ( GET, POST, PUT, DELETE, etc)
+	 * @param headers http headers 
+	 * @param data the data to be posted  
+	 * @return
+	 * @throws TelosysToolsException
+	 */
+	private HttpStreamResponse processStream(URL url, String method, Map<String, String> headers, byte[] data) throws TelosysToolsException {
+		HttpURLConnection connection = connect(url, method, headers);
+		try {
+			if ( data != null ) {
+				postData(connection, data);
+			}
+			return new HttpStreamResponse(connection, isReusingConnections());
+		} catch (IOException e) {
+			connection.disconnect();
+			throw new TelosysToolsException("Cannot create HttpStreamResponse (IOException)", e);
+		} catch (TelosysToolsException e) {
 			connection.disconnect();
+			throw e;
 		}
-		return response ;
 	}
 	
 	//---------------------------------------------------------------------
@@ -181,7 +309,7 @@ public class HttpClient {
 	 * @return 
 	 * @throws TelosysToolsException
 	 */
-	private HttpURLConnection connect(URL url, String method, Map<String, String> headers) throws TelosysToolsException {
+	protected HttpURLConnection connect(URL url, String method, Map<String, String> headers) throws TelosysToolsException {
 		HttpURLConnection connection = null;
 		try {
 			// url.openConnection() :
@@ -255,6 +383,24 @@ public class HttpClient {
 		}
 	}
 	
+	/**
+	 * Downloads a file from the given URL to the given file name in 'resumable' mode : <br>
+	 * the bytes are written in a '.part' file, the download is resumed in case of network error <br>
+	 * (and by the next call if all the attempts failed) and the file is renamed only when complete. 
+	 * @param url the URL to be downloaded
+	 * @param destFileName the destination for the downloaded file 
+	 * @param expectedSha256 the expected SHA-256 digest (hexadecimal) or null if no check
+	 * @return the download result (file size and SHA-256 digest)
+	 * @since 4.3.0
+	 */
+	public HttpDownloadResult downloadFileResumable(String url, String destFileName, String expectedSha256) throws TelosysToolsException {
+		checkDestination(destFileName);
+		HttpResumableDownloader downloader = new HttpResumableDownloader(this, DOWNLOAD_MAX_ATTEMPTS);
+		return downloader.download(getURL(url), new File(destFileName), expectedSha256);
+	}
+	
+	private static final int DOWNLOAD_MAX_ATTEMPTS = 3 ;
+	
 	private static final int BUFFER_SIZE = 128 * 1024 ; // 128 k
 	
 	/**
@@ -298,6 +444,79 @@ public class HttpClient {
 		return totalBytesRead ;
 	}
 	
+	/**
+	 * Downloads a file from the given URL to the given file name using channels <br>
+	 * (channel-based transfer with 'FileChannel.transferFrom' in 1 MB chunks for progress reporting, 
+	 * not a zero-copy : the socket stream is read through a channel adapter using its own temporary buffers) 
+	 * @param url the URL to be downloaded
+	 * @param destFileName the destination for the downloaded file 
+	 * @param progressObserver observer notified after each chunk with the number of bytes 
+	 *        downloaded and the current rate in bytes per second (or null if none)
+	 * @return the number of bytes (file size)
+	 * @since 4.3.0
+	 */
+	public long downloadFile(String url, String destFileName, TaskObserver2<Long, Long> progressObserver) throws TelosysToolsException {
+		try {
+			return downloadFileV3(getURL(url), destFileName, progressObserver);
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot download file (IOException)", e);
+		}
+	}
+	
+	private static final long CHUNK_SIZE = 1024L * 1024L ; // 1 M per transfer 
+	
+	/**
+	 * Dowloads a file from the given URL and store it in the given filename using 'FileChannel.transferFrom'
+	 * @param url
+	 * @param destFileName
+	 * @param progressObserver
+	 * @return
+	 * @throws TelosysToolsException, IOException
+	 */
+	private long downloadFileV3(URL url, String destFileName, TaskObserver2<Long, Long> progressObserver) throws TelosysToolsException, IOException {
+
+		checkDestination(destFileName);
+
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		setDefaultUserAgentIfNecessary(connection, null);
+		connection.connect(); 
+		int responseCode = connection.getResponseCode(); 
+		
+		// check HTTP response code first
+		if ( responseCode != HttpURLConnection.HTTP_OK ) {
+			throw new TelosysToolsException ("Unexpected HTTP Response Code " + responseCode);
+		}
+		
+		long contentLength = connection.getContentLengthLong(); // -1 if unknown
+		long startTime = System.nanoTime();
+		long position = 0L;
+		try (	ReadableByteChannel inputChannel  = Channels.newChannel(connection.getInputStream()); 
+				FileOutputStream    outputStream  = new FileOutputStream(destFileName);
+				FileChannel         outputChannel = outputStream.getChannel() ) {
+			while ( contentLength < 0 || position < contentLength ) {
+				// NB: with a blocking channel 0 means 'end of stream' 
+				long transfered = outputChannel.transferFrom(inputChannel, position, CHUNK_SIZE);
+				if ( transfered <= 0 ) {
+					break;
+				}
+				position += transfered ;
+				notifyProgress(progressObserver, position, startTime);
+			}
+		}
+		if ( contentLength >= 0 && position != contentLength ) {
+			throw new TelosysToolsException("Download incomplete (" + position + " bytes received, " + contentLength + " expected)");
+		}
+		return position ;
+	}
+	
+	private void notifyProgress(TaskObserver2<Long, Long> progressObserver, long bytes, long startTime) {
+		if ( progressObserver != null ) {
+			long elapsedNanos = Math.max(1L, System.nanoTime() - startTime);
+			long bytesPerSecond = (long) ( bytes * 1_000_000_000.0 / elapsedNanos ) ;
+			progressObserver.notify(bytes, bytesPerSecond);
+		}
+	}
+	
 	private void checkDestination(String destFileName) throws TelosysToolsException {
 		File file = new File (destFileName) ;
 		File parent = file.getParentFile();
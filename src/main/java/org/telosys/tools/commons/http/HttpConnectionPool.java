@@ -0,0 +1,98 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.http;
+
+/**
+ * Connection pool configuration for an HttpClient reusing its connections ('keep-alive') <br>
+ *
+ * The pool is the 'keep-alive cache' provided by the JDK for HttpURLConnection : <br>
+ * a connection goes back to the cache when the response body has been fully read and closed <br>
+ * (instead of being closed by 'disconnect()') and it is reused for the next request on the same host. <br>
+ * This avoids a new TCP connection and a new TLS handshake for each request. <br>
+ *
+ * NB : <br>
+ *  - the JDK cache is shared by the whole JVM : the pool values are set in the process-wide system properties 
+ *    'http.keepAlive', 'http.maxConnections' and 'http.keepAlive.time.*' (for all the HttpClient instances), <br>
+ *    so all the pools used in a JVM must have the same values : a pool with values different from the 
+ *    properties already defined (by the JVM options, the http properties file or a previous pool) is rejected 
+ *    by the HttpClient constructor (TelosysRuntimeException) <br>
+ *  - 'http.maxConnections' is read by the JDK only once (first connection) <br>
+ *  - the idle timeout is used by the JDK since Java 17 (the server 'Keep-Alive' header or 5 seconds before) <br>
+ *
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class HttpConnectionPool {
+
+	/**
+	 * Default max number of idle connections kept per destination (same as JDK default)
+	 */
+	public static final int DEFAULT_MAX_CONNECTIONS = 5 ;
+
+	/**
+	 * Default idle timeout in seconds (same as JDK default)
+	 */
+	public static final int DEFAULT_IDLE_TIMEOUT = 5 ;
+
+	private final int maxConnections ;
+
+	private final int idleTimeout ;
+
+	/**
+	 * Constructor with default values
+	 */
+	public HttpConnectionPool() {
+		this(DEFAULT_MAX_CONNECTIONS, DEFAULT_IDLE_TIMEOUT);
+	}
+
+	/**
+	 * Constructor
+	 * @param maxConnections max number of idle connections kept per destination (host)
+	 * @param idleTimeout number of seconds an idle connection is kept in the pool
+	 */
+	public HttpConnectionPool(int maxConnections, int idleTimeout) {
+		super();
+		if ( maxConnections <= 0 ) {
+			throw new IllegalArgumentException("Invalid max connections (" + maxConnections + ")");
+		}
+		if ( idleTimeout <= 0 ) {
+			throw new IllegalArgumentException("Invalid idle timeout (" + idleTimeout + ")");
+		}
+		this.maxConnections = maxConnections;
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Returns the max number of idle connections kept per destination
+	 * @return
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * Returns the idle timeout (in seconds)
+	 * @return
+	 */
+	public int getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	@Override
+	public String toString() {
+		return "HttpConnectionPool [maxConnections=" + maxConnections + ", idleTimeout=" + idleTimeout + "]";
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.http;
+
+/**
+ * Result of a resumable download 
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class HttpDownloadResult {
+
+	private final long   fileSize ;
+	private final String sha256 ;
+	private final long   resumedBytes ;
+	private final int    attempts ;
+	
+	/**
+	 * Constructor
+	 * @param fileSize the size of the downloaded file
+	 * @param sha256 the SHA-256 digest of the file (hexadecimal lower case)
+	 * @param resumedBytes the number of bytes reused from a previous partial download
+	 * @param attempts the number of attempts (1 if no error)
+	 */
+	public HttpDownloadResult(long fileSize, String sha256, long resumedBytes, int attempts) {
+		super();
+		this.fileSize = fileSize;
+		this.sha256 = sha256;
+		this.resumedBytes = resumedBytes;
+		this.attempts = attempts;
+	}
+
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	public String getSha256() {
+		return sha256;
+	}
+
+	public long getResumedBytes() {
+		return resumedBytes;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	@Override
+	public String toString() {
+		return "HttpDownloadResult [fileSize=" + fileSize + ", sha256=" + sha256 + ", resumedBytes=" + resumedBytes
+				+ ", attempts=" + attempts + "]";
+	}
+}
@@ -66,8 +66,12 @@ public class HttpResponse {
 		byte[] body = new byte[0];
 		InputStream is = getInputStream(connection);
 		if ( is != null ) {
-			body = readResponseBody(is);
-			is.close();
+			try {
+				body = readResponseBody(is);
+			}
+			finally {
+				is.close(); // always closed (required to reuse the connection)
+			}
 		}
 		return body;
 	}
@@ -81,15 +85,8 @@ public class HttpResponse {
 	{
 		InputStream is = null ;
 		try {
-			if ( connection.getResponseCode() >= 200 && connection.getResponseCode() <= 299 ) {
-				is = connection.getInputStream();
-				bodyContentAccessible = true ;
-			}
-			else {
-				// Try to get the body from "ErrorStream"
-				is = connection.getErrorStream(); // Typically for response code "4xx" 
-				bodyContentAccessible = true ;
-			}
+			is = openBodyInputStream(connection);
+			bodyContentAccessible = true ;
 		} catch (Exception e) {
 			// Throws:
 			//    . IOException - if an I/O error occurs while creating the input stream.
@@ -100,6 +97,23 @@ public class HttpResponse {
 		}
 		return is ;
 	}
+	
+	/**
+	 * Opens the InputStream to read the response body 
+	 * @param connection
+	 * @return the InputStream (or null if no body in 'ErrorStream')
+	 * @throws IOException
+	 */
+	protected static InputStream openBodyInputStream( HttpURLConnection connection ) throws IOException
+	{
+		if ( connection.getResponseCode() >= 200 && connection.getResponseCode() <= 299 ) {
+			return connection.getInputStream();
+		}
+		else {
+			// Try to get the body from "ErrorStream"
+			return connection.getErrorStream(); // Typically for response code "4xx" 
+		}
+	}
 
 	private byte[] readResponseBody( InputStream is ) throws IOException
 	{
@@ -147,13 +161,36 @@ public class HttpResponse {
 	}
 	
 	public String getHeader(String name) {
+		return getHeader(headerFields, name);
+	}
+	
+	/**
+	 * Returns the first value of the given header in the given header fields (or null if none)
+	 * @param headerFields
+	 * @param name
+	 * @return
+	 */
+	protected static String getHeader(Map<String, List<String>> headerFields, String name) {
 		List<String> values = headerFields.get(name);
+		if ( values == null ) {
+			// header names are case-insensitive 
+			values = getHeaderIgnoringCase(headerFields, name);
+		}
 		if ( values != null  && ! values.isEmpty() ) {
 			return values.get(0);
 		}
 		return null ;
 	}
 	
+	private static List<String> getHeaderIgnoringCase(Map<String, List<String>> headerFields, String name) {
+		for ( Map.Entry<String, List<String>> entry : headerFields.entrySet() ) {
+			if ( name.equalsIgnoreCase(entry.getKey()) ) {
+				return entry.getValue();
+			}
+		}
+		return null ;
+	}
+	
 	public Map<String, List<String>> getHeaderMap() {
 		return  headerFields;
 	}
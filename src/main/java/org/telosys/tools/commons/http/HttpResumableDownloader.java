@@ -0,0 +1,237 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.http;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.telosys.tools.commons.TelosysToolsException;
+
+/**
+ * Resumable download : <br>
+ *  - the bytes are written in a '.part' file (kept if the download fails) <br>
+ *  - a download is resumed with a 'Range' request validated by 'If-Range' (ETag or Last-Modified) <br>
+ *  - the SHA-256 digest is computed while the bytes are written <br>
+ *  - the '.part' file is renamed (atomically if possible) only when the download is complete <br>
+ * So the destination file is never a truncated file.
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+class HttpResumableDownloader {
+
+	protected static final String PART_SUFFIX      = ".part" ;
+	protected static final String VALIDATOR_SUFFIX = ".part.validator" ;
+	
+	private static final int BUFFER_SIZE = 128 * 1024 ; // 128 k
+	
+	private final HttpClient httpClient ;
+	private final int maxAttempts ;
+	
+	/**
+	 * Constructor
+	 * @param httpClient
+	 * @param maxAttempts max number of attempts (the download is resumed after each I/O error)
+	 */
+	protected HttpResumableDownloader(HttpClient httpClient, int maxAttempts) {
+		super();
+		this.httpClient = httpClient;
+		this.maxAttempts = maxAttempts;
+	}
+	
+	/**
+	 * Downloads the given URL in the given file 
+	 * @param url
+	 * @param destFile
+	 * @param expectedSha256 the expected SHA-256 (hexadecimal) or null if no check 
+	 * @return
+	 * @throws TelosysToolsException
+	 */
+	protected HttpDownloadResult download(URL url, File destFile, String expectedSha256) throws TelosysToolsException {
+		File partFile = new File(destFile.getPath() + PART_SUFFIX);
+		File validatorFile = new File(destFile.getPath() + VALIDATOR_SUFFIX);
+		IOException lastException = null ;
+		for ( int attempt = 1 ; attempt <= maxAttempts ; attempt++ ) {
+			try {
+				return downloadAttempt(url, destFile, partFile, validatorFile, expectedSha256, attempt);
+			} catch (IOException e) {
+				// network error : the '.part' file is kept to resume the download 
+				lastException = e ;
+			}
+		}
+		throw new TelosysToolsException("Cannot download file after " + maxAttempts + " attempt(s) (IOException)", lastException);
+	}
+	
+	private HttpDownloadResult downloadAttempt(URL url, File destFile, File partFile, File validatorFile, 
+			String expectedSha256, int attempt) throws IOException, TelosysToolsException {
+		long partLength = partFile.exists() ? partFile.length() : 0L ;
+		String validator = ( partLength > 0 && validatorFile.exists() ) ? readValidator(validatorFile) : null ;
+		if ( partLength > 0 && validator == null ) {
+			// cannot check the partial file is still valid => restart 
+			partLength = 0L ;
+		}
+		Map<String, String> headers = new HashMap<>();
+		if ( partLength > 0 ) {
+			headers.put("Range", "bytes=" + partLength + "-");
+			headers.put("If-Range", validator);
+		}
+		HttpURLConnection connection = httpClient.connect(url, "GET", headers);
+		try {
+			int responseCode = connection.getResponseCode();
+			boolean append ;
+			if ( responseCode == HttpURLConnection.HTTP_PARTIAL && isExpectedRange(connection, partLength) ) {
+				append = true ;
+			}
+			else if ( responseCode == HttpURLConnection.HTTP_OK ) {
+				// full content (first attempt, range not supported or resource changed)
+				append = false ;
+				partLength = 0L ;
+				writeValidator(validatorFile, getValidator(connection));
+			}
+			else if ( responseCode == 416 || responseCode == HttpURLConnection.HTTP_PARTIAL ) {
+				// range not satisfiable or unexpected range => restart at next attempt
+				deletePartialDownload(partFile, validatorFile);
+				throw new IOException("Cannot resume download (HTTP Response Code " + responseCode + ")");
+			}
+			else {
+				throw new TelosysToolsException("Unexpected HTTP Response Code " + responseCode);
+			}
+			long contentLength = connection.getContentLengthLong();
+			MessageDigest digest = append ? digestFile(partFile) : newDigest() ;
+			long fileSize = partLength + transfer(connection, partFile, append, digest);
+			if ( contentLength >= 0 && fileSize != partLength + contentLength ) {
+				throw new IOException("Download incomplete (" + fileSize + " bytes received, " + ( partLength + contentLength ) + " expected)");
+			}
+			String sha256 = toHex(digest.digest());
+			if ( expectedSha256 != null && ! expectedSha256.equalsIgnoreCase(sha256) ) {
+				deletePartialDownload(partFile, validatorFile);
+				throw new TelosysToolsException("Invalid SHA-256 for downloaded file (" + sha256 + " instead of " + expectedSha256 + ")");
+			}
+			moveToDestination(partFile, destFile);
+			Files.deleteIfExists(validatorFile.toPath());
+			return new HttpDownloadResult(fileSize, sha256, partLength, attempt);
+		}
+		finally {
+			connection.disconnect();
+		}
+	}
+	
+	private boolean isExpectedRange(HttpURLConnection connection, long partLength) {
+		// expected : 'Content-Range: bytes 1000-9999/10000'
+		String contentRange = connection.getHeaderField("Content-Range");
+		return contentRange != null && contentRange.trim().startsWith("bytes " + partLength + "-");
+	}
+	
+	private long transfer(HttpURLConnection connection, File partFile, boolean append, MessageDigest digest) throws IOException {
+		long total = 0L ;
+		try ( InputStream inputStream = connection.getInputStream(); 
+			  FileOutputStream outputStream = new FileOutputStream(partFile, append) ) {
+			int bytesRead ;
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while ( (bytesRead = inputStream.read(buffer)) != -1 ) {
+				outputStream.write(buffer, 0, bytesRead);
+				digest.update(buffer, 0, bytesRead);
+				total += bytesRead;
+			}
+		}
+		return total ;
+	}
+	
+	/**
+	 * Returns the validator to be used with 'If-Range' (a strong ETag or the Last-Modified date)
+	 * @param connection
+	 * @return the validator or null if none
+	 */
+	private String getValidator(HttpURLConnection connection) {
+		String etag = connection.getHeaderField("ETag");
+		if ( etag != null && ! etag.startsWith("W/") ) {
+			return etag ; // weak ETag cannot be used with 'If-Range' 
+		}
+		return connection.getHeaderField("Last-Modified");
+	}
+	
+	private String readValidator(File validatorFile) throws IOException {
+		String s = new String(Files.readAllBytes(validatorFile.toPath()), StandardCharsets.UTF_8).trim();
+		return s.isEmpty() ? null : s ;
+	}
+
+	private void writeValidator(File validatorFile, String validator) throws IOException {
+		if ( validator != null ) {
+			Files.write(validatorFile.toPath(), validator.getBytes(StandardCharsets.UTF_8));
+		}
+		else {
+			Files.deleteIfExists(validatorFile.toPath());
+		}
+	}
+	
+	private void deletePartialDownload(File partFile, File validatorFile) throws IOException {
+		Files.deleteIfExists(partFile.toPath());
+		Files.deleteIfExists(validatorFile.toPath());
+	}
+	
+	private void moveToDestination(File partFile, File destFile) throws IOException {
+		try {
+			Files.move(partFile.toPath(), destFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(partFile.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	private MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-256 is supported by all JVM
+			throw new IllegalStateException("SHA-256 not supported", e);
+		}
+	}
+	
+	private MessageDigest digestFile(File file) throws IOException {
+		MessageDigest digest = newDigest();
+		try ( InputStream is = new FileInputStream(file) ) {
+			int bytesRead ;
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while ( (bytesRead = is.read(buffer)) != -1 ) {
+				digest.update(buffer, 0, bytesRead);
+			}
+		}
+		return digest ;
+	}
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	protected static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for ( int i = 0 ; i < bytes.length ; i++ ) {
+			chars[i * 2]     = HEX[( bytes[i] >> 4 ) & 0x0F];
+			chars[i * 2 + 1] = HEX[bytes[i] & 0x0F];
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Http response with a body that is not buffered in memory <br>
+ * The body is read from an InputStream (or a channel) as it arrives. <br>
+ * The response must be closed (try-with-resources) to release the connection : <br>
+ * <pre>
+ *   try ( HttpStreamResponse response = httpClient.getStream(url, headers) ) {
+ *     InputStream is = response.getInputStream();
+ *     ...
+ *   }
+ * </pre>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class HttpStreamResponse implements Closeable {
+
+	private final HttpURLConnection connection ;
+	private final boolean reuseConnection ;
+
+	private final int    statusCode ;
+	private final String statusMessage ;
+	private final long   contentLength ;
+	private final String contentType ;
+	private final String contentEncoding ;
+	private final Map<String, List<String>> headerFields ;
+	
+	private final InputStream bodyInputStream ;
+	private ReadableByteChannel bodyChannel = null ;
+	private boolean closed = false ;
+	
+	/**
+	 * Constructor
+	 * @param connection
+	 * @param reuseConnection true if the connection can be reused after close ('keep-alive') 
+	 * @throws IOException
+	 */
+	protected HttpStreamResponse(HttpURLConnection connection, boolean reuseConnection) throws IOException {
+		this.connection      = connection ;
+		this.reuseConnection = reuseConnection ;
+		this.statusCode      = connection.getResponseCode();
+		this.statusMessage   = connection.getResponseMessage();
+		// -1 if the content length is not known
+		this.contentLength   = connection.getContentLengthLong();
+		this.contentType     = connection.getContentType();
+		this.contentEncoding = connection.getContentEncoding();
+		this.headerFields    = connection.getHeaderFields();
+		InputStream is = HttpResponse.openBodyInputStream(connection);
+		this.bodyInputStream = ( is != null ? is : new ByteArrayInputStream(new byte[0]) ) ;
+	}
+
+	public int getStatusCode() {
+		return statusCode ;
+	}
+	
+	public String getStatusMessage() {
+		return statusMessage ;
+	}
+	
+	/**
+	 * Returns the content length as announced by the server (or -1 if not known)
+	 * @return
+	 */
+	public long getContentLength() {
+		return contentLength ;
+	}
+	
+	public String getContentType() {
+		return contentType ;
+	}
+	
+	public String getContentEncoding() {
+		return contentEncoding ;
+	}
+	
+	public String getHeader(String name) {
+		return HttpResponse.getHeader(headerFields, name);
+	}
+	
+	public Map<String, List<String>> getHeaderMap() {
+		return headerFields;
+	}
+
+	/**
+	 * Returns the response body as an InputStream <br>
+	 * (the body from the 'ErrorStream' if the status is not 2xx, an empty stream if no body) 
+	 * @return
+	 */
+	public InputStream getInputStream() {
+		return bodyInputStream ;
+	}
+
+	/**
+	 * Returns the response body as a channel (same content as the InputStream)
+	 * @return
+	 */
+	public ReadableByteChannel getChannel() {
+		if ( bodyChannel == null ) {
+			bodyChannel = Channels.newChannel(bodyInputStream);
+		}
+		return bodyChannel ;
+	}
+
+	/**
+	 * Closes the response body and releases the connection <br>
+	 * (the connection goes back to the 'keep-alive' pool if reused and if the body has been fully read)
+	 */
+	@Override
+	public void close() throws IOException {
+		if ( closed ) {
+			return ;
+		}
+		closed = true ;
+		try {
+			bodyInputStream.close();
+		}
+		finally {
+			if ( ! reuseConnection ) {
+				connection.disconnect();
+			}
+		}
+	}
+}
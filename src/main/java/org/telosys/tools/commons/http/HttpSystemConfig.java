@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Properties;
 
 import org.telosys.tools.commons.PropertiesManager;
+import org.telosys.tools.commons.exception.TelosysRuntimeException;
 
 public class HttpSystemConfig {
 	
@@ -53,6 +54,14 @@ public class HttpSystemConfig {
 		}
 	}
 
+	//------------------------------------------------------------------------------
+	// Keep-alive configuration (connections reused by HttpURLConnection) 
+	//------------------------------------------------------------------------------
+	private static final String HTTP_KEEP_ALIVE             = "http.keepAlive" ;
+	private static final String HTTP_MAX_CONNECTIONS        = "http.maxConnections" ;
+	private static final String HTTP_KEEP_ALIVE_TIME_SERVER = "http.keepAlive.time.server" ;
+	private static final String HTTP_KEEP_ALIVE_TIME_PROXY  = "http.keepAlive.time.proxy" ;
+
 	private static final List<String> HTTP_PROP_KEYS = Arrays.asList(
 			// see https://docs.oracle.com/javase/8/docs/api/java/net/doc-files/net-properties.html
 			// Proxy config for HTTP
@@ -66,7 +75,9 @@ public class HttpSystemConfig {
 			// Proxy config based on system properties 
 			"java.net.useSystemProxies", // just for "getProperties" (property check only once at JVM startup)
 			// TLS version (for Java 7)
-			HTTPS_PROTOCOLS
+			HTTPS_PROTOCOLS,
+			// Keep-alive (connection pool used when connections are reused)
+			HTTP_KEEP_ALIVE, HTTP_MAX_CONNECTIONS, HTTP_KEEP_ALIVE_TIME_SERVER, HTTP_KEEP_ALIVE_TIME_PROXY
 			);
 		
 	/**
@@ -76,6 +87,40 @@ public class HttpSystemConfig {
 		setTLSv12();
 	}
 	
+	/**
+	 * Init HTTP System Properties for the given connection pool <br>
+	 * (must be called after the properties file initialization) <br>
+	 * NB : these properties are process-wide (used by all the HttpURLConnection of the JVM), 
+	 * so a pool cannot change a value already defined (by the JVM options, the properties file or a previous pool) : 
+	 * a pool with a value different from the current one is rejected 
+	 * @param pool
+	 * @throws TelosysRuntimeException if the pool conflicts with the current properties
+	 */
+	protected static final void init(HttpConnectionPool pool) {
+		checkIfDefined(HTTP_KEEP_ALIVE, "true", pool);
+		checkIfDefined(HTTP_MAX_CONNECTIONS, String.valueOf(pool.getMaxConnections()), pool);
+		checkIfDefined(HTTP_KEEP_ALIVE_TIME_SERVER, String.valueOf(pool.getIdleTimeout()), pool);
+		checkIfDefined(HTTP_KEEP_ALIVE_TIME_PROXY, String.valueOf(pool.getIdleTimeout()), pool);
+		setIfNotDefined(HTTP_KEEP_ALIVE, "true");
+		setIfNotDefined(HTTP_MAX_CONNECTIONS, String.valueOf(pool.getMaxConnections()) );
+		setIfNotDefined(HTTP_KEEP_ALIVE_TIME_SERVER, String.valueOf(pool.getIdleTimeout()) );
+		setIfNotDefined(HTTP_KEEP_ALIVE_TIME_PROXY, String.valueOf(pool.getIdleTimeout()) );
+	}
+	
+	private static final void checkIfDefined(String key, String value, HttpConnectionPool pool) {
+		String currentValue = System.getProperty(key);
+		if ( currentValue != null && ! currentValue.trim().equals(value) ) {
+			throw new TelosysRuntimeException("Invalid connection pool " + pool 
+					+ " : system property '" + key + "' already defined with value '" + currentValue + "' (process-wide value)");
+		}
+	}
+	
+	private static final void setIfNotDefined(String key, String value) {
+		if ( System.getProperty(key) == null ) {
+			System.setProperty(key, value);
+		}
+	}
+	
 	/**
 	 * Init HTTP System Properties with the given properties <br>
 	 * (only predefined keys are used : '"http.proxyHost', 'http.proxyPort', etc) 
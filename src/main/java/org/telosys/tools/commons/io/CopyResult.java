@@ -0,0 +1,83 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.io;
+
+/**
+ * Result of a copy : number of files copied, skipped (unchanged) and not overwritten 
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class CopyResult {
+
+	private final int copied ;
+	private final int skipped ;
+	private final int notOverwritten ;
+	private final boolean canceled ;
+
+	/**
+	 * Constructor
+	 * @param copied number of files copied
+	 * @param skipped number of files not copied because the destination file is identical 
+	 * @param notOverwritten number of existing files not overwritten (overwrite choice 'NO')
+	 * @param canceled true if the copy has been canceled
+	 */
+	public CopyResult(int copied, int skipped, int notOverwritten, boolean canceled) {
+		super();
+		this.copied = copied;
+		this.skipped = skipped;
+		this.notOverwritten = notOverwritten;
+		this.canceled = canceled;
+	}
+
+	/**
+	 * Returns the number of files copied
+	 * @return
+	 */
+	public int getCopied() {
+		return copied;
+	}
+
+	/**
+	 * Returns the number of files not copied because the destination file is identical
+	 * @return
+	 */
+	public int getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * Returns the number of existing files not overwritten (overwrite choice 'NO')
+	 * @return
+	 */
+	public int getNotOverwritten() {
+		return notOverwritten;
+	}
+
+	/**
+	 * Returns true if the copy has been canceled (by the overwrite chooser)
+	 * @return
+	 */
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+	@Override
+	public String toString() {
+		return "CopyResult [copied=" + copied + ", skipped=" + skipped + ", notOverwritten=" + notOverwritten 
+				+ ", canceled=" + canceled + "]";
+	}
+}
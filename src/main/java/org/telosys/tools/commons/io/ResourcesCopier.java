@@ -17,31 +17,48 @@ package org.telosys.tools.commons.io ;
 
 import java.io.File;
 
-import org.telosys.tools.commons.FileUtil;
 import org.telosys.tools.commons.TelosysToolsException;
 import org.telosys.tools.commons.exception.CancelException;
 
 
 public class ResourcesCopier {
 	
-	private final OverwriteChooser   overwriteChooser;
-	private final CopyHandler        copyHandler;
+	private final TreeCopier         treeCopier;
 
 	//----------------------------------------------------------------------------------------------------
 	/**
-	 * Constructor
+	 * Constructor (files copied one by one in the current thread, the CopyHandler is called in the tree order)
 	 * @param overwriteChooser an OverwriteChooser implementation or null (if null overwrite is always 'YES')
 	 * @param copyHandler a CopyHandler implementation or null (if null no notification)
 	 */
 	public ResourcesCopier(OverwriteChooser overwriteChooser, CopyHandler copyHandler) {
+		this(overwriteChooser, copyHandler, 1, false);
+	}
+	
+	/**
+	 * Constructor <br>
+	 * With more than 1 thread the CopyHandler is called by the copy threads (never concurrently) 
+	 * and not in the tree order
+	 * @param overwriteChooser an OverwriteChooser implementation or null (if null overwrite is always 'YES')
+	 * @param copyHandler a CopyHandler implementation or null (if null no notification)
+	 * @param numberOfThreads max number of threads used to copy the files of a directory (1 for a copy in the current thread)
+	 * @since 4.3.0
+	 */
+	public ResourcesCopier(OverwriteChooser overwriteChooser, CopyHandler copyHandler, int numberOfThreads) {
+		this(overwriteChooser, copyHandler, numberOfThreads, false);
+	}
+	
+	/**
+	 * Constructor
+	 * @param overwriteChooser an OverwriteChooser implementation or null (if null overwrite is always 'YES')
+	 * @param copyHandler a CopyHandler implementation or null (if null no notification)
+	 * @param numberOfThreads max number of threads used to copy the files of a directory (1 for a copy in the current thread)
+	 * @param skipUnchanged true to keep the existing files identical to the original files (not rewritten)
+	 * @since 4.3.0
+	 */
+	public ResourcesCopier(OverwriteChooser overwriteChooser, CopyHandler copyHandler, int numberOfThreads, boolean skipUnchanged) {
 		super();
-		if ( overwriteChooser != null ) {
-			this.overwriteChooser = overwriteChooser ;
-		}
-		else {
-			this.overwriteChooser = new DefaultOverwriteChooser(OverwriteChooser.YES) ;
-		}
-		this.copyHandler = copyHandler ;
+		this.treeCopier = new TreeCopier(overwriteChooser, copyHandler, numberOfThreads, skipUnchanged);
 	}
 	
 	//----------------------------------------------------------------------------------------------------
@@ -54,146 +71,37 @@ public class ResourcesCopier {
 	 * @throws CancelException
 	 */
 	public int copy(File origin , File destination) throws TelosysToolsException, CancelException{
-		if ( origin == null ) {
-			throw new IllegalArgumentException("origin is null");
-		}
-		if ( destination == null ) {
-			throw new IllegalArgumentException("destination is null");
-		}
-		try {
-			int n = 0 ; 
-			if ( origin.isFile() && destination.exists() && destination.isDirectory() ) {
-				// Copy a single file to an existing directory
-				n = copyFileToFolder(origin, destination);
-			}
-			else {
-				// Copy file to file or folder to folder
-				n = recursiveCopy(origin, destination); 
-			}
-			return n ;
-		}
-		catch(CancelException e) {
-			return -1;
-		}
+		CopyResult result = copyAndReport(origin, destination);
+		return result.isCanceled() ? -1 : result.getCopied() ;
 	}
 	
 	//----------------------------------------------------------------------------------------------------
 	/**
-	 * Copy a single file in a folder
-	 * @param inputFile
-	 * @param directory
-	 * @return
-	 * @throws TelosysToolsException
-	 * @throws CancelException
-	 */
-	private int copyFileToFolder(File inputFile , File directory) throws TelosysToolsException, CancelException {
-    	String outputFileFullPath = FileUtil.buildFilePath(directory.getAbsolutePath(), inputFile.getName());
-    	File outputFile = new File(outputFileFullPath);
-		if ( outputFile.exists() ) {
-			if ( getOverwriteChoice(outputFile) ) {
-				// overwrite the existing file
-	    		copyFile(inputFile, outputFile);
-        		return 1 ;
-			}
-			else {
-				// "NO" : do not overwrite
-				return 0 ;
-			}
-		}
-		else {
-    		copyFile(inputFile, outputFile);
-    		return 1 ;
-		}
-	}
-	//----------------------------------------------------------------------------------------------------
-	/**
-	 * Copies a file to another one, or a directory in another one <br>
+	 * Copies a file to another one, or a file to a directory, or a directory in another one <br>
 	 * @param origin original file or folder
 	 * @param destination  destination file or folder
-	 * @return
+	 * @return the copy result (number of files copied, skipped, not overwritten and 'canceled' flag)
 	 * @throws TelosysToolsException
-	 * @throws CancelException
+	 * @since 4.3.0
 	 */
-	private int recursiveCopy(File origin , File destination) throws TelosysToolsException, CancelException {
-		int count = 0 ;
-	    if (origin.isDirectory()) {
-	    	// Source is a directory => destination is supposed to be a directory 
-	        if ( destination.exists() ) {
-	        	if ( ! destination.isDirectory() ) {
-	        		throw new TelosysToolsException("'" + destination + "' is not a directory");
-	        	}
-	        }
-	        else {
-	            destination.mkdir();
-	        }
-	        // Copy recursively the content 
-	        String[] children = origin.list();
-	        for (String child : children ) {
-	        	count = count + recursiveCopy( new File(origin, child), new File(destination, child) );
-	        }
-	    } else {
-	    	// Source is a file 
-    		if ( destination.exists() ) {
-    			// Destination exists 
-    			if ( destination.isFile() ) {
-        			// Destination exists and is a file
-    				if ( getOverwriteChoice(destination) ) {
-    					// overwrite the existing file
-    		    		copyFile(origin, destination);
-    	        		return 1 ;
-    				}
-    				// else : "NO"
-    			}
-    			else {
-        			// Destination exists and is NOT a file => error
-	        		throw new TelosysToolsException("'" + destination + "' already exists and is not a file");
-    			}
-    		}
-    		else {
-    			// Destination doesn't exist => copy 
-	    		copyFile(origin, destination);
-        		return 1 ;
-    		}
-	    }
-	    return count ;
-	}
-	
-	/**
-	 * Copy a single file to another one (creates or overwrites if the file exists)<br>
-	 * and notify the handler before and after the copy
-	 * @param origin
-	 * @param destination
-	 */
-	private void copyFile(File origin, File destination) {
-		if ( copyHandler != null ) {
-			copyHandler.beforeCopy(origin, destination);
+	public CopyResult copyAndReport(File origin , File destination) throws TelosysToolsException {
+		if ( origin == null ) {
+			throw new IllegalArgumentException("origin is null");
 		}
-		
-		FileUtil.copyFileToFile(origin, destination, true);
-
-		if ( copyHandler != null ) {
-			copyHandler.afterCopy(origin, destination);
+		if ( destination == null ) {
+			throw new IllegalArgumentException("destination is null");
 		}
-	}
-	
-	/**
-	 * Uses the given OverwriteChooser instance to determine if the file must be overwritten
-	 * @param file
-	 * @return
-	 * @throws TelosysToolsException
-	 * @throws CancelException
-	 */
-	private boolean getOverwriteChoice(File file) throws TelosysToolsException, CancelException {
-		int choice = overwriteChooser.choose(file.getName(), file.getParent() );
-		switch (choice) {
-			case OverwriteChooser.YES :
-				return true ;
-			case OverwriteChooser.NO :
-				return false ;
-			case OverwriteChooser.CANCEL :
-				throw new CancelException("Copy canceled");
-			default: 
-				throw new TelosysToolsException("Invalid choice");
+		if ( origin.isFile() && destination.exists() && destination.isDirectory() ) {
+			// Copy a single file to an existing directory
+			return treeCopier.copyFileAndReport(origin, new File(destination, origin.getName()));
+		}
+		else if ( origin.isDirectory() ) {
+			// Copy folder to folder (directories created first, then files copied)
+			return treeCopier.copyTreeAndReport(origin, destination);
+		}
+		else {
+			// Copy file to file 
+			return treeCopier.copyFileAndReport(origin, destination);
 		}
 	}
 }
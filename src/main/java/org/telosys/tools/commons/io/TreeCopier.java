@@ -0,0 +1,463 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.telosys.tools.commons.FileUtil;
+import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.exception.CancelException;
+import org.telosys.tools.commons.exception.TelosysRuntimeException;
+
+/**
+ * Copy engine for a directory tree (directory to directory with all its content) <br>
+ * 
+ * The copy is done in 3 steps : <br>
+ *  1) the source tree is walked once (NIO 'walkFileTree') <br>
+ *  2) all the destination directories are created (before any file copy) <br>
+ *  3) the files are copied ('Files.copy') by the current thread or by a bounded pool of threads (opt-in) <br>
+ *  
+ * The OverwriteChooser is always called by the current thread, in the tree order 
+ * (it can be interactive), with threads the files already accepted are copied meanwhile. <br>
+ * With 1 thread (default) the CopyHandler is called by the current thread in the tree order. <br>
+ * With more threads the CopyHandler is called by the copy threads, but never concurrently (the calls are synchronized). <br>
+ * If the copy is canceled by the OverwriteChooser the files already accepted are copied, 
+ * then a CancelException is thrown. <br>
+ * 
+ * With the 'skip unchanged' mode an existing file is not rewritten if it's identical to the original file : <br>
+ *  - same size and same last-modified time : identical (no read) <br>
+ *  - else same size : contents compared (streaming, by the copy threads when possible) <br>
+ * An identical file is never proposed to the OverwriteChooser. <br>
+ * The files copied in this mode and the files skipped for an identical content get the last-modified time 
+ * of the original file (so the next copy will only check the sizes and times). <br>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public class TreeCopier {
+
+	/**
+	 * Default number of threads for a parallel copy (to be passed explicitly to the constructor)
+	 */
+	public static final int DEFAULT_NUMBER_OF_THREADS = Math.min(8, Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+	private final OverwriteChooser overwriteChooser ;
+	private final CopyHandler      copyHandler ;
+	private final int              numberOfThreads ;
+	private final boolean          skipUnchanged ;
+	private final Object           copyHandlerLock = new Object();
+
+	/**
+	 * Constructor for a copy in the current thread (no parallel copy)
+	 * @param overwriteChooser an OverwriteChooser implementation or null (if null overwrite is always 'YES')
+	 * @param copyHandler a CopyHandler implementation or null (if null no notification)
+	 */
+	public TreeCopier(OverwriteChooser overwriteChooser, CopyHandler copyHandler) {
+		this(overwriteChooser, copyHandler, 1);
+	}
+
+	/**
+	 * Constructor
+	 * @param overwriteChooser an OverwriteChooser implementation or null (if null overwrite is always 'YES')
+	 * @param copyHandler a CopyHandler implementation or null (if null no notification)
+	 * @param numberOfThreads max number of threads used to copy the files (1 for a copy in the current thread)
+	 */
+	public TreeCopier(OverwriteChooser overwriteChooser, CopyHandler copyHandler, int numberOfThreads) {
+		this(overwriteChooser, copyHandler, numberOfThreads, false);
+	}
+
+	/**
+	 * Constructor
+	 * @param overwriteChooser an OverwriteChooser implementation or null (if null overwrite is always 'YES')
+	 * @param copyHandler a CopyHandler implementation or null (if null no notification)
+	 * @param numberOfThreads max number of threads used to copy the files (1 for a copy in the current thread)
+	 * @param skipUnchanged true to keep the existing files identical to the original files (not rewritten)
+	 */
+	public TreeCopier(OverwriteChooser overwriteChooser, CopyHandler copyHandler, int numberOfThreads, boolean skipUnchanged) {
+		super();
+		if ( numberOfThreads <= 0 ) {
+			throw new IllegalArgumentException("Invalid number of threads (" + numberOfThreads + ")");
+		}
+		this.overwriteChooser = ( overwriteChooser != null ? overwriteChooser : new DefaultOverwriteChooser(OverwriteChooser.YES) ) ;
+		this.copyHandler = copyHandler ;
+		this.numberOfThreads = numberOfThreads ;
+		this.skipUnchanged = skipUnchanged ;
+	}
+
+	/**
+	 * A file to be copied
+	 */
+	private static class FileToCopy {
+		private final File origin ;
+		private final File destination ;
+		private Future<Boolean> sameContent = null ; // content comparison in progress ('skip unchanged' mode)
+		private FileToCopy(File origin, File destination) {
+			this.origin = origin ;
+			this.destination = destination ;
+		}
+	}
+
+	/**
+	 * Decision for a file (before the copy)
+	 */
+	private enum Decision { COPY, SKIP, NO_OVERWRITE }
+
+	/**
+	 * Counters updated by the current thread
+	 */
+	private static class Counters {
+		private int copied = 0 ;
+		private int skipped = 0 ;
+		private int notOverwritten = 0 ;
+		private boolean canceled = false ;
+		private void count(Decision decision) {
+			if ( decision == Decision.SKIP ) {
+				skipped++ ;
+			}
+			else if ( decision == Decision.NO_OVERWRITE ) {
+				notOverwritten++ ;
+			}
+		}
+		private CopyResult getResult() {
+			return new CopyResult(copied, skipped, notOverwritten, canceled);
+		}
+	}
+
+	/**
+	 * Source tree content (relative paths in the tree order)
+	 */
+	private static class TreeContent {
+		private final List<Path> directories = new ArrayList<>();
+		private final List<Path> files = new ArrayList<>();
+	}
+
+	//----------------------------------------------------------------------------------------------------
+	/**
+	 * Copies the given directory content in the destination directory (recursively) <br>
+	 * The destination directory is created if it doesn't exist
+	 * @param sourceFolder
+	 * @param destinationFolder
+	 * @return the number of files copied
+	 * @throws TelosysToolsException
+	 * @throws CancelException
+	 */
+	public int copyTree(File sourceFolder, File destinationFolder) throws TelosysToolsException, CancelException {
+		CopyResult result = copyTreeAndReport(sourceFolder, destinationFolder);
+		if ( result.isCanceled() ) {
+			throw new CancelException("Copy canceled");
+		}
+		return result.getCopied();
+	}
+
+	/**
+	 * Copies the given directory content in the destination directory (recursively) <br>
+	 * The destination directory is created if it doesn't exist
+	 * @param sourceFolder
+	 * @param destinationFolder
+	 * @return the copy result (never throws CancelException, the result is 'canceled')
+	 * @throws TelosysToolsException
+	 */
+	public CopyResult copyTreeAndReport(File sourceFolder, File destinationFolder) throws TelosysToolsException {
+		if ( ! sourceFolder.isDirectory() ) {
+			throw new TelosysToolsException("'" + sourceFolder + "' is not a directory");
+		}
+		Path source = sourceFolder.toPath();
+		Path destination = destinationFolder.toPath();
+		//--- 1) Walk the source tree
+		TreeContent content = walk(source);
+		//--- 2) Create all the directories 
+		for ( Path directory : content.directories ) {
+			createDirectory(destination.resolve(directory.toString()));
+		}
+		//--- 3) Copy the files 
+		List<FileToCopy> filesToCopy = new ArrayList<>(content.files.size());
+		for ( Path file : content.files ) {
+			filesToCopy.add(new FileToCopy(source.resolve(file).toFile(), destination.resolve(file.toString()).toFile()));
+		}
+		if ( numberOfThreads == 1 || filesToCopy.size() <= 1 ) {
+			return copyInCurrentThread(filesToCopy);
+		}
+		else {
+			return copyInThreads(filesToCopy);
+		}
+	}
+
+	/**
+	 * Copies a single file to another one (with the same rules as for a tree) <br>
+	 * The destination folder is created if it doesn't exist
+	 * @param origin
+	 * @param destination
+	 * @return the copy result (never throws CancelException, the result is 'canceled')
+	 * @throws TelosysToolsException
+	 */
+	public CopyResult copyFileAndReport(File origin, File destination) throws TelosysToolsException {
+		try {
+			FileUtil.createParentFolderIfNecessary(destination);
+		} catch (TelosysRuntimeException e) {
+			throw new TelosysToolsException("Cannot create parent folder for '" + destination + "'", e);
+		}
+		return copyInCurrentThread(Collections.singletonList(new FileToCopy(origin, destination)));
+	}
+
+	private TreeContent walk(Path source) throws TelosysToolsException {
+		TreeContent content = new TreeContent();
+		try {
+			// links are followed (as with 'File.isDirectory()' and 'File.list()') 
+			Files.walkFileTree(source, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					content.directories.add(source.relativize(dir));
+					return FileVisitResult.CONTINUE;
+				}
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					content.files.add(source.relativize(file));
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot walk directory '" + source + "'", e);
+		}
+		return content ;
+	}
+
+	private void createDirectory(Path directory) throws TelosysToolsException {
+		if ( Files.exists(directory) ) {
+			if ( ! Files.isDirectory(directory) ) {
+				throw new TelosysToolsException("'" + directory + "' is not a directory");
+			}
+		}
+		else {
+			try {
+				Files.createDirectories(directory);
+			} catch (IOException e) {
+				throw new TelosysToolsException("Cannot create directory '" + directory + "'", e);
+			}
+		}
+	}
+
+	/**
+	 * Determines if the given file must be copied (destination doesn't exist or must be overwritten)
+	 * @param fileToCopy
+	 * @return
+	 * @throws TelosysToolsException
+	 * @throws CancelException
+	 */
+	private Decision decide(FileToCopy fileToCopy) throws TelosysToolsException, CancelException {
+		File destination = fileToCopy.destination ;
+		if ( destination.exists() ) {
+			if ( ! destination.isFile() ) {
+				throw new TelosysToolsException("'" + destination + "' already exists and is not a file");
+			}
+			if ( skipUnchanged && isIdentical(fileToCopy) ) {
+				return Decision.SKIP ;
+			}
+			if ( ! getOverwriteChoice(destination) ) {
+				return Decision.NO_OVERWRITE ;
+			}
+		}
+		return Decision.COPY ;
+	}
+
+	/**
+	 * Returns true if the content of the destination file must be compared with the original file 
+	 * (existing file with the same size and another last-modified time)
+	 * @param fileToCopy
+	 * @return
+	 */
+	private static boolean needsContentComparison(FileToCopy fileToCopy) {
+		File origin = fileToCopy.origin ;
+		File destination = fileToCopy.destination ;
+		return destination.isFile() && origin.length() == destination.length() 
+				&& origin.lastModified() != destination.lastModified() ;
+	}
+
+	/**
+	 * Returns true if the destination file is identical to the original file <br>
+	 * (same size and same last-modified time, or same content) <br>
+	 * If the content is the same with another time, the original time is set on the destination file
+	 * @param fileToCopy
+	 * @return
+	 * @throws TelosysToolsException
+	 */
+	private static boolean isIdentical(FileToCopy fileToCopy) throws TelosysToolsException {
+		File origin = fileToCopy.origin ;
+		File destination = fileToCopy.destination ;
+		if ( origin.length() != destination.length() ) {
+			return false ;
+		}
+		if ( origin.lastModified() == destination.lastModified() ) {
+			return true ;
+		}
+		boolean sameContent ;
+		if ( fileToCopy.sameContent != null ) {
+			sameContent = waitForFile(fileToCopy.sameContent);
+		}
+		else {
+			try {
+				sameContent = FileUtil.hasSameContent(origin, destination);
+			} catch (TelosysRuntimeException e) {
+				throw new TelosysToolsException("Cannot compare '" + origin + "' and '" + destination + "'", e);
+			}
+		}
+		if ( sameContent ) {
+			// not rewritten, only the time is updated (if possible) for the next copy 
+			destination.setLastModified(origin.lastModified());
+		}
+		return sameContent ;
+	}
+
+	private CopyResult copyInCurrentThread(List<FileToCopy> filesToCopy) throws TelosysToolsException {
+		Counters counters = new Counters();
+		try {
+			for ( FileToCopy fileToCopy : filesToCopy ) {
+				Decision decision = decide(fileToCopy);
+				if ( decision == Decision.COPY ) {
+					copyFile(fileToCopy);
+					counters.copied++ ;
+				}
+				else {
+					counters.count(decision);
+				}
+			}
+		} catch (CancelException e) {
+			counters.canceled = true ;
+		}
+		return counters.getResult();
+	}
+
+	private CopyResult copyInThreads(List<FileToCopy> filesToCopy) throws TelosysToolsException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, filesToCopy.size()));
+		List<Future<Boolean>> futures = new ArrayList<>(filesToCopy.size());
+		Counters counters = new Counters();
+		try {
+			if ( skipUnchanged ) {
+				// contents compared by the threads before the decisions (no question for an identical file)
+				for ( FileToCopy fileToCopy : filesToCopy ) {
+					if ( needsContentComparison(fileToCopy) ) {
+						fileToCopy.sameContent = executor.submit(
+								() -> FileUtil.hasSameContent(fileToCopy.origin, fileToCopy.destination) );
+					}
+				}
+			}
+			for ( FileToCopy fileToCopy : filesToCopy ) {
+				Decision decision ;
+				try {
+					decision = decide(fileToCopy);
+				} catch (CancelException e) {
+					// stop here, but the files already accepted are copied 
+					counters.canceled = true ;
+					break ;
+				}
+				if ( decision == Decision.COPY ) {
+					futures.add(executor.submit(() -> {
+						copyFile(fileToCopy);
+						return Boolean.TRUE ;
+					}));
+				}
+				else {
+					counters.count(decision);
+				}
+			}
+			for ( Future<Boolean> future : futures ) {
+				waitForFile(future);
+				counters.copied++ ;
+			}
+			return counters.getResult();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static boolean waitForFile(Future<Boolean> future) throws TelosysToolsException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TelosysToolsException("Copy interrupted", e);
+		} catch (ExecutionException e) {
+			throw new TelosysToolsException("Copy error : " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * Copy a single file to another one (creates or overwrites if the file exists)<br>
+	 * and notify the handler before and after the copy
+	 * @param fileToCopy
+	 * @throws TelosysToolsException
+	 */
+	private void copyFile(FileToCopy fileToCopy) throws TelosysToolsException {
+		Path origin = fileToCopy.origin.toPath();
+		Path destination = fileToCopy.destination.toPath();
+		try {
+			if ( copyHandler != null ) {
+				synchronized (copyHandlerLock) {
+					copyHandler.beforeCopy(fileToCopy.origin, fileToCopy.destination);
+				}
+			}
+			Files.copy(origin, destination, StandardCopyOption.REPLACE_EXISTING);
+			if ( skipUnchanged ) {
+				// same time as the original file for the next copy 
+				Files.setLastModifiedTime(destination, Files.getLastModifiedTime(origin));
+			}
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot copy '" + origin + "' to '" + destination + "'", e);
+		}
+		if ( copyHandler != null ) {
+			synchronized (copyHandlerLock) {
+				copyHandler.afterCopy(fileToCopy.origin, fileToCopy.destination);
+			}
+		}
+	}
+
+	/**
+	 * Uses the OverwriteChooser instance to determine if the file must be overwritten
+	 * @param file
+	 * @return
+	 * @throws TelosysToolsException
+	 * @throws CancelException
+	 */
+	private boolean getOverwriteChoice(File file) throws TelosysToolsException, CancelException {
+		int choice = overwriteChooser.choose(file.getName(), file.getParent() );
+		switch (choice) {
+			case OverwriteChooser.YES :
+				return true ;
+			case OverwriteChooser.NO :
+				return false ;
+			case OverwriteChooser.CANCEL :
+				throw new CancelException("Copy canceled");
+			default: 
+				throw new TelosysToolsException("Invalid choice");
+		}
+	}
+}
@@ -16,10 +16,13 @@
 package org.telosys.tools.commons.models;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 
 import org.telosys.tools.commons.DirUtil;
 import org.telosys.tools.commons.FileUtil;
 import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.ZipUpdateResult;
 import org.telosys.tools.commons.ZipUtil;
 import org.telosys.tools.commons.cfg.TelosysToolsCfg;
 import org.telosys.tools.commons.depot.Depot;
@@ -90,7 +93,7 @@ public class ModelsManager {
 	 * @throws TelosysToolsException
 	 */
 	public String downloadModelBranch(Depot depot, String modelName, String branch) throws TelosysToolsException {
-		String downloadedFile = FileUtil.buildFilePath(telosysToolsCfg.getDownloadsFolderAbsolutePath(), modelName + ".zip");
+		String downloadedFile = getDownloadedFilePath(modelName);
 		DepotClient depotClient = DepotClientProvider.getDepotClient(depot, telosysToolsCfg);
 		depotClient.downloadRepositoryBranch(depot, modelName, branch, downloadedFile);
 		return downloadedFile;
@@ -108,6 +111,71 @@ public class ModelsManager {
 		return installModel(downloadedFile, modelName);
 	}
 
+	/**
+	 * Dowloads the given model from the given depot and install it while downloading <br>
+	 * (each zip entry is extracted as soon as it arrives, the zip file is not written and read again)
+	 * @param depot
+	 * @param modelName
+	 * @param branch
+	 * @param keepZipFile true to keep a copy of the zip file in the downloads folder 
+	 * @return true if installed, false if the model is already installed
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public boolean downloadAndInstallModelBranch(Depot depot, String modelName, String branch, boolean keepZipFile) throws TelosysToolsException {
+		if ( modelFolderExists(modelName) ) {
+			return false ;
+		}
+		String modelFolder = telosysToolsCfg.getModelFolderAbsolutePath(modelName) ;
+		String zipCopyFile = keepZipFile ? getDownloadedFilePath(modelName) : null ;
+		DepotClient depotClient = DepotClientProvider.getDepotClient(depot, telosysToolsCfg);
+		try {
+			depotClient.downloadAndUnzipRepositoryBranch(depot, modelName, branch, modelFolder, zipCopyFile);
+			return true;
+		} catch (TelosysToolsException e) {
+			// never keep a partially installed model
+			deleteModel(modelName);
+			throw e ;
+		}
+	}
+	
+	private String getDownloadedFilePath(String modelName) {
+		return FileUtil.buildFilePath(telosysToolsCfg.getDownloadsFolderAbsolutePath(), modelName + ".zip");
+	}
+
+	/**
+	 * Dowloads the given model from the given depot and updates the model (incremental install) 
+	 * @param depot
+	 * @param modelName
+	 * @param branch
+	 * @return the number of files extracted, unchanged and deleted
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public ZipUpdateResult downloadAndUpdateModelBranch(Depot depot, String modelName, String branch) throws TelosysToolsException {
+		String downloadedFile = downloadModelBranch(depot, modelName, branch ) ;
+		return updateModel(downloadedFile, modelName);
+	}
+
+	/**
+	 * Updates (or installs) the model with the given zip file <br>
+	 * Only the new or changed files are extracted and the files no longer in the zip file are deleted <br>
+	 * (comparison based on the CRC-32 and size of each zip entry and a manifest written at each update)
+	 * @param zipFileName
+	 * @param modelName
+	 * @return the number of files extracted, unchanged and deleted
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public ZipUpdateResult updateModel(String zipFileName, String modelName) throws TelosysToolsException {
+		String modelFolder = telosysToolsCfg.getModelFolderAbsolutePath(modelName) ;
+		return ZipUtil.unzipIncremental(zipFileName, modelFolder, getManifestFilePath(modelName)) ;
+	}
+	
+	private String getManifestFilePath(String modelName) {
+		return FileUtil.buildFilePath(telosysToolsCfg.getDownloadsFolderAbsolutePath(), modelName + ".model.manifest");
+	}
+
 
 	//--------------------------------------------------------------------------------------------------
 	/**
@@ -143,11 +211,20 @@ public class ModelsManager {
 		if ( file.isDirectory() ) {  // file exists and is a directory
 			// directory found => deleted it 
 			DirUtil.deleteDirectory(file);
+			deleteManifest(getManifestFilePath(modelName));
 			return true ;
 		}
 		return false ;
 	}
 	
+	private void deleteManifest(String manifestFilePath) throws TelosysToolsException {
+		try {
+			Files.deleteIfExists(new File(manifestFilePath).toPath());
+		} catch (IOException e) {
+			throw new TelosysToolsException("Cannot delete manifest '" + manifestFilePath + "'", e);
+		}
+	}
+	
 	/**
 	 * Returns true if the given file/folder is a 'model' ( a directory containing a 'model.yaml' file )
 	 * @param file
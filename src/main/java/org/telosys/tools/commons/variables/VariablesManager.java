@@ -15,11 +15,37 @@
  */
 package org.telosys.tools.commons.variables;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.DosFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.commons.TelosysToolsException;
 import org.telosys.tools.commons.exception.TelosysRuntimeException;
 
 /**
@@ -32,6 +58,9 @@ public class VariablesManager {
 	
 	private static final String VAR_PREFIX = "${" ;
 	private static final String VAR_SUFFIX = "}" ;
+	
+	// temporary file created in the same folder as the file to be processed 
+	private static final String TMP_FILE_PREFIX = ".tmp-var-" ;
 
 	/**
 	 * Map of variables with their values (e.g. "VAR1" --> "VALUE1")
@@ -94,42 +123,168 @@ public class VariablesManager {
 	public String replaceVariables(String s) {
 		if ( null == s ) return null ;
 		if ( s.length() < 3 ) return s ; // cannot contain "${x}"
-		
-		StringBuilder sb = new StringBuilder();
-		replaceVariables( s, sb ) ;
-		return sb.toString() ;
-	}
-	
-	private void replaceVariables(String s, StringBuilder sb ) {
-		if ( null == s ) {
-			return ;
-		}
-		
-        int i = s.indexOf(VAR_PREFIX);
-        if ( i >= 0 ) {
-            int j = s.indexOf(VAR_SUFFIX);
-            if ( j > i ) {
-                String symbolicVariableName = s.substring(i,j+1); // "${MYVAR}"                
-                String varValue = getVariableValue(extractVariableName(symbolicVariableName));
-
-                String partBeforeVar = s.substring(0,i);
-                String partAfterVar  = s.substring(j+1);
-                sb.append( partBeforeVar ) ;
-                if ( varValue != null ) {
-                    sb.append( varValue ); // replace by variable value
-                }
-                else {
-                    sb.append( symbolicVariableName ); // keep symbolic name as is 
-                }
-                // recursive call 
-                replaceVariables( partAfterVar, sb );
-            }
-        }
-        else {
-            sb.append( s ) ;
-        }
+		if ( s.indexOf(VAR_PREFIX) < 0 ) return s ; // no variable (not kept in the templates cache)
+		// v 4.3.0 : string parsed once (compiled template kept in cache)
+		return VariablesTemplate.compile(s).render(hmVariables::get) ;
+	}
+	
+	/**
+	 * Replaces the variables of the given compiled template 
+	 * @param template
+	 * @return
+	 * @since 4.3.0
+	 */
+	public String replaceVariablesInTemplate(VariablesTemplate template) {
+		return template.render(hmVariables::get) ;
+	}
+	
+	/**
+	 * Replaces the variables of the given compiled template and appends the result in the given StringBuilder
+	 * @param template
+	 * @param sb 
+	 * @since 4.3.0
+	 */
+	public void replaceVariablesInTemplate(VariablesTemplate template, StringBuilder sb) {
+		template.render(hmVariables::get, sb) ;
+	}
+	
+	/**
+	 * Replaces the variables in the characters read from the given Reader and writes the result in the given Writer <br>
+	 * The input is processed in fixed-size chunks (the memory used doesn't depend on the input size) <br>
+	 * The Reader and the Writer are not closed.
+	 * @param reader
+	 * @param writer
+	 * @return the number of variables replaced
+	 * @throws IOException
+	 * @since 4.3.0
+	 */
+	public int replaceVariables(Reader reader, Writer writer) throws IOException {
+		return new VariablesStreamReplacer(hmVariables::get).replace(reader, writer);
+	}
+	
+	/**
+	 * Replaces the variables in all the files located in the given folder and its sub-folders <br>
+	 * The files are processed in parallel, each file is processed in streaming mode <br>
+	 * (written in a temporary file, then renamed) and is not rewritten if it doesn't contain any variable. <br>
+	 * The file permissions are kept. A file that cannot be decoded with the given charset (e.g. binary file) is not changed. <br>
+	 * The variables must not be changed during this call.
+	 * @param folder
+	 * @param filter the files to be processed (or null for all files)
+	 * @param charset the files charset
+	 * @param numberOfThreads 
+	 * @return the number of files changed
+	 * @throws TelosysToolsException
+	 * @since 4.3.0
+	 */
+	public int replaceVariablesInFolder(File folder, FileFilter filter, Charset charset, int numberOfThreads) throws TelosysToolsException {
+		if ( numberOfThreads <= 0 ) throw new IllegalArgumentException("Invalid number of threads (" + numberOfThreads + ")") ;
+		List<File> files = new ArrayList<>();
+		for ( String path : DirUtil.getDirectoryFiles(folder, true) ) {
+			File file = new File(path);
+			if ( file.getName().startsWith(TMP_FILE_PREFIX) ) {
+				continue; // temporary file left by an interrupted process
+			}
+			if ( filter == null || filter.accept(file) ) {
+				files.add(file);
+			}
+		}
+		if ( files.isEmpty() ) {
+			return 0 ;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, files.size()));
+		try {
+			List<Future<Boolean>> futures = new ArrayList<>(files.size());
+			for ( File file : files ) {
+				futures.add( executor.submit( () -> replaceVariablesInFile(file, charset) ) );
+			}
+			int changed = 0 ;
+			for ( Future<Boolean> future : futures ) {
+				if ( waitForFile(future) ) {
+					changed++;
+				}
+			}
+			return changed ;
+		}
+		finally {
+			executor.shutdownNow();
+		}
 	}
 	
+	private boolean waitForFile(Future<Boolean> future) throws TelosysToolsException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TelosysToolsException("Variables replacement interrupted", e);
+		} catch (ExecutionException e) {
+			throw new TelosysToolsException("Variables replacement error : " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+	
+	/**
+	 * Replaces the variables in the given file (streaming mode) 
+	 * @param file
+	 * @param charset
+	 * @return true if the file has been changed
+	 * @throws IOException
+	 */
+	private boolean replaceVariablesInFile(File file, Charset charset) throws IOException {
+		Path tmpFile = Files.createTempFile(file.toPath().toAbsolutePath().getParent(), TMP_FILE_PREFIX, null);
+		// invalid input reported (not replaced) : a binary file is never rewritten 
+		CharsetDecoder decoder = charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPORT)
+				.onUnmappableCharacter(CodingErrorAction.REPORT);
+		int n ;
+		try ( Reader reader = new InputStreamReader(new FileInputStream(file), decoder) ;
+			  Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tmpFile), charset)) ) {
+			n = new VariablesStreamReplacer(hmVariables::get).replace(reader, writer);
+		} catch (CharacterCodingException e) {
+			// not a text file for this charset : kept unchanged
+			Files.deleteIfExists(tmpFile);
+			return false ;
+		} catch (IOException e) {
+			Files.deleteIfExists(tmpFile);
+			throw new IOException("Cannot replace variables in '" + file + "'", e);
+		}
+		if ( n > 0 ) {
+			try {
+				copyPermissions(file.toPath(), tmpFile);
+				Files.move(tmpFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				Files.deleteIfExists(tmpFile);
+				throw new IOException("Cannot replace variables in '" + file + "'", e);
+			}
+			return true ;
+		}
+		else {
+			// nothing replaced : the original file is kept unchanged
+			Files.delete(tmpFile);
+			return false ;
+		}
+	}
+	
+	/**
+	 * Copies the permissions of the original file on the new file (POSIX permissions or DOS attributes)
+	 * @param original
+	 * @param target
+	 * @throws IOException
+	 */
+	private void copyPermissions(Path original, Path target) throws IOException {
+		PosixFileAttributeView posixView = Files.getFileAttributeView(original, PosixFileAttributeView.class);
+		if ( posixView != null ) {
+			Files.setPosixFilePermissions(target, posixView.readAttributes().permissions());
+			return;
+		}
+		DosFileAttributeView dosView = Files.getFileAttributeView(original, DosFileAttributeView.class);
+		if ( dosView != null ) {
+			DosFileAttributes dosAttributes = dosView.readAttributes();
+			DosFileAttributeView targetView = Files.getFileAttributeView(target, DosFileAttributeView.class);
+			targetView.setHidden(dosAttributes.isHidden());
+			targetView.setSystem(dosAttributes.isSystem());
+			targetView.setArchive(dosAttributes.isArchive());
+			targetView.setReadOnly(dosAttributes.isReadOnly());
+		}
+	}
 	
 	/**
 	 * Extract the variable name from the given symbilic name 
@@ -175,6 +330,15 @@ public class VariablesManager {
 		hmVariables.remove(variableName);
 	}
 	
+	/**
+	 * Returns an immutable snapshot of the current variables (can be shared by many threads)
+	 * @return
+	 * @since 4.3.0
+	 */
+	public VariablesSnapshot snapshot() {
+		return VariablesSnapshot.of(this.hmVariables);
+	}
+	
 	/**
 	 * Returns a 'deep copy' of the current instance
 	 * @return
@@ -0,0 +1,238 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.variables;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable set of variables (can be shared by many threads without copy) <br>
+ * A derived snapshot overriding a few variables is cheap : it only stores the overridden 
+ * variables and a reference to its parent (the chain is flattened when it becomes too long). <br>
+ * Example : 
+ * <pre>
+ *   VariablesSnapshot global = variablesManager.snapshot();
+ *   VariablesSnapshot entityScope = global.derive().setVariable("BEANNAME", "Car").build();
+ * </pre>
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public final class VariablesSnapshot {
+
+	// max number of parents before flattening
+	private static final int MAX_DEPTH = 8 ;
+	
+	private static final VariablesSnapshot EMPTY = new VariablesSnapshot(null, Collections.emptyMap());
+	
+	private final VariablesSnapshot parent ;
+	// variables defined at this level ( null value = variable removed )
+	private final Map<String,String> variables ;
+	private final int depth ;
+	
+	private VariablesSnapshot(VariablesSnapshot parent, Map<String,String> variables) {
+		this.parent = parent ;
+		this.variables = variables ;
+		this.depth = ( parent != null ? parent.depth + 1 : 0 );
+	}
+	
+	/**
+	 * Returns an immutable snapshot of the given variables 
+	 * @param variables
+	 * @return
+	 */
+	public static VariablesSnapshot of(Map<String,String> variables) {
+		if ( variables == null ) throw new IllegalArgumentException("Variables map is null") ;
+		Map<String,String> map = new HashMap<>();
+		for ( Map.Entry<String,String> entry : variables.entrySet() ) {
+			if ( entry.getKey() != null && entry.getValue() != null ) {
+				map.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return new VariablesSnapshot(null, Collections.unmodifiableMap(map));
+	}
+	
+	/**
+	 * Returns an empty snapshot 
+	 * @return
+	 */
+	public static VariablesSnapshot empty() {
+		return EMPTY ;
+	}
+
+	/**
+	 * Returns a builder to create a new snapshot derived from this one 
+	 * @return
+	 */
+	public Builder derive() {
+		return new Builder(this);
+	}
+	
+	/**
+	 * Returns the value of the given variable (or null if not defined)
+	 * @param variableName
+	 * @return
+	 */
+	public String getVariableValue(String variableName) {
+		VariablesSnapshot current = this ;
+		while ( current != null ) {
+			if ( current.variables.containsKey(variableName) ) {
+				return current.variables.get(variableName); // null if removed 
+			}
+			current = current.parent ;
+		}
+		return null ;
+	}
+	
+	/**
+	 * Returns all the variables names 
+	 * @return
+	 */
+	public List<String> getVariablesNames() {
+		return new LinkedList<>(toMap().keySet());
+	}
+	
+	/**
+	 * Returns all the variables in a new map 
+	 * @return
+	 */
+	public Map<String,String> toMap() {
+		Map<String,String> map = new HashMap<>();
+		putAll(this, map);
+		return map ;
+	}
+	
+	private static void putAll(VariablesSnapshot snapshot, Map<String,String> map) {
+		if ( snapshot.parent != null ) {
+			putAll(snapshot.parent, map);
+		}
+		for ( Map.Entry<String,String> entry : snapshot.variables.entrySet() ) {
+			if ( entry.getValue() != null ) {
+				map.put(entry.getKey(), entry.getValue());
+			}
+			else {
+				map.remove(entry.getKey());
+			}
+		}
+	}
+	
+	/**
+	 * Returns a new VariablesManager (mutable) with the variables of this snapshot
+	 * @return
+	 */
+	public VariablesManager toVariablesManager() {
+		return new VariablesManager(toMap());
+	}
+	
+	/**
+	 * Replaces the variables in the given string 
+	 * @param s
+	 * @return
+	 */
+	public String replaceVariables(String s) {
+		if ( null == s ) return null ;
+		if ( s.length() < 3 ) return s ; // cannot contain "${x}"
+		return VariablesTemplate.compile(s).render(this::getVariableValue) ;
+	}
+	
+	/**
+	 * Replaces the variables of the given compiled template 
+	 * @param template
+	 * @return
+	 */
+	public String replaceVariablesInTemplate(VariablesTemplate template) {
+		return template.render(this::getVariableValue) ;
+	}
+	
+	/**
+	 * Replaces the variables in the characters read from the given Reader and writes the result in the given Writer 
+	 * (see VariablesManager)
+	 * @param reader
+	 * @param writer
+	 * @return the number of variables replaced
+	 * @throws IOException
+	 */
+	public int replaceVariables(Reader reader, Writer writer) throws IOException {
+		return new VariablesStreamReplacer(this::getVariableValue).replace(reader, writer);
+	}
+
+	/**
+	 * Builder for a snapshot derived from another one (not thread-safe)
+	 */
+	public static final class Builder {
+		
+		private final VariablesSnapshot parent ;
+		private final Map<String,String> overrides = new HashMap<>();
+
+		private Builder(VariablesSnapshot parent) {
+			this.parent = parent;
+		}
+		
+		/**
+		 * Set a variable (create or override)
+		 * @param variableName
+		 * @param variableValue
+		 * @return
+		 */
+		public Builder setVariable(String variableName, String variableValue) {
+			if ( null == variableName ) throw new IllegalArgumentException("Variable name is null") ;
+			if ( null == variableValue ) throw new IllegalArgumentException("Variable value is null") ;
+			overrides.put(variableName, variableValue);
+			return this ;
+		}
+		
+		/**
+		 * Remove a variable (does nothing if the variable is not defined)
+		 * @param variableName
+		 * @return
+		 */
+		public Builder unsetVariable(String variableName) {
+			if ( null == variableName ) throw new IllegalArgumentException("Variable name is null") ;
+			overrides.put(variableName, null);
+			return this ;
+		}
+		
+		/**
+		 * Builds the new snapshot 
+		 * @return
+		 */
+		public VariablesSnapshot build() {
+			if ( overrides.isEmpty() ) {
+				return parent ;
+			}
+			if ( parent.depth + 1 >= MAX_DEPTH ) {
+				// chain too long => flattened 
+				Map<String,String> map = parent.toMap();
+				for ( Map.Entry<String,String> entry : overrides.entrySet() ) {
+					if ( entry.getValue() != null ) {
+						map.put(entry.getKey(), entry.getValue());
+					}
+					else {
+						map.remove(entry.getKey());
+					}
+				}
+				return new VariablesSnapshot(null, Collections.unmodifiableMap(map));
+			}
+			return new VariablesSnapshot(parent, Collections.unmodifiableMap(new HashMap<>(overrides)));
+		}
+	}
+}
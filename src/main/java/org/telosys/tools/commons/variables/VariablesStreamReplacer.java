@@ -0,0 +1,158 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.variables;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.function.Function;
+
+/**
+ * Variables replacement from a Reader to a Writer, processed in fixed-size chunks <br>
+ * A '${VAR}' marker can cross the chunk boundaries. <br>
+ * The memory used is the same whatever the size of the input : <br>
+ * a marker longer than MAX_MARKER_LENGTH is not buffered : it is written as is up to the next '}' <br>
+ * (unknown variable, same result as VariablesTemplate rendering). <br>
+ * Not thread-safe (one instance per thread).
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+class VariablesStreamReplacer {
+
+	protected static final int CHUNK_SIZE = 8192 ;
+	
+	protected static final int MAX_MARKER_LENGTH = 256 ;
+
+	private final Function<String,String> values ;
+	private final char[] buffer ;
+	// current marker ( '$', '${' or '${VAR' )
+	private final StringBuilder marker = new StringBuilder();
+	// true after a too long marker : characters written as is up to the next '}' 
+	private boolean passThrough = false ;
+	private int numberOfReplacements = 0 ;
+	
+	/**
+	 * Constructor
+	 * @param values function returning the value of a variable (or null if no value)
+	 */
+	protected VariablesStreamReplacer(Function<String,String> values) {
+		this(values, CHUNK_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param values function returning the value of a variable (or null if no value)
+	 * @param chunkSize
+	 */
+	protected VariablesStreamReplacer(Function<String,String> values, int chunkSize) {
+		this.values = values ;
+		this.buffer = new char[chunkSize] ;
+	}
+	
+	/**
+	 * Reads the given Reader until the end, replaces the variables and writes the result in the given Writer <br>
+	 * (the Reader and the Writer are not closed)
+	 * @param reader
+	 * @param writer
+	 * @return the number of variables replaced 
+	 * @throws IOException
+	 */
+	protected int replace(Reader reader, Writer writer) throws IOException {
+		marker.setLength(0);
+		passThrough = false ;
+		numberOfReplacements = 0 ;
+		int n ;
+		while ( ( n = reader.read(buffer) ) >= 0 ) {
+			processChunk(n, writer);
+		}
+		// end of stream : incomplete marker (if any) kept as is 
+		writer.append(marker);
+		marker.setLength(0);
+		return numberOfReplacements ;
+	}
+	
+	private void processChunk(int n, Writer writer) throws IOException {
+		int literalStart = 0 ; // start of the current literal part in the buffer 
+		for ( int k = 0 ; k < n ; k++ ) {
+			char c = buffer[k];
+			if ( passThrough ) {
+				// end of the too long marker (included in the current literal part)
+				if ( c == '}' ) {
+					passThrough = false ;
+				}
+			}
+			else if ( marker.length() == 0 ) {
+				if ( c == '$' ) {
+					writer.write(buffer, literalStart, k - literalStart);
+					marker.append(c);
+					literalStart = k + 1 ;
+				}
+			}
+			else if ( marker.length() == 1 ) {
+				// '$' 
+				if ( c == '{' ) {
+					marker.append(c);
+					literalStart = k + 1 ;
+				}
+				else {
+					// not a variable
+					writer.append(marker);
+					marker.setLength(0);
+					if ( c == '$' ) {
+						marker.append(c);
+						literalStart = k + 1 ;
+					}
+					else {
+						literalStart = k ;
+					}
+				}
+			}
+			else {
+				// '${...' 
+				if ( c == '}' ) {
+					writeVariable(writer);
+				}
+				else {
+					marker.append(c);
+					if ( marker.length() > MAX_MARKER_LENGTH ) {
+						// too long to be a known variable : written as is up to the next '}' 
+						writer.append(marker);
+						marker.setLength(0);
+						passThrough = true ;
+					}
+				}
+				literalStart = k + 1 ;
+			}
+		}
+		if ( marker.length() == 0 && literalStart < n ) {
+			writer.write(buffer, literalStart, n - literalStart);
+		}
+	}
+	
+	private void writeVariable(Writer writer) throws IOException {
+		String value = values.apply(marker.substring(2));
+		if ( value != null ) {
+			writer.write(value);
+			numberOfReplacements++;
+		}
+		else {
+			// unknown variable : kept as is
+			writer.append(marker).append('}');
+		}
+		marker.setLength(0);
+	}
+}
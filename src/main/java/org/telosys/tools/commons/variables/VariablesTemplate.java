@@ -0,0 +1,185 @@
+/**
+ *  Copyright (C) 2008-2017  Telosys project org. ( http://www.telosys.org/ )
+ *
+ *  Licensed under the GNU LESSER GENERAL PUBLIC LICENSE, Version 3.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *          http://www.gnu.org/licenses/lgpl.html
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.telosys.tools.commons.variables;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * String containing variables (e.g. 'aaa${VAR1}bbb${VAR2}') parsed once in literal and variable segments <br>
+ * The template can be rendered many times (with different variables values) without any parsing. <br>
+ * A variable without value is kept as is ( '${VAR}' ). <br>
+ * A '${' without '}' after it is not a variable and is kept as is ( 'aa${bb' ). <br>
+ * Instances are immutable (usable by many threads).
+ * 
+ * @author Laurent Guerin
+ * @since 4.3.0
+ */
+public final class VariablesTemplate {
+
+	private static final String VAR_PREFIX = "${" ;
+	private static final char   VAR_SUFFIX = '}' ;
+	
+	/**
+	 * Max number of templates kept in the cache (an entry is evicted when this size is reached)
+	 */
+	private static final int CACHE_MAX_SIZE = 2000 ;
+	
+	/**
+	 * Max length of a source kept in the cache (longer sources are compiled at each call)
+	 */
+	private static final int CACHE_MAX_SOURCE_LENGTH = 1024 ;
+	
+	private static final Map<String, VariablesTemplate> cache = new ConcurrentHashMap<>();
+
+	private final String   source ;
+	// n+1 literals around n variables
+	private final String[] literals ;
+	// variables names ( 'VAR' )
+	private final String[] names ;
+	// variables as in the source ( '${VAR}' )
+	private final String[] markers ;
+	
+	/**
+	 * Returns the compiled template for the given source (from the cache if already compiled) <br>
+	 * Only short sources are kept in the cache (a large text is not retained after the call) 
+	 * @param source
+	 * @return
+	 */
+	public static VariablesTemplate compile(String source) {
+		if ( source == null ) throw new IllegalArgumentException("Template source is null") ;
+		if ( source.length() > CACHE_MAX_SOURCE_LENGTH ) {
+			return new VariablesTemplate(source);
+		}
+		VariablesTemplate template = cache.get(source);
+		if ( template == null ) {
+			template = new VariablesTemplate(source);
+			// cache full : evict one entry (not the whole cache)
+			Iterator<String> it = cache.keySet().iterator();
+			while ( cache.size() >= CACHE_MAX_SIZE && it.hasNext() ) {
+				it.next();
+				it.remove();
+			}
+			cache.put(source, template);
+		}
+		return template;
+	}
+	
+	/**
+	 * Constructor (parses the given source without using the cache)
+	 * @param source
+	 */
+	public VariablesTemplate(String source) {
+		if ( source == null ) throw new IllegalArgumentException("Template source is null") ;
+		this.source = source ;
+		List<String> literalsList = new ArrayList<>();
+		List<String> namesList = new ArrayList<>();
+		List<String> markersList = new ArrayList<>();
+		int start = 0 ;
+		while ( true ) {
+			int i = source.indexOf(VAR_PREFIX, start);
+			int j = ( i >= 0 ? source.indexOf(VAR_SUFFIX, i + 2) : -1 );
+			if ( j < 0 ) {
+				break;
+			}
+			literalsList.add(source.substring(start, i));
+			namesList.add(source.substring(i + 2, j));
+			markersList.add(source.substring(i, j + 1));
+			start = j + 1 ;
+		}
+		literalsList.add(source.substring(start));
+		this.literals = literalsList.toArray(new String[0]);
+		this.names = namesList.toArray(new String[0]);
+		this.markers = markersList.toArray(new String[0]);
+	}
+	
+	/**
+	 * Returns the template source
+	 * @return
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * Returns the number of variables in the template
+	 * @return
+	 */
+	public int getNumberOfVariables() {
+		return names.length;
+	}
+	
+	/**
+	 * Returns true if the template contains at least one variable
+	 * @return
+	 */
+	public boolean hasVariables() {
+		return names.length > 0 ;
+	}
+	
+	/**
+	 * Renders the template with the given variables values
+	 * @param values function returning the value of a variable (or null if no value)
+	 * @return
+	 */
+	public String render(Function<String,String> values) {
+		if ( names.length == 0 ) {
+			return source ;
+		}
+		StringBuilder sb = new StringBuilder(source.length() + 16 * names.length);
+		render(values, sb);
+		return sb.toString();
+	}
+	
+	/**
+	 * Renders the template with the given variables values in the given StringBuilder (no intermediate string)
+	 * @param values function returning the value of a variable (or null if no value)
+	 * @param sb
+	 */
+	public void render(Function<String,String> values, StringBuilder sb) {
+		for ( int k = 0 ; k < names.length ; k++ ) {
+			sb.append(literals[k]);
+			String value = values.apply(names[k]);
+			sb.append( value != null ? value : markers[k] );
+		}
+		sb.append(literals[names.length]);
+	}
+	
+	/**
+	 * Renders the template with the given variables values in the given Appendable (no intermediate string)
+	 * @param values function returning the value of a variable (or null if no value)
+	 * @param out
+	 * @throws IOException
+	 */
+	public void render(Function<String,String> values, Appendable out) throws IOException {
+		for ( int k = 0 ; k < names.length ; k++ ) {
+			out.append(literals[k]);
+			String value = values.apply(names[k]);
+			out.append( value != null ? value : markers[k] );
+		}
+		out.append(literals[names.length]);
+	}
+
+	@Override
+	public String toString() {
+		return source ;
+	}
+}
@@ -0,0 +1,148 @@
+package org.telosys.tools.commons;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledFilterTest {
+
+	private static final List<String> NAMES = Arrays.asList(
+			"python-web-rest", "java-jpa", "java-web-mvc", "angular-front", "doc", "", "héhé-€", "jpa", "RESTful");
+
+	private List<String> filterWithKeepElement(List<String> elements, List<String> criteria) {
+		List<String> result = new ArrayList<>();
+		for ( String element : elements ) {
+			if ( Filter.keepElement(element, criteria) ) {
+				result.add(element);
+			}
+		}
+		return result;
+	}
+
+	private static boolean globMatchesWithRegex(String pattern, String s) {
+		StringBuilder regex = new StringBuilder();
+		for ( char c : pattern.toCharArray() ) {
+			if ( c == '*' ) regex.append(".*");
+			else if ( c == '?' ) regex.append('.');
+			else regex.append(Pattern.quote(String.valueOf(c)));
+		}
+		return Pattern.compile(regex.toString(), Pattern.DOTALL).matcher(s).matches();
+	}
+
+	@Test
+	public void testNoCriteria() {
+		assertTrue(CompiledFilter.compile((List<String>)null).isMatchAll());
+		assertTrue(CompiledFilter.compile(new ArrayList<String>()).isMatchAll());
+		assertTrue(CompiledFilter.compile(Arrays.asList("aa", "*")).isMatchAll());
+		assertTrue(CompiledFilter.compile("").isMatchAll());
+		assertTrue(CompiledFilter.compileGlob(Arrays.asList("aa", "**")).isMatchAll());
+		assertFalse(CompiledFilter.compile(Arrays.asList("aa", "bb")).isMatchAll());
+		assertSame(NAMES, CompiledFilter.compile((List<String>)null).filter(NAMES));
+		assertSame(NAMES, CompiledFilter.compileGlob(Arrays.asList("*")).filter(NAMES));
+	}
+
+	@Test
+	public void testPlainCriteria() {
+		assertEquals(Arrays.asList("python-web-rest", "java-web-mvc"), 
+				CompiledFilter.compile(Arrays.asList("web")).filter(NAMES));
+		assertEquals(Arrays.asList("java-jpa", "java-web-mvc", "jpa"), 
+				CompiledFilter.compile(Arrays.asList("java", "jpa")).filter(NAMES));
+		assertEquals(Arrays.asList("héhé-€", "RESTful"), 
+				CompiledFilter.compile(Arrays.asList("é-€", "REST", "zzz")).filter(NAMES));
+		// void criterion => contained in all the elements
+		assertEquals(NAMES, CompiledFilter.compile(Arrays.asList("zzz", "")).filter(NAMES));
+		// same result as Filter
+		for ( List<String> criteria : Arrays.asList(Arrays.asList("a", "ja"), Arrays.asList("-", "st", "€"), Arrays.asList("doc")) ) {
+			assertEquals(filterWithKeepElement(NAMES, criteria), Filter.filter(NAMES, criteria));
+			assertEquals(filterWithKeepElement(NAMES, criteria), CompiledFilter.compile(criteria).filter(NAMES, true));
+		}
+	}
+
+	@Test
+	public void testPlainCriteriaRandom() {
+		Random random = new Random(20);
+		String chars = "aab-é€" ;
+		for ( int n = 0 ; n < 300 ; n++ ) {
+			List<String> criteria = new ArrayList<>();
+			int numberOfCriteria = 1 + random.nextInt(8);
+			for ( int c = 0 ; c < numberOfCriteria ; c++ ) {
+				criteria.add(randomString(random, chars, 1 + random.nextInt(4)));
+			}
+			List<String> elements = new ArrayList<>();
+			for ( int e = 0 ; e < 200 ; e++ ) {
+				elements.add(randomString(random, chars, random.nextInt(12)));
+			}
+			assertEquals(criteria.toString(), filterWithKeepElement(elements, criteria), CompiledFilter.compile(criteria).filter(elements));
+		}
+	}
+
+	@Test
+	public void testGlob() {
+		assertEquals(Arrays.asList("java-jpa", "java-web-mvc"), 
+				CompiledFilter.compileGlob(Arrays.asList("java*")).filter(NAMES));
+		assertEquals(Arrays.asList("java-jpa", "jpa"), 
+				CompiledFilter.compileGlob(Arrays.asList("*jpa")).filter(NAMES));
+		assertEquals(Arrays.asList("python-web-rest", "java-web-mvc"), 
+				CompiledFilter.compileGlob(Arrays.asList("*-web-*")).filter(NAMES));
+		assertEquals(Arrays.asList("doc", "jpa"), 
+				CompiledFilter.compileGlob(Arrays.asList("doc", "jpa")).filter(NAMES));
+		assertEquals(Arrays.asList(""), 
+				CompiledFilter.compileGlob(Arrays.asList("")).filter(NAMES));
+		assertEquals(Arrays.asList("java-jpa", "doc", "héhé-€"), 
+				CompiledFilter.compileGlob(Arrays.asList("j?va-?pa", "d?c", "h*-?")).filter(NAMES));
+		assertEquals(Collections.emptyList(), 
+				CompiledFilter.compileGlob(Arrays.asList("java", "?", "*jpa?")).filter(NAMES));
+	}
+
+	@Test
+	public void testGlobRandom() {
+		Random random = new Random(20);
+		for ( int n = 0 ; n < 3000 ; n++ ) {
+			List<String> patterns = new ArrayList<>();
+			int numberOfPatterns = 1 + random.nextInt(4);
+			for ( int c = 0 ; c < numberOfPatterns ; c++ ) {
+				patterns.add(randomString(random, "ab*?é", random.nextInt(6)));
+			}
+			CompiledFilter compiledFilter = CompiledFilter.compileGlob(patterns);
+			for ( int e = 0 ; e < 30 ; e++ ) {
+				String element = randomString(random, "abcé", random.nextInt(8));
+				boolean expected = false ;
+				for ( String pattern : patterns ) {
+					expected = expected || globMatchesWithRegex(pattern, element) ;
+				}
+				assertEquals(patterns + " / " + element, expected, compiledFilter.matches(element));
+			}
+		}
+	}
+
+	@Test
+	public void testParallel() {
+		Random random = new Random(20);
+		List<String> elements = new ArrayList<>();
+		for ( int e = 0 ; e < 50000 ; e++ ) {
+			elements.add(randomString(random, "abcdefgh_", 5 + random.nextInt(20)));
+		}
+		CompiledFilter compiledFilter = CompiledFilter.compileGlob(Arrays.asList("ab*", "*_h", "*cde*", "a?c*d"));
+		List<String> result = compiledFilter.filter(elements);
+		assertFalse(result.isEmpty());
+		assertEquals(result, compiledFilter.filter(elements, true));
+	}
+
+	private String randomString(Random random, String chars, int length) {
+		StringBuilder sb = new StringBuilder();
+		for ( int i = 0 ; i < length ; i++ ) {
+			sb.append(chars.charAt(random.nextInt(chars.length())));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,159 @@
+package org.telosys.tools.commons;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.exception.TelosysRuntimeException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks that DateUtil (DateFormatEngine) gives the same results as a new SimpleDateFormat 
+ */
+public class DateFormatEngineTest {
+
+	private static final String[] ZONES = { "UTC", "Europe/Paris", "America/Sao_Paulo", "Asia/Kolkata", "Australia/Lord_Howe" };
+	
+	private static final String[] PATTERNS = { "yyyy-MM-dd", "HH:mm:ss", "yyyy-MM-dd HH:mm:ss", "YYYY", "dd/MM/yy", 
+			"yyyyMMdd_HHmmss", "EEE, d MMM yyyy hh:mm a", "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "'week' w 'of' YYYY", "EEEEE MMMMM", 
+			"D", "DDD", "u", "[yyyy]", "'quoted''s' HH'h'" };
+	
+	private TimeZone defaultTimeZone ;
+	private Locale defaultLocale ;
+	
+	@Before
+	public void saveDefaults() {
+		defaultTimeZone = TimeZone.getDefault();
+		defaultLocale = Locale.getDefault();
+	}
+
+	@After
+	public void restoreDefaults() {
+		TimeZone.setDefault(defaultTimeZone);
+		Locale.setDefault(defaultLocale);
+	}
+	
+	private String sdfFormat(Date date, String pattern) {
+		return new SimpleDateFormat(pattern).format(date);
+	}
+	
+	private void checkFormat(Date date) {
+		for ( String pattern : PATTERNS ) {
+			assertEquals("pattern '" + pattern + "' date " + date.getTime(), sdfFormat(date, pattern), DateUtil.format(date, pattern));
+		}
+		assertEquals(sdfFormat(date, "yyyy-MM-dd"), DateUtil.dateISO(date));
+		assertEquals(sdfFormat(date, "HH:mm:ss"), DateUtil.timeISO(date));
+		assertEquals(sdfFormat(date, "yyyy-MM-dd HH:mm:ss"), DateUtil.dateTimeISO(date));
+	}
+	
+	@Test
+	public void testFormatSameAsSimpleDateFormat() {
+		Random random = new Random(12345);
+		long min = -6000000000000L ; // 1779 
+		long max =  7500000000000L ; // 2207
+		for ( String zone : ZONES ) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			for ( int i = 0 ; i < 500 ; i++ ) {
+				checkFormat(new Date(min + (long)(random.nextDouble() * (max - min))));
+			}
+			checkFormat(new Date(0));
+			checkFormat(new Date(-1));
+			checkFormat(new java.sql.Date(1543427985000L));
+		}
+	}
+
+	@Test
+	public void testFormatWithOtherLocales() {
+		Date date = new Date(1543427985000L);
+		for ( Locale locale : new Locale[] { Locale.FRANCE, new Locale("th", "TH"), new Locale("ja", "JP", "JP"), new Locale("ar", "SA") } ) {
+			Locale.setDefault(locale);
+			checkFormat(date);
+		}
+	}
+
+	private void checkParse(String s, String pattern) {
+		Date expected = null ;
+		try {
+			if ( pattern.length() == 8 && ! s.matches("[0-9:]{8}.*") ) {
+				// rejected by the DateUtil format check before parsing
+				throw new ParseException(s, 0);
+			}
+			SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+			dateFormat.setLenient(false);
+			expected = dateFormat.parse(s);
+		} catch (ParseException e) {
+			expected = null ;
+		}
+		Date actual = null ;
+		try {
+			if ( pattern.length() == 10 ) {
+				actual = DateUtil.parseDate(s);
+			}
+			else if ( pattern.length() == 8 ) {
+				actual = DateUtil.parseTime(s);
+			}
+			else {
+				actual = DateUtil.parseDateTime(s);
+			}
+			if ( expected == null ) {
+				fail("Exception expected for '" + s + "'");
+			}
+		} catch (TelosysRuntimeException e) {
+			actual = null ;
+		}
+		assertEquals("'" + s + "'", expected, actual);
+	}
+	
+	@Test
+	public void testParseSameAsSimpleDateFormat() {
+		String[] dates = { "2018-11-28", "2020-02-29", "2019-02-29", "2018-02-30", "2018-13-01", "2018-00-10", "2018-1-5", 
+				"2018-11-28xyz", "0018-11-28", "1582-10-10", "9999-12-31", "2018+11=28", "2018-11-3a", "1900-01-01", "2099-12-31", 
+				"2018-10-21" /* Sao Paulo gap at midnight */ };
+		String[] times = { "00:00:00", "23:59:59", "24:00:00", "12:60:00", "12:00:60", "12:00:00x", "12:00:0a" };
+		String[] dateTimes = { "2018-11-28 13:45:02", "2018-11-28 24:45:02", "2018-02-30 13:45:02", "2018 11 28 13:45:02", 
+				"2018-03-25 02:30:00" /* Paris gap */, "2018-10-28 02:30:00" /* Paris overlap */, "2018-11-28 3:45:02" };
+		for ( String zone : ZONES ) {
+			TimeZone.setDefault(TimeZone.getTimeZone(zone));
+			for ( String s : dates ) {
+				checkParse(s, "yyyy-MM-dd");
+			}
+			for ( String s : times ) {
+				checkParse(s, "HH:mm:ss");
+			}
+			for ( String s : dateTimes ) {
+				checkParse(s, "yyyy-MM-dd HH:mm:ss");
+			}
+		}
+	}
+	
+	@Test
+	public void testManyAndLongPatterns() {
+		Date date = new Date(1543427985000L);
+		// more patterns than the cache size 
+		for ( int i = 0 ; i < 1200 ; i++ ) {
+			String pattern = "'p" + i + "' yyyy-MM-dd" ;
+			assertEquals(sdfFormat(date, pattern), DateUtil.format(date, pattern));
+		}
+		// long pattern (not cached)
+		StringBuilder sb = new StringBuilder();
+		while ( sb.length() <= 100 ) {
+			sb.append("yyyy-MM-dd HH:mm:ss ");
+		}
+		String pattern = sb.toString();
+		assertEquals(sdfFormat(date, pattern), DateUtil.format(date, pattern));
+		assertEquals(sdfFormat(date, pattern + "z"), DateUtil.format(date, pattern + "z"));
+	}
+
+	@Test
+	public void testCurrentDateTime() {
+		assertEquals(19, PropUtil.currentDateTime().length());
+	}
+}
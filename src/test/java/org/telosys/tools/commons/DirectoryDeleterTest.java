@@ -0,0 +1,185 @@
+package org.telosys.tools.commons;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DirectoryDeleterTest {
+
+	private File createTree(String folderName) throws TelosysToolsException {
+		File folder = TestsEnv.getTmpExistingFolder(folderName);
+		DirUtil.deleteDirectory(folder);
+		for ( int d = 0 ; d < 4 ; d++ ) {
+			for ( int f = 0 ; f < 10 ; f++ ) {
+				FileUtil.writeString(new File(folder, "dir" + d + "/sub/file" + f + ".txt"), "x");
+			}
+		}
+		new File(folder, "empty/void").mkdirs();
+		File readOnly = new File(folder, "dir0/read-only.txt");
+		FileUtil.writeString(readOnly, "x");
+		readOnly.setWritable(false);
+		return folder ;
+	}
+
+	@Test
+	public void testDelete() throws TelosysToolsException {
+		File folder = createTree("dir-deleter/tree1");
+		DeleteReport report = new DirectoryDeleter(4).delete(folder);
+		assertTrue(report.isSuccess());
+		assertEquals(41, report.getDeletedFiles());
+		assertEquals(1 + 4 * 2 + 2, report.getDeletedDirectories());
+		assertFalse(folder.exists());
+	}
+
+	@Test
+	public void testDeleteInCurrentThread() throws TelosysToolsException {
+		File folder = createTree("dir-deleter/tree2");
+		DeleteReport report = new DirectoryDeleter(1).delete(folder);
+		assertTrue(report.isSuccess());
+		assertEquals(41, report.getDeletedFiles());
+		assertFalse(folder.exists());
+	}
+
+	@Test
+	public void testDeleteWithDirUtil() throws TelosysToolsException {
+		File folder = createTree("dir-deleter/tree3");
+		DirUtil.deleteDirectory(folder);
+		assertFalse(folder.exists());
+	}
+
+	@Test
+	public void testDeleteInBackground() throws TelosysToolsException, InterruptedException, ExecutionException {
+		File folder = createTree("dir-deleter/tree4");
+		Future<DeleteReport> future = DirUtil.deleteDirectoryInBackground(folder);
+		// renamed => the original directory doesn't exist anymore 
+		assertFalse(folder.exists());
+		DeleteReport report = future.get();
+		assertTrue(report.isSuccess());
+		assertEquals(41, report.getDeletedFiles());
+		File[] remaining = folder.getParentFile().listFiles((dir, name) -> name.startsWith(DirectoryDeleter.TRASH_PREFIX + "tree4"));
+		assertEquals(0, remaining.length);
+	}
+
+	@Test
+	public void testStaleTrashPurged() throws TelosysToolsException, InterruptedException, ExecutionException {
+		File parent = TestsEnv.getTmpExistingFolder("dir-deleter/stale");
+		DirUtil.deleteDirectory(parent);
+		// renamed directory left by a previous JVM 
+		File stale = new File(parent, DirectoryDeleter.TRASH_PREFIX + "old-123");
+		FileUtil.writeString(new File(stale, "templates.cfg"), "x");
+		FileUtil.writeString(new File(parent, "tree/file.txt"), "x");
+		
+		Future<DeleteReport> future = DirUtil.deleteDirectoryInBackground(new File(parent, "tree"));
+		assertEquals(1, future.get().getDeletedFiles());
+		// stale directory purged after the new one 
+		for ( int i = 0 ; i < 100 && stale.exists() ; i++ ) {
+			Thread.sleep(50);
+		}
+		assertFalse(stale.exists());
+		assertEquals(0, parent.listFiles().length);
+	}
+
+	@Test
+	public void testAllFailuresCollected() throws TelosysToolsException, IOException {
+		File folder = TestsEnv.getTmpExistingFolder("dir-deleter/tree5");
+		File locked = new File(folder, "locked");
+		locked.setWritable(true);
+		DirUtil.deleteDirectory(folder);
+		for ( String dir : new String[] { "dirA", "dirB" } ) {
+			for ( int f = 0 ; f < 10 ; f++ ) {
+				FileUtil.writeString(new File(folder, dir + "/file" + f + ".txt"), "x");
+			}
+		}
+		for ( int f = 0 ; f < 3 ; f++ ) {
+			FileUtil.writeString(new File(locked, "file" + f + ".txt"), "x");
+		}
+		// files in a read-only directory cannot be deleted (POSIX, not for 'root')
+		assertTrue(locked.setWritable(false));
+		try {
+			File probe = new File(locked, "probe.txt");
+			boolean canWrite ;
+			try {
+				canWrite = probe.createNewFile();
+			} catch (IOException e) {
+				canWrite = false ;
+			}
+			if ( canWrite ) {
+				probe.delete();
+			}
+			Assume.assumeFalse("Read-only directory is writable (root or non POSIX file system)", canWrite);
+
+			DeleteReport report = new DirectoryDeleter(4).delete(folder);
+			assertFalse(report.isSuccess());
+			// deletion continued after the failures : all the other files and directories deleted
+			assertEquals(20, report.getDeletedFiles());
+			assertEquals(2, report.getDeletedDirectories());
+			assertFalse(new File(folder, "dirA").exists());
+			assertFalse(new File(folder, "dirB").exists());
+			// 3 files + 'locked' and root directories (not empty)
+			List<String> failures = report.getFailures();
+			assertEquals(failures.toString(), 5, failures.size());
+			for ( int f = 0 ; f < 3 ; f++ ) {
+				File file = new File(locked, "file" + f + ".txt");
+				assertTrue(file.exists());
+				assertTrue(failures.stream().anyMatch(s -> s.contains(file.getPath())));
+			}
+			// same failures with DirUtil (exception with all the failures)
+			try {
+				DirUtil.deleteDirectory(folder);
+				fail("Exception expected");
+			} catch (TelosysToolsException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("(5 error(s))"));
+			}
+		}
+		finally {
+			locked.setWritable(true);
+			DirUtil.deleteDirectory(folder);
+		}
+		assertFalse(folder.exists());
+	}
+
+	@Test
+	public void testSymbolicLinkNotFollowed() throws TelosysToolsException, IOException {
+		File outside = TestsEnv.getTmpExistingFolder("dir-deleter/outside");
+		DirUtil.deleteDirectory(outside);
+		File outsideFile = new File(outside, "sub/target.txt");
+		FileUtil.writeString(outsideFile, "x");
+		File folder = createTree("dir-deleter/tree6");
+		File link = new File(folder, "dir1/link-to-outside");
+		try {
+			Files.createSymbolicLink(link.toPath(), outside.getAbsoluteFile().toPath());
+		} catch (UnsupportedOperationException | IOException e) {
+			Assume.assumeNoException("Symbolic links not supported", e);
+		}
+		assertTrue(new File(link, "sub/target.txt").exists()); // link usable
+
+		DeleteReport report = new DirectoryDeleter(4).delete(folder);
+		assertTrue(report.getFailures().toString(), report.isSuccess());
+		assertEquals(42, report.getDeletedFiles()); // link deleted as a file
+		assertFalse(folder.exists());
+		// link target not deleted
+		assertTrue(outside.isDirectory());
+		assertTrue(outsideFile.exists());
+		DirUtil.deleteDirectory(outside);
+	}
+
+	@Test(expected = TelosysToolsException.class)
+	public void testNotDirectory() throws TelosysToolsException {
+		File file = TestsEnv.getTmpFile("dir-deleter/file.txt");
+		FileUtil.writeString(file, "x");
+		new DirectoryDeleter().delete(file);
+	}
+}
@@ -0,0 +1,116 @@
+package org.telosys.tools.commons;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DirectoryScannerTest {
+
+	private static File root ;
+
+	@BeforeClass
+	public static void createTree() throws TelosysToolsException {
+		root = TestsEnv.getTmpExistingFolder("dir-scanner");
+		DirUtil.deleteDirectory(root);
+		for ( int d = 0 ; d < 4 ; d++ ) {
+			for ( int s = 0 ; s < 3 ; s++ ) {
+				for ( int f = 0 ; f < 5 ; f++ ) {
+					FileUtil.writeString(new File(root, "dir" + d + "/sub" + s + "/file" + f + ( f % 2 == 0 ? ".java" : ".txt" )), "x");
+				}
+			}
+			FileUtil.writeString(new File(root, "dir" + d + "/.git/config"), "x");
+		}
+		FileUtil.writeString(new File(root, "root.txt"), "x");
+		new File(root, "empty/void").mkdirs();
+	}
+
+	//--- Previous implementation (reference)
+	private void getDirectoryFilesWithListFiles(File directory, List<String> list, boolean recursive) {
+		for ( File entry : directory.listFiles() ) {
+			if ( entry.isDirectory() ) {
+				if ( recursive ) {
+					getDirectoryFilesWithListFiles(entry, list, recursive);
+				}
+			}
+			else {
+				list.add(entry.getAbsolutePath());
+			}
+		}
+	}
+
+	private List<String> toStrings(List<Path> paths) {
+		return paths.stream().map(Path::toString).collect(Collectors.toList());
+	}
+
+	private List<String> relativePaths(List<Path> paths) {
+		List<String> list = new ArrayList<>();
+		for ( Path path : paths ) {
+			list.add(root.toPath().relativize(path).toString().replace(File.separatorChar, '/'));
+		}
+		Collections.sort(list);
+		return list ;
+	}
+
+	@Test
+	public void testSameResultAsListFiles() throws TelosysToolsException {
+		for ( boolean recursive : new boolean[] { true, false } ) {
+			List<String> expected = new ArrayList<>();
+			getDirectoryFilesWithListFiles(root, expected, recursive);
+			assertEquals(expected, DirUtil.getDirectoryFiles(root, recursive));
+			assertEquals(expected, DirUtil.getDirectoryFiles(root, recursive, true));
+			DirectoryScanner scanner = new DirectoryScanner(recursive);
+			Path rootPath = root.getAbsoluteFile().toPath();
+			assertEquals(expected, toStrings(scanner.scan(rootPath)));
+			assertEquals(expected, toStrings(scanner.scanParallel(rootPath, new ForkJoinPool(3))));
+			try ( Stream<Path> stream = scanner.stream(rootPath) ) {
+				assertEquals(expected, toStrings(stream.collect(Collectors.toList())));
+			}
+		}
+		assertEquals(65, DirUtil.getDirectoryFiles(root, true).size());
+		assertEquals(1, DirUtil.getDirectoryFiles(root, false).size());
+	}
+
+	@Test
+	public void testIncludesExcludes() throws TelosysToolsException {
+		DirectoryScanner scanner = new DirectoryScanner(true, Arrays.asList("*.java"), Arrays.asList("dir1", "*/sub2"));
+		Path rootPath = root.toPath();
+		List<String> files = relativePaths(scanner.scan(rootPath));
+		assertEquals(3 * 2 * 3, files.size());
+		assertTrue(files.contains("dir0/sub0/file0.java"));
+		assertFalse(files.contains("dir0/sub0/file1.txt"));
+		assertFalse(files.contains("dir1/sub0/file0.java"));
+		assertFalse(files.contains("dir0/sub2/file0.java"));
+		assertEquals(files, relativePaths(scanner.scanParallel(rootPath)));
+		try ( Stream<Path> stream = scanner.stream(rootPath) ) {
+			assertEquals(files, relativePaths(stream.collect(Collectors.toList())));
+		}
+		// exclusion only 
+		scanner = new DirectoryScanner(true, null, Arrays.asList("*/.git", "*.txt"));
+		files = relativePaths(scanner.scan(rootPath));
+		assertEquals(4 * 3 * 3, files.size());
+		try ( Stream<Path> stream = scanner.stream(rootPath) ) {
+			// lazy : only the first files are read
+			assertEquals(2, stream.limit(2).count());
+		}
+	}
+
+	@Test(expected = TelosysToolsException.class)
+	public void testNotDirectory() throws TelosysToolsException {
+		new DirectoryScanner(true).scan(new File(root, "root.txt").toPath());
+	}
+}
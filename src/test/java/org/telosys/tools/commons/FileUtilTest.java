@@ -278,4 +278,23 @@ public class FileUtilTest extends TestCase {
 			// Exception expected 
 		}
 	}
+	public void testHasSameContent() {
+		File file1 = TestsEnv.getTmpFile("same-content/file1.bin");
+		File file2 = TestsEnv.getTmpFile("same-content/file2.bin");
+		byte[] content = new byte[10000] ;
+		for ( int i = 0 ; i < content.length ; i++ ) {
+			content[i] = (byte) i ;
+		}
+		FileUtil.write(file1, content);
+		FileUtil.write(file2, content);
+		assertTrue(FileUtil.hasSameContent(file1, file2));
+		content[9000] = 0 ; // after the first buffer
+		FileUtil.write(file2, content);
+		assertFalse(FileUtil.hasSameContent(file1, file2));
+		FileUtil.write(file2, new byte[10]);
+		assertFalse(FileUtil.hasSameContent(file1, file2));
+		FileUtil.write(file1, new byte[0]);
+		FileUtil.write(file2, new byte[0]);
+		assertTrue(FileUtil.hasSameContent(file1, file2));
+	}
 }
@@ -0,0 +1,172 @@
+package org.telosys.tools.commons;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JavaValueTest {
+
+	private static final String[] NUMBER_TYPES = { "byte", "short", "int", "long", "float", "double",
+			"java.math.BigDecimal", "java.math.BigInteger" } ;
+
+	private static final String[] DATE_TYPES = { "java.util.Date", "java.sql.Date", "java.sql.Time", "java.sql.Timestamp" } ;
+
+	private static final String[] NUMBERS = {
+			"0", "1", "-1", "+1", "-", "+", "--1", "+-1", "1-", "00012", "-0", " 1", "1 ", "1.", ".1", ".", "1.2.3",
+			"127", "128", "-128", "-129", "32767", "32768", "-32768", "-32769",
+			"2147483647", "2147483648", "-2147483648", "-2147483649", "21474836470",
+			"9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809",
+			"99999999999999999999999999999999999", "١٢", "1٣", "１", "1a", "a1", "0x10", "0X1P3", "0x1.8p1d", "0x",
+			"1e5", "1E-5", "1e", "1e+", "1e-", "e5", "1.5e3f", "1.5F", "1d", "1D", "1fd", "1f ", " 1f", "1 f",
+			"NaN", "-NaN", "NaNx", "Infinity", "-Infinity", "+Infinity", "Infinit", "infinity", "nan",
+			"1e2147483647", "1e2147483648", "1e-2147483648", "1e-2147483649", "1.5e-2147483648", "1e00000000000005",
+			"1e000000000000000000001", "1e12345678901", "1e١", "1.e3", ".e3", "1e3.5", "1e+3", "1e+-3",
+			"1.7976931348623157E309", "4.9E-325", "3.4028235E39", "\t12\n", "\u00001", "1\u0000" } ;
+
+	private static final String[] DATES = {
+			"2018-01-01", "2018-12-31", "2018-02-29", "2016-02-29", "2000-02-29", "1900-02-29", "2100-02-29", "2018-04-31",
+			"2018-13-01", "2018-00-10", "2018-01-00", "2018-01-32", "1850-06-15", "0000-01-01", "9999-12-31", "2018-1-01",
+			"2018-01-1", "18-01-01", "2018/01/01", "01/01/2018", "abcdefghij", "2018-01-01x", "2018-01-011", "2018-01-01 ",
+			" 2018-01-01", "2018-02-30E-1", "2018-001-01", "2018-01-01-", "-2018-01-01", "+2018-01-01", "2018-١٢-01",
+			"2018-11-04", "2018-10-28", "2018-03-25", "1582-10-10",
+			"12:00:00", "00:00:00", "23:59:59", "24:00:00", "12:60:00", "12:00:60", "12:00:0a", "12:00:0", "1:00:00", "12:00",
+			"12:00:001", "12:00:00x", "12345678", "123:45:6", "12:345:67", "12:00:00 ", "99:99:99", "00:00:00.000",
+			"2018-01-01 12:00:00", "2018-01-01 24:00:00", "2018-02-29 12:00:00", "2018-01-01T12:00:00", "2018-01-01 12:00",
+			"2018-01-01  12:00:00", "2018-01-01 12:00:00.5", "2018-11-04 00:30:00", "2018-03-25 02:30:00", "2018-10-28 02:30:00",
+			"1850-01-01 12:00:00", "2018-01-01 12:61:00", "2018-01-01 1:00:00", "2018-01-01-12:00:00", "abc", "2018", "" , "   " } ;
+
+	//--- Previous implementation (reference)
+	private boolean isValidForNumberTypeByParsing(String sValue, String type) {
+		if ( StrUtil.nullOrVoid(sValue) ) return true ;
+		try {
+			if ( "byte".equals(type) ) Byte.parseByte(sValue);
+			else if ( "short".equals(type) ) Short.parseShort(sValue);
+			else if ( "int".equals(type) ) Integer.parseInt(sValue);
+			else if ( "long".equals(type) ) Long.parseLong(sValue);
+			else if ( "float".equals(type) ) Float.parseFloat(sValue);
+			else if ( "double".equals(type) ) Double.parseDouble(sValue);
+			else if ( "java.math.BigDecimal".equals(type) ) new BigDecimal(sValue);
+			else if ( "java.math.BigInteger".equals(type) ) new BigInteger(sValue);
+			else return false ;
+			return true ;
+		} catch (Throwable e) {
+			return false ;
+		}
+	}
+
+	private boolean isValidForDateTypeByParsing(String sValue, String type) {
+		if ( StrUtil.nullOrVoid(sValue) ) return true ;
+		try {
+			if ( "java.util.Date".equals(type) ) {
+				int length = sValue.length();
+				if ( length == 10 ) DateUtil.parseDate(sValue);
+				else if ( length == 8 ) DateUtil.parseTime(sValue);
+				else if ( length == 19 ) DateUtil.parseDateTime(sValue);
+				else return false ;
+			}
+			else if ( "java.sql.Date".equals(type) ) DateUtil.parseDate(sValue);
+			else if ( "java.sql.Time".equals(type) ) DateUtil.parseTime(sValue);
+			else if ( "java.sql.Timestamp".equals(type) ) DateUtil.parseDateTime(sValue);
+			else return false ;
+			return true ;
+		} catch (Throwable e) {
+			return false ;
+		}
+	}
+
+	private void checkNumber(String value) {
+		for ( String type : NUMBER_TYPES ) {
+			assertEquals("'" + value + "' (" + type + ")",
+					isValidForNumberTypeByParsing(value, type), JavaValue.isValidForNumberType(value, type));
+		}
+	}
+
+	private void checkDate(String value) {
+		for ( String type : DATE_TYPES ) {
+			assertEquals("'" + value + "' (" + type + ") in " + TimeZone.getDefault().getID() + " " + Locale.getDefault(),
+					isValidForDateTypeByParsing(value, type), JavaValue.isValidForDateType(value, type));
+		}
+	}
+
+	@Test
+	public void testNumberTypes() {
+		assertTrue(JavaValue.isValidForNumberType(null, "int"));
+		assertTrue(JavaValue.isValidForNumberType("  ", "int"));
+		assertTrue(JavaValue.isValidForNumberType("-128", "byte"));
+		assertFalse(JavaValue.isValidForNumberType("128", "java.lang.Byte"));
+		assertTrue(JavaValue.isValidForNumberType("-2147483648", "java.lang.Integer"));
+		assertTrue(JavaValue.isValidForNumberType("1.5e3f", "java.lang.Float"));
+		assertTrue(JavaValue.isValidForNumberType("123456789012345678901234567890", "java.math.BigInteger"));
+		assertFalse(JavaValue.isValidForNumberType("1.5", "java.math.BigInteger"));
+		assertFalse(JavaValue.isValidForNumberType("1", "java.lang.String"));
+		for ( String value : NUMBERS ) {
+			checkNumber(value);
+		}
+	}
+
+	@Test
+	public void testNumbersRandom() {
+		Random random = new Random(15);
+		String chars = "0123456789000999+-.eEfFdDxXpP N١１ " ;
+		for ( int i = 0 ; i < 50000 ; i++ ) {
+			int length = 1 + random.nextInt(22);
+			StringBuilder sb = new StringBuilder();
+			for ( int n = 0 ; n < length ; n++ ) {
+				// mostly digits
+				sb.append( random.nextInt(3) == 0 ? chars.charAt(random.nextInt(chars.length())) : (char)('0' + random.nextInt(10)) );
+			}
+			checkNumber(sb.toString());
+		}
+	}
+
+	@Test
+	public void testNumbersLong() {
+		StringBuilder sb = new StringBuilder("-");
+		for ( int i = 0 ; i < 20000 ; i++ ) {
+			sb.append((char)('0' + (i % 10)));
+		}
+		checkNumber(sb.toString());
+		checkNumber(sb.toString() + ".5e-3");
+		checkNumber(sb.toString() + "x");
+	}
+
+	@Test
+	public void testDateTypes() {
+		TimeZone defaultTimeZone = TimeZone.getDefault();
+		Locale defaultLocale = Locale.getDefault();
+		try {
+			for ( String zone : new String[] { "UTC", "Europe/Paris", "America/Sao_Paulo", "Australia/Lord_Howe" } ) {
+				TimeZone.setDefault(TimeZone.getTimeZone(zone));
+				for ( Locale locale : new Locale[] { Locale.FRANCE, new Locale("th", "TH", "TH"), new Locale("ja", "JP", "JP") } ) {
+					Locale.setDefault(locale);
+					for ( String value : DATES ) {
+						checkDate(value);
+					}
+				}
+			}
+		} finally {
+			TimeZone.setDefault(defaultTimeZone);
+			Locale.setDefault(defaultLocale);
+		}
+	}
+
+	@Test
+	public void testDatesRandom() {
+		Random random = new Random(15);
+		for ( int i = 0 ; i < 5000 ; i++ ) {
+			String date = String.format("%04d-%02d-%02d", 1890 + random.nextInt(230), random.nextInt(14), random.nextInt(33));
+			String time = String.format("%02d:%02d:%02d", random.nextInt(26), random.nextInt(62), random.nextInt(62));
+			checkDate(date);
+			checkDate(time);
+			checkDate(date + " " + time);
+		}
+	}
+}
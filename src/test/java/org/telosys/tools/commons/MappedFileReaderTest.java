@@ -0,0 +1,93 @@
+package org.telosys.tools.commons;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MappedFileReaderTest {
+
+	private String readAll(Reader reader, int bufferSize) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		char[] buffer = new char[bufferSize];
+		int n ;
+		while ( ( n = reader.read(buffer) ) >= 0 ) {
+			sb.append(buffer, 0, n);
+		}
+		return sb.toString();
+	}
+
+	private void check(byte[] bytes, Charset charset) throws IOException {
+		String expected = readAll(new InputStreamReader(new ByteArrayInputStream(bytes), charset), 100);
+		for ( int bufferSize : new int[] { 1, 2, 3, 1000 } ) {
+			assertEquals(expected, readAll(new MappedFileReader(ByteBuffer.wrap(bytes), charset), bufferSize));
+		}
+	}
+
+	@Test
+	public void testDecoding() throws IOException {
+		String text = "abc\néèà €\r\n\uD83D\uDE00 (smiley) \uD83D\uDE01\n" ;
+		for ( Charset charset : new Charset[] { StandardCharsets.UTF_8, StandardCharsets.UTF_16, StandardCharsets.ISO_8859_1 } ) {
+			check(text.getBytes(charset), charset);
+		}
+		check(new byte[0], StandardCharsets.UTF_8);
+		// malformed input (replaced)
+		check(new byte[] { 'a', (byte) 0xC3, 'b', (byte) 0xFF, (byte) 0xF0, (byte) 0x9F }, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testSingleChar() throws IOException {
+		Reader reader = new MappedFileReader(ByteBuffer.wrap("a\uD83D\uDE00b".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+		assertEquals('a', reader.read());
+		assertEquals(0xD83D, reader.read());
+		assertEquals(0xDE00, reader.read());
+		assertEquals('b', reader.read());
+		assertEquals(-1, reader.read());
+		assertEquals(-1, reader.read());
+		reader.close();
+	}
+
+	@Test
+	public void testMappedFile() throws IOException {
+		File file = TestsEnv.getTmpFile("mapped/file.txt");
+		FileUtil.writeString(file, "line1\nligne 2 é\n");
+		ByteBuffer buffer = FileUtil.map(file);
+		assertEquals(file.length(), buffer.remaining());
+		assertEquals("line1\nligne 2 é\n", readAll(new MappedFileReader(buffer, StandardCharsets.UTF_8), 10));
+		assertEquals("line1\nligne 2 é\n", FileUtil.readString(file, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testNewReaderAboveThreshold() throws IOException {
+		File file = TestsEnv.getTmpFile("mapped/large-file.txt");
+		StringBuilder sb = new StringBuilder();
+		while ( sb.length() <= FileUtil.MAPPED_READ_THRESHOLD ) {
+			sb.append("Line ").append(sb.length()).append(" éèà\n");
+		}
+		String content = sb.toString();
+		FileUtil.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+		assertTrue(file.length() >= FileUtil.MAPPED_READ_THRESHOLD);
+		try ( Reader reader = FileUtil.newReader(file, StandardCharsets.ISO_8859_1) ) {
+			assertTrue(reader instanceof MappedFileReader);
+			assertEquals(content, readAll(reader, 8192));
+		}
+		// mapping disabled 
+		try ( Reader reader = FileUtil.newReader(file, StandardCharsets.ISO_8859_1, false) ) {
+			assertFalse(reader instanceof MappedFileReader);
+			assertEquals(content, readAll(reader, 8192));
+		}
+		FileUtil.delete(file);
+	}
+}
@@ -2,6 +2,10 @@ package org.telosys.tools.commons;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
 import org.junit.Test;
 
 public class NamingStyleConverterTest {
@@ -233,5 +237,89 @@ public class NamingStyleConverterTest {
 		assertEquals("a/b/c", c.toCamelCase("a/b/c", null) );
 		assertEquals("a/b/c", c.toCamelCase("a/b/c", "") );
 	}
-}
 
+	@Test
+	public void toStringBuilderTest() {
+		NamingStyleConverter c = new NamingStyleConverter();
+		StringBuilder sb = new StringBuilder("[");
+		c.appendSnakeCase("myVarName", sb);
+		sb.append("|");
+		c.appendAnacondaCase("myVarName", sb);
+		sb.append("|");
+		c.appendCamelCase("MY_VAR_NAME", sb);
+		sb.append("|");
+		c.appendPascalCase("my_var_name", sb);
+		sb.append("|");
+		c.appendPascalCase(null, sb);
+		sb.append("]");
+		assertEquals("[my_var_name|MY_VAR_NAME|myVarName|MyVarName|]", sb.toString());
+	}
+
+	@Test
+	public void convertListTest() {
+		NamingStyleConverter c = new NamingStyleConverter();
+		List<String> list = Arrays.asList("myVarName", "MY_VAR_NAME", null, "abc");
+		assertEquals(Arrays.asList("my_var_name", "my_var_name", "", "abc"), c.convert(list, NamingStyle.SNAKE_CASE));
+		assertEquals(Arrays.asList("MY_VAR_NAME", "MY_VAR_NAME", "", "ABC"), c.convert(list, NamingStyle.ANACONDA_CASE));
+		assertEquals(Arrays.asList("myvarname", "myVarName", "", "abc"), c.convert(list, NamingStyle.CAMEL_CASE));
+		assertEquals(Arrays.asList("Myvarname", "MyVarName", "", "Abc"), c.convert(list, NamingStyle.PASCAL_CASE));
+	}
+
+	@Test
+	public void cacheStatsTest() {
+		NamingStyleConverter.clearCache();
+		NamingStyleConverter c = new NamingStyleConverter();
+		assertEquals("my_var_name", c.toSnakeCase("myVarName"));
+		assertEquals("my_var_name", c.toSnakeCase("myVarName"));
+		assertEquals("my_var_name", c.convert("myVarName", NamingStyle.SNAKE_CASE));
+		NamingStyleCacheStats stats = NamingStyleConverter.getCacheStats(NamingStyle.SNAKE_CASE);
+		assertEquals(2, stats.getHits());
+		assertEquals(1, stats.getMisses());
+		assertEquals(0, stats.getEvictions());
+		assertEquals(1, stats.getSize());
+		assertEquals(0, NamingStyleConverter.getCacheStats(NamingStyle.PASCAL_CASE).getMisses());
+
+		try {
+			NamingStyleConverter.setCacheMaxSize(2);
+			c.toSnakeCase("a");
+			c.toSnakeCase("b"); // cache full => 1 eviction
+			stats = NamingStyleConverter.getCacheStats(NamingStyle.SNAKE_CASE);
+			assertEquals(1, stats.getEvictions());
+			assertEquals(2, stats.getSize());
+			assertEquals(2, stats.getMaxSize());
+			NamingStyleConverter.setCacheMaxSize(1); // shrink => 1 eviction 
+			stats = NamingStyleConverter.getCacheStats(NamingStyle.SNAKE_CASE);
+			assertEquals(2, stats.getEvictions());
+			assertEquals(1, stats.getSize());
+			// long string : converted but not cached
+			StringBuilder sb = new StringBuilder();
+			while ( sb.length() <= 200 ) {
+				sb.append("myVarName");
+			}
+			long misses = stats.getMisses();
+			assertEquals(c.toSnakeCase(sb.toString()), c.toSnakeCase(sb.toString()));
+			stats = NamingStyleConverter.getCacheStats(NamingStyle.SNAKE_CASE);
+			assertEquals(misses, stats.getMisses());
+			assertEquals(1, stats.getSize());
+		} finally {
+			NamingStyleConverter.setCacheMaxSize(NamingStyleConverter.DEFAULT_CACHE_MAX_SIZE);
+			NamingStyleConverter.clearCache();
+		}
+	}
+
+	@Test
+	public void specialCaseLocaleTest() {
+		Locale defaultLocale = Locale.getDefault();
+		NamingStyleConverter c = new NamingStyleConverter();
+		try {
+			assertEquals("id_value", c.toSnakeCase("ID_VALUE"));
+			Locale.setDefault(new Locale("tr", "TR"));
+			// same results as String.toLowerCase() and String.toUpperCase() in Turkish
+			assertEquals("ID_VALUE".toLowerCase(), c.toSnakeCase("ID_VALUE"));
+			assertEquals("id_value".toUpperCase(), c.toAnacondaCase("id_value"));
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+		assertEquals("stra\u00dfe_name".toUpperCase(), c.toAnacondaCase("stra\u00dfeName"));
+	}
+}
@@ -0,0 +1,119 @@
+package org.telosys.tools.commons;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StrTokenizerTest {
+
+	private List<String> tokens(StrTokenizer tokenizer, String s) {
+		List<String> list = new ArrayList<>();
+		tokenizer.reset(s);
+		while ( tokenizer.next() ) {
+			list.add(tokenizer.tokenString());
+		}
+		return list;
+	}
+
+	private void checkSameAsSplit(String s) {
+		List<String> list = tokens(new StrTokenizer(';'), s);
+		String[] expected = StrUtil.split(s, ';');
+		assertEquals(expected.length, list.size());
+		for ( int i = 0 ; i < expected.length ; i++ ) {
+			assertEquals(expected[i], list.get(i));
+		}
+	}
+
+	@Test
+	public void testSameAsSplit() {
+		checkSameAsSplit("aa;b;ccc;");
+		checkSameAsSplit("");
+		checkSameAsSplit("aaa");
+		checkSameAsSplit(";b;;");
+		checkSameAsSplit(";");
+		checkSameAsSplit(" a ; b ");
+		assertEquals(0, tokens(new StrTokenizer(';'), null).size());
+	}
+
+	@Test
+	public void testTrim() {
+		StrTokenizer tokenizer = new StrTokenizer(';', true);
+		List<String> list = tokens(tokenizer, "  Entity  ; ${BEAN_CLASS}.java ;\t${SRC}/${ROOT_PKG} ; bean.vm ;  ");
+		assertEquals(5, list.size());
+		assertEquals("Entity", list.get(0));
+		assertEquals("${BEAN_CLASS}.java", list.get(1));
+		assertEquals("${SRC}/${ROOT_PKG}", list.get(2));
+		assertEquals("bean.vm", list.get(3));
+		assertEquals("", list.get(4));
+		// reused tokenizer
+		assertEquals(2, tokens(tokenizer, "a;b").size());
+	}
+
+	@Test
+	public void testOffsetsAndView() {
+		String s = "ab ; cde" ;
+		StrTokenizer tokenizer = new StrTokenizer(';', true).reset(s);
+		assertTrue(tokenizer.next());
+		assertEquals(0, tokenizer.start());
+		assertEquals(2, tokenizer.end());
+		assertTrue(tokenizer.tokenEquals("ab"));
+		assertTrue(tokenizer.next());
+		assertEquals(5, tokenizer.start());
+		assertEquals(8, tokenizer.end());
+		CharSequence token = tokenizer.token();
+		assertEquals(3, token.length());
+		assertEquals('d', token.charAt(1));
+		assertEquals("de", token.subSequence(1, 3).toString());
+		assertEquals("cde", token.toString());
+		assertTrue(tokenizer.tokenStartsWith("cd"));
+		assertTrue(tokenizer.tokenEndsWith("de"));
+		assertFalse(tokenizer.tokenEndsWith("xcde"));
+		assertEquals(6, tokenizer.indexOf('d', 0));
+		assertEquals(-1, tokenizer.indexOf('a', 0));
+		assertFalse(tokenizer.next());
+		assertFalse(tokenizer.next());
+	}
+
+	@Test
+	public void testRange() {
+		StrTokenizer tokenizer = new StrTokenizer(',');
+		tokenizer.reset("xx[a,b]yy", 3, 6);
+		assertTrue(tokenizer.next());
+		assertEquals("a", tokenizer.tokenString());
+		assertTrue(tokenizer.next());
+		assertEquals("b", tokenizer.tokenString());
+		assertFalse(tokenizer.next());
+	}
+
+	@Test
+	public void testQuotes() {
+		StrTokenizer tokenizer = new StrTokenizer(',', true);
+		tokenizer.setQuotes('"', '"', true);
+		List<String> list = tokens(tokenizer, " \"a,b\" , c , \"d\" , \"e , f");
+		assertEquals(4, list.size());
+		assertEquals("a,b", list.get(0));
+		assertEquals("c", list.get(1));
+		assertEquals("d", list.get(2));
+		assertEquals("\"e , f", list.get(3)); // not closed
+
+		tokenizer = new StrTokenizer(',', true);
+		tokenizer.setQuotes('<', '>', false);
+		list = tokens(tokenizer, "<http://host/a?x=1,2>; rel=\"next\", <http://host/b>; rel=\"last\"");
+		assertEquals(2, list.size());
+		assertEquals("<http://host/a?x=1,2>; rel=\"next\"", list.get(0));
+		assertEquals("<http://host/b>; rel=\"last\"", list.get(1));
+	}
+
+	@Test
+	public void testStringBuilderInput() {
+		StringBuilder sb = new StringBuilder("a;b");
+		StrTokenizer tokenizer = new StrTokenizer(';').reset(sb);
+		assertTrue(tokenizer.next());
+		assertEquals("a", tokenizer.tokenString());
+	}
+}
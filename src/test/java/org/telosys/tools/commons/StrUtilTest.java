@@ -1,5 +1,7 @@
 package org.telosys.tools.commons;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigDecimal;
 
 import org.junit.Test;
@@ -8,6 +10,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class StrUtilTest {
@@ -257,6 +260,24 @@ public class StrUtilTest {
 		assertEquals( "ab&quot;cd", StrUtil.getProtectedString("ab\"cd") ) ;
 		assertEquals( "&quot;", StrUtil.getProtectedString("\"") ) ;
 		assertEquals( "&quot;&quot;", StrUtil.getProtectedString("\"\"") ) ;
+		String s = "abcd" ;
+		assertSame( s, StrUtil.getProtectedString(s) ) ;
+	}		
+
+	@Test
+	public void testGetProtectedStringAppendable() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		StrUtil.getProtectedString(null, sb) ;
+		StrUtil.getProtectedString("", sb) ;
+		assertEquals( "", sb.toString() ) ;
+		StrUtil.getProtectedString("ab\"cd", sb) ;
+		StrUtil.getProtectedString("[\"\"]", sb) ;
+		assertEquals( "ab&quot;cd[&quot;&quot;]", sb.toString() ) ;
+
+		StringWriter writer = new StringWriter();
+		StrUtil.getProtectedString("\"abcde\"", writer) ;
+		StrUtil.getProtectedString(" x ", writer) ;
+		assertEquals( "&quot;abcde&quot; x ", writer.toString() ) ;
 	}		
 
 	@Test
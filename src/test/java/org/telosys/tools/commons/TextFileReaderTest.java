@@ -4,7 +4,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import junit.env.telosys.tools.commons.TestsEnv;
 
 import org.junit.Test;
 
@@ -78,4 +85,32 @@ public class TextFileReaderTest {
         assertTrue ( reader.exists() ) ;
         assertEquals ( 6, reader.loadLines().size() );
 	}
+
+	@Test
+	public void testStreaming() {
+		File file = FileUtil.getFileByClassPath("/textfiles/file1.txt");
+		TextFileReader3 reader = new TextFileReader3(file.getAbsolutePath());
+		List<String> lines = new ArrayList<>();
+		assertEquals ( 6, reader.loadLines(lines::add) );
+		assertEquals ( reader.loadLines(), lines );
+		// same selected lines as 'loadLines'
+		try ( Stream<String> stream = reader.lines() ) {
+			assertEquals ( lines, stream.collect(Collectors.toList()) );
+		}
+	}
+
+	@Test
+	public void testCharset() {
+		File file = TestsEnv.getTmpFile("textfiles/latin1.txt");
+		FileUtil.write(file, "été\n\nhiver\n".getBytes(StandardCharsets.ISO_8859_1));
+		TextFileReader reader = new TextFileReader(file.getAbsolutePath(), StandardCharsets.ISO_8859_1) {
+			@Override
+			protected void parseLine(String line, List<String> lines) {
+				if ( ! line.isEmpty() ) {
+					lines.add(line);
+				}
+			}
+		};
+		assertEquals ( Arrays.asList("été", "hiver"), reader.loadLines() );
+	}
 }
@@ -1,5 +1,8 @@
 package org.telosys.tools.commons;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import junit.framework.TestCase;
 
 import org.telosys.tools.commons.XmlUtil;
@@ -23,5 +26,34 @@ public class XmlUtilTest extends TestCase {
 		assertEquals("ab&#039;cd&#039;", XmlUtil.escapeXml("ab'cd'") ) ;
 	}
 
+	public void testEscapeXmlLongStrings() {
+		String clean = "abcdefghijklmnopqrstuvwxyz0123456789 ?=;:/%~#{}[]()é€" ;
+		assertSame(clean, XmlUtil.escapeXml(clean) ) ;
+		// special char in each position (first block, next blocks and tail)
+		for ( int i = 0 ; i < clean.length() ; i++ ) {
+			String s = clean.substring(0, i) + "<" + clean.substring(i);
+			assertEquals(clean.substring(0, i) + "&lt;" + clean.substring(i), XmlUtil.escapeXml(s) ) ;
+		}
+		assertEquals("&amp;&lt;&gt;&#034;&#039;&amp;&lt;&gt;&#034;&#039;&amp;&lt;&gt;&#034;&#039;&amp;&lt;&gt;&#034;&#039;", 
+				XmlUtil.escapeXml("&<>\"'&<>\"'&<>\"'&<>\"'") ) ;
+		// chars with the same 6 lowest bits as special chars 
+		String noSpecial = "f|~bg\u0066\u0126\u0166\u017c\u0127" ;
+		assertSame(noSpecial, XmlUtil.escapeXml(noSpecial) ) ;
+	}
+
+	public void testEscapeXmlAppendable() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		XmlUtil.escapeXml(null, sb);
+		assertEquals("", sb.toString() ) ;
+		XmlUtil.escapeXml("abcd", sb);
+		XmlUtil.escapeXml("|ab <cd>|", sb);
+		XmlUtil.escapeXml("'", sb);
+		assertEquals("abcd|ab &lt;cd&gt;|&#039;", sb.toString() ) ;
+
+		StringWriter writer = new StringWriter();
+		XmlUtil.escapeXml("ab\"cd\" & efghijklmnopqrstuvwxyz", writer);
+		XmlUtil.escapeXml("", writer);
+		assertEquals("ab&#034;cd&#034; &amp; efghijklmnopqrstuvwxyz", writer.toString() ) ;
+	}
 
 }
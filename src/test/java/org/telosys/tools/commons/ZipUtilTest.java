@@ -1,10 +1,21 @@
 package org.telosys.tools.commons;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -81,4 +92,180 @@ public class ZipUtilTest {
 		assertNotNull(exception);
 	}
 
+	@Test
+	public void testParallelUnZip() throws TelosysToolsException, IOException {
+		print("Parallel unzip ... ");
+		String zipFileName = TestsEnv.getTestFileAbsolutePath(ZIP_FILE);
+		String sequentialFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/parallel-ref");
+		String parallelFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/parallel-4");
+		DirUtil.deleteDirectory(new File(parallelFolder));
+		printFileAndDir(zipFileName, parallelFolder);
+
+		ZipUtil.unzip(zipFileName, sequentialFolder, true );
+		ZipUtil.unzip(zipFileName, parallelFolder, true, 4 );
+
+		File destDir = new File(parallelFolder);
+		assertTrue(destDir.isDirectory());
+		assertEquals(12, destDir.listFiles().length); 
+		assertTrue((new File(parallelFolder, "templates.cfg")).exists());
+		assertTrue((new File(parallelFolder, "pom_xml.vm")).exists());
+		// same files with same content
+		List<String> sequentialFiles = DirUtil.getDirectoryFiles(new File(sequentialFolder), true);
+		List<String> parallelFiles = DirUtil.getDirectoryFiles(destDir, true);
+		assertEquals(sequentialFiles.size(), parallelFiles.size());
+		for ( String f : sequentialFiles ) {
+			String relativePath = f.substring(sequentialFolder.length());
+			File parallelFile = new File(parallelFolder + relativePath);
+			assertTrue(parallelFile.isFile());
+			assertArrayEquals(Files.readAllBytes(new File(f).toPath()), Files.readAllBytes(parallelFile.toPath()));
+		}
+	}
+
+	@Test
+	public void testParallelUnZipWithOneThread() throws TelosysToolsException {
+		String zipFileName = TestsEnv.getTestFileAbsolutePath(ZIP_FILE);
+		String destinationFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/parallel-1");
+		ZipUtil.unzip(zipFileName, destinationFolder, true, 1 );
+		assertEquals(12, new File(destinationFolder).listFiles().length); 
+	}
+
+	@Test
+	public void testParallelUnZipInvalidNumberOfThreads() throws TelosysToolsException {
+		String zipFileName = TestsEnv.getTestFileAbsolutePath(ZIP_FILE);
+		String destinationFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/parallel-x");
+		for ( int n : Arrays.asList(0, -1, ZipUtil.MAX_THREADS + 1) ) {
+			try {
+				ZipUtil.unzip(zipFileName, destinationFolder, true, n );
+				fail("Exception expected");
+			} catch (IllegalArgumentException e) {
+				print(" Expected exception : " + e.getMessage() );
+			}
+		}
+	}
+
+	@Test
+	public void testParallelUnZipInNonExistingFolderWithCreateFolderFalse() {
+		String zipFileName = TestsEnv.getTestFileAbsolutePath(ZIP_FILE);
+		String destinationFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/inex-dir3");
+		try {
+			ZipUtil.unzip(zipFileName, destinationFolder, false, 4 );
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			print(" Expected exception : " + e.getMessage() );
+		}
+	}
+
+	@Test
+	public void testUnZipStream() throws TelosysToolsException, IOException {
+		print("Unzip stream ... ");
+		String zipFileName = TestsEnv.getTestFileAbsolutePath(ZIP_FILE);
+		String destinationFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/stream-nocopy");
+		DirUtil.deleteDirectory(new File(destinationFolder));
+		try ( InputStream is = new FileInputStream(zipFileName) ) {
+			ZipUtil.unzip(is, destinationFolder, true, null);
+		}
+		File destDir = new File(destinationFolder);
+		assertEquals(12, destDir.listFiles().length); 
+		assertTrue((new File(destinationFolder, "templates.cfg")).exists());
+		assertTrue((new File(destinationFolder, "pom_xml.vm")).exists());
+	}
+
+	@Test
+	public void testUnZipStreamWithCopy() throws TelosysToolsException, IOException {
+		print("Unzip stream with copy ... ");
+		String zipFileName = TestsEnv.getTestFileAbsolutePath(ZIP_FILE);
+		String destinationFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/stream-copy");
+		String copyFileName = TestsEnv.getTmpFileOrFolderFullPath("unzip/stream-copy-dir/copy.zip");
+		DirUtil.deleteDirectory(new File(destinationFolder));
+		try ( InputStream is = new FileInputStream(zipFileName) ) {
+			ZipUtil.unzip(is, destinationFolder, true, copyFileName);
+		}
+		assertEquals(12, new File(destinationFolder).listFiles().length); 
+		// the copy is the same as the original zip file
+		assertArrayEquals(Files.readAllBytes(new File(zipFileName).toPath()), Files.readAllBytes(new File(copyFileName).toPath()));
+	}
+
+	@Test
+	public void testUnZipStreamInNonExistingFolderWithCreateFolderFalse() throws IOException {
+		String zipFileName = TestsEnv.getTestFileAbsolutePath(ZIP_FILE);
+		String destinationFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/inex-dir4");
+		try ( InputStream is = new FileInputStream(zipFileName) ) {
+			ZipUtil.unzip(is, destinationFolder, false, null);
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			print(" Expected exception : " + e.getMessage() );
+		}
+	}
+
+	private File createZipFile(String fileName, String... namesAndContents) throws IOException {
+		File file = new File(TestsEnv.getTmpFileOrFolderFullPath("unzip/" + fileName));
+		try ( ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file)) ) {
+			zos.putNextEntry(new ZipEntry("root/"));
+			for ( int i = 0 ; i < namesAndContents.length ; i += 2 ) {
+				zos.putNextEntry(new ZipEntry("root/" + namesAndContents[i]));
+				zos.write(namesAndContents[i+1].getBytes("UTF-8"));
+				zos.closeEntry();
+			}
+		}
+		return file;
+	}
+	
+	private String readFile(String folder, String name) throws IOException {
+		return new String(Files.readAllBytes(new File(folder, name).toPath()), "UTF-8");
+	}
+
+	@Test
+	public void testUnZipIncremental() throws TelosysToolsException, IOException {
+		print("Incremental unzip ... ");
+		File zip1 = createZipFile("incremental-v1.zip", "a.txt", "aaa", "b.txt", "bbb", "dir/c.txt", "ccc");
+		File zip2 = createZipFile("incremental-v2.zip", "a.txt", "aaa", "b.txt", "bbbb", "d.txt", "ddd");
+		String destinationFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/incremental");
+		String manifest = TestsEnv.getTmpFileOrFolderFullPath("unzip/incremental.manifest");
+		DirUtil.deleteDirectory(new File(destinationFolder));
+		Files.deleteIfExists(new File(manifest).toPath());
+		
+		// 1rst install : all files extracted
+		ZipUpdateResult r = ZipUtil.unzipIncremental(zip1.getAbsolutePath(), destinationFolder, manifest);
+		assertEquals(3, r.getExtractedFiles());
+		assertEquals(0, r.getUnchangedFiles());
+		assertEquals(0, r.getDeletedFiles());
+		assertEquals("ccc", readFile(destinationFolder, "dir/c.txt"));
+		assertTrue(new File(manifest).isFile());
+		
+		// same zip : nothing to do 
+		r = ZipUtil.unzipIncremental(zip1.getAbsolutePath(), destinationFolder, manifest);
+		assertEquals(0, r.getExtractedFiles());
+		assertEquals(3, r.getUnchangedFiles());
+		assertEquals(0, r.getDeletedFiles());
+		
+		// new version : 1 unchanged, 1 changed, 1 new, 1 removed
+		r = ZipUtil.unzipIncremental(zip2.getAbsolutePath(), destinationFolder, manifest);
+		assertEquals(2, r.getExtractedFiles());
+		assertEquals(1, r.getUnchangedFiles());
+		assertEquals(1, r.getDeletedFiles());
+		assertEquals("aaa",  readFile(destinationFolder, "a.txt"));
+		assertEquals("bbbb", readFile(destinationFolder, "b.txt"));
+		assertEquals("ddd",  readFile(destinationFolder, "d.txt"));
+		assertFalse(new File(destinationFolder, "dir/c.txt").exists());
+		assertFalse(new File(destinationFolder, "dir").exists()); // empty => deleted
+	}
+
+	@Test
+	public void testUnZipIncrementalWithoutManifest() throws TelosysToolsException, IOException {
+		print("Incremental unzip without manifest ... ");
+		File zip = createZipFile("incremental-nomanifest.zip", "a.txt", "aaa", "b.txt", "bbb");
+		String destinationFolder = TestsEnv.getTmpFileOrFolderFullPath("unzip/incremental-nomanifest");
+		String manifest = TestsEnv.getTmpFileOrFolderFullPath("unzip/incremental-nomanifest.manifest");
+		DirUtil.deleteDirectory(new File(destinationFolder));
+		// files installed by a standard unzip (no manifest)
+		ZipUtil.unzip(zip.getAbsolutePath(), destinationFolder, true);
+		Files.deleteIfExists(new File(manifest).toPath());
+		// file changed locally with the same size
+		Files.write(new File(destinationFolder, "b.txt").toPath(), "xxx".getBytes("UTF-8"));
+
+		ZipUpdateResult r = ZipUtil.unzipIncremental(zip.getAbsolutePath(), destinationFolder, manifest);
+		assertEquals(1, r.getExtractedFiles()); // b.txt : same size, different CRC
+		assertEquals(1, r.getUnchangedFiles()); // a.txt : same CRC
+		assertEquals("bbb", readFile(destinationFolder, "b.txt"));
+	}
 }
@@ -0,0 +1,68 @@
+package org.telosys.tools.commons.bundles;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.commons.TelosysToolsException;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TargetsFileTest {
+
+	@Test
+	public void testLoad() throws IOException, TelosysToolsException {
+		File file = TestsEnv.getTmpFile("targets/templates.cfg");
+		file.getParentFile().mkdirs();
+		String content = "# Targets \n"
+				+ "\n"
+				+ "   \n"
+				+ "  # comment \n"
+				+ "Entity ; ${BEAN_CLASS}.java ; ${SRC}/${ROOT_PKG}/bean ; bean.vm ; * \n"
+				+ "\tReadme;README.md;;readme.vm;1\n"
+				+ "Old format ; ${BEAN_CLASS}Dao.java ; ${SRC}/dao ; dao.vm \n"
+				+ "Invalid ; foo.txt ; bar \n"
+				+ "Extra ; a.txt ; f ; a.vm ; 1 ; ignored \n";
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+		TargetsFile targetsFile = new TargetsFile(file.getAbsolutePath());
+		assertTrue(targetsFile.exists());
+		List<TargetDefinition> list = targetsFile.load();
+		assertEquals(4, list.size());
+
+		TargetDefinition t = list.get(0);
+		assertEquals("Entity", t.getName());
+		assertEquals("${BEAN_CLASS}.java", t.getFile());
+		assertEquals("${SRC}/${ROOT_PKG}/bean", t.getFolder());
+		assertEquals("bean.vm", t.getTemplate());
+		assertFalse(t.isOnce());
+
+		t = list.get(1);
+		assertEquals("Readme", t.getName());
+		assertEquals("README.md", t.getFile());
+		assertEquals("", t.getFolder());
+		assertEquals("readme.vm", t.getTemplate());
+		assertTrue(t.isOnce());
+
+		t = list.get(2);
+		assertEquals("Old format", t.getName());
+		assertEquals("dao.vm", t.getTemplate());
+		assertFalse(t.isOnce());
+
+		t = list.get(3);
+		assertEquals("Extra", t.getName());
+		assertTrue(t.isOnce());
+	}
+
+	@Test(expected = TelosysToolsException.class)
+	public void testNotFound() throws TelosysToolsException {
+		new TargetsFile(TestsEnv.getTmpFileFullPath("targets/not-found.cfg")).load();
+	}
+}
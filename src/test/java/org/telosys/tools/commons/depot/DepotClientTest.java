@@ -0,0 +1,66 @@
+package org.telosys.tools.commons.depot;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.commons.TelosysToolsException;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DepotClientTest {
+
+	/**
+	 * Implementation without 'downloadAndUnzipRepositoryBranch' (as before v 4.3.0) 
+	 */
+	private static class LegacyDepotClient implements DepotClient {
+		private String lastDownloadedFile = null ;
+		@Override
+		public DepotResponse getRepositories(Depot depot) throws TelosysToolsException {
+			throw new UnsupportedOperationException();
+		}
+		@Override
+		public long downloadRepositoryBranch(Depot depot, String repoName, String branch, String downloadedFile) throws TelosysToolsException {
+			lastDownloadedFile = downloadedFile ;
+			File zipFile = new File(TestsEnv.getTestFileAbsolutePath("zip/basic-templates-TT210.zip"));
+			try {
+				Files.copy(zipFile.toPath(), new File(downloadedFile).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				throw new TelosysToolsException("Cannot copy zip file", e);
+			}
+			return zipFile.length();
+		}
+	}
+
+	@Test
+	public void testDefaultDownloadAndUnzipWithTemporaryFile() throws TelosysToolsException {
+		File outputDir = new File(TestsEnv.getTmpFileOrFolderFullPath("depot-client/unzip1"));
+		DirUtil.deleteDirectory(outputDir);
+		LegacyDepotClient depotClient = new LegacyDepotClient();
+		depotClient.downloadAndUnzipRepositoryBranch(new Depot("github_org:my-org"), "basic-templates-TT210", "master", 
+				outputDir.getAbsolutePath(), null);
+		assertTrue(new File(outputDir, "templates.cfg").exists());
+		assertEquals(12, outputDir.listFiles().length);
+		// temporary zip file deleted
+		assertTrue( ! new File(depotClient.lastDownloadedFile).exists() );
+	}
+
+	@Test
+	public void testDefaultDownloadAndUnzipWithZipCopy() throws TelosysToolsException {
+		File outputDir = new File(TestsEnv.getTmpFileOrFolderFullPath("depot-client/unzip2"));
+		DirUtil.deleteDirectory(outputDir);
+		File zipCopy = new File(TestsEnv.getTmpExistingFolder("depot-client"), "copy.zip");
+		zipCopy.delete();
+		new LegacyDepotClient().downloadAndUnzipRepositoryBranch(new Depot("github_org:my-org"), "basic-templates-TT210", "master", 
+				outputDir.getAbsolutePath(), zipCopy.getAbsolutePath());
+		assertTrue(new File(outputDir, "templates.cfg").exists());
+		// zip file kept
+		assertTrue(zipCopy.exists());
+	}
+}
@@ -0,0 +1,65 @@
+package org.telosys.tools.commons.depot;
+
+import java.io.File;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.commons.TelosysToolsException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+public class DepotResponseCacheTest {
+
+	private DepotResponseCache buildCache(String folderName) throws TelosysToolsException {
+		File folder = TestsEnv.getTmpExistingFolder(folderName);
+		DirUtil.deleteDirectory(new File(folder, DepotResponseCache.CACHE_FOLDER_NAME));
+		return new DepotResponseCache(folder.getAbsolutePath());
+	}
+	
+	@Test
+	public void testPutAndGet() throws TelosysToolsException {
+		DepotResponseCache cache = buildCache("depot-cache-1");
+		String url = "https://api.github.com/orgs/telosys-templates/repos?per_page=100" ;
+		assertNull(cache.get(url));
+		
+		List<DepotElement> elements = new LinkedList<>();
+		elements.add(new DepotElement(1, "element-aaa", "desc A = é", 963, "master", "public"));
+		elements.add(new DepotElement(2, "element-bbb", "", 0, "main", "private"));
+		assertTrue(cache.put(new DepotCacheEntry(url, "W/\"abc\"", null, "<https://foo?page=2>; rel=\"next\"", elements)));
+		assertTrue(cache.getCacheFile(url).exists());
+
+		DepotCacheEntry entry = cache.get(url);
+		assertNotNull(entry);
+		assertEquals(url, entry.getUrl());
+		assertEquals("W/\"abc\"", entry.getEtag());
+		assertNull(entry.getLastModified());
+		assertEquals("<https://foo?page=2>; rel=\"next\"", entry.getLink());
+		assertEquals(2, entry.getElements().size());
+		DepotElement e = entry.getElements().get(0);
+		assertEquals(1L, e.getId());
+		assertEquals("element-aaa", e.getName());
+		assertEquals("desc A = é", e.getDescription());
+		assertEquals(963L, e.getSize());
+		assertEquals("master", e.getDefaultBranch());
+		assertEquals("public", e.getVisibility());
+		
+		// other URL
+		assertNull(cache.get(url + "&page=2"));
+	}
+
+	@Test
+	public void testPutWithoutValidator() throws TelosysToolsException {
+		DepotResponseCache cache = buildCache("depot-cache-2");
+		String url = "https://api.github.com/users/foo/repos" ;
+		assertFalse(cache.put(new DepotCacheEntry(url, null, null, null, new LinkedList<>())));
+		assertNull(cache.get(url));
+	}
+}
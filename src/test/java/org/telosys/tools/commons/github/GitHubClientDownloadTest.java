@@ -0,0 +1,119 @@
+package org.telosys.tools.commons.github;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.depot.Depot;
+import org.telosys.tools.commons.http.LocalHttpServer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+/**
+ * GitHub download with a local http server  
+ *  
+ * @author Laurent Guerin
+ *
+ */
+public class GitHubClientDownloadTest {
+
+	private static final String ZIP_FILE = "zip/basic-templates-TT210.zip" ;
+
+	private LocalHttpServer server ;
+	
+	/**
+	 * GitHub client using the local server for downloads
+	 */
+	private class LocalGitHubClient extends GitHubClient {
+		public LocalGitHubClient() {
+			super(TestsEnv.getTestFile("cfg/telosys-tools.cfg").getAbsolutePath());
+		}
+		@Override
+		protected String buildDownloadBranchURL(String userName, String repoName, String branch) {
+			return server.getURL("/" + userName + "/" + repoName + "/archive/refs/heads/" + branch + ".zip");
+		}
+	}
+	
+	@Before
+	public void startServer() throws Exception {
+		final byte[] zip = Files.readAllBytes(TestsEnv.getTestFile(ZIP_FILE).toPath());
+		server = new LocalHttpServer();
+		server.addHandler("/myorg/", exchange -> {
+			boolean found = exchange.getRequestURI().getPath().endsWith("/main.zip");
+			if ( found ) {
+				exchange.sendResponseHeaders(200, 0); // chunked
+				try ( OutputStream os = exchange.getResponseBody() ) {
+					// sent in small parts
+					for ( int i = 0 ; i < zip.length ; i += 1000 ) {
+						os.write(zip, i, Math.min(1000, zip.length - i));
+						os.flush();
+					}
+				}
+			}
+			else {
+				exchange.sendResponseHeaders(404, -1);
+				exchange.close();
+			}
+		});
+		server.start();
+	}
+	
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+	
+	private Depot getDepot() throws TelosysToolsException {
+		return new Depot("github_org : myorg ( " + server.getURL("") + " )");
+	}
+	
+	@Test
+	public void testDownloadAndUnzip() throws Exception {
+		File outputDir = new File(TestsEnv.getTmpFileOrFolderFullPath("github-download/unzip"));
+		File zipCopy = new File(TestsEnv.getTmpFileOrFolderFullPath("github-download/copy/basic-templates.zip"));
+		DirUtil.deleteDirectory(outputDir);
+		Files.deleteIfExists(zipCopy.toPath());
+		
+		new LocalGitHubClient().downloadAndUnzipRepositoryBranch(getDepot(), "basic-templates", "main", outputDir.getAbsolutePath(), zipCopy.getAbsolutePath());
+		
+		assertEquals(12, outputDir.listFiles().length); 
+		assertTrue(new File(outputDir, "templates.cfg").isFile());
+		assertArrayEquals(Files.readAllBytes(TestsEnv.getTestFile(ZIP_FILE).toPath()), Files.readAllBytes(zipCopy.toPath()));
+	}
+
+	@Test
+	public void testDownloadAndUnzipWithoutCopy() throws Exception {
+		File outputDir = new File(TestsEnv.getTmpFileOrFolderFullPath("github-download/unzip-nocopy"));
+		DirUtil.deleteDirectory(outputDir);
+		
+		new LocalGitHubClient().downloadAndUnzipRepositoryBranch(getDepot(), "basic-templates", "main", outputDir.getAbsolutePath(), null);
+		
+		assertEquals(12, outputDir.listFiles().length); 
+		assertTrue(new File(outputDir, "pom_xml.vm").isFile());
+	}
+
+	@Test
+	public void testDownloadAndUnzipNotFound() throws Exception {
+		File outputDir = new File(TestsEnv.getTmpFileOrFolderFullPath("github-download/unzip-notfound"));
+		File zipCopy = new File(TestsEnv.getTmpFileOrFolderFullPath("github-download/copy/notfound.zip"));
+		DirUtil.deleteDirectory(outputDir);
+		try {
+			new LocalGitHubClient().downloadAndUnzipRepositoryBranch(getDepot(), "basic-templates", "nobranch", outputDir.getAbsolutePath(), zipCopy.getAbsolutePath());
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			assertTrue(e.getMessage().contains("404"));
+		}
+		assertFalse(zipCopy.exists());
+	}
+}
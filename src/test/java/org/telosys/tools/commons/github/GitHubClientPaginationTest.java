@@ -0,0 +1,193 @@
+package org.telosys.tools.commons.github;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.commons.depot.Depot;
+import org.telosys.tools.commons.depot.DepotElement;
+import org.telosys.tools.commons.depot.DepotResponse;
+import org.telosys.tools.commons.depot.DepotResponseCache;
+import org.telosys.tools.commons.http.LocalHttpServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+/**
+ * GitHub pagination with a local http server  
+ *  
+ * @author Laurent Guerin
+ *
+ */
+public class GitHubClientPaginationTest {
+
+	private static final int NUMBER_OF_PAGES = 5 ;
+	private static final int ELEMENTS_PER_PAGE = 3 ;
+	
+	private LocalHttpServer server ;
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger inProgress = new AtomicInteger();
+	private final AtomicInteger maxInProgress = new AtomicInteger();
+	private final AtomicInteger notModified = new AtomicInteger();
+	private volatile int rateLimitRemaining = 5000 ;
+	private volatile int errorPage = -1 ;
+
+	private String pageURL(int page) {
+		return server.getURL("/orgs/myorg/repos?per_page=" + ELEMENTS_PER_PAGE + "&page=" + page);
+	}
+	
+	private String buildPageContent(int page) {
+		StringBuilder sb = new StringBuilder("[");
+		for ( int i = 1 ; i <= ELEMENTS_PER_PAGE ; i++ ) {
+			int id = ( page - 1 ) * ELEMENTS_PER_PAGE + i ;
+			if ( i > 1 ) sb.append(",");
+			sb.append("{\"id\":" + id + ",\"name\":\"repo" + (char)('a' + id) + "\",\"description\":\"d" + id + "\"," 
+					+ "\"size\":" + (id*10) + ",\"default_branch\":\"main\",\"visibility\":\"public\",\"other\":[1,2]}");
+		}
+		return sb.append("]").toString();
+	}
+	
+	@Before
+	public void startServer() throws Exception {
+		server = new LocalHttpServer();
+		server.addHandler("/orgs/myorg/repos", exchange -> {
+			requests.incrementAndGet();
+			int current = inProgress.incrementAndGet();
+			maxInProgress.accumulateAndGet(current, Math::max);
+			try {
+				String query = exchange.getRequestURI().getQuery();
+				int page = query.contains("&page=") ? Integer.parseInt(query.substring(query.indexOf("&page=") + 6)) : 1 ;
+				Thread.sleep(50);
+				int remaining = rateLimitRemaining - requests.get() ;
+				exchange.getResponseHeaders().set("X-RateLimit-Limit", "5000");
+				exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(remaining));
+				exchange.getResponseHeaders().set("X-RateLimit-Reset", "1700000000");
+				StringBuilder link = new StringBuilder();
+				if ( page < NUMBER_OF_PAGES ) {
+					link.append("<" + pageURL(page + 1) + ">; rel=\"next\", <" + pageURL(NUMBER_OF_PAGES) + ">; rel=\"last\"");
+				}
+				if ( link.length() > 0 ) {
+					exchange.getResponseHeaders().set("Link", link.toString());
+				}
+				String etag = "\"page-" + page + "\"" ;
+				if ( etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match")) ) {
+					notModified.incrementAndGet();
+					exchange.sendResponseHeaders(304, -1);
+					exchange.close();
+					return;
+				}
+				exchange.getResponseHeaders().set("ETag", etag);
+				int status = ( page == errorPage ) ? 403 : 200 ;
+				byte[] bytes = ( status == 200 ? buildPageContent(page) : "{}" ).getBytes("UTF-8");
+				exchange.sendResponseHeaders(status, bytes.length);
+				try ( OutputStream os = exchange.getResponseBody() ) {
+					os.write(bytes);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				inProgress.decrementAndGet();
+			}
+		});
+		server.start();
+	}
+	
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+	
+	private DepotResponse getRepositories(int maxParallelRequests) throws Exception {
+		return getRepositories(new GitHubClient(TestsEnv.getTestFile("cfg/telosys-tools.cfg").getAbsolutePath(), maxParallelRequests));
+	}
+	
+	private DepotResponse getRepositories(GitHubClient client) throws Exception {
+		Depot depot = new Depot("github_org : myorg ( " + server.getURL("") + " )");
+		return client.getRepositories(depot);
+	}
+	
+	private void checkAllElements(DepotResponse response) {
+		assertEquals(200, response.getHttpStatusCode());
+		List<DepotElement> elements = response.getElements();
+		assertEquals(NUMBER_OF_PAGES * ELEMENTS_PER_PAGE, elements.size());
+		for ( int i = 0 ; i < elements.size() ; i++ ) {
+			assertEquals(i + 1, elements.get(i).getId());
+		}
+		assertEquals(NUMBER_OF_PAGES, response.getNumberOfRequests());
+	}
+	
+	@Test
+	public void testPageURL() {
+		GitHubClient client = new GitHubClient(TestsEnv.getTestFile("cfg/telosys-tools.cfg").getAbsolutePath());
+		String url = "https://api.github.com/organizations/20856286/repos?per_page=100&page=4" ;
+		assertEquals(4, client.getPageNumber(url));
+		assertEquals("https://api.github.com/organizations/20856286/repos?per_page=100&page=2", client.buildPageURL(url, 2));
+		url = "https://api.github.com/user/repos?page=12&per_page=100" ;
+		assertEquals(12, client.getPageNumber(url));
+		assertEquals("https://api.github.com/user/repos?page=3&per_page=100", client.buildPageURL(url, 3));
+		assertEquals(-1, client.getPageNumber("https://api.github.com/user/repos?per_page=100"));
+		assertEquals(-1, client.getPageNumber("https://api.github.com/user/repos?subpage=2"));
+		assertEquals(-1, client.getPageNumber(null));
+	}
+
+	@Test
+	public void testSequential() throws Exception {
+		DepotResponse response = getRepositories(1);
+		checkAllElements(response);
+		assertEquals(1, maxInProgress.get());
+		assertEquals(5000 - NUMBER_OF_PAGES, response.getRateLimit().getRemainingAsInt());
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+		DepotResponse response = getRepositories(4);
+		checkAllElements(response);
+		assertTrue(maxInProgress.get() > 1);
+		assertTrue(maxInProgress.get() <= 4);
+		assertEquals(5000 - NUMBER_OF_PAGES, response.getRateLimit().getRemainingAsInt());
+	}
+
+	@Test
+	public void testParallelWithLowRateLimit() throws Exception {
+		rateLimitRemaining = 12 ; // 11 remaining after first page => sequential
+		DepotResponse response = getRepositories(4);
+		checkAllElements(response);
+		assertEquals(1, maxInProgress.get());
+	}
+
+	@Test
+	public void testParallelWithError() throws Exception {
+		errorPage = 3 ;
+		DepotResponse response = getRepositories(4);
+		assertEquals(403, response.getHttpStatusCode());
+		assertEquals(2 * ELEMENTS_PER_PAGE, response.getElements().size());
+		assertEquals(NUMBER_OF_PAGES, response.getNumberOfRequests());
+	}
+
+	@Test
+	public void testConditionalRequests() throws Exception {
+		File folder = TestsEnv.getTmpExistingFolder("github-pagination");
+		DirUtil.deleteDirectory(new File(folder, DepotResponseCache.CACHE_FOLDER_NAME));
+		DepotResponseCache cache = new DepotResponseCache(folder.getAbsolutePath());
+		GitHubClient client = new GitHubClient(TestsEnv.getTestFile("cfg/telosys-tools.cfg").getAbsolutePath(), 4, cache);
+		// 1rst call : full pages stored in cache
+		checkAllElements(getRepositories(client));
+		assertEquals(0, notModified.get());
+		// 2nd call : all pages not modified => rebuilt from cache
+		DepotResponse response = getRepositories(client);
+		checkAllElements(response);
+		assertEquals(NUMBER_OF_PAGES, notModified.get());
+		assertEquals(5000 - 2 * NUMBER_OF_PAGES, response.getRateLimit().getRemainingAsInt());
+		// 3rd call, sequential : same result
+		client = new GitHubClient(TestsEnv.getTestFile("cfg/telosys-tools.cfg").getAbsolutePath(), 1, cache);
+		checkAllElements(getRepositories(client));
+		assertEquals(2 * NUMBER_OF_PAGES, notModified.get());
+	}
+}
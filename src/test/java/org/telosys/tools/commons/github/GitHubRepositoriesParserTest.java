@@ -0,0 +1,127 @@
+package org.telosys.tools.commons.github;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.depot.DepotElement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GitHubRepositoriesParserTest {
+
+	private List<DepotElement> parse(String json) throws TelosysToolsException {
+		List<DepotElement> elements = new LinkedList<>();
+		new GitHubRepositoriesParser().parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), elements);
+		return elements;
+	}
+	
+	private void parseWithError(String json, String expectedMessage) {
+		try {
+			parse(json);
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			assertTrue(e.getMessage(), e.getMessage().startsWith(expectedMessage));
+		}
+	}
+	
+	private String repository(long id) {
+		return "{ \"id\": " + id + ", \"node_id\": \"MDEw\\\"OlJl\", \"name\": \"repo-" + id + "\", \"private\": false, " 
+				+ " \"owner\": { \"login\": \"telosys-templates\", \"id\": 20856286, \"urls\": [ \"a\", {\"b\": [1, 2.5e3, null]} ] }, "
+				+ " \"description\": \"Description \\u00e9t\\u00e9 \\ud83d\\ude00 \\\"quoted\\\" \\\\ / é\", \"fork\": false, "
+				+ " \"size\": " + (id * 100) + ", \"stargazers_count\": -12, \"score\": 1.5E-3, \"license\": null, "
+				+ " \"topics\": [], \"default_branch\": \"master\", \"visibility\": \"public\" }" ;
+	}
+	
+	private String page(int n) {
+		StringBuilder sb = new StringBuilder("[\n");
+		for ( int i = 1 ; i <= n ; i++ ) {
+			if ( i > 1 ) sb.append(",\n");
+			sb.append(repository(i));
+		}
+		return sb.append("\n]").toString();
+	}
+	
+	@Test
+	public void testEmptyArray() throws TelosysToolsException {
+		assertEquals(0, parse("[]").size());
+		assertEquals(0, parse(" [ \n ] ").size());
+	}
+
+	@Test
+	public void testRepositories() throws TelosysToolsException {
+		List<DepotElement> elements = parse(page(3));
+		assertEquals(3, elements.size());
+		DepotElement e = elements.get(1);
+		assertEquals(2L, e.getId());
+		assertEquals("repo-2", e.getName());
+		assertEquals("Description été 😀 \"quoted\" \\ / é", e.getDescription());
+		assertEquals(200L, e.getSize());
+		assertEquals("master", e.getDefaultBranch());
+		assertEquals("public", e.getVisibility());
+	}
+
+	@Test
+	public void testDefaultValues() throws TelosysToolsException {
+		List<DepotElement> elements = parse("[ {\"size\":12, \"description\":null, \"name\":null, \"id\":7 } ]");
+		DepotElement e = elements.get(0);
+		assertEquals(7L, e.getId());
+		assertEquals("(#7-no-name)", e.getName());
+		assertEquals("", e.getDescription());
+		assertEquals(12L, e.getSize());
+		assertEquals("", e.getDefaultBranch());
+		assertEquals("", e.getVisibility());
+	}
+
+	@Test
+	public void testSameResultAsJsonSimple() throws Exception {
+		String json = page(100);
+		List<DepotElement> elements = parse(json);
+		JSONArray array = (JSONArray) new JSONParser().parse(json);
+		assertEquals(array.size(), elements.size());
+		for ( int i = 0 ; i < array.size() ; i++ ) {
+			JSONObject o = (JSONObject) array.get(i);
+			DepotElement e = elements.get(i);
+			assertEquals(o.get("id"), e.getId());
+			assertEquals(o.get("name"), e.getName());
+			assertEquals(o.get("description"), e.getDescription());
+			assertEquals(o.get("size"), e.getSize());
+			assertEquals(o.get("default_branch"), e.getDefaultBranch());
+			assertEquals(o.get("visibility"), e.getVisibility());
+		}
+	}
+
+	@Test
+	public void testLongLimits() throws TelosysToolsException {
+		List<DepotElement> elements = parse("[ {\"id\":9223372036854775807, \"size\":-9223372036854775808}, {\"id\":-12, \"size\":0} ]");
+		assertEquals(Long.MAX_VALUE, elements.get(0).getId());
+		assertEquals(Long.MIN_VALUE, elements.get(0).getSize());
+		assertEquals(-12L, elements.get(1).getId());
+		assertEquals(0L, elements.get(1).getSize());
+	}
+
+	@Test
+	public void testErrors() {
+		parseWithError("{}", "JSON error : array expected as root");
+		parseWithError("", "JSON error : array expected as root");
+		parseWithError("[ {\"name\":\"foo\", \"size\":1} ]", "JSON error : attribute 'id' not found");
+		parseWithError("[ {\"id\":1, \"name\":\"foo\"} ]", "JSON error : attribute 'size' not found");
+		parseWithError("[ {\"id\":1.5, \"size\":1} ]", "JSON error : attribute 'id' is not a Integer");
+		parseWithError("[ {\"id\":\"1\", \"size\":1} ]", "JSON error : attribute 'id' is not a Integer");
+		parseWithError("[ {\"id\":9223372036854775808, \"size\":1} ]", "JSON error : attribute 'id' is not a Integer");
+		parseWithError("[ {\"id\":1, \"size\":-9223372036854775809} ]", "JSON error : attribute 'size' is not a Integer");
+		parseWithError("[ {\"id\":99999999999999999999999, \"size\":1} ]", "JSON error : attribute 'id' is not a Integer");
+		parseWithError("[ {\"id\":1, \"size\":1, \"name\":12} ]", "JSON error : attribute 'name' is not a String");
+		parseWithError("[ {\"id\":1, \"size\":1 ", "JSON error : cannot parse");
+		parseWithError("[ {\"id\":1, \"size\":1, \"x\": tru } ]", "JSON error : cannot parse");
+		parseWithError("[ {\"id\":1, \"size\":1} ] x", "JSON error : cannot parse");
+	}
+}
@@ -0,0 +1,103 @@
+package org.telosys.tools.commons.http;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.TelosysToolsException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+public class HttpClientChannelDownloadTest {
+
+	private static final int SIZE = 3 * 1024 * 1024 + 123 ;
+	
+	private final byte[] content = new byte[SIZE];
+	
+	private LocalHttpServer server ;
+	
+	@Before
+	public void startServer() throws Exception {
+		for ( int i = 0 ; i < SIZE ; i++ ) {
+			content[i] = (byte) ( i % 241 );
+		}
+		server = new LocalHttpServer();
+		server.addHandler("/fixed.zip", exchange -> {
+			exchange.sendResponseHeaders(200, SIZE);
+			try ( OutputStream os = exchange.getResponseBody() ) {
+				os.write(content);
+			}
+		});
+		server.addHandler("/chunked.zip", exchange -> {
+			exchange.sendResponseHeaders(200, 0); // length unknown 
+			try ( OutputStream os = exchange.getResponseBody() ) {
+				os.write(content);
+			}
+		});
+		server.addTextHandler("/notfound.zip", 404, "not found");
+		server.start();
+	}
+	
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+	
+	private File getDestFile(String name) throws Exception {
+		File file = new File(TestsEnv.getTmpExistingFolder("channel-download"), name);
+		Files.deleteIfExists(file.toPath());
+		return file ;
+	}
+	
+	private void download(String path) throws Exception {
+		File file = getDestFile("file.zip");
+		List<Long> bytes = new ArrayList<>();
+		List<Long> rates = new ArrayList<>();
+		long size = new HttpClient().downloadFile(server.getURL(path), file.getPath(), (b, rate) -> { bytes.add(b); rates.add(rate); } );
+		assertEquals(SIZE, size);
+		assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+		assertTrue(bytes.size() >= 1);
+		assertEquals(SIZE, bytes.get(bytes.size() - 1).longValue());
+		for ( Long rate : rates ) {
+			assertTrue(rate > 0);
+		}
+	}
+	
+	@Test
+	public void testDownloadFixedLength() throws Exception {
+		download("/fixed.zip");
+	}
+
+	@Test
+	public void testDownloadUnknownLength() throws Exception {
+		download("/chunked.zip");
+	}
+
+	@Test
+	public void testDownloadWithoutObserver() throws Exception {
+		File file = getDestFile("file-no-observer.zip");
+		assertEquals(SIZE, new HttpClient().downloadFile(server.getURL("/fixed.zip"), file.getPath(), null));
+		assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+	}
+
+	@Test
+	public void testDownloadNotFound() throws Exception {
+		File file = getDestFile("notfound.zip");
+		try {
+			new HttpClient().downloadFile(server.getURL("/notfound.zip"), file.getPath(), null);
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			assertEquals("Unexpected HTTP Response Code 404", e.getMessage());
+		}
+	}
+}
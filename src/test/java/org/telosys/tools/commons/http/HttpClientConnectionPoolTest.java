@@ -0,0 +1,129 @@
+package org.telosys.tools.commons.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.exception.TelosysRuntimeException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HttpClientConnectionPoolTest {
+
+	private static final int NUMBER_OF_REQUESTS = 3 ;
+	
+	private final PoolSystemProperties poolProperties = new PoolSystemProperties();
+	
+	@Before
+	public void saveProperties() {
+		poolProperties.saveAndClear();
+	}
+	
+	@After
+	public void restoreProperties() {
+		poolProperties.restore();
+	}
+	
+	private LocalHttpServer startServer() throws Exception {
+		LocalHttpServer server = new LocalHttpServer();
+		server.addTextHandler("/ok", 200, "hello");
+		server.addTextHandler("/notfound", 404, "not found");
+		return server.start();
+	}
+	
+	private void get(HttpClient httpClient, String url, int expectedStatus, String expectedBody) throws Exception {
+		Map<String, String> headers = new HashMap<>();
+		HttpResponse response = httpClient.get(url, headers);
+		assertEquals(expectedStatus, response.getStatusCode());
+		assertEquals(expectedBody, new String(response.getBodyContent(), "UTF-8"));
+	}
+	
+	@Test
+	public void testPoolDefaultValues() {
+		HttpConnectionPool pool = new HttpConnectionPool();
+		assertEquals(HttpConnectionPool.DEFAULT_MAX_CONNECTIONS, pool.getMaxConnections());
+		assertEquals(HttpConnectionPool.DEFAULT_IDLE_TIMEOUT, pool.getIdleTimeout());
+	}
+
+	@Test
+	public void testPoolInvalidValues() {
+		try {
+			new HttpConnectionPool(0, 10);
+			fail("Exception expected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testWithoutPool() throws Exception {
+		LocalHttpServer server = startServer();
+		try {
+			HttpClient httpClient = new HttpClient();
+			assertFalse(httpClient.isReusingConnections());
+			for ( int i = 0 ; i < NUMBER_OF_REQUESTS ; i++ ) {
+				get(httpClient, server.getURL("/ok"), 200, "hello");
+				get(httpClient, server.getURL("/notfound"), 404, "not found");
+				httpClient.head(server.getURL("/ok"), null);
+			}
+			// NB : number of connections depends on the JDK version ('disconnect()' may close the idle connection)
+			assertTrue(server.getNumberOfConnections() >= 1);
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testWithPool() throws Exception {
+		LocalHttpServer server = startServer();
+		try {
+			HttpClient httpClient = new HttpClient(null, new HttpConnectionPool(4, 30));
+			assertTrue(httpClient.isReusingConnections());
+			assertEquals("4", System.getProperty("http.maxConnections"));
+			for ( int i = 0 ; i < NUMBER_OF_REQUESTS ; i++ ) {
+				get(httpClient, server.getURL("/ok"), 200, "hello");
+				get(httpClient, server.getURL("/notfound"), 404, "not found");
+			}
+			assertEquals(1, server.getNumberOfConnections());
+		} finally {
+			server.stop();
+		}
+	}
+
+	@Test
+	public void testPoolPropertiesAlreadyDefined() {
+		System.setProperty("http.maxConnections", "4");
+		new HttpClient(null, new HttpConnectionPool(4, 30));
+		assertEquals("4", System.getProperty("http.maxConnections"));
+		assertEquals("30", System.getProperty("http.keepAlive.time.server"));
+		// another pool with the same values is accepted 
+		new HttpClient(null, new HttpConnectionPool(4, 30));
+		// another pool with different values is rejected (values not changed)
+		try {
+			new HttpClient(null, new HttpConnectionPool(2, 10));
+			fail("Exception expected");
+		} catch (TelosysRuntimeException e) {
+			assertTrue(e.getMessage().contains("http.maxConnections"));
+		}
+		assertEquals("4", System.getProperty("http.maxConnections"));
+		assertEquals("30", System.getProperty("http.keepAlive.time.server"));
+	}
+
+	@Test
+	public void testPoolConflictWithJvmProperty() {
+		System.setProperty("http.maxConnections", "7");
+		try {
+			new HttpClient(null, new HttpConnectionPool(4, 30));
+			fail("Exception expected");
+		} catch (TelosysRuntimeException e) {
+			assertTrue(e.getMessage().contains("'7'"));
+		}
+		// nothing set by the rejected pool
+		assertEquals(null, System.getProperty("http.keepAlive.time.server"));
+	}
+}
@@ -0,0 +1,169 @@
+package org.telosys.tools.commons.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.telosys.tools.commons.TelosysToolsException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+public class HttpClientResumableDownloadTest {
+
+	private static final int SIZE = 300 * 1000 ;
+	
+	private final byte[] content = new byte[SIZE];
+	private volatile String etag = "\"v1\"" ;
+	private volatile int failures = 0 ; // number of requests to interrupt 
+	private final AtomicInteger rangeRequests = new AtomicInteger();
+	
+	private LocalHttpServer server ;
+	
+	@Before
+	public void startServer() throws Exception {
+		for ( int i = 0 ; i < SIZE ; i++ ) {
+			content[i] = (byte) ( i % 253 );
+		}
+		server = new LocalHttpServer();
+		server.addHandler("/file.zip", exchange -> {
+			int start = 0 ;
+			String range = exchange.getRequestHeaders().getFirst("Range");
+			String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+			exchange.getResponseHeaders().set("ETag", etag);
+			if ( range != null && etag.equals(ifRange) ) {
+				rangeRequests.incrementAndGet();
+				start = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+				exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + (SIZE - 1) + "/" + SIZE);
+				exchange.sendResponseHeaders(206, SIZE - start);
+			}
+			else {
+				exchange.sendResponseHeaders(200, SIZE);
+			}
+			OutputStream os = exchange.getResponseBody();
+			if ( failures > 0 ) {
+				failures-- ;
+				// connection lost in the middle of the transfer
+				os.write(content, start, ( SIZE - start ) / 2);
+				os.flush();
+				throw new IOException("connection lost (test)");
+			}
+			os.write(content, start, SIZE - start);
+			os.close();
+		});
+		server.start();
+	}
+	
+	@After
+	public void stopServer() {
+		server.stop();
+	}
+	
+	private File getDestFile(String name) throws Exception {
+		File folder = TestsEnv.getTmpExistingFolder("resumable-download");
+		File file = new File(folder, name);
+		Files.deleteIfExists(file.toPath());
+		Files.deleteIfExists(new File(file.getPath() + HttpResumableDownloader.PART_SUFFIX).toPath());
+		Files.deleteIfExists(new File(file.getPath() + HttpResumableDownloader.VALIDATOR_SUFFIX).toPath());
+		return file ;
+	}
+	
+	private String sha256(byte[] bytes) throws Exception {
+		return HttpResumableDownloader.toHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+	}
+	
+	private void checkFile(File file) throws Exception {
+		assertTrue(file.exists());
+		assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+		assertFalse(new File(file.getPath() + HttpResumableDownloader.PART_SUFFIX).exists());
+		assertFalse(new File(file.getPath() + HttpResumableDownloader.VALIDATOR_SUFFIX).exists());
+	}
+	
+	@Test
+	public void testDownload() throws Exception {
+		File file = getDestFile("file1.zip");
+		HttpDownloadResult result = new HttpClient().downloadFileResumable(server.getURL("/file.zip"), file.getPath(), sha256(content));
+		checkFile(file);
+		assertEquals(SIZE, result.getFileSize());
+		assertEquals(sha256(content), result.getSha256());
+		assertEquals(0, result.getResumedBytes());
+		assertEquals(1, result.getAttempts());
+	}
+
+	@Test
+	public void testDownloadResumed() throws Exception {
+		File file = getDestFile("file2.zip");
+		failures = 1 ;
+		HttpDownloadResult result = new HttpClient().downloadFileResumable(server.getURL("/file.zip"), file.getPath(), null);
+		checkFile(file);
+		assertEquals(SIZE, result.getFileSize());
+		assertEquals(sha256(content), result.getSha256());
+		assertEquals(2, result.getAttempts());
+		assertTrue(result.getResumedBytes() > 0);
+		assertEquals(1, rangeRequests.get());
+	}
+
+	@Test
+	public void testDownloadResumedByNextCall() throws Exception {
+		File file = getDestFile("file3.zip");
+		failures = 3 ;
+		try {
+			new HttpClient().downloadFileResumable(server.getURL("/file.zip"), file.getPath(), null);
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			// expected : all attempts failed 
+		}
+		assertFalse(file.exists());
+		assertTrue(new File(file.getPath() + HttpResumableDownloader.PART_SUFFIX).exists());
+		// next call : resumed 
+		HttpDownloadResult result = new HttpClient().downloadFileResumable(server.getURL("/file.zip"), file.getPath(), null);
+		checkFile(file);
+		assertTrue(result.getResumedBytes() > 0);
+		assertEquals(sha256(content), result.getSha256());
+	}
+
+	@Test
+	public void testDownloadResourceChanged() throws Exception {
+		File file = getDestFile("file4.zip");
+		failures = 3 ;
+		try {
+			new HttpClient().downloadFileResumable(server.getURL("/file.zip"), file.getPath(), null);
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			// expected : all attempts failed 
+		}
+		// new version => 'If-Range' not matching => full content
+		etag = "\"v2\"" ;
+		rangeRequests.set(0);
+		HttpDownloadResult result = new HttpClient().downloadFileResumable(server.getURL("/file.zip"), file.getPath(), null);
+		checkFile(file);
+		assertEquals(0, result.getResumedBytes());
+		assertEquals(0, rangeRequests.get());
+	}
+
+	@Test
+	public void testInvalidSha256() throws Exception {
+		File file = getDestFile("file5.zip");
+		byte[] other = Arrays.copyOf(content, SIZE - 1);
+		try {
+			new HttpClient().downloadFileResumable(server.getURL("/file.zip"), file.getPath(), sha256(other));
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			assertTrue(e.getMessage().startsWith("Invalid SHA-256"));
+		}
+		assertFalse(file.exists());
+		assertFalse(new File(file.getPath() + HttpResumableDownloader.PART_SUFFIX).exists());
+	}
+}
@@ -0,0 +1,113 @@
+package org.telosys.tools.commons.http;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HttpStreamResponseTest {
+
+	private static final int BIG_SIZE = 1024 * 1024 ;
+
+	private LocalHttpServer server ;
+	
+	private final PoolSystemProperties poolProperties = new PoolSystemProperties();
+	
+	@Before
+	public void startServer() throws Exception {
+		poolProperties.saveAndClear();
+		server = new LocalHttpServer();
+		server.addTextHandler("/text", 200, "hello");
+		server.addTextHandler("/notfound", 404, "not found");
+		server.addHandler("/big", exchange -> {
+			exchange.sendResponseHeaders(200, BIG_SIZE);
+			byte[] chunk = new byte[1000];
+			try ( OutputStream os = exchange.getResponseBody() ) {
+				int remaining = BIG_SIZE ;
+				while ( remaining > 0 ) {
+					for ( int i = 0 ; i < chunk.length ; i++ ) {
+						chunk[i] = (byte) ( ( BIG_SIZE - remaining + i ) % 251 );
+					}
+					int n = Math.min(chunk.length, remaining);
+					os.write(chunk, 0, n);
+					remaining -= n ;
+				}
+			}
+		});
+		server.start();
+	}
+	
+	@After
+	public void stopServer() {
+		server.stop();
+		poolProperties.restore();
+	}
+	
+	private String readAll(InputStream is) throws Exception {
+		StringBuilder sb = new StringBuilder();
+		int c ;
+		while ( ( c = is.read() ) != -1 ) {
+			sb.append((char)c);
+		}
+		return sb.toString();
+	}
+	
+	@Test
+	public void testGetStream() throws Exception {
+		HttpClient httpClient = new HttpClient();
+		try ( HttpStreamResponse response = httpClient.getStream(server.getURL("/text"), null) ) {
+			assertEquals(200, response.getStatusCode());
+			assertEquals(5, response.getContentLength());
+			assertEquals("text/plain", response.getHeader("content-type"));
+			assertEquals("hello", readAll(response.getInputStream()));
+		}
+	}
+
+	@Test
+	public void testGetStreamError() throws Exception {
+		HttpClient httpClient = new HttpClient();
+		HttpRequest request = new HttpRequest(server.getURL("/notfound"));
+		try ( HttpStreamResponse response = httpClient.getStream(request) ) {
+			assertEquals(404, response.getStatusCode());
+			assertEquals("not found", readAll(response.getInputStream()));
+		}
+	}
+
+	@Test
+	public void testGetStreamBigBody() throws Exception {
+		HttpClient httpClient = new HttpClient();
+		try ( HttpStreamResponse response = httpClient.getStream(server.getURL("/big"), null) ) {
+			assertEquals(BIG_SIZE, response.getContentLength());
+			ReadableByteChannel channel = response.getChannel();
+			ByteBuffer buffer = ByteBuffer.allocate(8192);
+			long total = 0 ;
+			while ( channel.read(buffer) != -1 ) {
+				buffer.flip();
+				while ( buffer.hasRemaining() ) {
+					assertEquals((byte)(total % 251), buffer.get());
+					total++;
+				}
+				buffer.clear();
+			}
+			assertEquals(BIG_SIZE, total);
+		}
+	}
+
+	@Test
+	public void testStreamsWithConnectionPool() throws Exception {
+		HttpClient httpClient = new HttpClient(null, new HttpConnectionPool());
+		for ( int i = 0 ; i < 3 ; i++ ) {
+			HttpStreamResponse response = httpClient.getStream(server.getURL("/text"), null);
+			assertEquals("hello", readAll(response.getInputStream()));
+			response.close();
+			response.close(); // no effect 
+		}
+		assertEquals(1, server.getNumberOfConnections());
+	}
+}
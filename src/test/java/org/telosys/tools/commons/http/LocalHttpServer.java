@@ -0,0 +1,76 @@
+package org.telosys.tools.commons.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local http server for unit tests (no network required)
+ * 
+ * @author Laurent Guerin
+ *
+ */
+public class LocalHttpServer {
+
+	private final HttpServer server ;
+	
+	private final ExecutorService executor = Executors.newCachedThreadPool(); // concurrent requests 
+	
+	// remote ports used by the clients (1 port = 1 connection)
+	private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+	
+	public LocalHttpServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(executor);
+	}
+	
+	public void addHandler(String path, HttpHandler handler) {
+		server.createContext(path, exchange -> {
+			clientPorts.add(exchange.getRemoteAddress().getPort());
+			handler.handle(exchange);
+		});
+	}
+	
+	public void addTextHandler(String path, int status, String text) {
+		addHandler(path, exchange -> {
+			byte[] bytes = text.getBytes("UTF-8");
+			exchange.getResponseHeaders().set("Content-Type", "text/plain");
+			if ( "HEAD".equals(exchange.getRequestMethod()) ) {
+				exchange.sendResponseHeaders(status, -1); // no body
+				exchange.close();
+			}
+			else {
+				exchange.sendResponseHeaders(status, bytes.length);
+				try ( OutputStream os = exchange.getResponseBody() ) {
+					os.write(bytes);
+				}
+			}
+		});
+	}
+	
+	public LocalHttpServer start() {
+		server.start();
+		return this;
+	}
+	
+	public void stop() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+	
+	public String getURL(String path) {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + path ;
+	}
+	
+	public int getNumberOfConnections() {
+		return clientPorts.size();
+	}
+}
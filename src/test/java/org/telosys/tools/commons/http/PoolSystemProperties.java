@@ -0,0 +1,43 @@
+package org.telosys.tools.commons.http;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Process-wide system properties set by a connection pool : saved and cleared before a test, restored after 
+ * 
+ * @author Laurent Guerin
+ *
+ */
+public class PoolSystemProperties {
+
+	private static final String[] KEYS = { "http.keepAlive", "http.maxConnections", 
+			"http.keepAlive.time.server", "http.keepAlive.time.proxy" };
+	
+	private final Map<String, String> savedValues = new HashMap<>();
+	
+	/**
+	 * Saves the current values and clears the properties 
+	 */
+	public void saveAndClear() {
+		for ( String key : KEYS ) {
+			savedValues.put(key, System.getProperty(key));
+			System.clearProperty(key);
+		}
+	}
+	
+	/**
+	 * Restores the saved values 
+	 */
+	public void restore() {
+		for ( String key : KEYS ) {
+			String value = savedValues.get(key);
+			if ( value != null ) {
+				System.setProperty(key, value);
+			}
+			else {
+				System.clearProperty(key);
+			}
+		}
+	}
+}
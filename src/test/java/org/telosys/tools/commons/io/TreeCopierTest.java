@@ -0,0 +1,226 @@
+package org.telosys.tools.commons.io;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.commons.FileUtil;
+import org.telosys.tools.commons.TelosysToolsException;
+import org.telosys.tools.commons.exception.CancelException;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TreeCopierTest {
+
+	private File createSourceTree(String folderName) throws TelosysToolsException {
+		File folder = TestsEnv.getTmpExistingFolder(folderName);
+		DirUtil.deleteDirectory(folder);
+		for ( int d = 0 ; d < 5 ; d++ ) {
+			for ( int f = 0 ; f < 10 ; f++ ) {
+				FileUtil.writeString(new File(folder, "dir" + d + "/sub/file" + f + ".txt"), "file " + d + "-" + f);
+			}
+		}
+		FileUtil.writeString(new File(folder, "root.txt"), "root");
+		new File(folder, "empty/void").mkdirs();
+		return folder ;
+	}
+
+	private File getVoidFolder(String folderName) throws TelosysToolsException {
+		File folder = TestsEnv.getTmpExistingFolder(folderName);
+		DirUtil.deleteDirectory(folder);
+		return folder ;
+	}
+
+	@Test
+	public void testCopyTree() throws TelosysToolsException, CancelException {
+		File source = createSourceTree("tree-copier/src1");
+		File destination = getVoidFolder("tree-copier/dest1");
+		List<String> notifications = Collections.synchronizedList(new ArrayList<String>());
+		CopyHandler copyHandler = new CopyHandler() {
+			public void beforeCopy(File origin, File destination) {
+				notifications.add("before " + origin.getName());
+			}
+			public void afterCopy(File origin, File destination) {
+				assertTrue(destination.exists());
+				notifications.add("after " + origin.getName());
+			}
+		};
+		TreeCopier treeCopier = new TreeCopier(null, copyHandler, 4);
+		assertEquals(51, treeCopier.copyTree(source, destination));
+		assertEquals(102, notifications.size());
+		assertEquals("root", FileUtil.readString(new File(destination, "root.txt")));
+		assertEquals("file 3-7", FileUtil.readString(new File(destination, "dir3/sub/file7.txt")));
+		assertTrue(new File(destination, "empty/void").isDirectory());
+		// copy again : overwrite 'YES' (by default)
+		assertEquals(51, treeCopier.copyTree(source, destination));
+		// copy again : overwrite 'NO'
+		assertEquals(0, new TreeCopier(new DefaultOverwriteChooser(OverwriteChooser.NO), null, 4).copyTree(source, destination));
+	}
+
+	@Test
+	public void testCopyTreeInCurrentThread() throws TelosysToolsException, CancelException {
+		File source = createSourceTree("tree-copier/src2");
+		File destination = getVoidFolder("tree-copier/dest2");
+		assertEquals(51, new TreeCopier(null, null, 1).copyTree(source, destination));
+		assertEquals(51, DirUtil.getDirectoryFiles(destination, true).size());
+	}
+
+	@Test
+	public void testLegacyCopierInCurrentThread() throws TelosysToolsException, CancelException {
+		File source = createSourceTree("tree-copier/src7");
+		File destination = getVoidFolder("tree-copier/dest7");
+		Thread currentThread = Thread.currentThread();
+		List<String> notifications = new ArrayList<>();
+		CopyHandler copyHandler = new CopyHandler() {
+			public void beforeCopy(File origin, File destination) {
+				assertTrue(Thread.currentThread() == currentThread);
+				notifications.add("before " + origin.getPath());
+			}
+			public void afterCopy(File origin, File destination) {
+				assertTrue(Thread.currentThread() == currentThread);
+				notifications.add("after " + origin.getPath());
+			}
+		};
+		assertEquals(51, new ResourcesCopier(null, copyHandler).copy(source, destination));
+		assertEquals(102, notifications.size());
+		// one file after the other 
+		for ( int i = 0 ; i < notifications.size() ; i += 2 ) {
+			assertEquals(notifications.get(i).replace("before ", "after "), notifications.get(i + 1));
+		}
+	}
+
+	@Test
+	public void testCopyTreeCancel() throws TelosysToolsException, CancelException {
+		File source = createSourceTree("tree-copier/src3");
+		File destination = getVoidFolder("tree-copier/dest3");
+		assertEquals(51, FileUtil.copyFolderToFolder(source, destination, false));
+		AtomicInteger choices = new AtomicInteger();
+		OverwriteChooser overwriteChooser = new DefaultOverwriteChooser(OverwriteChooser.YES) {
+			@Override
+			public int choose(String fileName, String folderName) {
+				// cancel on the 11th file
+				return choices.incrementAndGet() <= 10 ? OverwriteChooser.YES : OverwriteChooser.CANCEL ;
+			}
+		};
+		try {
+			new TreeCopier(overwriteChooser, null, 4).copyTree(source, destination);
+			fail("CancelException expected");
+		} catch (CancelException e) {
+			assertEquals(11, choices.get());
+		}
+		assertEquals(-1, new ResourcesCopier(new DefaultOverwriteChooser(OverwriteChooser.CANCEL), null).copy(source, destination));
+	}
+
+	@Test
+	public void testCopyTreeSkipUnchanged() throws TelosysToolsException, CancelException {
+		File source = createSourceTree("tree-copier/src5");
+		File destination = getVoidFolder("tree-copier/dest5");
+		// first copy : all files copied (with the original times)
+		CopyResult result = FileUtil.copyFolderToFolder(source, destination, true, true);
+		assertEquals(51, result.getCopied());
+		assertEquals(0, result.getSkipped());
+		File copy = new File(destination, "dir1/sub/file1.txt");
+		assertEquals(new File(source, "dir1/sub/file1.txt").lastModified(), copy.lastModified());
+		// second copy : nothing copied (same size and time)
+		result = FileUtil.copyFolderToFolder(source, destination, true, true);
+		assertEquals(0, result.getCopied());
+		assertEquals(51, result.getSkipped());
+		// changes in destination : same content with another time, another content with same size, another size 
+		assertTrue(copy.setLastModified(copy.lastModified() - 10000));
+		long time = copy.lastModified();
+		File copy2 = new File(destination, "dir2/sub/file2.txt");
+		long time2 = copy2.lastModified();
+		FileUtil.writeString(copy2, "FILE 2-2");
+		assertTrue(copy2.setLastModified(time2 - 10000));
+		FileUtil.writeString(new File(destination, "dir3/sub/file3.txt"), "modified");
+		List<String> notifications = Collections.synchronizedList(new ArrayList<String>());
+		CopyHandler copyHandler = new CopyHandler() {
+			public void beforeCopy(File origin, File destination) {
+				notifications.add(origin.getName());
+			}
+			public void afterCopy(File origin, File destination) {
+			}
+		};
+		result = new ResourcesCopier(null, copyHandler, 4, true).copyAndReport(source, destination);
+		assertEquals(2, result.getCopied());
+		assertEquals(49, result.getSkipped());
+		assertEquals(2, notifications.size());
+		assertTrue(notifications.contains("file2.txt"));
+		assertTrue(notifications.contains("file3.txt"));
+		// same content => not rewritten, original time set for the next copy
+		assertEquals(new File(source, "dir1/sub/file1.txt").lastModified(), copy.lastModified());
+		assertEquals("file 2-2", FileUtil.readString(copy2));
+		// overwrite 'NO' 
+		FileUtil.writeString(copy2, "FILE 2-2");
+		File copy4 = new File(destination, "dir4/sub/file4.txt");
+		assertTrue(copy4.setLastModified(copy4.lastModified() - 10000));
+		result = FileUtil.copyFolderToFolder(source, destination, false, true);
+		// (the file with the same content and another time is compared : skipped)
+		assertEquals(0, result.getCopied());
+		assertEquals(50, result.getSkipped());
+		assertEquals(1, result.getNotOverwritten());
+		// single file
+		result = new ResourcesCopier(null, null, 1, true).copyAndReport(new File(source, "root.txt"), destination);
+		assertEquals(1, result.getSkipped());
+	}
+
+	@Test
+	public void testSkipUnchangedNoQuestionForSameContent() throws TelosysToolsException, CancelException {
+		File source = createSourceTree("tree-copier/src6");
+		File destination = getVoidFolder("tree-copier/dest6");
+		assertEquals(51, FileUtil.copyFolderToFolder(source, destination, false, true).getCopied());
+		// all the destination files : same content with another time
+		for ( String path : DirUtil.getDirectoryFiles(destination, true) ) {
+			File file = new File(path);
+			assertTrue(file.setLastModified(file.lastModified() - 10000));
+		}
+		FileUtil.writeString(new File(destination, "dir0/sub/file0.txt"), "FILE 0-0"); // same size, other content
+		for ( int threads : new int[] { 1, 4 } ) {
+			List<String> questions = Collections.synchronizedList(new ArrayList<String>());
+			OverwriteChooser overwriteChooser = new DefaultOverwriteChooser(OverwriteChooser.NO) {
+				@Override
+				public int choose(String fileName, String folderName) {
+					questions.add(fileName);
+					return OverwriteChooser.NO ;
+				}
+			};
+			CopyResult result = new TreeCopier(overwriteChooser, null, threads, true).copyTreeAndReport(source, destination);
+			assertEquals(Collections.singletonList("file0.txt"), questions);
+			assertEquals(0, result.getCopied());
+			assertEquals(50, result.getSkipped());
+			assertEquals(1, result.getNotOverwritten());
+			// times updated => nothing to compare for the next copy 
+			assertEquals(new File(source, "root.txt").lastModified(), new File(destination, "root.txt").lastModified());
+		}
+	}
+
+	@Test
+	public void testCopyTreeErrors() throws TelosysToolsException, CancelException {
+		File source = createSourceTree("tree-copier/src4");
+		File destination = getVoidFolder("tree-copier/dest4");
+		// a file where a directory is expected
+		FileUtil.writeString(new File(destination, "dir2"), "not a directory");
+		try {
+			new TreeCopier(null, null).copyTree(source, destination);
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			// no file copied (directories are created first)
+			assertFalse(new File(destination, "root.txt").exists());
+		}
+		try {
+			new TreeCopier(null, null).copyTree(new File(source, "root.txt"), destination);
+			fail("Exception expected");
+		} catch (TelosysToolsException e) {
+			// not a directory
+		}
+	}
+}
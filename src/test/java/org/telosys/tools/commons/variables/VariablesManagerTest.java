@@ -57,6 +57,8 @@ public class VariablesManagerTest extends TestCase {
 		assertEquals("   ", variablesManager.replaceVariables("   "));
 		assertEquals("aa", variablesManager.replaceVariables("aa"));
 		assertEquals(" a b $ c ", variablesManager.replaceVariables(" a b $ c "));
+		String noVariable = "no variable { } $" ;
+		assertSame(noVariable, variablesManager.replaceVariables(noVariable));
 		assertEquals("aaa${}zzz", variablesManager.replaceVariables("aaa${}zzz"));
 
 		// 1 variable in the original string
@@ -72,6 +74,18 @@ public class VariablesManagerTest extends TestCase {
 		// Multiple same variable in the original string
 		assertEquals("aaaVALUE1bbbVALUE1zzz", variablesManager.replaceVariables("aaa${VAR1}bbb${VAR1}zzz"));
 		assertEquals("aaaVALUE1bbbVALUE1cccVALUE2zzz", variablesManager.replaceVariables("aaa${VAR1}bbb${VAR1}ccc${VAR2}zzz"));
+
+		// Unknown variable and '}' before the variable 
+		assertEquals("aaa${FOO}zzz", variablesManager.replaceVariables("aaa${FOO}zzz"));
+		assertEquals("a}bVALUE1", variablesManager.replaceVariables("a}b${VAR1}"));
+		assertEquals("VALUE1}VALUE2", variablesManager.replaceVariables("${VAR1}}${VAR2}"));
+		assertEquals("x}y", variablesManager.replaceVariables("x}y"));
+
+		// Unterminated '${' kept as is (v 4.3.0, the text was removed before)
+		assertEquals("abc${XYZ", variablesManager.replaceVariables("abc${XYZ"));
+		assertEquals("a${", variablesManager.replaceVariables("a${"));
+		assertEquals("VALUE1${", variablesManager.replaceVariables("${VAR1}${"));
+		assertEquals("VALUE1 and ${VAR2", variablesManager.replaceVariables("${VAR1} and ${VAR2"));
 	}
 	
 	@Test
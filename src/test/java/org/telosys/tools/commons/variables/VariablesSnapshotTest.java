@@ -0,0 +1,106 @@
+package org.telosys.tools.commons.variables;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+public class VariablesSnapshotTest extends TestCase {
+
+	private VariablesManager getVariablesManagerInstance() {
+		HashMap<String,String> hm = new HashMap<>();
+		hm.put("ROOT_PKG", "org.demo");
+		hm.put("VAR1",     "VALUE1");
+		hm.put("VAR2",     "VALUE2");
+		return new VariablesManager(hm) ;
+	}
+
+	@Test
+	public void testSnapshot() {
+		VariablesManager vm = getVariablesManagerInstance();
+		VariablesSnapshot snapshot = vm.snapshot();
+		assertEquals(3, snapshot.getVariablesNames().size());
+		assertEquals("VALUE1", snapshot.getVariableValue("VAR1"));
+		assertNull(snapshot.getVariableValue("FOO"));
+		assertEquals("org.demo/VALUE2", snapshot.replaceVariables("${ROOT_PKG}/${VAR2}"));
+		// changes in the manager => no impact on the snapshot
+		vm.setVariable("VAR1", "new");
+		vm.unsetVariable("VAR2");
+		assertEquals("VALUE1", snapshot.getVariableValue("VAR1"));
+		assertEquals("VALUE2", snapshot.getVariableValue("VAR2"));
+	}
+
+	@Test
+	public void testSnapshotIsImmutable() {
+		Map<String,String> map = getVariablesManagerInstance().snapshot().toMap();
+		map.put("VAR1", "changed"); // a copy 
+		VariablesSnapshot snapshot = VariablesSnapshot.of(map);
+		map.put("VAR1", "changed again"); 
+		assertEquals("changed", snapshot.getVariableValue("VAR1"));
+	}
+
+	@Test
+	public void testDerive() {
+		VariablesSnapshot global = getVariablesManagerInstance().snapshot();
+		VariablesSnapshot scope = global.derive().setVariable("VAR1", "scope1").setVariable("NEW", "n").unsetVariable("VAR2").build();
+		assertEquals("scope1", scope.getVariableValue("VAR1"));
+		assertEquals("n", scope.getVariableValue("NEW"));
+		assertNull(scope.getVariableValue("VAR2"));
+		assertEquals("org.demo", scope.getVariableValue("ROOT_PKG"));
+		assertEquals(3, scope.getVariablesNames().size());
+		assertEquals("scope1-${VAR2}-n", scope.replaceVariables("${VAR1}-${VAR2}-${NEW}"));
+		// parent unchanged
+		assertEquals("VALUE1", global.getVariableValue("VAR1"));
+		assertEquals("VALUE2", global.getVariableValue("VAR2"));
+		assertNull(global.getVariableValue("NEW"));
+		// no change => same instance
+		assertSame(global, global.derive().build());
+	}
+
+	@Test
+	public void testDeepDerive() {
+		VariablesSnapshot snapshot = VariablesSnapshot.empty();
+		for ( int i = 0 ; i < 50 ; i++ ) {
+			snapshot = snapshot.derive().setVariable("V" + i, "" + i).setVariable("LAST", "" + i).build();
+		}
+		assertEquals(51, snapshot.getVariablesNames().size());
+		assertEquals("0", snapshot.getVariableValue("V0"));
+		assertEquals("49", snapshot.getVariableValue("LAST"));
+	}
+
+	@Test
+	public void testToVariablesManager() {
+		VariablesSnapshot scope = getVariablesManagerInstance().snapshot().derive().setVariable("VAR1", "x").build();
+		VariablesManager vm = scope.toVariablesManager();
+		assertEquals("x", vm.getVariableValue("VAR1"));
+		vm.setVariable("VAR1", "y");
+		assertEquals("x", scope.getVariableValue("VAR1"));
+	}
+
+	@Test
+	public void testSharedByThreads() throws Exception {
+		final VariablesSnapshot global = getVariablesManagerInstance().snapshot();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<String>> futures = new ArrayList<>();
+			for ( int i = 0 ; i < 100 ; i++ ) {
+				final String name = "Entity" + i ;
+				futures.add(executor.submit(() -> 
+					global.derive().setVariable("BEANNAME", name).build().replaceVariables("${ROOT_PKG}.${BEANNAME}") ));
+			}
+			for ( int i = 0 ; i < 100 ; i++ ) {
+				assertEquals("org.demo.Entity" + i, futures.get(i).get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,182 @@
+package org.telosys.tools.commons.variables;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.telosys.tools.commons.DirUtil;
+import org.telosys.tools.commons.TelosysToolsException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import junit.env.telosys.tools.commons.TestsEnv;
+
+public class VariablesStreamReplacerTest {
+
+	private static final String[] INPUTS = {
+			"", "a", "$", "${", "${}", "$$", "$${VAR1}", "${VAR1}", "${VAR1", "aaa${VAR1}bbb${VAR2}zzz",
+			"${VAR1}${VAR2}${VAR1}", "a}b${VAR1}", "${A${VAR1}", "x$y${FOO}z$", "${LONG_VARIABLE_NAME}/${VAR2}", 
+			"{$VAR1}", "$ {VAR1}", "${VAR1}$"
+	};
+	
+	private Map<String,String> getVariables() {
+		Map<String,String> hm = new HashMap<>();
+		hm.put("VAR1", "VALUE1");
+		hm.put("VAR2", "V2");
+		hm.put("LONG_VARIABLE_NAME", "long-value");
+		return hm ;
+	}
+	
+	private String replace(String s, int chunkSize) throws IOException {
+		StringWriter writer = new StringWriter();
+		new VariablesStreamReplacer(getVariables()::get, chunkSize).replace(new StringReader(s), writer);
+		return writer.toString();
+	}
+	
+	@Test
+	public void testSameResultAsTemplateForAllChunkSizes() throws IOException {
+		for ( String s : INPUTS ) {
+			String expected = new VariablesTemplate(s).render(getVariables()::get);
+			for ( int chunkSize = 1 ; chunkSize <= 12 ; chunkSize++ ) {
+				assertEquals("input '" + s + "' chunk " + chunkSize, expected, replace(s, chunkSize));
+			}
+			assertEquals(expected, replace(s, VariablesStreamReplacer.CHUNK_SIZE));
+		}
+	}
+
+	@Test
+	public void testLargeInput() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for ( int i = 0 ; i < 10000 ; i++ ) {
+			sb.append("line ").append(i).append(" ${VAR1} and ${VAR2} $ {x}\n");
+		}
+		String s = sb.toString();
+		String expected = new VariablesTemplate(s).render(getVariables()::get);
+		assertEquals(expected, replace(s, 100));
+		assertEquals(expected, replace(s, VariablesStreamReplacer.CHUNK_SIZE));
+	}
+
+	@Test
+	public void testNumberOfReplacements() throws IOException {
+		VariablesStreamReplacer replacer = new VariablesStreamReplacer(getVariables()::get, 4);
+		assertEquals(3, replacer.replace(new StringReader("${VAR1}-${VAR2}-${FOO}-${VAR1}"), new StringWriter()));
+		assertEquals(0, replacer.replace(new StringReader("no variable"), new StringWriter()));
+	}
+
+	@Test
+	public void testMarkerTooLong() throws IOException {
+		StringBuilder sb = new StringBuilder("${");
+		for ( int i = 0 ; i < VariablesStreamReplacer.MAX_MARKER_LENGTH ; i++ ) {
+			sb.append('x');
+		}
+		String s = sb.toString() + "} ${VAR1}" ;
+		assertEquals(sb.toString() + "} VALUE1", replace(s, 16));
+	}
+
+	@Test
+	public void testMarkerTooLongFollowedByVariable() throws IOException {
+		StringBuilder sb = new StringBuilder("${");
+		for ( int i = 0 ; i < 300 ; i++ ) {
+			sb.append('a');
+		}
+		String s = sb.toString() + " ${VAR1} end} ${VAR2} $" ;
+		// same result as the template : everything up to the next '}' is an unknown variable 
+		String expected = sb.toString() + " ${VAR1} end} V2 $" ;
+		assertEquals(expected, new VariablesTemplate(s).render(getVariables()::get));
+		for ( int chunkSize : new int[] { 1, 7, 64, VariablesStreamReplacer.CHUNK_SIZE } ) {
+			assertEquals("chunk " + chunkSize, expected, replace(s, chunkSize));
+		}
+		VariablesStreamReplacer replacer = new VariablesStreamReplacer(getVariables()::get, 16);
+		assertEquals(1, replacer.replace(new StringReader(s), new StringWriter()));
+		// state reset for the next stream
+		assertEquals("VALUE1", replace("${VAR1}", 16));
+	}
+
+	@Test
+	public void testVariablesManager() throws IOException {
+		VariablesManager vm = new VariablesManager(getVariables());
+		StringWriter writer = new StringWriter();
+		assertEquals(2, vm.replaceVariables(new StringReader("a${VAR1}b${VAR2}c"), writer));
+		assertEquals("aVALUE1bV2c", writer.toString());
+	}
+
+	@Test
+	public void testReplaceVariablesInFolder() throws IOException, TelosysToolsException {
+		File folder = TestsEnv.getTmpExistingFolder("variables-folder");
+		DirUtil.deleteDirectory(folder);
+		File subFolder = new File(folder, "sub");
+		DirUtil.createDirectory(subFolder);
+		int n = 20 ;
+		for ( int i = 0 ; i < n ; i++ ) {
+			File dir = ( i % 2 == 0 ? folder : subFolder );
+			Files.write(new File(dir, "file" + i + ".txt").toPath(), ("file " + i + " : ${VAR1}/${VAR2} é").getBytes(StandardCharsets.UTF_8));
+		}
+		Files.write(new File(folder, "novar.txt").toPath(), "no variable".getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(folder, "excluded.md").toPath(), "${VAR1}".getBytes(StandardCharsets.UTF_8));
+		
+		VariablesManager vm = new VariablesManager(getVariables());
+		int changed = vm.replaceVariablesInFolder(folder, f -> f.getName().endsWith(".txt"), StandardCharsets.UTF_8, 4);
+		
+		assertEquals(n, changed);
+		assertEquals("file 3 : VALUE1/V2 é", new String(Files.readAllBytes(new File(subFolder, "file3.txt").toPath()), StandardCharsets.UTF_8));
+		assertEquals("file 4 : VALUE1/V2 é", new String(Files.readAllBytes(new File(folder, "file4.txt").toPath()), StandardCharsets.UTF_8));
+		assertEquals("no variable", new String(Files.readAllBytes(new File(folder, "novar.txt").toPath()), StandardCharsets.UTF_8));
+		assertEquals("${VAR1}", new String(Files.readAllBytes(new File(folder, "excluded.md").toPath()), StandardCharsets.UTF_8));
+		// no temporary file 
+		assertEquals(n + 2, DirUtil.getDirectoryFiles(folder, true).size());
+	}
+
+	@Test
+	public void testReplaceVariablesInFolderBinaryFile() throws IOException, TelosysToolsException {
+		File folder = TestsEnv.getTmpExistingFolder("variables-folder-binary");
+		DirUtil.deleteDirectory(folder);
+		DirUtil.createDirectory(folder);
+		// invalid UTF-8 bytes around a variable
+		byte[] bytes = "\u0000${VAR1}".getBytes(StandardCharsets.UTF_8);
+		byte[] binary = Arrays.copyOf(bytes, bytes.length + 2);
+		binary[bytes.length] = (byte) 0xC3 ;
+		binary[bytes.length + 1] = (byte) 0xFF ;
+		Path binaryFile = new File(folder, "file.bin").toPath();
+		Files.write(binaryFile, binary);
+		Files.write(new File(folder, "file.txt").toPath(), "${VAR1}".getBytes(StandardCharsets.UTF_8));
+		// temporary file left by an interrupted process : ignored
+		Files.write(new File(folder, ".tmp-var-123.tmp").toPath(), "${VAR1}".getBytes(StandardCharsets.UTF_8));
+		
+		VariablesManager vm = new VariablesManager(getVariables());
+		assertEquals(1, vm.replaceVariablesInFolder(folder, null, StandardCharsets.UTF_8, 2));
+		assertArrayEquals(binary, Files.readAllBytes(binaryFile));
+		assertEquals("VALUE1", new String(Files.readAllBytes(new File(folder, "file.txt").toPath()), StandardCharsets.UTF_8));
+		assertEquals("${VAR1}", new String(Files.readAllBytes(new File(folder, ".tmp-var-123.tmp").toPath()), StandardCharsets.UTF_8));
+		assertEquals(3, DirUtil.getDirectoryFiles(folder, true).size());
+	}
+
+	@Test
+	public void testReplaceVariablesInFolderPermissions() throws IOException, TelosysToolsException {
+		File folder = TestsEnv.getTmpExistingFolder("variables-folder-permissions");
+		DirUtil.deleteDirectory(folder);
+		DirUtil.createDirectory(folder);
+		Path script = new File(folder, "run.sh").toPath();
+		Files.write(script, "echo ${VAR1}".getBytes(StandardCharsets.UTF_8));
+		assumeTrue(Files.getFileAttributeView(script, PosixFileAttributeView.class) != null);
+		Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-x---"));
+		
+		VariablesManager vm = new VariablesManager(getVariables());
+		assertEquals(1, vm.replaceVariablesInFolder(folder, null, StandardCharsets.UTF_8, 1));
+		assertEquals("echo VALUE1", new String(Files.readAllBytes(script), StandardCharsets.UTF_8));
+		assertEquals("rwxr-x---", PosixFilePermissions.toString(Files.getPosixFilePermissions(script)));
+		assertTrue(Files.isExecutable(script));
+	}
+}
@@ -0,0 +1,119 @@
+package org.telosys.tools.commons.variables;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+public class VariablesTemplateTest extends TestCase {
+
+	private Map<String,String> getVariables() {
+		Map<String,String> hm = new HashMap<>();
+		hm.put("VAR1", "VALUE1");
+		hm.put("VAR2", "VALUE2");
+		hm.put("EMPTY", "");
+		return hm ;
+	}
+	
+	private String render(String s) {
+		return new VariablesTemplate(s).render(getVariables()::get);
+	}
+	
+	@Test
+	public void testParsing() {
+		assertEquals(0, new VariablesTemplate("").getNumberOfVariables());
+		assertEquals(0, new VariablesTemplate("aaa").getNumberOfVariables());
+		assertEquals(0, new VariablesTemplate("aaa${VAR1").getNumberOfVariables());
+		assertEquals(1, new VariablesTemplate("${VAR1}").getNumberOfVariables());
+		assertEquals(2, new VariablesTemplate("a${VAR1}b${X}c").getNumberOfVariables());
+		assertFalse(new VariablesTemplate("a}b{c$").hasVariables());
+		assertEquals("a${VAR1}b", new VariablesTemplate("a${VAR1}b").getSource());
+	}
+
+	@Test
+	public void testRender() {
+		assertEquals("", render(""));
+		assertEquals("aa", render("aa"));
+		assertEquals("aaa${}zzz", render("aaa${}zzz"));
+		assertEquals("VALUE1", render("${VAR1}"));
+		assertEquals("aaaVALUE1bbbVALUE2zzz", render("aaa${VAR1}bbb${VAR2}zzz"));
+		assertEquals("VALUE1VALUE1", render("${VAR1}${VAR1}"));
+		assertEquals("ab", render("a${EMPTY}b"));
+		// unknown variable kept as is 
+		assertEquals("a${FOO}bVALUE2", render("a${FOO}b${VAR2}"));
+		// not closed 
+		assertEquals("aVALUE1b${VAR2", render("a${VAR1}b${VAR2"));
+		// '}' before '${'
+		assertEquals("a}bVALUE1", render("a}b${VAR1}"));
+		// nested : first '}' closes the variable
+		assertEquals("${A${VAR1}", render("${A${VAR1}"));
+	}
+
+	@Test
+	public void testRenderInStringBuilder() {
+		VariablesTemplate template = new VariablesTemplate("[${VAR1}]");
+		StringBuilder sb = new StringBuilder();
+		for ( int i = 0 ; i < 3 ; i++ ) {
+			template.render(getVariables()::get, sb);
+		}
+		assertEquals("[VALUE1][VALUE1][VALUE1]", sb.toString());
+		// reusable 
+		sb.setLength(0);
+		template.render(getVariables()::get, sb);
+		assertEquals("[VALUE1]", sb.toString());
+	}
+
+	@Test
+	public void testRenderInAppendable() throws IOException {
+		StringWriter writer = new StringWriter();
+		new VariablesTemplate("x=${VAR1}, y=${VAR2}").render(getVariables()::get, writer);
+		assertEquals("x=VALUE1, y=VALUE2", writer.toString());
+	}
+
+	@Test
+	public void testCache() {
+		VariablesTemplate t1 = VariablesTemplate.compile("aa${VAR1}bb");
+		VariablesTemplate t2 = VariablesTemplate.compile("aa${VAR1}bb");
+		assertSame(t1, t2);
+		assertEquals("aaVALUE1bb", t1.render(getVariables()::get));
+	}
+
+	@Test
+	public void testCacheLargeSource() {
+		StringBuilder sb = new StringBuilder();
+		while ( sb.length() <= 2000 ) {
+			sb.append("line ${VAR1}\n");
+		}
+		String source = sb.toString();
+		// large source : not kept in the cache
+		VariablesTemplate t1 = VariablesTemplate.compile(source);
+		VariablesTemplate t2 = VariablesTemplate.compile(source);
+		assertNotSame(t1, t2);
+		assertEquals(t1.render(getVariables()::get), t2.render(getVariables()::get));
+	}
+
+	@Test
+	public void testCacheFull() {
+		for ( int i = 0 ; i < 5000 ; i++ ) {
+			VariablesTemplate.compile("x${VAR1}" + i);
+		}
+		VariablesTemplate t1 = VariablesTemplate.compile("last${VAR1}");
+		assertSame(t1, VariablesTemplate.compile("last${VAR1}"));
+	}
+
+	@Test
+	public void testWithVariablesManager() {
+		VariablesManager vm = new VariablesManager(getVariables());
+		VariablesTemplate template = VariablesTemplate.compile("${VAR1}/${VAR2}");
+		assertEquals("VALUE1/VALUE2", vm.replaceVariablesInTemplate(template));
+		vm.setVariable("VAR1", "new");
+		assertEquals("new/VALUE2", vm.replaceVariablesInTemplate(template));
+		StringBuilder sb = new StringBuilder("> ");
+		vm.replaceVariablesInTemplate(template, sb);
+		assertEquals("> new/VALUE2", sb.toString());
+	}
+}